@@ -0,0 +1,106 @@
+package com.rdfsonto.importonto.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.util.Statements;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/**
+ * Statements per second of the tagging handler, without a cache (budget 0) and with the default cache budget.
+ * The input is small-onto.ttl replicated with renamed subjects, so predicates repeat while subjects are unique per copy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RDFStreamImportHandlerBenchmark
+{
+    private static final String ONTOLOGY = "/rdfs-test/small-onto.ttl";
+    private static final String TAG = "@1@1@";
+
+    @Param({"0", "33554432"})
+    private long cacheBudgetBytes;
+
+    @Param({"200"})
+    private int scale;
+
+    private List<Statement> statements;
+    private RDFStreamImportHandler importHandler;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void loadStatements() throws IOException
+    {
+        try (final var inputStream = RDFStreamImportHandlerBenchmark.class.getResourceAsStream(ONTOLOGY))
+        {
+            final var model = Rio.parse(inputStream, RDFFormat.TURTLE);
+            statements = new ArrayList<>(model.size() * scale);
+
+            for (int copy = 0; copy < scale; copy++)
+            {
+                for (final var statement : model)
+                {
+                    statements.add(Statements.statement(
+                        rename(statement.getSubject(), copy),
+                        statement.getPredicate(),
+                        statement.getObject(),
+                        null));
+                }
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createHandler()
+    {
+        importHandler = new RDFStreamImportHandler(new AbstractRDFHandler()
+        {
+        }, TAG, cacheBudgetBytes);
+        importHandler.start();
+        index = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportCache()
+    {
+        final var cache = importHandler.getTaggedIriCache();
+        System.out.printf("%ntagged IRI cache: hits=%d, misses=%d, hit ratio=%.3f%n", cache.getHits(), cache.getMisses(), cache.getHitRatio());
+    }
+
+    @Benchmark
+    public void handleStatement(final Blackhole blackhole)
+    {
+        importHandler.handleStatement(statements.get(index));
+        index = index + 1 == statements.size() ? 0 : index + 1;
+        blackhole.consume(index);
+    }
+
+    private static Resource rename(final Resource resource, final int copy)
+    {
+        if (resource instanceof IRI iri)
+        {
+            return Values.iri(iri.getNamespace(), iri.getLocalName() + "_" + copy);
+        }
+        return resource;
+    }
+}
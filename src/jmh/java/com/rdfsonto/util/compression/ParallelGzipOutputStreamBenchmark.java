@@ -0,0 +1,84 @@
+package com.rdfsonto.util.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+
+/**
+ * Megabytes of Turtle like text compressed per second. The baseline is the single threaded {@link GZIPOutputStream} fed in
+ * 1KB chunks as the export used to do, the parallel stream runs on a pool with the given number of threads. The score
+ * multiplied by {@code inputMegabytes} gives MB/s.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ParallelGzipOutputStreamBenchmark
+{
+    private static final int BASELINE_BUFFER_SIZE = 1024;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    @Param({"256"})
+    private int inputMegabytes;
+
+    private byte[] input;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void prepareInput()
+    {
+        final var text = new StringBuilder();
+        for (int line = 0; text.length() < inputMegabytes << 20; line++)
+        {
+            text.append("<http://www.example.com/onto#Class_").append(line)
+                .append("> <http://www.w3.org/2000/01/rdf-schema#subClassOf> <http://www.example.com/onto#Class_")
+                .append(line / 7).append("> .\n");
+        }
+        input = text.toString().getBytes();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool()
+    {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void singleThreadedGzip() throws IOException
+    {
+        try (final var output = new GZIPOutputStream(OutputStream.nullOutputStream()))
+        {
+            for (int offset = 0; offset < input.length; offset += BASELINE_BUFFER_SIZE)
+            {
+                output.write(input, offset, Math.min(BASELINE_BUFFER_SIZE, input.length - offset));
+            }
+        }
+    }
+
+    @Benchmark
+    public void parallelGzip() throws IOException
+    {
+        try (final var output = new ParallelGzipOutputStream(
+            OutputStream.nullOutputStream(), ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION, pool))
+        {
+            output.write(input);
+        }
+    }
+}
@@ -1,46 +1,83 @@
 package com.rdfsonto.classnode.database;
 
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.ADDED_LABELS_KEY;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.ADD_LABEL_TO_ALL_NODES_WITH_ID_IN_NODE_IDS;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.ALL_INCOMING_NEIGHBOURS_QUERY_TEMPLATE;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.ALL_OUTGOING_NEIGHBOURS_QUERY_TEMPLATE;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.AND;
-import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.CLEAR_PROPERTIES_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.CATALOG_COUNT_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.CATALOG_ENTRY_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.COUNT_LABELS_BY_PROJECT_LABEL_QUERY_TEMPLATE;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.COUNT_NODE_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.COUNT_PROPERTY_KEYS_BY_PROJECT_LABEL_QUERY_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.COUNT_RELATIONSHIP_TYPES_BY_PROJECT_LABEL_QUERY_TEMPLATE;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.CREATE_NODE_TEMPLATE;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.DELETE_ALL_RESOURCE_NODES_WITH_LABEL_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.DELETE_RELATIONSHIPS_BETWEEN_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.DISTANCE_KEY;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.FILTER_BY_NODE_IDS;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.FIND_ALL_NODE_PROPERTIES_BY_PROJECT_LABEL_AFTER_ID_QUERY_TEMPLATE;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.FIND_ALL_NODE_PROPERTIES_BY_PROJECT_LABEL_QUERY_TEMPLATE;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.FIND_ALL_NODE_PROPERTIES_QUERY_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.FIND_DETACHED_REFERENCED_RESOURCE_IDS_AFTER_ID_QUERY_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.FIND_NODE_KEYS_BY_PROJECT_LABEL_AFTER_ID_QUERY_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.FIND_RING_NODES_OF_SOURCES_QUERY_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.HYDRATE_NODES_QUERY_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.ID_KEY;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.INCOMING_NEIGHBOURS_QUERY_TEMPLATE;
-import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.MATCH_NODE_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.KEYS_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.LABELS_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.LOCK_NODES_IN_PROJECT_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.MAX_DISTANCE_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.MERGE_RELATIONSHIPS_TEMPLATE;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.NEIGHBOUR_RECORD_KEY;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.NODE_IDS_KEY;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.NODE_ID_KEY;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.NODE_KEY;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.OUTGOING_NEIGHBOURS_QUERY_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.PATCH_NODE_TEMPLATE;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.PATTERN_MATCHING_ANY_LINK;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.PATTERN_MATCHING_INCOMING_LINK;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.PATTERN_MATCHING_OUTGOING_LINK;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.PREVIOUS_KEYS_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.PREVIOUS_LABELS_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.PROJECT_LABEL_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.PROJECT_TAG_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.PROPERTIES_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.RELATIONSHIP_DESTINATION_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.RELATIONSHIP_FILTER_KEY;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.RELATIONSHIP_ID_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.RELATIONSHIP_SOURCE_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.RELATIONSHIP_TYPE_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.RELATION_ONLY_BETWEEN_FETCHED_KEY;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.RELATION_RECORD_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.REMOVED_LABELS_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.REMOVED_PROPERTIES_KEY;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.RETURN_NODE_ID;
-import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.SET_NODE_PROPERTIES_TEMPLATE;
-import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.SET_PROPERTY_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.ROWS_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.SET_NODE_LABELS_AND_PROPERTIES_TEMPLATE;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.SET_PROPERTIES_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.SOURCE_ID_KEY;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.SOURCE_NODE_ID_RECORD_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.TRAVERSAL_LIMIT_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.TRAVERSE_NEIGHBOURHOOD_QUERY_TEMPLATE;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.URI_KEY;
+import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.VISITED_IDS_KEY;
 import static com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepositoryTemplates.WITH_NODE;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.apache.logging.log4j.util.Strings;
 import org.neo4j.driver.Driver;
-import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
 import org.neo4j.driver.Transaction;
 import org.neo4j.driver.Value;
 import org.neo4j.driver.exceptions.Neo4jException;
@@ -48,13 +85,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.data.neo4j.core.Neo4jTemplate;
 import org.springframework.data.neo4j.repository.query.QueryFragmentsAndParameters;
-import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.rdfsonto.classnode.service.ClassNode;
+import com.rdfsonto.classnode.service.ClassNodePatch;
 import com.rdfsonto.classnode.service.FilterCondition;
 import com.rdfsonto.classnode.service.PatternFilter;
+import com.rdfsonto.util.database.KeysetCursor;
+import com.rdfsonto.util.database.KeysetPage;
 import com.rdfsonto.util.database.PaginationClause;
 
 import lombok.RequiredArgsConstructor;
@@ -66,12 +105,15 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ClassNodeNeo4jDriverRepository
 {
+    private static final String RESOURCE_LABEL = "Resource";
+
     private final static String EMPTY_COMMAND = "";
     private final static String TARGET_DATABASE = "neo4j";
     private final Driver driver;
     private final Neo4jTemplate neo4jTemplate;
     private final Neo4jClient neo4jClient;
     private final RelationshipNeo4jDriverRepository relationshipNeo4jDriverRepository;
+    private final QueryTextMonitor queryTextMonitor;
     private final ClassNodeRepository classNodeRepository;
 
     private final ClassNodeVoMapper classNodeVoMapper;
@@ -98,8 +140,7 @@ public class ClassNodeNeo4jDriverRepository
                 .map(nodeConnection -> relationshipVoMapper.mapToVo(nodeConnection, updateNode.id(), false))
                 .collect(Collectors.toSet());
 
-            handleLabelsDiff(updateNode, nodeId, transaction);
-            handlePropertiesDiff(updateNode, nodeId, transaction);
+            setLabelsAndProperties(updateNode, nodeId, transaction);
             handleRelationshipDiff(nodeId, true, updateNode.incomingNeighbours(), incomingLinks, transaction);
             handleRelationshipDiff(nodeId, false, updateNode.outgoingNeighbours(), outgoingLinks, transaction);
 
@@ -116,6 +157,102 @@ public class ClassNodeNeo4jDriverRepository
         }
     }
 
+    /**
+     * Applies only the operations of the patch, the rest of the node and its relationships are not read nor written. Added
+     * neighbours are locked before the node is patched, so they can not be deleted before the relationships are created.
+     *
+     * @param projectLabel label of the project, a node outside of the project is treated as missing
+     * @return empty when the node does not exist in the project
+     */
+    public Optional<PatchedNodeVo> patch(final long nodeId, final String projectLabel, final ClassNodePatch patch)
+    {
+        try (final var session = driver.session(); final var transaction = session.beginTransaction())
+        {
+            final var addedNeighbourIds = Stream.of(patch.addedIncomingNeighbours(), patch.addedOutgoingNeighbours())
+                .filter(Objects::nonNull)
+                .flatMap(neighbours -> neighbours.keySet().stream())
+                .collect(Collectors.toSet());
+            final var missingNeighbourIds = lockNodesInProject(addedNeighbourIds, projectLabel, transaction);
+            if (!missingNeighbourIds.isEmpty())
+            {
+                transaction.rollback();
+                return Optional.of(PatchedNodeVo.builder().withApplied(false).withMissingNeighbourIds(missingNeighbourIds).build());
+            }
+
+            final var paramMap = Map.of(
+                NODE_ID_KEY, (Object) nodeId,
+                PROJECT_LABEL_KEY, projectLabel,
+                SET_PROPERTIES_KEY, Optional.ofNullable(patch.setProperties()).orElse(Map.of()),
+                REMOVED_PROPERTIES_KEY, Optional.ofNullable(patch.removedProperties()).orElse(List.of()),
+                ADDED_LABELS_KEY, Optional.ofNullable(patch.addedLabels()).orElse(List.of()),
+                REMOVED_LABELS_KEY, Optional.ofNullable(patch.removedLabels()).orElse(List.of()));
+
+            final var patchedRecords = transaction.run(queryTextMonitor.record(PATCH_NODE_TEMPLATE), paramMap).list();
+            if (patchedRecords.isEmpty())
+            {
+                transaction.rollback();
+                return Optional.empty();
+            }
+
+            final var patchedRecord = patchedRecords.get(0);
+            final var labels = patchedRecord.get(LABELS_KEY).asList(Value::asString);
+            final var properties = patchedRecord.get(PROPERTIES_KEY).asMap();
+            final var patchedNode = ClassNode.builder()
+                .withId(nodeId)
+                .withUri(properties.get(URI_KEY).toString())
+                .withProperties(properties)
+                .withClassLabels(labels.stream().filter(label -> !RESOURCE_LABEL.equals(label)).toList())
+                .build();
+
+            // Nodes which had no class label before, like referenced resources, can still be patched.
+            final var previousLabels = patchedRecord.get(PREVIOUS_LABELS_KEY).asList(Value::asString);
+            final var removedAnyLabel = !labels.containsAll(previousLabels);
+            if (removedAnyLabel && labels.stream().allMatch(label -> RESOURCE_LABEL.equals(label) || projectLabel.equals(label)))
+            {
+                transaction.rollback();
+                return Optional.of(PatchedNodeVo.builder().withApplied(false).withNode(patchedNode).withMissingNeighbourIds(List.of()).build());
+            }
+
+            final var removedRelationships = Stream.concat(
+                    relationshipRows(nodeId, patch.removedIncomingNeighbours(), true),
+                    relationshipRows(nodeId, patch.removedOutgoingNeighbours(), false))
+                .distinct()
+                .toList();
+            final var addedRelationships = Stream.concat(
+                    relationshipRows(nodeId, patch.addedIncomingNeighbours(), true),
+                    relationshipRows(nodeId, patch.addedOutgoingNeighbours(), false))
+                .distinct()
+                .toList();
+
+            final var deletedRelationships = removedRelationships.isEmpty() ?
+                List.<RelationshipVo>of() :
+                transaction.run(queryTextMonitor.record(DELETE_RELATIONSHIPS_BETWEEN_TEMPLATE), Map.of(ROWS_KEY, removedRelationships))
+                    .list(ClassNodeNeo4jDriverRepository::mapRelationship);
+            final var createdRelationships = addedRelationships.isEmpty() ?
+                List.<RelationshipVo>of() :
+                transaction.run(queryTextMonitor.record(MERGE_RELATIONSHIPS_TEMPLATE), Map.of(ROWS_KEY, addedRelationships))
+                    .list(ClassNodeNeo4jDriverRepository::mapRelationship);
+
+            transaction.commit();
+
+            return Optional.of(PatchedNodeVo.builder()
+                .withApplied(true)
+                .withNode(patchedNode)
+                .withPreviousLabels(previousLabels)
+                .withLabels(labels)
+                .withPreviousPropertyKeys(patchedRecord.get(PREVIOUS_KEYS_KEY).asList(Value::asString))
+                .withPropertyKeys(patchedRecord.get(KEYS_KEY).asList(Value::asString))
+                .withCreatedRelationships(createdRelationships)
+                .withDeletedRelationships(deletedRelationships)
+                .withMissingNeighbourIds(List.of())
+                .build());
+        }
+        catch (final Neo4jException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
     public List<ClassNodeVo> findAllIncomingNeighbours(final List<Long> ids, final boolean relationOnlyBetweenFetched)
     {
         return findNeighbours(ids, RelationshipDirection.INCOMING, relationOnlyBetweenFetched);
@@ -126,6 +263,87 @@ public class ClassNodeNeo4jDriverRepository
         return findNeighbours(ids, RelationshipDirection.OUTGOING, relationOnlyBetweenFetched);
     }
 
+    /**
+     * Fetches nodes with their labels, properties and neighbours in a single round-trip.
+     * Missing ids are skipped, the order of the returned nodes is not guaranteed.
+     */
+    public List<ClassNode> findAllHydrated(final List<Long> ids, final boolean relationOnlyBetweenFetched)
+    {
+        if (ids == null || ids.isEmpty())
+        {
+            return List.of();
+        }
+
+        try (final var session = driver.session())
+        {
+            final var paramMap = Map.of(NODE_IDS_KEY, (Object) ids, RELATION_ONLY_BETWEEN_FETCHED_KEY, relationOnlyBetweenFetched);
+
+            return session.run(HYDRATE_NODES_QUERY_TEMPLATE, paramMap).list(classNodeVoMapper::mapHydratedToDomain);
+        }
+        catch (final Neo4jException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
+    /**
+     * Breadth-first traversal from the start nodes, the start nodes are returned at distance 0. Every node is returned once,
+     * with its shortest distance, in the order of increasing distance. The traversal stops after {@code limit} nodes.
+     */
+    public List<TraversedNodeVo> traverseNeighbourhood(final List<Long> startNodeIds,
+                                                       final int maxDistance,
+                                                       final List<String> relationshipTypes,
+                                                       final RelationshipDirection relationshipDirection,
+                                                       final int limit)
+    {
+        try (final var session = driver.session())
+        {
+            final var paramMap = Map.of(
+                NODE_IDS_KEY, (Object) startNodeIds,
+                MAX_DISTANCE_KEY, maxDistance,
+                RELATIONSHIP_FILTER_KEY, buildRelationshipFilter(relationshipTypes, relationshipDirection),
+                TRAVERSAL_LIMIT_KEY, limit);
+
+            return session.run(TRAVERSE_NEIGHBOURHOOD_QUERY_TEMPLATE, paramMap)
+                .list(record -> new TraversedNodeVo(record.get(ID_KEY).asLong(), record.get(DISTANCE_KEY).asInt()));
+        }
+        catch (final Neo4jException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
+    /**
+     * Expands only the given nodes of the previous ring, so a page of a ring costs the degree of its sources instead of the
+     * size of the whole previous ring.
+     *
+     * @param sourceIds  nodes of the previous ring whose neighbours are looked for
+     * @param visitedIds nodes which are excluded from the ring, including the previous ring and ring nodes already returned
+     * @return ring nodes ordered by the source they were reached from and their id
+     */
+    public List<RingNodeVo> findRingNodes(final List<Long> sourceIds,
+                                          final List<Long> visitedIds,
+                                          final List<String> relationshipTypes,
+                                          final RelationshipDirection relationshipDirection,
+                                          final int limit)
+    {
+        try (final var session = driver.session())
+        {
+            final var paramMap = Map.of(
+                NODE_IDS_KEY, (Object) sourceIds,
+                VISITED_IDS_KEY, visitedIds,
+                RELATIONSHIP_FILTER_KEY, buildRelationshipFilter(relationshipTypes, relationshipDirection),
+                TRAVERSAL_LIMIT_KEY, limit);
+
+            return session.run(FIND_RING_NODES_OF_SOURCES_QUERY_TEMPLATE, paramMap)
+                .list(record -> new RingNodeVo(record.get(SOURCE_ID_KEY).asLong(), record.get(ID_KEY).asLong()));
+        }
+        catch (final Neo4jException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
     public Map<Long, Map<String, Object>> findAllNodeProperties(final List<Long> ids)
     {
         try (final var session = driver.session())
@@ -200,6 +418,68 @@ public class ClassNodeNeo4jDriverRepository
             .toList();
     }
 
+    public KeysetPage<ClassNodeVo> findAllByProject(final String projectLabel, final KeysetCursor cursor)
+    {
+        final var query = FIND_ALL_NODE_PROPERTIES_BY_PROJECT_LABEL_AFTER_ID_QUERY_TEMPLATE.formatted(projectLabel);
+
+        final var nodes = neo4jClient.query(query)
+            .bindAll(cursor.toParameters())
+            .fetchAs(ClassNodeVo.class)
+            .mappedBy((system, record) -> classNodeVoMapper.mapToVo(record)).all()
+            .stream()
+            .toList();
+
+        return KeysetPage.of(nodes, cursor, ClassNodeVo::getId);
+    }
+
+    public KeysetPage<ClassNodeVo> findNodeKeysByProject(final String projectLabel, final KeysetCursor cursor)
+    {
+        try (final var session = driver.session())
+        {
+            final var query = FIND_NODE_KEYS_BY_PROJECT_LABEL_AFTER_ID_QUERY_TEMPLATE.formatted(projectLabel);
+            final var nodeKeys = session.run(query, cursor.toParameters()).list(classNodeVoMapper::mapKeysToVo);
+
+            return KeysetPage.of(nodeKeys, cursor, ClassNodeVo::getId);
+        }
+        catch (final Neo4jException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
+    public KeysetPage<Long> findDetachedReferencedResourceIds(final String projectTag, final KeysetCursor cursor)
+    {
+        try (final var session = driver.session())
+        {
+            final var paramMap = new HashMap<>(cursor.toParameters());
+            paramMap.put(PROJECT_TAG_KEY, projectTag);
+
+            final var nodeIds = session.run(FIND_DETACHED_REFERENCED_RESOURCE_IDS_AFTER_ID_QUERY_TEMPLATE, paramMap)
+                .list(record -> record.get(ID_KEY).asLong());
+
+            return KeysetPage.of(nodeIds, cursor, Long::longValue);
+        }
+        catch (final Neo4jException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
+    public Map<String, Long> countLabelsByProject(final String projectLabel)
+    {
+        return countByProject(COUNT_LABELS_BY_PROJECT_LABEL_QUERY_TEMPLATE, projectLabel);
+    }
+
+    public Map<String, Long> countPropertyKeysByProject(final String projectLabel)
+    {
+        return countByProject(COUNT_PROPERTY_KEYS_BY_PROJECT_LABEL_QUERY_TEMPLATE, projectLabel);
+    }
+
+    public Map<String, Long> countRelationshipTypesByProject(final String projectLabel)
+    {
+        return countByProject(COUNT_RELATIONSHIP_TYPES_BY_PROJECT_LABEL_QUERY_TEMPLATE, projectLabel);
+    }
+
     public void deleteAllNodesByProjectLabel(final String projectLabel)
     {
         try
@@ -254,7 +534,7 @@ public class ClassNodeNeo4jDriverRepository
     private ClassNodeVo create(final ClassNode node, final Transaction transaction)
     {
         final var paramMap = Map.of(URI_KEY, (Object) node.uri());
-        final var result = transaction.run(CREATE_NODE_TEMPLATE, paramMap).single();
+        final var result = transaction.run(queryTextMonitor.record(CREATE_NODE_TEMPLATE), paramMap).single();
 
         return classNodeVoMapper.mapToVo(result.get(NODE_KEY).asNode(), null, null, null);
     }
@@ -290,6 +570,84 @@ public class ClassNodeNeo4jDriverRepository
         }
     }
 
+    private static RelationshipVo mapRelationship(final Record record)
+    {
+        return RelationshipVo.builder()
+            .withSourceId(record.get(RELATIONSHIP_SOURCE_KEY).asLong())
+            .withDestinationId(record.get(RELATIONSHIP_DESTINATION_KEY).asLong())
+            .withRelationship(record.get(RELATIONSHIP_TYPE_KEY).asString())
+            .build();
+    }
+
+    /**
+     * @return ids of the nodes which do not exist in the project, the others stay locked until the transaction ends
+     */
+    private List<Long> lockNodesInProject(final Set<Long> nodeIds, final String projectLabel, final Transaction transaction)
+    {
+        if (nodeIds.isEmpty())
+        {
+            return List.of();
+        }
+
+        final var lockedIds = transaction.run(
+                queryTextMonitor.record(LOCK_NODES_IN_PROJECT_TEMPLATE),
+                Map.of(NODE_IDS_KEY, List.copyOf(nodeIds), PROJECT_LABEL_KEY, projectLabel)).stream()
+            .map(record -> record.get(ID_KEY).asLong())
+            .collect(Collectors.toSet());
+
+        return nodeIds.stream()
+            .filter(nodeId -> !lockedIds.contains(nodeId))
+            .sorted()
+            .toList();
+    }
+
+    private static Stream<Map<String, Object>> relationshipRows(final long nodeId,
+                                                                final Map<Long, List<String>> neighbours,
+                                                                final boolean isIncoming)
+    {
+        return Optional.ofNullable(neighbours).orElse(Collections.emptyMap()).entrySet().stream()
+            .flatMap(neighbour -> neighbour.getValue().stream()
+                .map(relationship -> Map.<String, Object>of(
+                    RELATIONSHIP_SOURCE_KEY, isIncoming ? neighbour.getKey() : nodeId,
+                    RELATIONSHIP_DESTINATION_KEY, isIncoming ? nodeId : neighbour.getKey(),
+                    RELATIONSHIP_TYPE_KEY, relationship)));
+    }
+
+    private Map<String, Long> countByProject(final String queryTemplate, final String projectLabel)
+    {
+        try (final var session = driver.session())
+        {
+            return session.run(queryTemplate.formatted(projectLabel)).stream()
+                .collect(Collectors.toMap(record -> record.get(CATALOG_ENTRY_KEY).asString(), record -> record.get(CATALOG_COUNT_KEY).asLong()));
+        }
+        catch (final Neo4jException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
+    private static String buildRelationshipFilter(final List<String> relationshipTypes, final RelationshipDirection relationshipDirection)
+    {
+        if (relationshipTypes.isEmpty())
+        {
+            return switch (relationshipDirection)
+            {
+                case OUTGOING -> ">";
+                case INCOMING -> "<";
+                case ANY -> EMPTY_COMMAND;
+            };
+        }
+
+        return relationshipTypes.stream()
+            .map(relationshipType -> switch (relationshipDirection)
+            {
+                case OUTGOING -> relationshipType + ">";
+                case INCOMING -> "<" + relationshipType;
+                case ANY -> relationshipType;
+            })
+            .collect(Collectors.joining("|"));
+    }
+
     private String buildMatchClause(final List<String> labels)
     {
         if (labels.isEmpty())
@@ -364,67 +722,17 @@ public class ClassNodeNeo4jDriverRepository
         relationshipNeo4jDriverRepository.delete(toDelete, transaction);
     }
 
-    private void handlePropertiesDiff(final ClassNode nodeUpdate, final long nodeId, final Transaction transaction)
-    {
-        final var uriParam = Map.of(URI_KEY, (Object) nodeUpdate.uri());
-
-        final var clearPropsStatement = String.join(Strings.LINE_SEPARATOR,
-            List.of(SET_NODE_PROPERTIES_TEMPLATE.formatted(nodeId),
-                CLEAR_PROPERTIES_TEMPLATE));
-
-        final var clearPropsQuery = new Query(clearPropsStatement, uriParam);
-        transaction.run(clearPropsQuery);
-
-        if (nodeUpdate.properties().isEmpty())
-        {
-            return;
-        }
-
-        final var properties = nodeUpdate.properties().entrySet().stream()
-            .map(entry -> Pair.of(entry.getKey(), entry.getValue()))
-            .toList();
-
-        final var setPropertiesComponents = IntStream.range(0, nodeUpdate.properties().size())
-            .mapToObj(index -> SET_PROPERTY_TEMPLATE.formatted(properties.get(index).getFirst(), index))
-            .toList();
-
-        final var setPropertiesStatement = Strings.join(setPropertiesComponents, ',');
-        final var matchAndSetPropertiesComponents =
-            List.of(SET_NODE_PROPERTIES_TEMPLATE.formatted(nodeId), setPropertiesStatement);
-        final var matchAndSetPropertiesStatement = String.join(Strings.LINE_SEPARATOR, matchAndSetPropertiesComponents);
-
-        final var paramMap = IntStream.range(0, nodeUpdate.properties().size())
-            .mapToObj(index -> Pair.of("param" + index, properties.get(index).getSecond()))
-            .collect(Collectors.toMap(Pair::getFirst, Pair::getSecond));
-
-        final var updatePropertiesQuery = new Query(matchAndSetPropertiesStatement, paramMap);
-
-        transaction.run(updatePropertiesQuery);
-    }
-
-    private void handleLabelsDiff(final ClassNode nodeUpdate, final long nodeId, final Transaction transaction)
+    private void setLabelsAndProperties(final ClassNode nodeUpdate, final long nodeId, final Transaction transaction)
     {
-        final Map<String, Object> nodeIdParamMap = Map.of(NODE_ID_KEY, nodeId);
-        final var queryNodeLabels =
-            new Query(MATCH_NODE_TEMPLATE + "RETURN labels(node) AS labels", nodeIdParamMap);
+        final var properties = new HashMap<String, Object>(Optional.ofNullable(nodeUpdate.properties()).orElse(Map.of()));
+        properties.put(URI_KEY, nodeUpdate.uri());
 
-        final var persistedLabels = transaction.run(queryNodeLabels).single().get("labels").asList(Value::asString).stream()
-            .map("`%s`"::formatted)
-            .toList();
-
-        final var updateLabels = nodeUpdate.classLabels().stream()
-            .map("`%s`"::formatted)
+        final var labels = nodeUpdate.classLabels().stream()
             .distinct()
             .toList();
 
-        final var setQuery = "SET node:" + Strings.join(updateLabels, ':');
-        final var removeQuery = "REMOVE node:" + Strings.join(persistedLabels, ':');
-
-        final var updateLabelsQueryComponents = List.of(MATCH_NODE_TEMPLATE, removeQuery, setQuery);
-        final var updateLabelsQuery = String.join(Strings.LINE_SEPARATOR, updateLabelsQueryComponents);
-
-        final var query = new Query(updateLabelsQuery, nodeIdParamMap);
+        final var paramMap = Map.<String, Object>of(NODE_ID_KEY, nodeId, PROPERTIES_KEY, properties, LABELS_KEY, labels);
 
-        transaction.run(query);
+        transaction.run(queryTextMonitor.record(SET_NODE_LABELS_AND_PROPERTIES_TEMPLATE), paramMap).consume();
     }
 }
\ No newline at end of file
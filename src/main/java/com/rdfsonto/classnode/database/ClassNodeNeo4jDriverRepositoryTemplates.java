@@ -8,14 +8,13 @@ public class ClassNodeNeo4jDriverRepositoryTemplates
     static final String CREATE_NODE_TEMPLATE = """
         CREATE (node:Resource{uri: $uri}) RETURN node
         """;
-    static final String CLEAR_PROPERTIES_TEMPLATE = """
-        node = {uri: $uri}
-        """;
-    static final String SET_NODE_PROPERTIES_TEMPLATE = """
-        MATCH (node) WHERE id(node) = %s
-        SET""";
-    static final String SET_PROPERTY_TEMPLATE = """
-        node.`%s` = $param%s""";
+    static final String SET_NODE_LABELS_AND_PROPERTIES_TEMPLATE = """
+        MATCH (node:Resource) WHERE id(node) = $nodeId
+        SET node = $properties
+        WITH node
+        CALL apoc.create.setLabels(node, $labels) YIELD node AS savedNode
+        RETURN id(savedNode) AS id
+        """;
     static final String OUTGOING_NEIGHBOURS_QUERY_TEMPLATE = """
         MATCH (n:Resource)-[rel]->(neighbour:Resource)
         WHERE id(n) IN $nodeIds AND id(neighbour) in $nodeIds
@@ -38,6 +37,86 @@ public class ClassNodeNeo4jDriverRepositoryTemplates
         RETURN neighbour, id(n) AS source, type(rel) AS relation, id(rel) AS relationshipId
         """;
 
+    static final String TRAVERSE_NEIGHBOURHOOD_QUERY_TEMPLATE = """
+        MATCH (start:Resource) WHERE id(start) IN $nodeIds
+        WITH collect(start) AS startNodes
+        CALL apoc.path.expandConfig(startNodes, {
+            minLevel: 0,
+            maxLevel: $maxDistance,
+            relationshipFilter: $relationshipFilter,
+            uniqueness: 'NODE_GLOBAL',
+            bfs: true,
+            limit: $limit
+        })
+        YIELD path
+        RETURN id(last(nodes(path))) AS id, length(path) AS distance
+        """;
+
+    static final String FIND_RING_NODES_OF_SOURCES_QUERY_TEMPLATE = """
+        MATCH (source:Resource) WHERE id(source) IN $nodeIds
+        CALL apoc.path.expandConfig(source, {
+            minLevel: 1,
+            maxLevel: 1,
+            relationshipFilter: $relationshipFilter
+        })
+        YIELD path
+        WITH id(source) AS sourceId, id(last(nodes(path))) AS id
+        WHERE NOT id IN $visitedIds
+        WITH id, min(sourceId) AS sourceId
+        RETURN sourceId, id
+        ORDER BY sourceId, id
+        LIMIT $limit
+        """;
+
+    static final String LOCK_NODES_IN_PROJECT_TEMPLATE = """
+        UNWIND $nodeIds AS nodeId
+        MATCH (node:Resource) WHERE id(node) = nodeId AND $projectLabel IN labels(node)
+        CALL apoc.lock.nodes([node])
+        RETURN id(node) AS id
+        """;
+
+    static final String PATCH_NODE_TEMPLATE = """
+        MATCH (node:Resource) WHERE id(node) = $nodeId AND $projectLabel IN labels(node)
+        WITH node, labels(node) AS previousLabels, keys(node) AS previousKeys
+        SET node += $setProperties
+        WITH node, previousLabels, previousKeys
+        CALL apoc.create.removeProperties(node, $removedProperties) YIELD node AS withoutProperties
+        CALL apoc.create.removeLabels(withoutProperties, $removedLabels) YIELD node AS withoutLabels
+        CALL apoc.create.addLabels(withoutLabels, $addedLabels) YIELD node AS patchedNode
+        RETURN previousLabels, labels(patchedNode) AS labels, previousKeys, keys(patchedNode) AS keys, properties(patchedNode) AS properties
+        """;
+
+    static final String MERGE_RELATIONSHIPS_TEMPLATE = """
+        UNWIND $rows AS row
+        MATCH (source:Resource) WHERE id(source) = row.source
+        MATCH (destination:Resource) WHERE id(destination) = row.destination
+        WITH source, destination, row, size([(source)-[existing]->(destination) WHERE type(existing) = row.relation | existing]) AS existingCount
+        CALL apoc.merge.relationship(source, row.relation, {}, {}, destination, {}) YIELD rel
+        WITH row, existingCount
+        WHERE existingCount = 0
+        RETURN row.source AS source, row.destination AS destination, row.relation AS relation
+        """;
+
+    static final String DELETE_RELATIONSHIPS_BETWEEN_TEMPLATE = """
+        UNWIND $rows AS row
+        MATCH (source:Resource)-[rel]->(destination:Resource)
+        WHERE id(source) = row.source AND id(destination) = row.destination AND type(rel) = row.relation
+        DELETE rel
+        RETURN row.source AS source, row.destination AS destination, row.relation AS relation
+        """;
+
+    static final String HYDRATE_NODES_QUERY_TEMPLATE = """
+        UNWIND $nodeIds AS nodeId
+        MATCH (node:Resource) WHERE id(node) = nodeId
+        RETURN id(node) AS id,
+            [label IN labels(node) WHERE label <> 'Resource'] AS labels,
+            properties(node) AS properties,
+            [(node)<-[rel]-(neighbour:Resource) WHERE NOT $relationOnlyBetweenFetched OR id(neighbour) IN $nodeIds
+                | {neighbour: id(neighbour), relation: type(rel)}] AS incoming,
+            [(node)-[rel]->(neighbour:Resource) WHERE NOT $relationOnlyBetweenFetched OR id(neighbour) IN $nodeIds
+                | {neighbour: id(neighbour), relation: type(rel)}] AS outgoing
+        """;
+
     static final String FIND_ALL_NODE_PROPERTIES_QUERY_TEMPLATE = """
         UNWIND $nodeIds AS nodeId
         MATCH (n:Resource) WHERE id(n) = nodeId
@@ -49,6 +128,47 @@ public class ClassNodeNeo4jDriverRepositoryTemplates
         RETURN id(node) AS id, properties(node) AS properties, labels(node) as labels
         """;
 
+    static final String FIND_ALL_NODE_PROPERTIES_BY_PROJECT_LABEL_AFTER_ID_QUERY_TEMPLATE = """
+        MATCH (node:Resource:`%s`)
+        WHERE id(node) > $lastId
+        RETURN id(node) AS id, properties(node) AS properties, labels(node) AS labels
+        ORDER BY id(node)
+        LIMIT $limit
+        """;
+
+    static final String COUNT_LABELS_BY_PROJECT_LABEL_QUERY_TEMPLATE = """
+        MATCH (node:Resource:`%s`)
+        UNWIND labels(node) AS key
+        RETURN key, count(*) AS count
+        """;
+
+    static final String COUNT_PROPERTY_KEYS_BY_PROJECT_LABEL_QUERY_TEMPLATE = """
+        MATCH (node:Resource:`%s`)
+        UNWIND keys(node) AS key
+        RETURN key, count(*) AS count
+        """;
+
+    static final String COUNT_RELATIONSHIP_TYPES_BY_PROJECT_LABEL_QUERY_TEMPLATE = """
+        MATCH (node:Resource:`%s`)-[rel]->()
+        RETURN type(rel) AS key, count(*) AS count
+        """;
+
+    static final String FIND_DETACHED_REFERENCED_RESOURCE_IDS_AFTER_ID_QUERY_TEMPLATE = """
+        MATCH (node:Resource)
+        WHERE id(node) > $lastId AND size(labels(node)) = 1 AND node.uri CONTAINS $projectTag
+        RETURN id(node) AS id
+        ORDER BY id(node)
+        LIMIT $limit
+        """;
+
+    static final String FIND_NODE_KEYS_BY_PROJECT_LABEL_AFTER_ID_QUERY_TEMPLATE = """
+        MATCH (node:Resource:`%s`)
+        WHERE id(node) > $lastId
+        RETURN id(node) AS id, node.uri AS uri, labels(node) AS labels
+        ORDER BY id(node)
+        LIMIT $limit
+        """;
+
     static final String DELETE_ALL_RESOURCE_NODES_WITH_LABEL_TEMPLATE = """
         MATCH (n:Resource:`%s`)
         CALL {
@@ -88,6 +208,8 @@ public class ClassNodeNeo4jDriverRepositoryTemplates
         """;
 
     static final String COUNT_NODE_KEY = "count(node)";
+    static final String CATALOG_ENTRY_KEY = "key";
+    static final String CATALOG_COUNT_KEY = "count";
     static final String NEIGHBOUR_RECORD_KEY = "neighbour";
     static final String RELATION_RECORD_KEY = "relation";
     static final String RELATIONSHIP_ID_KEY = "relationshipId";
@@ -96,5 +218,28 @@ public class ClassNodeNeo4jDriverRepositoryTemplates
     static final String NODE_IDS_KEY = "nodeIds";
     static final String NODE_ID_KEY = "nodeId";
     static final String URI_KEY = "uri";
+    static final String PROJECT_TAG_KEY = "projectTag";
+    static final String ID_KEY = "id";
+    static final String RELATION_ONLY_BETWEEN_FETCHED_KEY = "relationOnlyBetweenFetched";
+    static final String MAX_DISTANCE_KEY = "maxDistance";
+    static final String RELATIONSHIP_FILTER_KEY = "relationshipFilter";
+    static final String TRAVERSAL_LIMIT_KEY = "limit";
+    static final String DISTANCE_KEY = "distance";
+    static final String VISITED_IDS_KEY = "visitedIds";
+    static final String SOURCE_ID_KEY = "sourceId";
+    static final String ROWS_KEY = "rows";
+    static final String PROPERTIES_KEY = "properties";
+    static final String LABELS_KEY = "labels";
+    static final String SET_PROPERTIES_KEY = "setProperties";
+    static final String REMOVED_PROPERTIES_KEY = "removedProperties";
+    static final String ADDED_LABELS_KEY = "addedLabels";
+    static final String REMOVED_LABELS_KEY = "removedLabels";
+    static final String PROJECT_LABEL_KEY = "projectLabel";
+    static final String PREVIOUS_LABELS_KEY = "previousLabels";
+    static final String PREVIOUS_KEYS_KEY = "previousKeys";
+    static final String KEYS_KEY = "keys";
+    static final String RELATIONSHIP_SOURCE_KEY = "source";
+    static final String RELATIONSHIP_DESTINATION_KEY = "destination";
+    static final String RELATIONSHIP_TYPE_KEY = "relation";
     static final String AND = "AND";
 }
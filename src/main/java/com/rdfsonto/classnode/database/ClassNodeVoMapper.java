@@ -1,11 +1,17 @@
 package com.rdfsonto.classnode.database;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Value;
 import org.neo4j.driver.types.Node;
 import org.springframework.stereotype.Component;
 
 import com.google.common.collect.Lists;
+import com.rdfsonto.classnode.service.ClassNode;
 
 
 @Component
@@ -26,6 +32,10 @@ public class ClassNodeVoMapper
     final private static String NODE_ID_KEY = "id";
     final private static String LABELS_KEY = "labels";
     final private static String URI_PROPERTY = "uri";
+    final private static String INCOMING_KEY = "incoming";
+    final private static String OUTGOING_KEY = "outgoing";
+    final private static String NEIGHBOUR_KEY = "neighbour";
+    final private static String RELATION_KEY = "relation";
 
     ClassNodeVo mapToVo(final Record record)
     {
@@ -38,4 +48,38 @@ public class ClassNodeVoMapper
             .withClassLabels(record.get(LABELS_KEY).asList(Value::asString))
             .build();
     }
+
+    ClassNodeVo mapKeysToVo(final Record record)
+    {
+        return ClassNodeVo.builder()
+            .withUri(record.get(URI_PROPERTY).asString())
+            .withId(record.get(NODE_ID_KEY).asLong())
+            .withClassLabels(record.get(LABELS_KEY).asList(Value::asString))
+            .build();
+    }
+
+    ClassNode mapHydratedToDomain(final Record record)
+    {
+        final var properties = record.get(PROPERTIES_KEY).asMap();
+
+        return ClassNode.builder()
+            .withId(record.get(NODE_ID_KEY).asLong())
+            .withUri(properties.get(URI_PROPERTY).toString())
+            .withProperties(properties)
+            .withClassLabels(record.get(LABELS_KEY).asList(Value::asString))
+            .withIncomingNeighbours(mapNeighbours(record.get(INCOMING_KEY)))
+            .withOutgoingNeighbours(mapNeighbours(record.get(OUTGOING_KEY)))
+            .build();
+    }
+
+    private Map<Long, List<String>> mapNeighbours(final Value neighbours)
+    {
+        final var neighbourRelations = new LinkedHashMap<Long, List<String>>();
+
+        neighbours.values().forEach(neighbour -> neighbourRelations
+            .computeIfAbsent(neighbour.get(NEIGHBOUR_KEY).asLong(), neighbourId -> new ArrayList<>())
+            .add(neighbour.get(RELATION_KEY).asString()));
+
+        return neighbourRelations;
+    }
 }
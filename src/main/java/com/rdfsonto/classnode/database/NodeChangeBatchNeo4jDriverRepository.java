@@ -0,0 +1,327 @@
+package com.rdfsonto.classnode.database;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.exceptions.Neo4jException;
+import org.springframework.stereotype.Repository;
+
+import com.rdfsonto.classnode.service.ClassNode;
+
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Applies a batch of node changes in a single transaction. Every kind of change is one fixed {@code UNWIND} statement, so the
+ * number of round trips does not depend on the size of the batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NodeChangeBatchNeo4jDriverRepository
+{
+    private static final String RESOURCE_LABEL = "Resource";
+    private static final String ROWS_KEY = "rows";
+    private static final String INDEX_KEY = "index";
+    private static final String ID_KEY = "id";
+    private static final String URI_KEY = "uri";
+    private static final String LABELS_KEY = "labels";
+    private static final String PROPERTIES_KEY = "properties";
+    private static final String RELATIONSHIP_ID_KEY = "relationshipId";
+    private static final String SOURCE_KEY = "source";
+    private static final String DESTINATION_KEY = "destination";
+    private static final String RELATION_KEY = "relation";
+    private static final String PROJECT_LABEL_KEY = "projectLabel";
+    private static final String IN_PROJECT_KEY = "inProject";
+
+    private static final String CREATE_NODES_TEMPLATE = """
+        UNWIND $rows AS row
+        CREATE (node:Resource {uri: row.uri})
+        RETURN row.index AS index, id(node) AS id
+        """;
+
+    private static final String FIND_RELATIONSHIPS_TEMPLATE = """
+        UNWIND $rows AS nodeId
+        MATCH (node:Resource)-[rel]-() WHERE id(node) = nodeId
+        RETURN DISTINCT id(rel) AS relationshipId, id(startNode(rel)) AS source, id(endNode(rel)) AS destination, type(rel) AS relation
+        """;
+
+    private static final String SET_LABELS_AND_PROPERTIES_TEMPLATE = """
+        UNWIND $rows AS row
+        MATCH (node:Resource) WHERE id(node) = row.id
+        SET node = row.properties
+        WITH node, row
+        CALL apoc.create.setLabels(node, row.labels) YIELD node AS labelledNode
+        RETURN count(labelledNode)
+        """;
+
+    private static final String FIND_EXISTING_IDS_TEMPLATE = """
+        UNWIND $rows AS nodeId
+        MATCH (node:Resource) WHERE id(node) = nodeId AND $projectLabel IN labels(node)
+        RETURN id(node) AS id
+        """;
+
+    private static final String LOCK_REFERENCED_NODES_TEMPLATE = """
+        UNWIND $rows AS nodeId
+        MATCH (node:Resource) WHERE id(node) = nodeId
+        CALL apoc.lock.nodes([node])
+        RETURN id(node) AS id, $projectLabel IN labels(node) AS inProject
+        """;
+
+    private static final String FIND_EXISTING_URIS_TEMPLATE = """
+        UNWIND $rows AS uri
+        MATCH (node:Resource {uri: uri})
+        RETURN DISTINCT node.uri AS uri
+        """;
+
+    private static final String DELETE_NODES_TEMPLATE = """
+        UNWIND $rows AS nodeId
+        MATCH (node:Resource) WHERE id(node) = nodeId
+        DETACH DELETE node
+        """;
+
+    private final Driver driver;
+    private final QueryTextMonitor queryTextMonitor;
+    private final RelationshipNeo4jDriverRepository relationshipNeo4jDriverRepository;
+
+    /**
+     * @return ids of the nodes which exist in the project with the given label
+     */
+    public Set<Long> findExistingIds(final Collection<Long> nodeIds, final String projectLabel)
+    {
+        return find(FIND_EXISTING_IDS_TEMPLATE, nodeIds, Map.of(PROJECT_LABEL_KEY, projectLabel), record -> record.get(ID_KEY).asLong());
+    }
+
+    public Set<String> findExistingUris(final Collection<String> uris)
+    {
+        return find(FIND_EXISTING_URIS_TEMPLATE, uris, Map.of(), record -> record.get(URI_KEY).asString());
+    }
+
+    /**
+     * @param savedNodes     nodes with uniqueness applied, in the order of their events, nodes without id are created
+     * @param deletedNodeIds nodes to delete, none of the saved nodes may be linked to them
+     * @param projectLabel   label of the project, the batch is rolled back when it refers to a node outside of the project
+     * @return ids of the saved nodes, in the order of {@code savedNodes}
+     */
+    public List<Long> applyChanges(final List<ClassNode> savedNodes, final List<Long> deletedNodeIds, final String projectLabel)
+    {
+        try (final var session = driver.session(); final var transaction = session.beginTransaction())
+        {
+            lockReferencedNodes(savedNodes, deletedNodeIds, projectLabel, transaction);
+
+            final var savedNodeIds = createNodes(savedNodes, transaction);
+            final var existingRelationships = findRelationships(savedNodeIds, transaction);
+
+            setLabelsAndProperties(savedNodes, savedNodeIds, transaction);
+
+            final var relationships = resolveRelationships(savedNodes, savedNodeIds, existingRelationships);
+            final var toDelete = existingRelationships.stream()
+                .filter(relationship -> !relationships.contains(relationship))
+                .toList();
+            final var toCreate = relationships.stream()
+                .filter(relationship -> !existingRelationships.contains(relationship))
+                .toList();
+
+            relationshipNeo4jDriverRepository.delete(toDelete, transaction);
+            relationshipNeo4jDriverRepository.save(toCreate, transaction);
+            run(DELETE_NODES_TEMPLATE, deletedNodeIds, transaction);
+
+            transaction.commit();
+            return savedNodeIds;
+        }
+        catch (final Neo4jException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
+    private <T> Set<T> find(final String template,
+                            final Collection<T> rows,
+                            final Map<String, Object> parameters,
+                            final Function<Record, T> mapper)
+    {
+        if (rows.isEmpty())
+        {
+            return Set.of();
+        }
+
+        final var paramMap = new HashMap<>(parameters);
+        paramMap.put(ROWS_KEY, List.copyOf(rows));
+
+        try (final var session = driver.session())
+        {
+            return session.run(template, paramMap).stream()
+                .map(mapper)
+                .collect(Collectors.toSet());
+        }
+        catch (final Neo4jException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
+    /**
+     * Locks the updated, deleted and linked nodes until the end of the transaction and checks that all of them still belong to
+     * the project, so that a node moved out of the project after the batch was validated is not changed.
+     */
+    private void lockReferencedNodes(final List<ClassNode> savedNodes,
+                                     final List<Long> deletedNodeIds,
+                                     final String projectLabel,
+                                     final Transaction transaction)
+    {
+        final var referencedIds = Stream.concat(
+                deletedNodeIds.stream(),
+                savedNodes.stream().flatMap(node -> Stream.concat(
+                    Stream.ofNullable(node.id()),
+                    Stream.of(node.incomingNeighbours(), node.outgoingNeighbours())
+                        .flatMap(neighbours -> Optional.ofNullable(neighbours).orElse(Collections.emptyMap()).keySet().stream()))))
+            .collect(Collectors.toSet());
+
+        if (referencedIds.isEmpty())
+        {
+            return;
+        }
+
+        final var inProjectIds = transaction.run(
+                queryTextMonitor.record(LOCK_REFERENCED_NODES_TEMPLATE),
+                Map.of(ROWS_KEY, List.copyOf(referencedIds), PROJECT_LABEL_KEY, projectLabel)).stream()
+            .filter(record -> record.get(IN_PROJECT_KEY).asBoolean())
+            .map(record -> record.get(ID_KEY).asLong())
+            .collect(Collectors.toSet());
+
+        if (!inProjectIds.containsAll(referencedIds))
+        {
+            final var outsideIds = referencedIds.stream().filter(id -> !inProjectIds.contains(id)).toList();
+            throw new IllegalStateException("Nodes with IDs: %s do not exist in the project.".formatted(outsideIds));
+        }
+    }
+
+    private List<Long> createNodes(final List<ClassNode> savedNodes, final Transaction transaction)
+    {
+        final var rows = IntStream.range(0, savedNodes.size())
+            .filter(index -> savedNodes.get(index).id() == null)
+            .mapToObj(index -> Map.<String, Object>of(INDEX_KEY, index, URI_KEY, savedNodes.get(index).uri()))
+            .toList();
+
+        final var createdIds = rows.isEmpty() ?
+            Map.<Integer, Long>of() :
+            transaction.run(queryTextMonitor.record(CREATE_NODES_TEMPLATE), Map.of(ROWS_KEY, rows)).stream()
+                .collect(Collectors.toMap(record -> record.get(INDEX_KEY).asInt(), record -> record.get(ID_KEY).asLong()));
+
+        return IntStream.range(0, savedNodes.size())
+            .mapToObj(index -> Optional.ofNullable(savedNodes.get(index).id()).orElseGet(() -> createdIds.get(index)))
+            .toList();
+    }
+
+    private Set<RelationshipVo> findRelationships(final List<Long> nodeIds, final Transaction transaction)
+    {
+        if (nodeIds.isEmpty())
+        {
+            return Set.of();
+        }
+
+        return transaction.run(queryTextMonitor.record(FIND_RELATIONSHIPS_TEMPLATE), Map.of(ROWS_KEY, nodeIds.stream().distinct().toList())).stream()
+            .map(record -> RelationshipVo.builder()
+                .withRelationshipId(record.get(RELATIONSHIP_ID_KEY).asLong())
+                .withSourceId(record.get(SOURCE_KEY).asLong())
+                .withDestinationId(record.get(DESTINATION_KEY).asLong())
+                .withRelationship(record.get(RELATION_KEY).asString())
+                .build())
+            .collect(Collectors.toSet());
+    }
+
+    private void setLabelsAndProperties(final List<ClassNode> savedNodes, final List<Long> savedNodeIds, final Transaction transaction)
+    {
+        final var rows = IntStream.range(0, savedNodes.size())
+            .mapToObj(index -> {
+                final var node = savedNodes.get(index);
+
+                final var properties = new HashMap<>(Optional.ofNullable(node.properties()).orElse(Map.of()));
+                properties.put(URI_KEY, node.uri());
+
+                final var labels = Stream.concat(Stream.of(RESOURCE_LABEL), node.classLabels().stream())
+                    .distinct()
+                    .toList();
+
+                return Map.<String, Object>of(ID_KEY, savedNodeIds.get(index), LABELS_KEY, labels, PROPERTIES_KEY, properties);
+            })
+            .toList();
+
+        run(SET_LABELS_AND_PROPERTIES_TEMPLATE, rows, transaction);
+    }
+
+    /**
+     * Relationships of the saved nodes after the batch. A relationship is decided by the last event which saved one of its
+     * nodes, the same as if the events were applied one after another.
+     */
+    static Set<RelationshipVo> resolveRelationships(final List<ClassNode> savedNodes,
+                                                    final List<Long> savedNodeIds,
+                                                    final Set<RelationshipVo> existingRelationships)
+    {
+        final var lastEventByNode = new HashMap<Long, Integer>();
+        final var declaredByEvent = new ArrayList<Set<RelationshipVo>>();
+
+        for (int index = 0; index < savedNodes.size(); index++)
+        {
+            final var nodeId = savedNodeIds.get(index);
+            final var node = savedNodes.get(index);
+
+            lastEventByNode.put(nodeId, index);
+            declaredByEvent.add(Stream.concat(
+                    declaredRelationships(node.incomingNeighbours(), (neighbourId, relationship) -> relationshipVo(neighbourId, nodeId, relationship)),
+                    declaredRelationships(node.outgoingNeighbours(), (neighbourId, relationship) -> relationshipVo(nodeId, neighbourId, relationship)))
+                .collect(Collectors.toSet()));
+        }
+
+        final var candidates = new HashSet<>(existingRelationships);
+        declaredByEvent.forEach(candidates::addAll);
+
+        return candidates.stream()
+            .filter(relationship -> {
+                final var deciding = Math.max(
+                    lastEventByNode.getOrDefault(relationship.getSourceId(), -1),
+                    lastEventByNode.getOrDefault(relationship.getDestinationId(), -1));
+                return deciding < 0 ? existingRelationships.contains(relationship) : declaredByEvent.get(deciding).contains(relationship);
+            })
+            .collect(Collectors.toSet());
+    }
+
+    private static Stream<RelationshipVo> declaredRelationships(final Map<Long, List<String>> neighbours,
+                                                                final BiFunction<Long, String, RelationshipVo> relationshipFactory)
+    {
+        return Optional.ofNullable(neighbours).orElse(Collections.emptyMap()).entrySet().stream()
+            .flatMap(neighbour -> neighbour.getValue().stream()
+                .map(relationship -> relationshipFactory.apply(neighbour.getKey(), relationship)));
+    }
+
+    private static RelationshipVo relationshipVo(final long sourceId, final long destinationId, final String relationship)
+    {
+        return RelationshipVo.builder()
+            .withSourceId(sourceId)
+            .withDestinationId(destinationId)
+            .withRelationship(relationship)
+            .build();
+    }
+
+    private void run(final String template, final List<?> rows, final Transaction transaction)
+    {
+        if (!rows.isEmpty())
+        {
+            transaction.run(queryTextMonitor.record(template), Map.of(ROWS_KEY, rows)).consume();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.rdfsonto.classnode.database;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.exceptions.Neo4jException;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Ids of the nodes of a project whose exported statements changed since the last snapshot. Every node has at most one entry,
+ * stamped with the time of its latest change, so the journal never grows beyond the size of the project.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NodeChangeJournalRepository
+{
+    /**
+     * Entry which marks every node of the project as changed, written by bulk operations like an import.
+     */
+    public static final long ALL_NODES = -1;
+
+    private static final String PROJECT_ID_KEY = "projectId";
+    private static final String NODE_IDS_KEY = "nodeIds";
+    private static final String NODE_ID_KEY = "nodeId";
+    private static final String TIME_KEY = "time";
+
+    private static final String RECORD_CHANGES_TEMPLATE = """
+        UNWIND $nodeIds AS nodeId
+        MERGE (entry:NodeChangeJournal {projectId: $projectId, nodeId: nodeId})
+        SET entry.time = $time
+        """;
+
+    private static final String FIND_CHANGES_UNTIL_TEMPLATE = """
+        MATCH (entry:NodeChangeJournal {projectId: $projectId})
+        WHERE entry.time <= $time
+        RETURN entry.nodeId AS nodeId
+        """;
+
+    private static final String CLEAR_CHANGES_UNTIL_TEMPLATE = """
+        MATCH (entry:NodeChangeJournal {projectId: $projectId})
+        WHERE entry.time <= $time
+        DELETE entry
+        """;
+
+    private static final String DELETE_PROJECT_CHANGES_TEMPLATE = """
+        MATCH (entry:NodeChangeJournal {projectId: $projectId})
+        DELETE entry
+        """;
+
+    private final Driver driver;
+
+    public void record(final long projectId, final Collection<Long> nodeIds)
+    {
+        if (nodeIds.isEmpty())
+        {
+            return;
+        }
+
+        final var paramMap = Map.<String, Object>of(
+            PROJECT_ID_KEY, projectId,
+            NODE_IDS_KEY, List.copyOf(Set.copyOf(nodeIds)),
+            TIME_KEY, System.currentTimeMillis());
+
+        try (final var session = driver.session())
+        {
+            session.run(RECORD_CHANGES_TEMPLATE, paramMap).consume();
+        }
+        catch (final Neo4jException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
+    public void recordAll(final long projectId)
+    {
+        record(projectId, List.of(ALL_NODES));
+    }
+
+    /**
+     * @return ids of the nodes changed not later than {@code time}, contains {@link #ALL_NODES} when every node has to be
+     * treated as changed
+     */
+    public Set<Long> findChangedNodeIds(final long projectId, final long time)
+    {
+        try (final var session = driver.session())
+        {
+            return session.run(FIND_CHANGES_UNTIL_TEMPLATE, Map.of(PROJECT_ID_KEY, projectId, TIME_KEY, time)).stream()
+                .map(record -> record.get(NODE_ID_KEY).asLong())
+                .collect(Collectors.toSet());
+        }
+        catch (final Neo4jException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
+    /**
+     * Removes the changes included in a snapshot taken at {@code time}, later changes are kept for the next snapshot.
+     */
+    public void clear(final long projectId, final long time)
+    {
+        try (final var session = driver.session())
+        {
+            session.run(CLEAR_CHANGES_UNTIL_TEMPLATE, Map.of(PROJECT_ID_KEY, projectId, TIME_KEY, time)).consume();
+        }
+        catch (final Neo4jException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
+    public void deleteByProjectId(final long projectId)
+    {
+        try (final var session = driver.session())
+        {
+            session.run(DELETE_PROJECT_CHANGES_TEMPLATE, Map.of(PROJECT_ID_KEY, projectId)).consume();
+        }
+        catch (final Neo4jException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.rdfsonto.classnode.database;
+
+import java.util.List;
+
+import com.rdfsonto.classnode.service.ClassNode;
+
+import lombok.Builder;
+
+
+/**
+ * Node after a patch together with what the patch changed in the database, labels and keys are stored values with uniqueness.
+ *
+ * @param applied                {@code false} when the patch was rolled back because it removed the last class label or linked the
+ *                               node to missing neighbours
+ * @param node                   labels, properties and uri of the node after the patch, without its neighbours
+ * @param createdRelationships   relationships which did not exist before the patch
+ * @param deletedRelationships   relationships which existed before the patch
+ * @param missingNeighbourIds    added neighbours which do not exist in the project
+ */
+@Builder(setterPrefix = "with")
+public record PatchedNodeVo(boolean applied,
+                            ClassNode node,
+                            List<String> previousLabels,
+                            List<String> labels,
+                            List<String> previousPropertyKeys,
+                            List<String> propertyKeys,
+                            List<RelationshipVo> createdRelationships,
+                            List<RelationshipVo> deletedRelationships,
+                            List<Long> missingNeighbourIds)
+{
+}
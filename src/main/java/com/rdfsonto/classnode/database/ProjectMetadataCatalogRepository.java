@@ -0,0 +1,44 @@
+package com.rdfsonto.classnode.database;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.neo4j.repository.Neo4jRepository;
+import org.springframework.data.neo4j.repository.query.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+
+@Repository
+public interface ProjectMetadataCatalogRepository extends Neo4jRepository<ProjectMetadataCatalogVo, Long>
+{
+    Optional<ProjectMetadataCatalogVo> findByProjectId(Long projectId);
+
+    void deleteByProjectId(Long projectId);
+
+    /**
+     * Replaces all counts of the catalog in one statement, {@code properties} are the composite properties of
+     * {@link ProjectMetadataCatalogVo} keyed as they are stored.
+     */
+    @Query("""
+        MERGE (catalog:ProjectMetadataCatalog {projectId: $projectId})
+        WITH catalog
+        CALL apoc.lock.nodes([catalog])
+        SET catalog = $properties, catalog.projectId = $projectId
+        """)
+    void replaceCounts(@Param("projectId") long projectId, @Param("properties") Map<String, Object> properties);
+
+    /**
+     * Adds every {@code delta.count} to the stored count of {@code delta.key} under a lock of the catalog, counts which drop
+     * to zero are removed.
+     */
+    @Query("""
+        MERGE (catalog:ProjectMetadataCatalog {projectId: $projectId})
+        WITH catalog
+        CALL apoc.lock.nodes([catalog])
+        SET catalog += apoc.map.fromPairs([delta IN $deltas |
+            [delta.key, CASE WHEN coalesce(catalog[delta.key], 0) + delta.count > 0 THEN coalesce(catalog[delta.key], 0) + delta.count END]])
+        """)
+    void applyDeltas(@Param("projectId") long projectId, @Param("deltas") List<Map<String, Object>> deltas);
+}
@@ -0,0 +1,35 @@
+package com.rdfsonto.classnode.database;
+
+import java.util.Map;
+
+import org.springframework.data.neo4j.core.schema.CompositeProperty;
+import org.springframework.data.neo4j.core.schema.GeneratedValue;
+import org.springframework.data.neo4j.core.schema.Id;
+import org.springframework.data.neo4j.core.schema.Node;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+
+@Getter
+@Setter
+@Node("ProjectMetadataCatalog")
+@Builder(setterPrefix = "with", toBuilder = true)
+public class ProjectMetadataCatalogVo
+{
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private Long projectId;
+
+    @CompositeProperty(prefix = "label")
+    private Map<String, Long> labelCounts;
+
+    @CompositeProperty(prefix = "property")
+    private Map<String, Long> propertyKeyCounts;
+
+    @CompositeProperty(prefix = "relationship")
+    private Map<String, Long> relationshipTypeCounts;
+}
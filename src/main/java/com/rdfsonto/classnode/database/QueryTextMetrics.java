@@ -0,0 +1,13 @@
+package com.rdfsonto.classnode.database;
+
+import lombok.Builder;
+
+
+/**
+ * @param newTexts      executions whose text was not among the recently sent ones
+ * @param distinctTexts distinct texts among the recently sent ones
+ */
+@Builder(setterPrefix = "with")
+public record QueryTextMetrics(long executions, long repeatedTexts, long newTexts, long distinctTexts)
+{
+}
@@ -0,0 +1,63 @@
+package com.rdfsonto.classnode.database;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Counts the texts of the write queries sent to Neo4j among the most recently sent ones. Only the queries of this application
+ * are seen, so this is not the hit rate of the query plan cache of the database, which is shared with every other client and
+ * evicts and replans on its own. It shows whether the write path keeps sending a fixed set of parameterized texts: a text
+ * which is new within the window is one the database may have to plan.
+ */
+@Component
+public class QueryTextMonitor
+{
+    private final int windowSize;
+    private final Map<String, Boolean> recentQueries;
+
+    private long repeatedTexts = 0;
+    private long newTexts = 0;
+
+    QueryTextMonitor(@Value("${classnode.query-text.window-size:1000}") final int windowSize)
+    {
+        this.windowSize = Math.max(1, windowSize);
+        this.recentQueries = new LinkedHashMap<>(Math.min(this.windowSize, 1 << 12), 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest)
+            {
+                return size() > QueryTextMonitor.this.windowSize;
+            }
+        };
+    }
+
+    /**
+     * @return the same query text, to be passed on to the driver
+     */
+    synchronized String record(final String queryText)
+    {
+        if (recentQueries.put(queryText, Boolean.TRUE) == null)
+        {
+            newTexts += 1;
+        }
+        else
+        {
+            repeatedTexts += 1;
+        }
+        return queryText;
+    }
+
+    public synchronized QueryTextMetrics getMetrics()
+    {
+        return QueryTextMetrics.builder()
+            .withExecutions(repeatedTexts + newTexts)
+            .withRepeatedTexts(repeatedTexts)
+            .withNewTexts(newTexts)
+            .withDistinctTexts(recentQueries.size())
+            .build();
+    }
+}
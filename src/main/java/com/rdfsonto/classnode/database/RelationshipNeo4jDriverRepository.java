@@ -2,118 +2,89 @@ package com.rdfsonto.classnode.database;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import org.neo4j.driver.Query;
 import org.neo4j.driver.Transaction;
-import org.springframework.data.neo4j.core.Neo4jTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
-import lombok.Builder;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 
+/**
+ * Creates and deletes relationships with one {@code UNWIND} statement per relationship type and batch. The type is part of
+ * the statement, so Neo4j plans it against the type directly and reuses the plan for every batch of that type.
+ */
 @Slf4j
 @Repository
 @Transactional
-@RequiredArgsConstructor
 public class RelationshipNeo4jDriverRepository
 {
-    private final Neo4jTemplate neo4jTemplate;
-
-    @Builder(setterPrefix = "with", toBuilder = true)
-    private record RelationshipId(long startNode, long endNode)
-    {
-    }
-
-    private static final String RELATIONSHIP_IDS_PARAMETER = "relationshipIds";
-
-    private static final String DELETE_RELATIONSHIPS_BY_ID = """
-        MATCH ()-[relation]-()
-        WHERE id(relation) in $relationshipIds
-        DELETE relation
+    private static final String ROWS_PARAMETER = "rows";
+    private static final String SOURCE_ID_PARAMETER = "source";
+    private static final String DESTINATION_ID_PARAMETER = "destination";
+
+    private static final String CREATE_RELATIONSHIPS_TEMPLATE = """
+        UNWIND $rows AS row
+        MATCH (source) WHERE id(source) = row.source
+        MATCH (destination) WHERE id(destination) = row.destination
+        CREATE (source)-[:`%s`]->(destination)
         """;
 
-    private static final String MATCH_LINK_NODES_TEMPLATE = """ 
-        MATCH (n1) WHERE id(n1) = %s
-        MATCH (n2) WHERE id(n2) = %s
+    private static final String DELETE_RELATIONSHIPS_TEMPLATE = """
+        UNWIND $rows AS relationshipId
+        MATCH ()-[relation:`%s`]->() WHERE id(relation) = relationshipId
+        DELETE relation
         """;
 
-    private static final String CREATE_LINK_LEFT_TO_RIGHT_TEMPLATE = """
-        CREATE (n1)-[:`%s`]->(n2)
-        """;
+    private final QueryTextMonitor queryTextMonitor;
+    private final int batchSize;
 
-    private static final String CREATE_LINK_RIGHT_TO_LEFT_TEMPLATE = """
-        CREATE (n1)<-[:`%s`]-(n2)
-        """;
+    RelationshipNeo4jDriverRepository(final QueryTextMonitor queryTextMonitor,
+                                      @Value("${classnode.relationship.batch-size:1000}") final int batchSize)
+    {
+        this.queryTextMonitor = queryTextMonitor;
+        this.batchSize = Math.max(1, batchSize);
+    }
 
-    // TODO - test saving by passing projection to Neo4jTemplate::save(...)
     public boolean save(final List<RelationshipVo> relationships, final Transaction transaction)
     {
-        if (relationships.isEmpty())
-        {
-            return true;
-        }
-
-        final var saveQueries = buildSaveQueries(relationships);
-        saveQueries.forEach(transaction::run);
+        runGroupedByType(CREATE_RELATIONSHIPS_TEMPLATE, relationships, relationship -> Map.of(
+            SOURCE_ID_PARAMETER, relationship.getSourceId(),
+            DESTINATION_ID_PARAMETER, relationship.getDestinationId()), transaction);
         return true;
     }
 
     public boolean delete(final List<RelationshipVo> relationships, final Transaction transaction)
     {
-        if (relationships.isEmpty())
-        {
-            return true;
-        }
-
-        final var deleteQuery = buildDeleteQuery(relationships);
-        transaction.run(deleteQuery);
+        runGroupedByType(DELETE_RELATIONSHIPS_TEMPLATE, relationships, RelationshipVo::getRelationshipId, transaction);
         return true;
     }
 
-    private List<Query> buildSaveQueries(final List<RelationshipVo> relationships)
-    {
-        final var relationshipsGroupedByLink = relationships.stream()
-            .collect(Collectors.groupingBy(x -> RelationshipId.builder()
-                .withStartNode(Math.min(x.getSourceId(), x.getDestinationId()))
-                .withEndNode(Math.max(x.getSourceId(), x.getDestinationId()))
-                .build()));
-
-        return relationshipsGroupedByLink.entrySet().stream()
-            .map(relationshipsByLink -> buildRelationshipQueryForLink(relationshipsByLink.getKey(), relationshipsByLink.getValue()))
-            .toList();
-    }
-
-    private Query buildRelationshipQueryForLink(final RelationshipId relationshipId, List<RelationshipVo> relationships)
+    private void runGroupedByType(final String template,
+                                  final List<RelationshipVo> relationships,
+                                  final Function<RelationshipVo, Object> rowMapper,
+                                  final Transaction transaction)
     {
-        final var start = relationshipId.startNode();
-        final var end = relationshipId.endNode();
-
-        final var query = new StringBuilder(MATCH_LINK_NODES_TEMPLATE.formatted(start, end));
-
-        relationships.forEach(relationship -> {
-            final var outgoing = relationship.getSourceId() == start && relationship.getDestinationId() == end;
-
-            final var createRelationshipStatement = outgoing ?
-                CREATE_LINK_LEFT_TO_RIGHT_TEMPLATE.formatted(relationship.getRelationship()) :
-                CREATE_LINK_RIGHT_TO_LEFT_TEMPLATE.formatted(relationship.getRelationship());
-
-            query.append("\n").append(createRelationshipStatement);
+        final var rowsByType = relationships.stream()
+            .collect(Collectors.groupingBy(RelationshipVo::getRelationship, Collectors.mapping(rowMapper, Collectors.toList())));
+
+        rowsByType.forEach((relationship, rows) -> {
+            final var query = template.formatted(escape(relationship));
+            final var distinctRows = rows.stream().distinct().toList();
+
+            for (int from = 0; from < distinctRows.size(); from += batchSize)
+            {
+                final var batch = distinctRows.subList(from, Math.min(from + batchSize, distinctRows.size()));
+                transaction.run(queryTextMonitor.record(query), Map.of(ROWS_PARAMETER, batch)).consume();
+            }
         });
-
-        return new Query(query.toString());
     }
 
-    private Query buildDeleteQuery(final List<RelationshipVo> relationships)
+    private static String escape(final String relationship)
     {
-        final var relationshipIds = relationships.stream()
-            .map(RelationshipVo::getRelationshipId)
-            .distinct()
-            .toList();
-
-        return new Query(DELETE_RELATIONSHIPS_BY_ID, Map.of(RELATIONSHIP_IDS_PARAMETER, relationshipIds));
+        return relationship.replace("`", "``");
     }
 }
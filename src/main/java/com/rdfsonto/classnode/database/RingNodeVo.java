@@ -0,0 +1,8 @@
+package com.rdfsonto.classnode.database;
+
+/**
+ * @param sourceId smallest id of the previous ring nodes the ring node was reached from
+ */
+public record RingNodeVo(long sourceId, long id)
+{
+}
@@ -0,0 +1,5 @@
+package com.rdfsonto.classnode.database;
+
+public record TraversedNodeVo(long id, int distance)
+{
+}
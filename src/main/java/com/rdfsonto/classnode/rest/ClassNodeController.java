@@ -1,12 +1,15 @@
 package com.rdfsonto.classnode.rest;
 
 import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.INTERNAL_ERROR;
+import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.INVALID_REQUEST;
 import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.NEIGHBOURHOOD_TOO_BIG;
 import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.UNAUTHORIZED_RESOURCE_ACCESS;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import javax.annotation.security.RolesAllowed;
 
@@ -16,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -24,12 +28,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.rdfsonto.classnode.database.QueryTextMonitor;
 import com.rdfsonto.classnode.database.RelationshipDirection;
 import com.rdfsonto.classnode.service.ClassNode;
+import com.rdfsonto.classnode.service.ClassNodeCache;
 import com.rdfsonto.classnode.service.ClassNodeException;
 import com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode;
+import com.rdfsonto.classnode.service.ClassNodePatch;
 import com.rdfsonto.classnode.service.ClassNodeService;
 import com.rdfsonto.infrastructure.security.service.AuthService;
+import com.rdfsonto.util.compression.CompressedIdSet;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -42,10 +50,16 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/neo4j/class")
 public class ClassNodeController
 {
+    private static final int DEFAULT_SCAN_PAGE_SIZE = 1000;
+    private static final int DEFAULT_RING_PAGE_SIZE = 200;
+    private static final int MAX_KNOWN_NODES = 1_000_000;
+
     private final AuthService authService;
     private final ClassNodeService classNodeService;
     private final NodeChangeEventHandler nodeChangeEventHandler;
     private final ClassNodeRestMapper classNodeRestMapper;
+    private final ClassNodeCache classNodeCache;
+    private final QueryTextMonitor queryTextMonitor;
 
     @GetMapping("/{nodeId}")
     ResponseEntity<?> getClassNodeById(@PathVariable final long nodeId, @RequestParam final long projectId)
@@ -69,30 +83,98 @@ public class ClassNodeController
         return ResponseEntity.ok(classNodeService.findByIds(projectId, nodeIds));
     }
 
+    /**
+     * Returns only the nodes the client does not hold yet, together with their relations to the nodes it holds.
+     */
+    @PostMapping("/ids/delta")
+    ResponseEntity<?> getClassNodesDeltaById(@RequestParam final long projectId, @RequestBody final NodeDeltaRequest request)
+    {
+        authService.validateNodeAccess(request.nodeIds());
+
+        if (request.nodeIds() == null || request.nodeIds().isEmpty())
+        {
+            return ResponseEntity.ok(Collections.emptyList());
+        }
+
+        return ResponseEntity.ok(classNodeService.findByIds(projectId, request.nodeIds(), parseKnownNodes(request.knownNodes())));
+    }
+
+    @GetMapping("/scan")
+    ResponseEntity<?> scanClassNodes(@RequestParam final long projectId,
+                                     @RequestParam final Optional<String> continuationToken,
+                                     @RequestParam final Optional<Integer> pageSize)
+    {
+        authService.validateProjectAccess(projectId);
+
+        final var scanResult = classNodeService.scanByProject(projectId, continuationToken.orElse(null), pageSize.orElse(DEFAULT_SCAN_PAGE_SIZE));
+        return ResponseEntity.ok(scanResult);
+    }
+
     @GetMapping("/neighbours/{nodeId}")
     ResponseEntity<?> getClassNodeNeighbours(@PathVariable final long nodeId,
                                              @RequestParam final int maxDistance,
                                              @RequestParam final long projectId,
-                                             @RequestParam final Optional<RelationshipDirection> relationshipDirection)
+                                             @RequestParam final Optional<RelationshipDirection> relationshipDirection,
+                                             @RequestParam final Optional<List<String>> relationships)
     {
-        authService.validateNodeAccess(List.of(nodeId));
-
-        final var direction = relationshipDirection.orElse(RelationshipDirection.ANY);
+        return getClassNodeNeighbours(nodeId, maxDistance, projectId, relationshipDirection, relationships, CompressedIdSet.empty());
+    }
 
-        final var neighbours = classNodeService.findNeighbours(projectId, nodeId, maxDistance, List.of(), direction);
-        return ResponseEntity.ok(neighbours);
+    /**
+     * Known nodes grow with the explored part of the graph, so they are sent in the body, encoded with
+     * {@link CompressedIdSet#toEncodedString()}.
+     */
+    @PostMapping("/neighbours/{nodeId}")
+    ResponseEntity<?> getClassNodeNeighboursDelta(@PathVariable final long nodeId,
+                                                  @RequestParam final int maxDistance,
+                                                  @RequestParam final long projectId,
+                                                  @RequestParam final Optional<RelationshipDirection> relationshipDirection,
+                                                  @RequestParam final Optional<List<String>> relationships,
+                                                  @RequestBody(required = false) final String knownNodes)
+    {
+        return getClassNodeNeighbours(nodeId, maxDistance, projectId, relationshipDirection, relationships, parseKnownNodes(knownNodes));
     }
 
     @GetMapping("/neighbours/uri")
     ResponseEntity<?> getClassNodeNeighboursByUri(@RequestParam final String uri,
                                                   @RequestParam final int maxDistance,
                                                   @RequestParam final long projectId,
-                                                  @RequestParam final Optional<RelationshipDirection> relationshipDirection)
+                                                  @RequestParam final Optional<RelationshipDirection> relationshipDirection,
+                                                  @RequestParam final Optional<List<String>> relationships)
+    {
+        return getClassNodeNeighboursByUri(uri, maxDistance, projectId, relationshipDirection, relationships, CompressedIdSet.empty());
+    }
+
+    @PostMapping("/neighbours/uri")
+    ResponseEntity<?> getClassNodeNeighboursDeltaByUri(@RequestParam final String uri,
+                                                       @RequestParam final int maxDistance,
+                                                       @RequestParam final long projectId,
+                                                       @RequestParam final Optional<RelationshipDirection> relationshipDirection,
+                                                       @RequestParam final Optional<List<String>> relationships,
+                                                       @RequestBody(required = false) final String knownNodes)
+    {
+        return getClassNodeNeighboursByUri(uri, maxDistance, projectId, relationshipDirection, relationships, parseKnownNodes(knownNodes));
+    }
+
+    /**
+     * Continuation tokens carry the visited part of the neighbourhood and grow with it, so they are sent in the body.
+     */
+    @PostMapping("/neighbours/{nodeId}/rings")
+    ResponseEntity<?> expandClassNodeNeighbourhoodRings(@PathVariable final long nodeId,
+                                                        @RequestParam final int maxDistance,
+                                                        @RequestParam final long projectId,
+                                                        @RequestParam final Optional<RelationshipDirection> relationshipDirection,
+                                                        @RequestParam final Optional<List<String>> relationships,
+                                                        @RequestParam final Optional<Integer> pageSize,
+                                                        @RequestBody(required = false) final String continuationToken)
     {
+        authService.validateNodeAccess(List.of(nodeId));
+
         final var direction = relationshipDirection.orElse(RelationshipDirection.ANY);
 
-        final var neighbours = classNodeService.findNeighboursByUri(projectId, uri, maxDistance, List.of(), direction);
-        return ResponseEntity.ok(neighbours);
+        final var ringPage = classNodeService.expandRings(
+            projectId, nodeId, maxDistance, relationships.orElse(List.of()), direction, pageSize.orElse(DEFAULT_RING_PAGE_SIZE), continuationToken);
+        return ResponseEntity.ok(ringPage);
     }
 
     @PostMapping
@@ -113,6 +195,15 @@ public class ClassNodeController
         return ResponseEntity.ok(classNodeService.save(projectId, parsed));
     }
 
+    @PatchMapping("/{nodeId}")
+    ResponseEntity<?> patchNode(@PathVariable final long nodeId, @RequestParam final long projectId, @RequestBody final ClassNodePatch patch)
+    {
+        authService.validateNodeAccess(List.of(nodeId));
+
+        final var parsed = classNodeRestMapper.mapTypes(patch);
+        return ResponseEntity.ok(classNodeService.patch(projectId, nodeId, parsed));
+    }
+
     @DeleteMapping("/{projectId}/{nodeId}")
     ResponseEntity<?> deleteNode(@PathVariable final long projectId, @PathVariable final long nodeId)
     {
@@ -125,10 +216,22 @@ public class ClassNodeController
     @PutMapping("/multiple")
     ResponseEntity<?> multipleNodeUpdates(@RequestBody List<NodeChangeEvent> events, @RequestParam final long projectId)
     {
+        authService.validateProjectAccess(projectId);
+
         if (events == null || events.isEmpty())
         {
             return ResponseEntity.badRequest().body(ClassNodeExceptionErrorCode.EMPTY_REQUEST);
         }
+
+        // Nodes of other projects are rejected again inside the transaction which applies the batch.
+        final var referencedIds = events.stream()
+            .flatMap(event -> Stream.concat(
+                event.type() == NodeChangeEvent.ChangeEventType.CREATE ? Stream.<Long>empty() : Stream.of(event.nodeId()),
+                neighbourIds(event.body())))
+            .distinct()
+            .toList();
+        authService.validateNodeAccess(referencedIds);
+
         return ResponseEntity.ok(nodeChangeEventHandler.handleEvents(events, projectId));
     }
 
@@ -140,6 +243,18 @@ public class ClassNodeController
         return ResponseEntity.ok(classNodeService.findProjectNodeMetaData(projectId));
     }
 
+    @GetMapping("/cache/metrics")
+    ResponseEntity<?> getCacheMetrics()
+    {
+        return ResponseEntity.ok(classNodeCache.getMetrics());
+    }
+
+    @GetMapping("/query-texts/metrics")
+    ResponseEntity<?> getQueryTextMetrics()
+    {
+        return ResponseEntity.ok(queryTextMonitor.getMetrics());
+    }
+
     @PostMapping("/filter")
     ResponseEntity<?> getNodesFiltered(@RequestBody final FilterPropertyRequest request, final Pageable pageable)
     {
@@ -156,6 +271,64 @@ public class ClassNodeController
         return ResponseEntity.ok(result);
     }
 
+    private ResponseEntity<?> getClassNodeNeighbours(final long nodeId,
+                                                     final int maxDistance,
+                                                     final long projectId,
+                                                     final Optional<RelationshipDirection> relationshipDirection,
+                                                     final Optional<List<String>> relationships,
+                                                     final CompressedIdSet knownNodeIds)
+    {
+        authService.validateNodeAccess(List.of(nodeId));
+
+        final var direction = relationshipDirection.orElse(RelationshipDirection.ANY);
+
+        final var neighbours = classNodeService.findNeighbours(
+            projectId, nodeId, maxDistance, relationships.orElse(List.of()), direction, knownNodeIds);
+        return ResponseEntity.ok(neighbours);
+    }
+
+    private ResponseEntity<?> getClassNodeNeighboursByUri(final String uri,
+                                                          final int maxDistance,
+                                                          final long projectId,
+                                                          final Optional<RelationshipDirection> relationshipDirection,
+                                                          final Optional<List<String>> relationships,
+                                                          final CompressedIdSet knownNodeIds)
+    {
+        final var direction = relationshipDirection.orElse(RelationshipDirection.ANY);
+
+        final var neighbours = classNodeService.findNeighboursByUri(
+            projectId, uri, maxDistance, relationships.orElse(List.of()), direction, knownNodeIds);
+        return ResponseEntity.ok(neighbours);
+    }
+
+    private static Stream<Long> neighbourIds(final ClassNode node)
+    {
+        return Stream.ofNullable(node)
+            .flatMap(nonNullNode -> Stream.of(nonNullNode.incomingNeighbours(), nonNullNode.outgoingNeighbours()))
+            .filter(Objects::nonNull)
+            .flatMap(neighbours -> neighbours.keySet().stream());
+    }
+
+    /**
+     * @param knownNodes ids of nodes already held by the client, encoded with {@link CompressedIdSet#toEncodedString()}
+     */
+    private static CompressedIdSet parseKnownNodes(final String knownNodes)
+    {
+        if (knownNodes == null || knownNodes.isBlank())
+        {
+            return CompressedIdSet.empty();
+        }
+
+        try
+        {
+            return CompressedIdSet.fromEncodedString(knownNodes.strip(), MAX_KNOWN_NODES);
+        }
+        catch (final IllegalArgumentException exception)
+        {
+            throw new ClassNodeException("Invalid set of known nodes: %s.".formatted(exception.getMessage()), INVALID_REQUEST);
+        }
+    }
+
     @ExceptionHandler(ClassNodeException.class)
     public ResponseEntity<?> handle(final ClassNodeException classNodeException)
     {
@@ -11,6 +11,7 @@ import java.util.stream.Collectors;
 import org.springframework.stereotype.Component;
 
 import com.rdfsonto.classnode.service.ClassNode;
+import com.rdfsonto.classnode.service.ClassNodePatch;
 
 import lombok.RequiredArgsConstructor;
 
@@ -21,7 +22,21 @@ public class ClassNodeRestMapper
 {
     ClassNode mapTypes(final ClassNode node)
     {
-        final var parsedProps = node.properties().entrySet().stream()
+        return node.toBuilder()
+            .withProperties(mapTypes(node.properties()))
+            .build();
+    }
+
+    ClassNodePatch mapTypes(final ClassNodePatch patch)
+    {
+        return patch.setProperties() == null ? patch : patch.toBuilder()
+            .withSetProperties(mapTypes(patch.setProperties()))
+            .build();
+    }
+
+    private Map<String, Object> mapTypes(final Map<String, Object> properties)
+    {
+        return properties.entrySet().stream()
             .map(prop -> {
                 final var values = (List<Object>) prop.getValue();
                 return Map.entry(prop.getKey(), (Object) values.stream()
@@ -37,9 +52,5 @@ public class ClassNodeRestMapper
                         }
                     }).toList());
             }).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-        return node.toBuilder()
-            .withProperties(parsedProps)
-            .build();
     }
 }
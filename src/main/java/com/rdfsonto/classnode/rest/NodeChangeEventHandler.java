@@ -1,11 +1,13 @@
 package com.rdfsonto.classnode.rest;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
-import org.apache.commons.lang3.NotImplementedException;
 import org.springframework.stereotype.Component;
 
 import com.rdfsonto.classnode.service.ClassNodeService;
+import com.rdfsonto.classnode.service.NodeChange;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,74 +20,25 @@ public class NodeChangeEventHandler
 {
     private final ClassNodeService classNodeService;
 
-    public List<NodeChangeEventResponse> handleEvents(List<NodeChangeEvent> events, final Long projectId)
+    public List<NodeChangeEventResponse> handleEvents(final List<NodeChangeEvent> events, final Long projectId)
     {
-        return events.stream().map(event -> {
-            switch (event.type())
-            {
-                case CREATE ->
-                {
-                    return handleCreate(event, projectId);
-                }
-                case DELETE ->
-                {
-                    return handleDelete(event);
-                }
-                case UPDATE ->
-                {
-                    return handleUpdate(event);
-                }
-                default ->
-                {
-                    log.warn("Invalid request type: {}", event.type());
-                    return failedEvent(event);
-                }
-            }
-        }).toList();
+        final var changes = events.stream()
+            .map(event -> NodeChange.builder()
+                .withType(Optional.ofNullable(event.type()).map(type -> NodeChange.Type.valueOf(type.name())).orElse(null))
+                .withNodeId(event.nodeId())
+                .withNode(event.body())
+                .build())
+            .toList();
+
+        final var results = classNodeService.applyChanges(projectId, changes);
+
+        return IntStream.range(0, events.size())
+            .mapToObj(index -> NodeChangeEventResponse.builder()
+                .withEvent(events.get(index))
+                .withFailed(results.get(index).failed())
+                .withBody(results.get(index).node())
+                .withError(results.get(index).error())
+                .build())
+            .toList();
     }
-
-    private NodeChangeEventResponse handleDelete(final NodeChangeEvent deleteEvent)
-    {
-       /* classNodeService.deleteById(deleteEvent.nodeId(), 0);
-        // TODO / TO_DELETE final var isDeleted = classNodeService.findById(deleteEvent.nodeId()).isEmpty();
-*/
-        return NodeChangeEventResponse.builder()
-            .withEvent(deleteEvent)
-            //.withFailed(isDeleted)
-            .build();
-    }
-
-    private NodeChangeEventResponse handleCreate(final NodeChangeEvent createEvent, final Long projectId)
-    {
-        final var savedNode = classNodeService.save(projectId, createEvent.body());
-
-        final var responseBuilder = NodeChangeEventResponse.builder()
-            .withEvent(createEvent)
-            .withBody(savedNode)
-            .withFailed(false);
-
-        return responseBuilder.build();
-    }
-
-    private NodeChangeEventResponse handleUpdate(final NodeChangeEvent updateEvent)
-    {
-        throw new NotImplementedException();
-
-       /* final var updatedNode = classNodeService.save(updateEvent.body(), 0);
-
-        final var responseBuilder = NodeChangeEventResponse.builder()
-            .withEvent(updateEvent)
-            .withBody(updatedNode)
-            .withFailed(false);
-
-        return responseBuilder.build();*/
-    }
-
-    private NodeChangeEventResponse failedEvent(final NodeChangeEvent changeEvent)
-    {
-        return NodeChangeEventResponse.builder()
-            .withEvent(changeEvent)
-            .withFailed(true)
-            .build();
-    }
-}
\ No newline at end of file
+}
@@ -6,6 +6,6 @@ import lombok.Builder;
 
 
 @Builder(setterPrefix = "with")
-public record NodeChangeEventResponse(NodeChangeEvent event, boolean failed, ClassNode body)
+public record NodeChangeEventResponse(NodeChangeEvent event, boolean failed, ClassNode body, String error)
 {
 }
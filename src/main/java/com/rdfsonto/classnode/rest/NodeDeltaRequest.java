@@ -0,0 +1,13 @@
+package com.rdfsonto.classnode.rest;
+
+import java.util.List;
+
+import com.rdfsonto.util.compression.CompressedIdSet;
+
+
+/**
+ * @param knownNodes ids of nodes already held by the client, encoded with {@link CompressedIdSet#toEncodedString()}
+ */
+public record NodeDeltaRequest(List<Long> nodeIds, String knownNodes)
+{
+}
@@ -1,5 +1,6 @@
 package com.rdfsonto.classnode.service;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 
@@ -14,6 +15,6 @@ public record ClassNode(Long id, List<String> classLabels,
                         Map<Long, List<String>> incomingNeighbours,
                         Map<Long, List<String>> outgoingNeighbours,
                         Map<String, Object> properties,
-                        String uri)
+                        String uri) implements Serializable
 {
 }
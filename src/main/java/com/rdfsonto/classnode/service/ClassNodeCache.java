@@ -0,0 +1,262 @@
+package com.rdfsonto.classnode.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rdfsonto.util.offheap.OffHeapLruStore;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Per-project cache of hydrated class nodes with uniqueness already removed. The first tier is a bounded LRU map on the
+ * heap, nodes evicted from it are serialized into an optional off-heap tier and promoted back on a hit.
+ * <p>
+ * A read-through takes the {@link #generation(long, long) generation} of the key before loading the node, an invalidation in
+ * between moves the generation on and the late {@link #put(long, ClassNode, long) put} of the loaded node is refused. Keys are
+ * spread over a fixed number of generation stripes, keys sharing a stripe only cause an occasional refused put.
+ * <p>
+ * Nodes are serialized and deserialized outside of the cache lock. An evicted node is missing from both tiers until it is
+ * serialized, a lookup in between is a miss.
+ */
+@Slf4j
+@Component
+public class ClassNodeCache
+{
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final int heapEntries;
+    private final Map<CacheKey, ClassNode> heapTier;
+    private final OffHeapLruStore<CacheKey> offHeapTier;
+    private final long[] generations = new long[GENERATION_STRIPES];
+    private final List<Demotion> pendingDemotions = new ArrayList<>();
+
+    private long heapHits = 0;
+    private long heapEvictions = 0;
+    private long offHeapHits = 0;
+    private long misses = 0;
+    private long invalidations = 0;
+
+    ClassNodeCache(@Value("${classnode.cache.heap-entries:10000}") final int heapEntries,
+                   @Value("${classnode.cache.off-heap-bytes:0}") final long offHeapBytes)
+    {
+        this.heapEntries = Math.max(0, heapEntries);
+        this.offHeapTier = offHeapBytes > 0 ? new OffHeapLruStore<>(offHeapBytes) : null;
+        this.heapTier = new LinkedHashMap<>(Math.min(this.heapEntries, 1 << 16), 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<CacheKey, ClassNode> eldest)
+            {
+                final var evict = size() > ClassNodeCache.this.heapEntries;
+                if (evict)
+                {
+                    heapEvictions += 1;
+                    if (offHeapTier != null)
+                    {
+                        pendingDemotions.add(new Demotion(eldest.getKey(), eldest.getValue(), generations[stripe(eldest.getKey())]));
+                    }
+                }
+                return evict;
+            }
+        };
+    }
+
+    Optional<ClassNode> get(final long projectId, final long nodeId)
+    {
+        final var key = new CacheKey(projectId, nodeId);
+        final byte[] serialized;
+        final long generation;
+
+        synchronized (this)
+        {
+            final var cached = heapTier.get(key);
+            if (cached != null)
+            {
+                heapHits += 1;
+                return Optional.of(cached);
+            }
+
+            serialized = offHeapTier == null ? null : offHeapTier.get(key);
+            if (serialized == null)
+            {
+                misses += 1;
+                return Optional.empty();
+            }
+
+            offHeapTier.remove(key);
+            generation = generations[stripe(key)];
+        }
+
+        final var node = deserialize(serialized);
+        synchronized (this)
+        {
+            if (node == null)
+            {
+                misses += 1;
+                return Optional.empty();
+            }
+            offHeapHits += 1;
+        }
+
+        // The promotion is refused like a late put when the node was invalidated while it was deserialized.
+        put(projectId, node, generation);
+        return Optional.of(node);
+    }
+
+    /**
+     * @return generation to pass to {@link #put(long, ClassNode, long)} of the node loaded after this call
+     */
+    synchronized long generation(final long projectId, final long nodeId)
+    {
+        return generations[stripe(new CacheKey(projectId, nodeId))];
+    }
+
+    /**
+     * Caches a node loaded from the database, unless the node was invalidated since its generation was taken.
+     */
+    void put(final long projectId, final ClassNode node, final long generation)
+    {
+        final List<Demotion> demotions;
+
+        synchronized (this)
+        {
+            final var key = new CacheKey(projectId, node.id());
+            if (heapEntries > 0 && generations[stripe(key)] == generation)
+            {
+                heapTier.put(key, node);
+            }
+
+            demotions = pendingDemotions.isEmpty() ? List.of() : List.copyOf(pendingDemotions);
+            pendingDemotions.clear();
+        }
+
+        demotions.forEach(this::demote);
+    }
+
+    synchronized void invalidate(final long projectId, final Collection<Long> nodeIds)
+    {
+        nodeIds.forEach(nodeId -> {
+            final var key = new CacheKey(projectId, nodeId);
+            generations[stripe(key)] += 1;
+            final var removedFromHeap = heapTier.remove(key) != null;
+            final var removedFromOffHeap = offHeapTier != null && offHeapTier.remove(key);
+
+            if (removedFromHeap || removedFromOffHeap)
+            {
+                invalidations += 1;
+            }
+        });
+    }
+
+    public synchronized void invalidateProject(final long projectId)
+    {
+        for (int i = 0; i < generations.length; i++)
+        {
+            generations[i] += 1;
+        }
+
+        final var heapSize = heapTier.size();
+        heapTier.keySet().removeIf(key -> key.projectId() == projectId);
+        invalidations += heapSize - heapTier.size();
+
+        if (offHeapTier != null)
+        {
+            final var offHeapSize = offHeapTier.size();
+            offHeapTier.removeIf(key -> key.projectId() == projectId);
+            invalidations += offHeapSize - offHeapTier.size();
+        }
+    }
+
+    public synchronized ClassNodeCacheMetrics getMetrics()
+    {
+        final var lookups = heapHits + offHeapHits + misses;
+
+        return ClassNodeCacheMetrics.builder()
+            .withHeapEntries(heapTier.size())
+            .withHeapHits(heapHits)
+            .withHeapEvictions(heapEvictions)
+            .withOffHeapEntries(offHeapTier == null ? 0 : offHeapTier.size())
+            .withOffHeapHits(offHeapHits)
+            .withOffHeapEvictions(offHeapTier == null ? 0 : offHeapTier.evictions())
+            .withOffHeapMemoryBytes(offHeapTier == null ? 0 : offHeapTier.memoryUsageBytes())
+            .withMisses(misses)
+            .withInvalidations(invalidations)
+            .withHitRatio(lookups == 0 ? 0 : (double) (heapHits + offHeapHits) / lookups)
+            .build();
+    }
+
+    private static int stripe(final CacheKey key)
+    {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    /**
+     * Serializes an evicted node without holding the lock, the node is dropped when it was invalidated or cached again meanwhile.
+     */
+    private void demote(final Demotion demotion)
+    {
+        final var serialized = serialize(demotion.node());
+        if (serialized == null)
+        {
+            return;
+        }
+
+        synchronized (this)
+        {
+            final var key = demotion.key();
+            if (generations[stripe(key)] == demotion.generation() && !heapTier.containsKey(key))
+            {
+                offHeapTier.put(key, serialized);
+            }
+        }
+    }
+
+    private static byte[] serialize(final ClassNode node)
+    {
+        final var bytes = new ByteArrayOutputStream();
+        try (final var output = new ObjectOutputStream(bytes))
+        {
+            output.writeObject(node);
+        }
+        catch (final IOException ioException)
+        {
+            // Properties of exotic types (e.g. spatial points) are not serializable, such nodes stay on the heap tier only.
+            log.debug("Could not move class node with ID: {} to the off-heap tier: {}", node.id(), ioException.getMessage());
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ClassNode deserialize(final byte[] serialized)
+    {
+        try (final var input = new ObjectInputStream(new ByteArrayInputStream(serialized)))
+        {
+            return (ClassNode) input.readObject();
+        }
+        catch (final IOException | ClassNotFoundException exception)
+        {
+            log.warn("Could not read a class node from the off-heap tier: {}", exception.getMessage());
+            return null;
+        }
+    }
+
+    private record CacheKey(long projectId, long nodeId)
+    {
+    }
+
+    private record Demotion(CacheKey key, ClassNode node, long generation)
+    {
+    }
+}
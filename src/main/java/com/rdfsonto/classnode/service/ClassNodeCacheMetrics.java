@@ -0,0 +1,18 @@
+package com.rdfsonto.classnode.service;
+
+import lombok.Builder;
+
+
+@Builder(setterPrefix = "with")
+public record ClassNodeCacheMetrics(long heapEntries,
+                                    long heapHits,
+                                    long heapEvictions,
+                                    long offHeapEntries,
+                                    long offHeapHits,
+                                    long offHeapEvictions,
+                                    long offHeapMemoryBytes,
+                                    long misses,
+                                    long invalidations,
+                                    double hitRatio)
+{
+}
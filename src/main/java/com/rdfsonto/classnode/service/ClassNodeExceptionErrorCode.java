@@ -12,5 +12,6 @@ public enum ClassNodeExceptionErrorCode
     INTERNAL_ERROR,
     INVALID_PREFIX,
     UNAUTHORIZED_RESOURCE_ACCESS,
-    NEIGHBOURHOOD_TOO_BIG
+    NEIGHBOURHOOD_TOO_BIG,
+    INVALID_CONTINUATION_TOKEN
 }
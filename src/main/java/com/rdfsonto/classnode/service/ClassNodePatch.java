@@ -0,0 +1,26 @@
+package com.rdfsonto.classnode.service;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Builder;
+
+
+/**
+ * Explicit changes of a single node. Labels, properties and relationships which are not mentioned stay untouched.
+ *
+ * @param setProperties             properties added or overwritten
+ * @param addedIncomingNeighbours   relationships from the neighbours to the node, already existing ones are not duplicated
+ * @param removedIncomingNeighbours relationships from the neighbours to the node which are deleted
+ */
+@Builder(setterPrefix = "with", toBuilder = true)
+public record ClassNodePatch(List<String> addedLabels,
+                             List<String> removedLabels,
+                             Map<String, Object> setProperties,
+                             List<String> removedProperties,
+                             Map<Long, List<String>> addedIncomingNeighbours,
+                             Map<Long, List<String>> addedOutgoingNeighbours,
+                             Map<Long, List<String>> removedIncomingNeighbours,
+                             Map<Long, List<String>> removedOutgoingNeighbours)
+{
+}
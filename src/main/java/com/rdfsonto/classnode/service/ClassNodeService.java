@@ -7,12 +7,18 @@ import org.springframework.data.domain.Pageable;
 
 import com.rdfsonto.classnode.database.RelationshipDirection;
 import com.rdfsonto.elastic.service.SearchAfterParams;
+import com.rdfsonto.util.compression.CompressedIdSet;
 
 
 public interface ClassNodeService
 {
     List<ClassNode> findByIds(long projectId, List<Long> ids);
 
+    /**
+     * @param knownNodeIds nodes already held by the client, they are left out and only relations to them are returned
+     */
+    List<ClassNode> findByIds(long projectId, List<Long> ids, CompressedIdSet knownNodeIds);
+
     List<ClassNode> findByIdsLight(long projectId, List<Long> ids);
 
     NodeSearchResult findByPropertiesAndLabels(long projectId,
@@ -24,23 +30,47 @@ public interface ClassNodeService
 
     List<ClassNode> findByProject(final long projectId, final Pageable page);
 
+    NodeScanResult scanByProject(long projectId, String continuationToken, int pageSize);
+
     Optional<ClassNode> findById(long projectId, Long id);
 
-    List<ClassNode> findNeighboursByUri(long projectId,
-                                        String nodeUri,
-                                        int maxDistance,
-                                        List<String> allowedRelationships,
-                                        RelationshipDirection relationshipDirection);
+    NeighbourhoodResult findNeighboursByUri(long projectId,
+                                            String nodeUri,
+                                            int maxDistance,
+                                            List<String> allowedRelationships,
+                                            RelationshipDirection relationshipDirection,
+                                            CompressedIdSet knownNodeIds);
+
+    NeighbourhoodResult findNeighbours(long projectId,
+                                       long id,
+                                       int maxDistance,
+                                       List<String> allowedRelationships,
+                                       RelationshipDirection relationshipDirection,
+                                       CompressedIdSet knownNodeIds);
 
-    List<ClassNode> findNeighbours(long projectId,
-                                   long id,
-                                   int maxDistance,
-                                   List<String> allowedRelationships,
-                                   RelationshipDirection relationshipDirection);
+    NeighbourhoodRingPage expandRings(long projectId,
+                                      long nodeId,
+                                      int maxDistance,
+                                      List<String> allowedRelationships,
+                                      RelationshipDirection relationshipDirection,
+                                      int pageSize,
+                                      String continuationToken);
 
     ClassNode save(long projectId, ClassNode node);
 
+    /**
+     * @return patched node without its neighbours, the patch does not read them
+     */
+    ClassNode patch(long projectId, long nodeId, ClassNodePatch patch);
+
     void deleteById(long projectId, long id);
 
+    /**
+     * Validates all changes first, then applies the valid ones in a single transaction.
+     *
+     * @return result of every change, in the order of {@code changes}
+     */
+    List<NodeChangeResult> applyChanges(long projectId, List<NodeChange> changes);
+
     ProjectNodeMetadata findProjectNodeMetaData(long projectId);
 }
@@ -1,15 +1,25 @@
 package com.rdfsonto.classnode.service;
 
+import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.INVALID_CONTINUATION_TOKEN;
 import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.INVALID_MAX_DISTANCE;
 import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.INVALID_NODE_ID;
 import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.INVALID_NODE_URI;
 import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.INVALID_PROJECT_ID;
 import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.INVALID_REQUEST;
-import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.NEIGHBOURHOOD_TOO_BIG;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.springframework.data.domain.Pageable;
@@ -18,14 +28,20 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.github.jsonldjava.shaded.com.google.common.collect.Streams;
 import com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepository;
-import com.rdfsonto.classnode.database.ClassNodeProjection;
 import com.rdfsonto.classnode.database.ClassNodeRepository;
 import com.rdfsonto.classnode.database.ClassNodeVo;
+import com.rdfsonto.classnode.database.NodeChangeBatchNeo4jDriverRepository;
+import com.rdfsonto.classnode.database.NodeChangeJournalRepository;
 import com.rdfsonto.classnode.database.RelationshipDirection;
+import com.rdfsonto.classnode.database.RingNodeVo;
+import com.rdfsonto.classnode.database.TraversedNodeVo;
 import com.rdfsonto.elastic.service.ElasticSearchClassNode;
 import com.rdfsonto.elastic.service.ElasticSearchClassNodeService;
 import com.rdfsonto.elastic.service.SearchAfterParams;
+import com.rdfsonto.infrastructure.security.service.TokenSigner;
 import com.rdfsonto.project.service.ProjectService;
+import com.rdfsonto.util.compression.CompressedIdSet;
+import com.rdfsonto.util.database.KeysetCursor;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -38,12 +54,16 @@ import lombok.extern.slf4j.Slf4j;
 public class ClassNodeServiceImpl implements ClassNodeService
 {
     private static final String URI_PROPERTY = "uri";
+    private static final String RESOURCE_LABEL = "Resource";
     private static final String USER_NAMESPACE_LABEL_PREFIX = "http://www.user_neo4j.com";
-    private final static long MAX_NUMBER_OF_NEIGHBOURS = 1000;
+    private final static int MAX_NUMBER_OF_NEIGHBOURS = 1000;
+    private final static int MAX_SCAN_PAGE_SIZE = 50_000;
 
     private final ProjectService projectService;
     private final ClassNodeRepository classNodeRepository;
     private final ClassNodeNeo4jDriverRepository classNodeNeo4jDriverRepository;
+    private final NodeChangeBatchNeo4jDriverRepository nodeChangeBatchNeo4jDriverRepository;
+    private final NodeChangeJournalRepository nodeChangeJournalRepository;
     private final ClassNodeMapper classNodeMapper;
     private final UriUniquenessHandler uriHandler;
     private final UriRemoveUniquenessHandler uriRemoveHandler;
@@ -51,46 +71,26 @@ public class ClassNodeServiceImpl implements ClassNodeService
     private final RemovePrefixHandler removePrefixHandler;
     private final ClassNodeValidator classNodeValidator;
     private final ElasticSearchClassNodeService elasticSearchClassNodeService;
+    private final ClassNodeCache classNodeCache;
+    private final ProjectMetadataCatalog projectMetadataCatalog;
+    private final TokenSigner tokenSigner;
 
     @Override
     public List<ClassNode> findByIds(final long projectId, final List<Long> ids)
     {
-        final var projectedNodes = classNodeRepository.findAllByIdIn(ids);
-
-        if (projectedNodes.size() != ids.size())
-        {
-            throw new IllegalStateException("Not all nodes exist");
-        }
-        final var properties = classNodeNeo4jDriverRepository.findAllNodeProperties(ids);
-
-        final var incoming = classNodeNeo4jDriverRepository.findAllIncomingNeighbours(ids, true);
-        final var outgoing = classNodeNeo4jDriverRepository.findAllOutgoingNeighbours(ids, true);
-
-        final var groupedIncoming = incoming.stream().collect(Collectors.groupingBy(ClassNodeVo::getSource));
-        final var groupedOutgoing = outgoing.stream().collect(Collectors.groupingBy(ClassNodeVo::getSource));
-
-        final var notHydratedNodes = projectedNodes.stream()
-            .map(projectedNode -> ClassNodeVo.builder()
-                .withId(projectedNode.getId())
-                .withUri(projectedNode.getUri())
-                .withClassLabels(projectedNode.getClassLabels())
-                .build())
-            .toList();
-
-        notHydratedNodes.forEach(node -> {
-            final var props = properties.get(node.getId());
-            node.setProperties(props);
-        });
+        return findByIds(projectId, ids, CompressedIdSet.empty());
+    }
 
-        final var nonPrefixedNodes = notHydratedNodes.stream()
-            .map(node ->
-                classNodeMapper.mapToDomain(node,
-                    groupedIncoming.get(node.getId()),
-                    groupedOutgoing.get(node.getId())))
-            .map(uriRemoveHandler::removeUniqueness)
-            .toList();
+    @Override
+    public List<ClassNode> findByIds(final long projectId, final List<Long> ids, final CompressedIdSet knownNodeIds)
+    {
+        final var fetchedIds = Set.copyOf(ids);
+        final var newIds = fetchedIds.stream()
+            .filter(id -> !knownNodeIds.contains(id))
+            .collect(Collectors.toSet());
 
-        return prefixHandler.applyPrefix(nonPrefixedNodes, projectId);
+        final var newNodes = hydrate(projectId, newIds, neighbourId -> fetchedIds.contains(neighbourId) || knownNodeIds.contains(neighbourId));
+        return prefixHandler.applyPrefix(newNodes, projectId);
     }
 
     @Override
@@ -148,40 +148,59 @@ public class ClassNodeServiceImpl implements ClassNodeService
     }
 
     @Override
-    public Optional<ClassNode> findById(final long projectId, final Long id)
+    public NodeScanResult scanByProject(final long projectId, final String continuationToken, final int pageSize)
     {
-        final var notHydratedNodeProjection = classNodeRepository.findAllByIdIn(List.of(id)).stream().findFirst();
-
-        if (notHydratedNodeProjection.isEmpty())
+        if (pageSize <= 0 || pageSize > MAX_SCAN_PAGE_SIZE)
         {
-            return Optional.empty();
+            throw new ClassNodeException("Page size has to be between 1 and %s.".formatted(MAX_SCAN_PAGE_SIZE), INVALID_REQUEST);
         }
 
-        final var notHydratedNode = ClassNodeVo.builder()
-            .withId(notHydratedNodeProjection.get().getId())
-            .withUri(notHydratedNodeProjection.get().getUri())
-            .withClassLabels(notHydratedNodeProjection.get().getClassLabels())
-            .build();
-
-        final var properties = classNodeNeo4jDriverRepository.findAllNodeProperties(List.of(id));
+        final var projectLabel = projectService.findById(projectId)
+            .map(projectService::getProjectTag)
+            .map(uriHandler::getClassNodeLabel)
+            .orElseThrow(() -> new ClassNodeException("Project with id: %s does not exist.".formatted(projectId), INVALID_PROJECT_ID));
 
-        notHydratedNode.setProperties(properties.get(id));
+        final var cursor = continuationToken == null ?
+            KeysetCursor.first(pageSize) :
+            parseContinuationToken(continuationToken).toBuilder().withPageSize(pageSize).build();
 
-        final var nodeId = List.of(id);
-        final var incoming = classNodeNeo4jDriverRepository.findAllIncomingNeighbours(nodeId, false);
-        final var outgoing = classNodeNeo4jDriverRepository.findAllOutgoingNeighbours(nodeId, false);
+        final var page = classNodeNeo4jDriverRepository.findAllByProject(projectLabel, cursor);
 
-        return Optional.of(classNodeMapper.mapToDomain(notHydratedNode, incoming, outgoing))
+        final var noneUnique = page.content().stream()
+            .map(node -> classNodeMapper.mapToDomain(node, null, null))
             .map(uriRemoveHandler::removeUniqueness)
+            .toList();
+
+        return NodeScanResult.builder()
+            .withNodes(prefixHandler.applyPrefix(noneUnique, projectId))
+            .withContinuationToken(page.hasNext() ? page.nextCursor().toToken() : null)
+            .build();
+    }
+
+    @Override
+    public Optional<ClassNode> findById(final long projectId, final Long id)
+    {
+        return classNodeCache.get(projectId, id)
+            .or(() -> {
+                final var generation = classNodeCache.generation(projectId, id);
+                return classNodeNeo4jDriverRepository.findAllHydrated(List.of(id), false).stream()
+                    .findFirst()
+                    .map(uriRemoveHandler::removeUniqueness)
+                    .map(node -> {
+                        classNodeCache.put(projectId, node, generation);
+                        return node;
+                    });
+            })
             .map(node -> prefixHandler.applyPrefix(node, projectId));
     }
 
     @Override
-    public List<ClassNode> findNeighboursByUri(final long projectId,
-                                               final String nodeUri,
-                                               final int maxDistance,
-                                               final List<String> allowedRelationships,
-                                               final RelationshipDirection relationshipDirection)
+    public NeighbourhoodResult findNeighboursByUri(final long projectId,
+                                                   final String nodeUri,
+                                                   final int maxDistance,
+                                                   final List<String> allowedRelationships,
+                                                   final RelationshipDirection relationshipDirection,
+                                                   final CompressedIdSet knownNodeIds)
     {
         projectService.findById(projectId)
             .orElseThrow(() -> new ClassNodeException(
@@ -195,44 +214,103 @@ public class ClassNodeServiceImpl implements ClassNodeService
 
         final var nonPrefixedRelationships = removePrefixHandler.removePrefix(allowedRelationships, projectId);
 
-        return findNeighbours(projectId, sourceNode.getId(), maxDistance, nonPrefixedRelationships, relationshipDirection);
+        return findNeighbours(projectId, sourceNode.getId(), maxDistance, nonPrefixedRelationships, relationshipDirection, knownNodeIds);
     }
 
     @Override
-    public List<ClassNode> findNeighbours(final long projectId,
-                                          final long nodeId,
-                                          final int maxDistance,
-                                          final List<String> allowedRelationships,
-                                          final RelationshipDirection relationshipDirection)
+    public NeighbourhoodResult findNeighbours(final long projectId,
+                                              final long nodeId,
+                                              final int maxDistance,
+                                              final List<String> allowedRelationships,
+                                              final RelationshipDirection relationshipDirection,
+                                              final CompressedIdSet knownNodeIds)
     {
         classNodeRepository.findAllByIdIn(List.of(nodeId)).stream()
             .findAny()
             .orElseThrow(() -> new ClassNodeException("Tried to get neighbours of non existing node with ID: %s".formatted(nodeId), INVALID_NODE_ID));
 
+        return expandNeighbourhood(projectId, nodeId, maxDistance, allowedRelationships, relationshipDirection, knownNodeIds);
+    }
+
+    @Override
+    public NeighbourhoodRingPage expandRings(final long projectId,
+                                             final long nodeId,
+                                             final int maxDistance,
+                                             final List<String> allowedRelationships,
+                                             final RelationshipDirection relationshipDirection,
+                                             final int pageSize,
+                                             final String continuationToken)
+    {
         if (maxDistance < 0)
         {
             throw new ClassNodeException("Invalid max distance: %d".formatted(maxDistance), INVALID_MAX_DISTANCE);
         }
 
-        final var numberOfNeighbours = classNodeRepository.countAllNeighbours(maxDistance, nodeId, relationshipDirection.getValue());
+        if (pageSize <= 0 || pageSize > MAX_NUMBER_OF_NEIGHBOURS)
+        {
+            throw new ClassNodeException("Page size has to be between 1 and %s.".formatted(MAX_NUMBER_OF_NEIGHBOURS), INVALID_REQUEST);
+        }
+
+        final var projectTag = projectService.findById(projectId)
+            .map(projectService::getProjectTag)
+            .orElseThrow(() -> new ClassNodeException("Project with id: %s does not exist.".formatted(projectId), INVALID_PROJECT_ID));
 
-        if (numberOfNeighbours > MAX_NUMBER_OF_NEIGHBOURS)
+        if (continuationToken == null)
         {
-            throw ClassNodeException.builder()
-                .withErrorCode(NEIGHBOURHOOD_TOO_BIG)
-                .withMessage("Handling more than %s number of neighbours".formatted(numberOfNeighbours))
-                .withValue(numberOfNeighbours)
+            classNodeRepository.findAllByIdIn(List.of(nodeId)).stream()
+                .findAny()
+                .orElseThrow(() -> new ClassNodeException("Tried to expand neighbourhood of non existing node with ID: %s".formatted(nodeId),
+                    INVALID_NODE_ID));
+
+            final var startNodes = findByIds(projectId, List.of(nodeId));
+
+            return NeighbourhoodRingPage.builder()
+                .withDistance(0)
+                .withNodes(startNodes)
+                .withRingComplete(true)
+                .withContinuationToken(maxDistance > 0 ? tokenSigner.sign(NeighbourhoodRingCursor.first(nodeId).toToken()) : null)
                 .build();
         }
 
-        //TODO apply relationships to findAllNeighbours
-        final var nonPrefixedRelationships = removePrefixHandler.removePrefix(allowedRelationships, projectId);
+        final var cursor = parseRingContinuationToken(continuationToken);
+        if (cursor.startNodeId() != nodeId || cursor.distance() < 1 || cursor.distance() > maxDistance)
+        {
+            throw new ClassNodeException("Continuation token does not belong to this expansion: %s.".formatted(continuationToken),
+                INVALID_CONTINUATION_TOKEN);
+        }
 
-        final var neighbourIds = classNodeRepository.findAllNeighbours(maxDistance, nodeId, relationshipDirection.getValue()).stream()
-            .map(ClassNodeProjection::getId)
-            .toList();
+        // One node over the page size tells whether the ring continues.
+        final var ringNodes = findRingNodes(cursor, uniqueUris(allowedRelationships, projectId, projectTag), relationshipDirection, pageSize + 1);
+
+        final var ringComplete = ringNodes.size() <= pageSize;
+        final var pageRingNodes = ringComplete ? ringNodes : ringNodes.subList(0, pageSize);
+        final var pageNodeIds = pageRingNodes.stream().map(RingNodeVo::id).toList();
+        final var nextCursor = pageNodeIds.isEmpty() ? cursor : cursor.next(pageRingNodes.get(pageRingNodes.size() - 1).sourceId(), pageNodeIds);
 
-        return findByIds(projectId, neighbourIds);
+        // Relations to nodes from earlier pages and rings are kept, so the client can connect each page to what it already has.
+        final var pageNodes = hydrate(projectId, Set.copyOf(pageNodeIds),
+            neighbourId -> nextCursor.visited().contains(neighbourId) || nextCursor.currentRing().contains(neighbourId));
+
+        final String nextToken;
+        if (!ringComplete)
+        {
+            nextToken = tokenSigner.sign(nextCursor.toToken());
+        }
+        else if (nextCursor.currentRing().isEmpty() || nextCursor.distance() == maxDistance)
+        {
+            nextToken = null;
+        }
+        else
+        {
+            nextToken = tokenSigner.sign(nextCursor.nextRing(nextCursor.currentRing()).toToken());
+        }
+
+        return NeighbourhoodRingPage.builder()
+            .withDistance(cursor.distance())
+            .withNodes(prefixHandler.applyPrefix(pageNodes, projectId))
+            .withRingComplete(ringComplete)
+            .withContinuationToken(nextToken)
+            .build();
     }
 
     @Override
@@ -245,8 +323,9 @@ public class ClassNodeServiceImpl implements ClassNodeService
                 new ClassNodeException("Can not save class node in non-existing project with ID: %s".formatted(projectId),
                     INVALID_PROJECT_ID));
 
+        final var projectTag = projectService.getProjectTag(project);
         final var nonPrefixedNode = removePrefixHandler.removePrefix(nodeToSave, projectId);
-        final var uniqueNode = uriHandler.applyUniqueness(nonPrefixedNode, projectService.getProjectTag(project));
+        final var uniqueNode = uriHandler.applyUniqueness(nonPrefixedNode, projectTag);
 
         Optional.of(uniqueNode)
             .filter(node -> node.id() == null)
@@ -256,11 +335,71 @@ public class ClassNodeServiceImpl implements ClassNodeService
                     INVALID_REQUEST);
             });
 
+        final var previousNode = Optional.ofNullable(uniqueNode.id()).flatMap(id -> findById(projectId, id));
         final var persistedNode = classNodeNeo4jDriverRepository.save(uniqueNode);
+        classNodeCache.invalidate(projectId, List.of(persistedNode.getId()));
 
         final var result = findById(projectId, persistedNode.getId())
             .orElseThrow(() -> new IllegalStateException("Class node with ID: %s is not found after after being saved.".formatted(persistedNode.getId())));
 
+        classNodeCache.invalidate(projectId, findChangedNeighbours(previousNode.orElse(null), result));
+        projectMetadataCatalog.applyChange(projectId, projectTag, previousNode.orElse(null), result);
+        nodeChangeJournalRepository.record(projectId, findExportAffectedNodes(result.id(), previousNode.orElse(null), result));
+
+        elasticSearchClassNodeService.save(project.getOwnerId(), projectId, result);
+        return result;
+    }
+
+    @Override
+    public ClassNode patch(final long projectId, final long nodeId, final ClassNodePatch patch)
+    {
+        final var project = projectService.findById(projectId)
+            .orElseThrow(() -> new ClassNodeException("Can not patch class node in non-existing project with ID: %s".formatted(projectId),
+                INVALID_PROJECT_ID));
+        final var projectTag = projectService.getProjectTag(project);
+
+        final var projectLabel = uriHandler.getClassNodeLabel(projectTag);
+        validatePatch(nodeId, patch, projectId, projectTag);
+
+        final var uniquePatch = ClassNodePatch.builder()
+            .withAddedLabels(uniqueUris(patch.addedLabels(), projectId, projectTag))
+            .withRemovedLabels(uniqueUris(patch.removedLabels(), projectId, projectTag))
+            .withSetProperties(Optional.ofNullable(patch.setProperties()).orElse(Map.of()).entrySet().stream()
+                .collect(Collectors.toMap(
+                    property -> uriHandler.applyUniqueness(removePrefixHandler.removePrefix(property.getKey(), projectId), projectTag, true),
+                    Map.Entry::getValue)))
+            .withRemovedProperties(uniqueUris(patch.removedProperties(), projectId, projectTag))
+            .withAddedIncomingNeighbours(uniqueRelationships(patch.addedIncomingNeighbours(), projectId, projectTag))
+            .withAddedOutgoingNeighbours(uniqueRelationships(patch.addedOutgoingNeighbours(), projectId, projectTag))
+            .withRemovedIncomingNeighbours(uniqueRelationships(patch.removedIncomingNeighbours(), projectId, projectTag))
+            .withRemovedOutgoingNeighbours(uniqueRelationships(patch.removedOutgoingNeighbours(), projectId, projectTag))
+            .build();
+
+        final var patchedNode = classNodeNeo4jDriverRepository.patch(nodeId, projectLabel, uniquePatch)
+            .orElseThrow(() -> new ClassNodeException("Class node with ID: %s can not be patched, because it does not exist.".formatted(nodeId),
+                INVALID_NODE_ID));
+
+        if (!patchedNode.missingNeighbourIds().isEmpty())
+        {
+            throw new ClassNodeException("Patch links node with ID: %s to non-existing nodes: %s.".formatted(nodeId, patchedNode.missingNeighbourIds()),
+                INVALID_NODE_ID);
+        }
+
+        if (!patchedNode.applied())
+        {
+            throw new ClassNodeException("Patch removes all labels of node with ID: %s.".formatted(nodeId), INVALID_REQUEST);
+        }
+
+        final var affectedNodes = Stream.concat(patchedNode.createdRelationships().stream(), patchedNode.deletedRelationships().stream())
+            .flatMap(relationship -> Stream.of(relationship.getSourceId(), relationship.getDestinationId()))
+            .collect(Collectors.toCollection(HashSet::new));
+        affectedNodes.add(nodeId);
+
+        classNodeCache.invalidate(projectId, affectedNodes);
+        projectMetadataCatalog.applyPatch(projectId, projectTag, patchedNode);
+        nodeChangeJournalRepository.record(projectId, affectedNodes);
+
+        final var result = prefixHandler.applyPrefix(uriRemoveHandler.removeUniqueness(patchedNode.node()), projectId);
         elasticSearchClassNodeService.save(project.getOwnerId(), projectId, result);
         return result;
     }
@@ -271,15 +410,132 @@ public class ClassNodeServiceImpl implements ClassNodeService
         final var project = projectService.findById(projectId)
             .orElseThrow(() -> new IllegalStateException("Can not delete a node from non-existing project id: %s.".formatted(projectId)));
 
-        final var node = findByIdsLight(projectId, List.of(id)).stream().
-            findAny()
+        final var node = findById(projectId, id)
             .orElseThrow(() ->
                 new ClassNodeException("Class node with ID: %s can not be deleted, because it does not exist.".formatted(id), INVALID_NODE_ID));
 
         classNodeRepository.deleteById(id);
+        classNodeCache.invalidate(projectId, List.of(id));
+        classNodeCache.invalidate(projectId, findChangedNeighbours(node, null));
+        projectMetadataCatalog.applyChange(projectId, projectService.getProjectTag(project), node, null);
+        nodeChangeJournalRepository.record(projectId, findExportAffectedNodes(id, node, null));
         elasticSearchClassNodeService.delete(project.getOwnerId(), projectId, node);
     }
 
+    @Override
+    public List<NodeChangeResult> applyChanges(final long projectId, final List<NodeChange> changes)
+    {
+        final var project = projectService.findById(projectId)
+            .orElseThrow(() -> new ClassNodeException("Can not apply changes in non-existing project with ID: %s".formatted(projectId),
+                INVALID_PROJECT_ID));
+        final var projectTag = projectService.getProjectTag(project);
+        final var projectLabel = uriHandler.getClassNodeLabel(projectTag);
+
+        final var uniqueNodes = changes.stream()
+            .map(change -> Optional.ofNullable(change.node())
+                .filter(node -> change.type() != NodeChange.Type.DELETE)
+                .map(node -> node.toBuilder().withId(change.type() == NodeChange.Type.UPDATE ? change.nodeId() : null).build())
+                .map(node -> uriHandler.applyUniqueness(removePrefixHandler.removePrefix(node, projectId), projectTag))
+                .orElse(null))
+            .toList();
+
+        // Everything the batch refers to is checked up front, with one query per kind of reference.
+        final var existingIds = nodeChangeBatchNeo4jDriverRepository.findExistingIds(changes.stream()
+            .flatMap(change -> Stream.concat(Stream.ofNullable(change.nodeId()), neighbourIds(change.node())))
+            .collect(Collectors.toSet()), projectLabel);
+        final var existingUris = nodeChangeBatchNeo4jDriverRepository.findExistingUris(IntStream.range(0, changes.size())
+            .filter(index -> changes.get(index).type() == NodeChange.Type.CREATE && uniqueNodes.get(index) != null)
+            .mapToObj(index -> uniqueNodes.get(index).uri())
+            .collect(Collectors.toSet()));
+        final var deletedIds = changes.stream()
+            .filter(change -> change.type() == NodeChange.Type.DELETE)
+            .map(NodeChange::nodeId)
+            .filter(existingIds::contains)
+            .collect(Collectors.toSet());
+
+        final var errors = new ArrayList<String>();
+        final var createdUris = new HashSet<String>();
+        for (int index = 0; index < changes.size(); index++)
+        {
+            errors.add(validateChange(changes.get(index), uniqueNodes.get(index), existingIds, existingUris, deletedIds, createdUris));
+        }
+
+        final var savedIndexes = IntStream.range(0, changes.size())
+            .filter(index -> errors.get(index) == null && changes.get(index).type() != NodeChange.Type.DELETE)
+            .boxed()
+            .toList();
+        final var changedIds = Stream.concat(savedIndexes.stream().map(index -> uniqueNodes.get(index).id()), deletedIds.stream())
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        final var previousNodes = findHydrated(projectId, changedIds);
+
+        final List<Long> savedIds;
+        try
+        {
+            savedIds = nodeChangeBatchNeo4jDriverRepository.applyChanges(
+                savedIndexes.stream().map(uniqueNodes::get).toList(),
+                List.copyOf(deletedIds),
+                projectLabel);
+        }
+        catch (final IllegalStateException exception)
+        {
+            log.error("Failed to apply a batch of {} node changes: {}", changes.size(), exception.getMessage());
+            return IntStream.range(0, changes.size())
+                .mapToObj(index -> NodeChangeResult.builder()
+                    .withFailed(true)
+                    .withError(Optional.ofNullable(errors.get(index)).orElse("Batch was rolled back."))
+                    .build())
+                .toList();
+        }
+
+        classNodeCache.invalidate(projectId, Stream.concat(savedIds.stream(), deletedIds.stream()).toList());
+
+        final var currentNodes = classNodeNeo4jDriverRepository.findAllHydrated(savedIds.stream().distinct().toList(), false).stream()
+            .map(uriRemoveHandler::removeUniqueness)
+            .collect(Collectors.toMap(ClassNode::id, Function.identity()));
+
+        final var changedNodeIds = Stream.concat(savedIds.stream(), deletedIds.stream()).collect(Collectors.toCollection(LinkedHashSet::new));
+        final var exportAffectedNodeIds = new HashSet<Long>();
+        changedNodeIds.forEach(nodeId -> {
+            final var previousNode = previousNodes.get(nodeId);
+            final var currentNode = currentNodes.get(nodeId);
+            classNodeCache.invalidate(projectId, findChangedNeighbours(previousNode, currentNode));
+            exportAffectedNodeIds.addAll(findExportAffectedNodes(nodeId, previousNode, currentNode));
+        });
+        projectMetadataCatalog.applyChanges(projectId, projectTag, changedNodeIds, previousNodes, currentNodes);
+        nodeChangeJournalRepository.record(projectId, exportAffectedNodeIds);
+
+        try
+        {
+            elasticSearchClassNodeService.bulkUpdate(
+                project.getOwnerId(),
+                projectId,
+                prefixHandler.applyPrefix(List.copyOf(currentNodes.values()), projectId),
+                deletedIds.stream().map(previousNodes::get).filter(Objects::nonNull).toList());
+        }
+        catch (final IllegalStateException exception)
+        {
+            // The transaction is already committed, the results are returned even though the index is behind.
+            log.error("Failed to index a batch of changes in project with ID: {}, {}", projectId, exception.getMessage());
+        }
+
+        final var savedIdByIndex = IntStream.range(0, savedIndexes.size())
+            .boxed()
+            .collect(Collectors.toMap(savedIndexes::get, savedIds::get));
+
+        return IntStream.range(0, changes.size())
+            .mapToObj(index -> errors.get(index) != null ?
+                NodeChangeResult.builder().withFailed(true).withError(errors.get(index)).build() :
+                NodeChangeResult.builder()
+                    .withFailed(false)
+                    .withNode(Optional.ofNullable(savedIdByIndex.get(index))
+                        .map(currentNodes::get)
+                        .map(node -> prefixHandler.applyPrefix(node, projectId))
+                        .orElse(null))
+                    .build())
+            .toList();
+    }
+
     //TODO apply uniqueness
     @Override
     public ProjectNodeMetadata findProjectNodeMetaData(final long projectId)
@@ -288,18 +544,19 @@ public class ClassNodeServiceImpl implements ClassNodeService
             .orElseThrow(() -> new ClassNodeException("Not mete data for non existing project with ID: %s".formatted(projectId), INVALID_PROJECT_ID));
 
         final var projectTag = projectService.getProjectTag(project);
+        final var catalog = projectMetadataCatalog.find(projectId, projectTag);
 
-        final var propertyKeys = classNodeRepository.findAllPropertyKeysFast(projectTag).stream()
+        final var propertyKeys = catalog.propertyKeys().stream()
             .filter(property -> property.startsWith("http") || property.equals("uri"))
             .sorted()
             .toList();
 
-        final var labels = classNodeRepository.findAllLabels(projectTag).stream()
+        final var labels = catalog.nodeLabels().stream()
             .filter(label -> !label.startsWith(USER_NAMESPACE_LABEL_PREFIX))
             .filter(label -> label.startsWith("http"))
             .toList();
 
-        final var relationshipTypes = classNodeRepository.findAllRelationshipTypes(projectTag).stream()
+        final var relationshipTypes = catalog.relationshipTypes().stream()
             .filter(relationship -> relationship.startsWith("http"))
             .sorted()
             .toList();
@@ -346,6 +603,304 @@ public class ClassNodeServiceImpl implements ClassNodeService
         return prefixHandler.applyPrefix(nonPrefixedNodes, projectId);
     }
 
+    private NeighbourhoodResult expandNeighbourhood(final long projectId,
+                                                    final long startNodeId,
+                                                    final int maxDistance,
+                                                    final List<String> allowedRelationships,
+                                                    final RelationshipDirection relationshipDirection,
+                                                    final CompressedIdSet knownNodeIds)
+    {
+        if (maxDistance < 0)
+        {
+            throw new ClassNodeException("Invalid max distance: %d".formatted(maxDistance), INVALID_MAX_DISTANCE);
+        }
+
+        final var projectTag = projectService.findById(projectId)
+            .map(projectService::getProjectTag)
+            .orElseThrow(() -> new ClassNodeException("Project with id: %s does not exist.".formatted(projectId), INVALID_PROJECT_ID));
+
+        final var relationshipTypes = uniqueUris(allowedRelationships, projectId, projectTag);
+
+        // One node over the budget tells whether the neighbourhood was cut.
+        final var traversedNodes = classNodeNeo4jDriverRepository.traverseNeighbourhood(
+            List.of(startNodeId), maxDistance, relationshipTypes, relationshipDirection, MAX_NUMBER_OF_NEIGHBOURS + 1);
+
+        if (traversedNodes.size() <= MAX_NUMBER_OF_NEIGHBOURS)
+        {
+            return NeighbourhoodResult.builder()
+                .withNodes(findByIds(projectId, traversedNodes.stream().map(TraversedNodeVo::id).toList(), knownNodeIds))
+                .withTruncated(false)
+                .build();
+        }
+
+        // Nodes are traversed breadth-first, so every ring closer than the first omitted node is complete. The partial ring is
+        // left out, the ring expansion returns it whole together with the rings after it.
+        final var lastCompleteDistance = traversedNodes.get(MAX_NUMBER_OF_NEIGHBOURS).distance() - 1;
+        final var returnedNodes = traversedNodes.stream()
+            .filter(node -> node.distance() <= lastCompleteDistance)
+            .toList();
+        final var lastCompleteRing = returnedNodes.stream()
+            .filter(node -> node.distance() == lastCompleteDistance)
+            .map(TraversedNodeVo::id)
+            .toList();
+        final var returnedIds = returnedNodes.stream().map(TraversedNodeVo::id).toList();
+
+        final var continuation = NeighbourhoodRingCursor.afterRing(
+            startNodeId, lastCompleteDistance, CompressedIdSet.of(returnedIds), CompressedIdSet.of(lastCompleteRing));
+
+        return NeighbourhoodResult.builder()
+            .withNodes(findByIds(projectId, returnedIds, knownNodeIds))
+            .withTruncated(true)
+            .withContinuationToken(tokenSigner.sign(continuation.toToken()))
+            .build();
+    }
+
+    /**
+     * Expands the previous ring nodes from the cursor on in chunks until the limit is reached, nodes returned by earlier pages
+     * and chunks are excluded, so every ring node is returned once.
+     */
+    private List<RingNodeVo> findRingNodes(final NeighbourhoodRingCursor cursor,
+                                           final List<String> relationshipTypes,
+                                           final RelationshipDirection relationshipDirection,
+                                           final int limit)
+    {
+        final var sourceIds = cursor.previousRing().tailList(cursor.lastSourceId());
+        final var excludedIds = new ArrayList<>(cursor.visited().union(cursor.currentRing()).toList());
+        final var ringNodes = new ArrayList<RingNodeVo>();
+
+        for (int from = 0; from < sourceIds.size() && ringNodes.size() < limit; from += limit)
+        {
+            final var sourceChunk = sourceIds.subList(from, Math.min(from + limit, sourceIds.size()));
+            final var chunkNodes = classNodeNeo4jDriverRepository.findRingNodes(
+                sourceChunk, excludedIds, relationshipTypes, relationshipDirection, limit - ringNodes.size());
+
+            ringNodes.addAll(chunkNodes);
+            chunkNodes.forEach(node -> excludedIds.add(node.id()));
+        }
+
+        return ringNodes;
+    }
+
+    /**
+     * @return nodes without uniqueness and prefixes, with relations only to neighbours accepted by {@code retainedNeighbour}
+     */
+    private List<ClassNode> hydrate(final long projectId, final Set<Long> ids, final Predicate<Long> retainedNeighbour)
+    {
+        final var hydratedNodes = findHydrated(projectId, ids);
+
+        if (hydratedNodes.size() != ids.size())
+        {
+            throw new IllegalStateException("Not all nodes exist");
+        }
+
+        // Cached nodes are hydrated with all neighbours, the response contains only the requested relations.
+        return hydratedNodes.values().stream()
+            .map(node -> node.toBuilder()
+                .withIncomingNeighbours(retainNeighbours(node.incomingNeighbours(), retainedNeighbour))
+                .withOutgoingNeighbours(retainNeighbours(node.outgoingNeighbours(), retainedNeighbour))
+                .build())
+            .toList();
+    }
+
+    /**
+     * Checks the patch without reading the node, whether the node keeps a label and whether the added neighbours exist is
+     * checked when the patch is applied.
+     */
+    private void validatePatch(final long nodeId, final ClassNodePatch patch, final long projectId, final String projectTag)
+    {
+        final var touchesUri = Stream.concat(
+                Optional.ofNullable(patch.setProperties()).orElse(Map.of()).keySet().stream(),
+                Optional.ofNullable(patch.removedProperties()).orElse(List.of()).stream())
+            .anyMatch(URI_PROPERTY::equals);
+
+        if (touchesUri)
+        {
+            throw new ClassNodeException("URI of a node can not be patched, node ID: %s.".formatted(nodeId), INVALID_REQUEST);
+        }
+
+        final var projectLabel = uriHandler.getClassNodeLabel(projectTag);
+        final var removedLabels = Optional.ofNullable(patch.removedLabels()).orElse(List.of());
+        final var removesStructuralLabel = Stream.concat(removedLabels.stream(), uniqueUris(removedLabels, projectId, projectTag).stream())
+            .anyMatch(label -> RESOURCE_LABEL.equals(label) || projectLabel.equals(label));
+
+        if (removesStructuralLabel)
+        {
+            throw new ClassNodeException("Patch removes the Resource or the project label of node with ID: %s.".formatted(nodeId),
+                INVALID_REQUEST);
+        }
+    }
+
+    private List<String> uniqueUris(final List<String> uris, final long projectId, final String projectTag)
+    {
+        return Optional.ofNullable(uris)
+            .map(nonNullUris -> removePrefixHandler.removePrefix(nonNullUris, projectId).stream()
+                .map(uri -> uriHandler.applyUniqueness(uri, projectTag, true))
+                .toList())
+            .orElse(List.of());
+    }
+
+    private Map<Long, List<String>> uniqueRelationships(final Map<Long, List<String>> neighbours, final long projectId, final String projectTag)
+    {
+        return Optional.ofNullable(neighbours).orElse(Map.of()).entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, neighbour -> uniqueUris(neighbour.getValue(), projectId, projectTag)));
+    }
+
+    /**
+     * @return reason why the change can not be applied, {@code null} for a valid change
+     */
+    private String validateChange(final NodeChange change,
+                                  final ClassNode uniqueNode,
+                                  final Set<Long> existingIds,
+                                  final Set<String> existingUris,
+                                  final Set<Long> deletedIds,
+                                  final Set<String> createdUris)
+    {
+        if (change.type() == null)
+        {
+            return "Missing change type.";
+        }
+
+        if (change.type() != NodeChange.Type.CREATE && (change.nodeId() == null || !existingIds.contains(change.nodeId())))
+        {
+            return "Node with ID: %s does not exist.".formatted(change.nodeId());
+        }
+
+        if (change.type() == NodeChange.Type.DELETE)
+        {
+            return null;
+        }
+
+        try
+        {
+            classNodeValidator.validate(change.node());
+        }
+        catch (final ClassNodeException exception)
+        {
+            return exception.getMessage();
+        }
+
+        if (change.type() == NodeChange.Type.UPDATE && deletedIds.contains(change.nodeId()))
+        {
+            return "Node with ID: %s is deleted in the same batch.".formatted(change.nodeId());
+        }
+
+        if (change.type() == NodeChange.Type.CREATE && (existingUris.contains(uniqueNode.uri()) || !createdUris.add(uniqueNode.uri())))
+        {
+            return "Attempted to create node with already existing URI: %s".formatted(change.node().uri());
+        }
+
+        return neighbourIds(change.node())
+            .filter(neighbourId -> !existingIds.contains(neighbourId) || deletedIds.contains(neighbourId))
+            .findFirst()
+            .map("Neighbour with ID: %s does not exist or is deleted in the same batch."::formatted)
+            .orElse(null);
+    }
+
+    private static Stream<Long> neighbourIds(final ClassNode node)
+    {
+        return Stream.ofNullable(node)
+            .flatMap(nonNullNode -> Stream.of(
+                neighboursOf(nonNullNode, ClassNode::incomingNeighbours),
+                neighboursOf(nonNullNode, ClassNode::outgoingNeighbours)))
+            .flatMap(neighbours -> neighbours.keySet().stream());
+    }
+
+    /**
+     * @return existing nodes without uniqueness with all their neighbours, read from the cache first
+     */
+    private Map<Long, ClassNode> findHydrated(final long projectId, final Set<Long> ids)
+    {
+        final var hydratedNodes = new HashMap<Long, ClassNode>();
+        final var missingIdGenerations = new HashMap<Long, Long>();
+
+        ids.forEach(id -> classNodeCache.get(projectId, id)
+            .ifPresentOrElse(node -> hydratedNodes.put(id, node), () -> missingIdGenerations.put(id, classNodeCache.generation(projectId, id))));
+
+        classNodeNeo4jDriverRepository.findAllHydrated(List.copyOf(missingIdGenerations.keySet()), false).stream()
+            .map(uriRemoveHandler::removeUniqueness)
+            .forEach(node -> {
+                classNodeCache.put(projectId, node, missingIdGenerations.get(node.id()));
+                hydratedNodes.put(node.id(), node);
+            });
+
+        return hydratedNodes;
+    }
+
+    private static Map<Long, List<String>> retainNeighbours(final Map<Long, List<String>> neighbours, final Predicate<Long> retainedNeighbour)
+    {
+        if (neighbours == null)
+        {
+            return null;
+        }
+
+        return neighbours.entrySet().stream()
+            .filter(neighbour -> retainedNeighbour.test(neighbour.getKey()))
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    /**
+     * Neighbours whose incoming or outgoing relations to the node differ between both versions of the node.
+     */
+    private static Set<Long> findChangedNeighbours(final ClassNode previousNode, final ClassNode currentNode)
+    {
+        final var previousIncoming = neighboursOf(previousNode, ClassNode::incomingNeighbours);
+        final var previousOutgoing = neighboursOf(previousNode, ClassNode::outgoingNeighbours);
+        final var currentIncoming = neighboursOf(currentNode, ClassNode::incomingNeighbours);
+        final var currentOutgoing = neighboursOf(currentNode, ClassNode::outgoingNeighbours);
+
+        return Stream.of(previousIncoming, previousOutgoing, currentIncoming, currentOutgoing)
+            .flatMap(neighbours -> neighbours.keySet().stream())
+            .filter(neighbourId -> !Objects.equals(previousIncoming.get(neighbourId), currentIncoming.get(neighbourId)) ||
+                !Objects.equals(previousOutgoing.get(neighbourId), currentOutgoing.get(neighbourId)))
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * Nodes whose exported statements change with the node, the node itself and the neighbours whose relationships to it
+     * changed, or all of its previous neighbours when its uri changed, because their statements refer to it by uri.
+     */
+    private static Set<Long> findExportAffectedNodes(final long nodeId, final ClassNode previousNode, final ClassNode currentNode)
+    {
+        final var affectedNodes = new HashSet<>(findChangedNeighbours(previousNode, currentNode));
+        affectedNodes.add(nodeId);
+
+        if (previousNode != null && (currentNode == null || !Objects.equals(previousNode.uri(), currentNode.uri())))
+        {
+            affectedNodes.addAll(neighboursOf(previousNode, ClassNode::incomingNeighbours).keySet());
+        }
+        return affectedNodes;
+    }
+
+    private static Map<Long, List<String>> neighboursOf(final ClassNode node,
+                                                       final Function<ClassNode, Map<Long, List<String>>> neighbours)
+    {
+        return Optional.ofNullable(node).map(neighbours).orElse(Map.of());
+    }
+
+    private KeysetCursor parseContinuationToken(final String continuationToken)
+    {
+        try
+        {
+            return KeysetCursor.fromToken(continuationToken);
+        }
+        catch (final IllegalArgumentException exception)
+        {
+            throw new ClassNodeException("Invalid continuation token: %s.".formatted(continuationToken), INVALID_CONTINUATION_TOKEN);
+        }
+    }
+
+    private NeighbourhoodRingCursor parseRingContinuationToken(final String continuationToken)
+    {
+        try
+        {
+            return NeighbourhoodRingCursor.fromToken(tokenSigner.verify(continuationToken));
+        }
+        catch (final IllegalArgumentException exception)
+        {
+            throw new ClassNodeException("Invalid continuation token: %s.".formatted(continuationToken), INVALID_CONTINUATION_TOKEN);
+        }
+    }
+
     private List<FilterCondition> handleFilterPropertyPrefixes(final List<FilterCondition> filters, final long projectId)
     {
         final var uriFilterGroupByIsUri = filters.stream()
@@ -0,0 +1,17 @@
+package com.rdfsonto.classnode.service;
+
+import java.util.List;
+
+import lombok.Builder;
+
+
+/**
+ * @param truncated         {@code true} when the neighbourhood has more nodes than fit in a single result, only its complete
+ *                          rings are returned then
+ * @param continuationToken token of the ring expansion which continues with the first ring left out, {@code null} when not
+ *                          truncated
+ */
+@Builder(setterPrefix = "with")
+public record NeighbourhoodResult(List<ClassNode> nodes, boolean truncated, String continuationToken)
+{
+}
@@ -0,0 +1,101 @@
+package com.rdfsonto.classnode.service;
+
+import java.util.List;
+
+import com.rdfsonto.util.compression.CompressedIdSet;
+import com.rdfsonto.util.compression.DeflatedBase64;
+
+import lombok.Builder;
+
+
+/**
+ * Position of a neighbourhood expansion which returns one ring at a time. Each ring is returned in pages which follow the
+ * nodes of the previous ring in the order of their ids, so a page expands only the previous ring nodes it starts from.
+ *
+ * @param distance     distance of the ring being returned
+ * @param lastSourceId previous ring node whose neighbours were returned last, its expansion continues with the next page
+ * @param visited      nodes of all rings closer than the current one
+ * @param previousRing nodes of the ring right before the current one, the current ring are their unvisited neighbours
+ * @param currentRing  nodes of the current ring returned so far
+ */
+@Builder(setterPrefix = "with", toBuilder = true)
+record NeighbourhoodRingCursor(long startNodeId,
+                               int distance,
+                               long lastSourceId,
+                               CompressedIdSet visited,
+                               CompressedIdSet previousRing,
+                               CompressedIdSet currentRing)
+{
+    private static final long INITIAL_ID = -1;
+    private static final byte TOKEN_VERSION = 2;
+    private static final int MAX_TOKEN_IDS = 1_000_000;
+
+    static NeighbourhoodRingCursor first(final long startNodeId)
+    {
+        final var startNode = CompressedIdSet.of(List.of(startNodeId));
+        return new NeighbourhoodRingCursor(startNodeId, 1, INITIAL_ID, startNode, startNode, CompressedIdSet.empty());
+    }
+
+    /**
+     * @param completedDistance distance of the last complete ring
+     * @param visited           nodes of all rings up to and including the last complete one
+     * @param completedRing     nodes of the last complete ring
+     */
+    static NeighbourhoodRingCursor afterRing(final long startNodeId,
+                                             final int completedDistance,
+                                             final CompressedIdSet visited,
+                                             final CompressedIdSet completedRing)
+    {
+        return new NeighbourhoodRingCursor(startNodeId, completedDistance + 1, INITIAL_ID, visited, completedRing, CompressedIdSet.empty());
+    }
+
+    /**
+     * @param lastSourceId previous ring node the last returned node was reached from
+     */
+    NeighbourhoodRingCursor next(final long lastSourceId, final List<Long> returnedIds)
+    {
+        return toBuilder()
+            .withLastSourceId(lastSourceId)
+            .withCurrentRing(currentRing.union(returnedIds))
+            .build();
+    }
+
+    NeighbourhoodRingCursor nextRing(final CompressedIdSet completedRing)
+    {
+        return new NeighbourhoodRingCursor(startNodeId, distance + 1, INITIAL_ID, visited.union(completedRing), completedRing, CompressedIdSet.empty());
+    }
+
+    String toToken()
+    {
+        return DeflatedBase64.encode(output -> {
+            output.writeByte(TOKEN_VERSION);
+            output.writeLong(startNodeId);
+            output.writeInt(distance);
+            output.writeLong(lastSourceId);
+            visited.writeTo(output);
+            previousRing.writeTo(output);
+            currentRing.writeTo(output);
+        });
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token was not created by {@link #toToken()}
+     */
+    static NeighbourhoodRingCursor fromToken(final String token)
+    {
+        return DeflatedBase64.decode(token, input -> {
+            if (input.readByte() != TOKEN_VERSION)
+            {
+                throw new IllegalArgumentException("Unsupported continuation token version.");
+            }
+
+            return new NeighbourhoodRingCursor(
+                input.readLong(),
+                input.readInt(),
+                input.readLong(),
+                CompressedIdSet.readFrom(input, MAX_TOKEN_IDS),
+                CompressedIdSet.readFrom(input, MAX_TOKEN_IDS),
+                CompressedIdSet.readFrom(input, MAX_TOKEN_IDS));
+        });
+    }
+}
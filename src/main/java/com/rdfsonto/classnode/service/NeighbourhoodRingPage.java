@@ -0,0 +1,17 @@
+package com.rdfsonto.classnode.service;
+
+import java.util.List;
+
+import lombok.Builder;
+
+
+/**
+ * @param distance          distance of the returned nodes from the start node
+ * @param nodes             page of the ring, hydrated with relations to the nodes returned so far
+ * @param ringComplete      {@code true} when the page is the last one of its ring
+ * @param continuationToken opaque token of the next page, {@code null} when the neighbourhood is exhausted
+ */
+@Builder(setterPrefix = "with")
+public record NeighbourhoodRingPage(int distance, List<ClassNode> nodes, boolean ringComplete, String continuationToken)
+{
+}
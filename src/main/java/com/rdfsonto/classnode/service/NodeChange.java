@@ -0,0 +1,17 @@
+package com.rdfsonto.classnode.service;
+
+import lombok.Builder;
+
+
+/**
+ * @param nodeId id of the updated or deleted node, ignored for created nodes
+ * @param node   state of the node after the change, {@code null} for deleted nodes
+ */
+@Builder(setterPrefix = "with")
+public record NodeChange(Type type, Long nodeId, ClassNode node)
+{
+    public enum Type
+    {
+        CREATE, UPDATE, DELETE
+    }
+}
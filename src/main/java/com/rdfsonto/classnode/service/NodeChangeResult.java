@@ -0,0 +1,13 @@
+package com.rdfsonto.classnode.service;
+
+import lombok.Builder;
+
+
+/**
+ * @param node  saved node, {@code null} for deleted nodes and failed changes
+ * @param error reason of the failure, {@code null} when the change was applied
+ */
+@Builder(setterPrefix = "with")
+public record NodeChangeResult(boolean failed, ClassNode node, String error)
+{
+}
@@ -0,0 +1,14 @@
+package com.rdfsonto.classnode.service;
+
+import java.util.List;
+
+import lombok.Builder;
+
+
+/**
+ * @param continuationToken opaque token of the next page, {@code null} after the last page
+ */
+@Builder(setterPrefix = "with")
+public record NodeScanResult(List<ClassNode> nodes, String continuationToken)
+{
+}
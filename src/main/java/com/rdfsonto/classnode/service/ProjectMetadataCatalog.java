@@ -0,0 +1,261 @@
+package com.rdfsonto.classnode.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Component;
+
+import com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepository;
+import com.rdfsonto.classnode.database.PatchedNodeVo;
+import com.rdfsonto.classnode.database.ProjectMetadataCatalogRepository;
+import com.rdfsonto.classnode.database.RelationshipVo;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Labels, property keys and relationship types used by the nodes of a project, each with the number of its usages. A catalog
+ * is computed once after an import, updated from the previous and the current version of every saved or deleted node and
+ * served from memory. The persisted copy is read after a restart, the catalog is recomputed only when it is missing. A change
+ * updates the persisted copy in place with the counts it changed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProjectMetadataCatalog
+{
+    private static final String URI_PROPERTY = "uri";
+    private static final String LABEL_PREFIX = "label.";
+    private static final String PROPERTY_KEY_PREFIX = "property.";
+    private static final String RELATIONSHIP_TYPE_PREFIX = "relationship.";
+    private static final String DELTA_KEY = "key";
+    private static final String DELTA_COUNT_KEY = "count";
+
+    private final ClassNodeNeo4jDriverRepository classNodeNeo4jDriverRepository;
+    private final ProjectMetadataCatalogRepository projectMetadataCatalogRepository;
+    private final UriUniquenessHandler uriHandler;
+    private final Map<Long, CatalogCounts> catalogs = new ConcurrentHashMap<>();
+
+    public void rebuild(final long projectId, final String projectTag)
+    {
+        final var counts = countProjectUsages(projectTag);
+        catalogs.put(projectId, counts);
+        persistAll(projectId, counts);
+    }
+
+    public void delete(final long projectId)
+    {
+        catalogs.remove(projectId);
+        projectMetadataCatalogRepository.deleteByProjectId(projectId);
+    }
+
+    /**
+     * @return labels, property keys and relationship types with uniqueness applied, as they are stored in the database
+     */
+    ProjectNodeMetadata find(final long projectId, final String projectTag)
+    {
+        final var counts = findCounts(projectId, projectTag);
+
+        synchronized (counts)
+        {
+            return ProjectNodeMetadata.builder()
+                .withNodeLabels(List.copyOf(counts.labels().keySet()))
+                .withPropertyKeys(List.copyOf(counts.propertyKeys().keySet()))
+                .withRelationshipTypes(List.copyOf(counts.relationshipTypes().keySet()))
+                .build();
+        }
+    }
+
+    /**
+     * @param previousNode node before the change without uniqueness, {@code null} for a created node
+     * @param currentNode  node after the change without uniqueness, {@code null} for a deleted node
+     */
+    void applyChange(final long projectId, final String projectTag, final ClassNode previousNode, final ClassNode currentNode)
+    {
+        final var nodeId = previousNode != null ? previousNode.id() : currentNode.id();
+        final var previousNodes = new HashMap<Long, ClassNode>();
+        final var currentNodes = new HashMap<Long, ClassNode>();
+        previousNodes.put(nodeId, previousNode);
+        currentNodes.put(nodeId, currentNode);
+
+        applyChanges(projectId, projectTag, Set.of(nodeId), previousNodes, currentNodes);
+    }
+
+    /**
+     * Applies a batch of changes as one delta. A relationship between two changed nodes is counted once, from its source.
+     *
+     * @param previousNodes nodes before the changes without uniqueness, created nodes are missing
+     * @param currentNodes  nodes after the changes without uniqueness, deleted nodes are missing
+     */
+    void applyChanges(final long projectId,
+                      final String projectTag,
+                      final Set<Long> changedNodeIds,
+                      final Map<Long, ClassNode> previousNodes,
+                      final Map<Long, ClassNode> currentNodes)
+    {
+        applyUsages(projectId,
+            projectTag,
+            NodeUsages.of(changedNodeIds, previousNodes, projectTag, uriHandler),
+            NodeUsages.of(changedNodeIds, currentNodes, projectTag, uriHandler));
+    }
+
+    /**
+     * Applies a patch from what it changed, labels and property keys of the node before and after it and the relationships it
+     * created or deleted, without the rest of the node.
+     */
+    void applyPatch(final long projectId, final String projectTag, final PatchedNodeVo patchedNode)
+    {
+        final var removedUsages = new NodeUsages(
+            patchedNode.previousLabels(),
+            patchedNode.previousPropertyKeys(),
+            patchedNode.deletedRelationships().stream().map(RelationshipVo::getRelationship).toList());
+        final var addedUsages = new NodeUsages(
+            patchedNode.labels(),
+            patchedNode.propertyKeys(),
+            patchedNode.createdRelationships().stream().map(RelationshipVo::getRelationship).toList());
+
+        applyUsages(projectId, projectTag, removedUsages, addedUsages);
+    }
+
+    private void applyUsages(final long projectId, final String projectTag, final NodeUsages removedUsages, final NodeUsages addedUsages)
+    {
+        final var counts = findCounts(projectId, projectTag);
+        final var labelDeltas = deltas(removedUsages.labels(), addedUsages.labels());
+        final var propertyKeyDeltas = deltas(removedUsages.propertyKeys(), addedUsages.propertyKeys());
+        final var relationshipTypeDeltas = deltas(removedUsages.relationshipTypes(), addedUsages.relationshipTypes());
+
+        synchronized (counts)
+        {
+            update(counts.labels(), labelDeltas);
+            update(counts.propertyKeys(), propertyKeyDeltas);
+            update(counts.relationshipTypes(), relationshipTypeDeltas);
+        }
+
+        final var persistedDeltas = new ArrayList<Map<String, Object>>();
+        addPersistedDeltas(persistedDeltas, LABEL_PREFIX, labelDeltas);
+        addPersistedDeltas(persistedDeltas, PROPERTY_KEY_PREFIX, propertyKeyDeltas);
+        addPersistedDeltas(persistedDeltas, RELATIONSHIP_TYPE_PREFIX, relationshipTypeDeltas);
+
+        if (!persistedDeltas.isEmpty())
+        {
+            projectMetadataCatalogRepository.applyDeltas(projectId, persistedDeltas);
+        }
+    }
+
+    private CatalogCounts findCounts(final long projectId, final String projectTag)
+    {
+        return catalogs.computeIfAbsent(projectId, id -> projectMetadataCatalogRepository.findByProjectId(id)
+            .map(catalog -> new CatalogCounts(
+                new HashMap<>(Optional.ofNullable(catalog.getLabelCounts()).orElse(Map.of())),
+                new HashMap<>(Optional.ofNullable(catalog.getPropertyKeyCounts()).orElse(Map.of())),
+                new HashMap<>(Optional.ofNullable(catalog.getRelationshipTypeCounts()).orElse(Map.of()))))
+            .orElseGet(() -> {
+                log.info("Metadata catalog of project with ID: {} is missing, computing it from the database.", id);
+                final var counts = countProjectUsages(projectTag);
+                persistAll(id, counts);
+                return counts;
+            }));
+    }
+
+    private CatalogCounts countProjectUsages(final String projectTag)
+    {
+        final var projectLabel = uriHandler.getClassNodeLabel(projectTag);
+
+        return new CatalogCounts(
+            new HashMap<>(classNodeNeo4jDriverRepository.countLabelsByProject(projectLabel)),
+            new HashMap<>(classNodeNeo4jDriverRepository.countPropertyKeysByProject(projectLabel)),
+            new HashMap<>(classNodeNeo4jDriverRepository.countRelationshipTypesByProject(projectLabel)));
+    }
+
+    private void persistAll(final long projectId, final CatalogCounts counts)
+    {
+        final var properties = new HashMap<String, Object>();
+        synchronized (counts)
+        {
+            counts.labels().forEach((label, count) -> properties.put(LABEL_PREFIX + label, count));
+            counts.propertyKeys().forEach((propertyKey, count) -> properties.put(PROPERTY_KEY_PREFIX + propertyKey, count));
+            counts.relationshipTypes().forEach((relationshipType, count) -> properties.put(RELATIONSHIP_TYPE_PREFIX + relationshipType, count));
+        }
+
+        projectMetadataCatalogRepository.replaceCounts(projectId, properties);
+    }
+
+    /**
+     * @return change of the count of every usage, usages removed and added again are left out
+     */
+    private static Map<String, Long> deltas(final List<String> removedUsages, final List<String> addedUsages)
+    {
+        final var deltas = new HashMap<String, Long>();
+        removedUsages.forEach(usage -> deltas.merge(usage, -1L, Long::sum));
+        addedUsages.forEach(usage -> deltas.merge(usage, 1L, Long::sum));
+        deltas.values().removeIf(delta -> delta == 0);
+        return deltas;
+    }
+
+    private static void update(final Map<String, Long> counts, final Map<String, Long> deltas)
+    {
+        deltas.forEach((usage, delta) -> counts.compute(usage, (key, count) -> {
+            final var updated = (count == null ? 0 : count) + delta;
+            return updated > 0 ? updated : null;
+        }));
+    }
+
+    private static void addPersistedDeltas(final List<Map<String, Object>> persistedDeltas, final String prefix, final Map<String, Long> deltas)
+    {
+        deltas.forEach((usage, delta) -> persistedDeltas.add(Map.of(DELTA_KEY, prefix + usage, DELTA_COUNT_KEY, delta)));
+    }
+
+    private record CatalogCounts(Map<String, Long> labels, Map<String, Long> propertyKeys, Map<String, Long> relationshipTypes)
+    {
+    }
+
+    private record NodeUsages(List<String> labels, List<String> propertyKeys, List<String> relationshipTypes)
+    {
+        static NodeUsages of(final Set<Long> changedNodeIds,
+                             final Map<Long, ClassNode> nonUniqueNodes,
+                             final String projectTag,
+                             final UriUniquenessHandler uriHandler)
+        {
+            final var labels = new ArrayList<String>();
+            final var propertyKeys = new ArrayList<String>();
+            final var relationshipTypes = new ArrayList<String>();
+
+            changedNodeIds.stream()
+                .map(nonUniqueNodes::get)
+                .filter(Objects::nonNull)
+                .map(nonUniqueNode -> uriHandler.applyUniqueness(nonUniqueNode, projectTag))
+                .forEach(node -> {
+                    labels.addAll(node.classLabels());
+
+                    final var nodePropertyKeys = Optional.ofNullable(node.properties()).orElse(Map.of()).keySet();
+                    propertyKeys.addAll(nodePropertyKeys);
+                    if (!nodePropertyKeys.contains(URI_PROPERTY))
+                    {
+                        propertyKeys.add(URI_PROPERTY);
+                    }
+
+                    // Incoming relationships from changed nodes, self loops included, are counted as outgoing ones of their source.
+                    relationshipTypes.addAll(relationshipTypes(node.outgoingNeighbours(), neighbourId -> true));
+                    relationshipTypes.addAll(relationshipTypes(node.incomingNeighbours(), neighbourId -> !changedNodeIds.contains(neighbourId)));
+                });
+
+            return new NodeUsages(labels, propertyKeys, relationshipTypes);
+        }
+
+        private static List<String> relationshipTypes(final Map<Long, List<String>> neighbours, final Predicate<Long> includeNeighbour)
+        {
+            return Optional.ofNullable(neighbours).orElse(Map.of()).entrySet().stream()
+                .filter(neighbour -> includeNeighbour.test(neighbour.getKey()))
+                .flatMap(neighbour -> neighbour.getValue().stream())
+                .toList();
+        }
+    }
+}
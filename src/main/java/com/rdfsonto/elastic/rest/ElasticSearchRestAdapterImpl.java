@@ -68,9 +68,10 @@ public class ElasticSearchRestAdapterImpl
     public void testElasticSearch()
     {
 
-        final var pageSize = 70_000;
+        final var pageSize = 50_000;
         var start = System.currentTimeMillis();
-        var res = classNodeService.findByProject(35, Pageable.ofSize(pageSize).withPage(0));
+        var scan = classNodeService.scanByProject(35, null, pageSize);
+        var res = scan.nodes();
         var end = System.currentTimeMillis();
         log.warn("time elapsed");
         log.warn(String.valueOf(end - start));
@@ -87,13 +88,13 @@ public class ElasticSearchRestAdapterImpl
         log.warn(String.valueOf(end - start));
 
         start = System.currentTimeMillis();
-        res = classNodeService.findByProject(35, Pageable.ofSize(pageSize).withPage(1));
+        scan = classNodeService.scanByProject(35, scan.continuationToken(), pageSize);
         end = System.currentTimeMillis();
         log.warn("time elapsed");
         log.warn(String.valueOf(end - start));
 
         start = System.currentTimeMillis();
-        res = classNodeService.findByProject(35, Pageable.ofSize(pageSize).withPage(2));
+        scan = classNodeService.scanByProject(35, scan.continuationToken(), pageSize);
         end = System.currentTimeMillis();
         log.warn("time elapsed");
         log.warn(String.valueOf(end - start));
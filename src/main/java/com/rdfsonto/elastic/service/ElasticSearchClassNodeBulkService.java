@@ -1,6 +1,17 @@
 package com.rdfsonto.elastic.service;
 
+import java.util.function.LongConsumer;
+
+
 public interface ElasticSearchClassNodeBulkService
 {
     void createIndex(long userId, long projectId);
+
+    void createIndex(long userId, long projectId, LongConsumer indexedDocumentsListener);
+
+    ElasticSearchStreamIndexer openStreamIndexer(long userId, long projectId, LongConsumer indexedDocumentsListener);
+
+    void completeStreamIndex(long userId, long projectId, ElasticSearchStreamIndexer streamIndexer, LongConsumer indexedDocumentsListener);
+
+    void discardStreamIndex(long userId, long projectId, ElasticSearchStreamIndexer streamIndexer);
 }
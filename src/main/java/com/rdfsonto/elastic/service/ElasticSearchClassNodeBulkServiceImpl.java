@@ -1,16 +1,26 @@
 package com.rdfsonto.elastic.service;
 
+import static com.rdfsonto.elastic.service.ElasticSearchClassNodeServiceImpl.NEO4J_ID_FIELD;
+import static com.rdfsonto.elastic.service.ElasticSearchClassNodeServiceImpl.NEO4J_LABELS_FIELD;
+import static com.rdfsonto.elastic.service.ElasticSearchClassNodeServiceImpl.NEO4J_URI_FIELD;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.IntStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 import com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepository;
+import com.rdfsonto.classnode.database.ClassNodeVo;
+import com.rdfsonto.classnode.service.ClassNode;
 import com.rdfsonto.classnode.service.ClassNodeService;
 import com.rdfsonto.classnode.service.UniqueUriIdHandler;
 import com.rdfsonto.classnode.service.UriUniquenessHandler;
+import com.rdfsonto.rdf4j.KnownNamespace;
+import com.rdfsonto.util.database.KeysetCursor;
 
 import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
@@ -25,6 +35,7 @@ import lombok.extern.slf4j.Slf4j;
 public class ElasticSearchClassNodeBulkServiceImpl implements ElasticSearchClassNodeBulkService
 {
     private static final int BATCH_SIZE = 50_000;
+    private static final int REINDEX_BATCH_SIZE = 1_000;
     private static final int MAX_REQUEST_SIZE_MB = 50_000_000;
     private static final int FLUSH_INTERVAL_SECONDS = 10;
 
@@ -38,31 +49,171 @@ public class ElasticSearchClassNodeBulkServiceImpl implements ElasticSearchClass
     @Override
     public void createIndex(final long userId, final long projectId)
     {
+        createIndex(userId, projectId, indexedDocuments -> {
+        });
+    }
+
+    @Override
+    public void createIndex(final long userId, final long projectId, final LongConsumer indexedDocumentsListener)
+    {
+        final var bulkIngester = createBulkIngester();
+
+        try
+        {
+            String continuationToken = null;
+            do
+            {
+                final var scanResult = classNodeService.scanByProject(projectId, continuationToken, BATCH_SIZE);
+                indexedDocumentsListener.accept(handleBulkIndex(scanResult.nodes(), userId, projectId, bulkIngester));
+                continuationToken = scanResult.continuationToken();
+            }
+            while (continuationToken != null);
+
+            elasticsearchAsyncClient.indices()
+                .refresh(refresh -> refresh.index(ElasticSearchClassNodeServiceImpl.getIndexName(userId, projectId)));
+        }
+        finally
+        {
+            bulkIngester.close();
+        }
+    }
+
+    @Override
+    public ElasticSearchStreamIndexer openStreamIndexer(final long userId, final long projectId, final LongConsumer indexedDocumentsListener)
+    {
+        return new ElasticSearchStreamIndexer(
+            createBulkIngester(),
+            ElasticSearchClassNodeServiceImpl.getIndexName(userId, projectId),
+            indexedDocumentsListener);
+    }
+
+    @Override
+    public void completeStreamIndex(final long userId,
+                                    final long projectId,
+                                    final ElasticSearchStreamIndexer streamIndexer,
+                                    final LongConsumer indexedDocumentsListener)
+    {
+        // Documents from the stream have to be written before they are updated with Neo4j ids.
+        streamIndexer.close();
+
         final var projectTag = uniqueUriIdHandler.uniquerUriTag(userId, projectId);
-        final var projectLabel = List.of(uriUniquenessHandler.getClassNodeLabel(projectTag));
+        final var projectLabel = uriUniquenessHandler.getClassNodeLabel(projectTag);
+        final var indexName = ElasticSearchClassNodeServiceImpl.getIndexName(userId, projectId);
+        final var bulkIngester = createBulkIngester();
+
+        try
+        {
+            var cursor = KeysetCursor.first(BATCH_SIZE);
+            do
+            {
+                final var page = classNodeNeo4jDriverRepository.findNodeKeysByProject(projectLabel, cursor);
+
+                final var incompleteNodeIds = new ArrayList<Long>();
+                final var createdDocuments = new AtomicLong();
+                page.content().forEach(nodeKey -> {
+                    final var uri = uniqueUriIdHandler.removeUniqueness(nodeKey.getUri());
+                    if (streamIndexer.isIncomplete(uri))
+                    {
+                        incompleteNodeIds.add(nodeKey.getId());
+                        return;
+                    }
+                    if (!streamIndexer.isIndexed(uri))
+                    {
+                        createdDocuments.incrementAndGet();
+                    }
+                    upsertNodeKey(nodeKey, uri, indexName, bulkIngester);
+                });
+
+                indexedDocumentsListener.accept(createdDocuments.get());
+                reindexNodes(projectId, incompleteNodeIds, indexName, bulkIngester, indexedDocumentsListener);
 
-        final var nodeCount = classNodeNeo4jDriverRepository.countNodeIdsByPropertiesAndLabels(projectLabel, List.of());
-        final int pageCount = (int) (nodeCount / BATCH_SIZE) + 1;
+                cursor = page.nextCursor();
+            }
+            while (cursor != null);
 
-        final BulkIngester<Void> bulkIngester = BulkIngester.of(ingester -> ingester
+            elasticsearchAsyncClient.indices()
+                .refresh(refresh -> refresh.index(indexName));
+        }
+        finally
+        {
+            bulkIngester.close();
+        }
+    }
+
+    @Override
+    public void discardStreamIndex(final long userId, final long projectId, final ElasticSearchStreamIndexer streamIndexer)
+    {
+        streamIndexer.close();
+
+        final var indexName = ElasticSearchClassNodeServiceImpl.getIndexName(userId, projectId);
+        try
+        {
+            elasticsearchClient.indices().delete(delete -> delete.index(indexName));
+        }
+        catch (final Exception exception)
+        {
+            log.error("Failed to delete index {} of a failed import.", indexName);
+        }
+    }
+
+    private void upsertNodeKey(final ClassNodeVo nodeKey, final String uri, final String indexName, final BulkIngester<Void> bulkIngester)
+    {
+        final var labels = nodeKey.getClassLabels().stream()
+            .filter(label -> !label.startsWith(KnownNamespace.UN.toString()))
+            .map(uniqueUriIdHandler::removeUniqueness)
+            .toList();
+
+        // Nodes which were not subjects in the stream (referenced resources) get their first document here.
+        final Map<String, Object> keys = Map.of(
+            NEO4J_ID_FIELD, nodeKey.getId().toString(),
+            NEO4J_URI_FIELD, uri,
+            NEO4J_LABELS_FIELD, labels.toString());
+
+        bulkIngester.add(op -> op
+            .update(update -> update
+                .index(indexName)
+                .id(uri)
+                .action(action -> action
+                    .doc(keys)
+                    .docAsUpsert(true))));
+    }
+
+    private void reindexNodes(final long projectId,
+                              final List<Long> nodeIds,
+                              final String indexName,
+                              final BulkIngester<Void> bulkIngester,
+                              final LongConsumer indexedDocumentsListener)
+    {
+        for (int from = 0; from < nodeIds.size(); from += REINDEX_BATCH_SIZE)
+        {
+            final var batch = nodeIds.subList(from, Math.min(nodeIds.size(), from + REINDEX_BATCH_SIZE));
+            final var fetchedNodes = classNodeService.findByIdsLight(projectId, batch);
+
+            fetchedNodes.forEach(fetchedNode -> {
+                final var propertiesMap = ElasticSearchClassNodeServiceImpl.extractProperties(fetchedNode);
+                bulkIngester.add(op -> op
+                    .index(idx -> idx
+                        .index(indexName)
+                        .id(fetchedNode.uri())
+                        .document(propertiesMap)));
+            });
+            indexedDocumentsListener.accept(fetchedNodes.size());
+        }
+    }
+
+    private BulkIngester<Void> createBulkIngester()
+    {
+        return BulkIngester.of(ingester -> ingester
             .client(elasticsearchClient)
             .maxSize(MAX_REQUEST_SIZE_MB)
             .flushInterval(FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS));
-
-        IntStream.range(0, pageCount).forEach(batchIndex -> handleBulkIndex(batchIndex, userId, projectId, bulkIngester));
-
-        elasticsearchAsyncClient.indices()
-            .refresh(refresh -> refresh.index(ElasticSearchClassNodeServiceImpl.getIndexName(userId, projectId)));
-        bulkIngester.close();
     }
 
-    private void handleBulkIndex(final int batchIndex,
+    private int handleBulkIndex(final List<ClassNode> fetchedNodes,
                                  final long userId,
                                  final long projectId,
                                  final BulkIngester<Void> bulkIngester)
     {
-        final var page = Pageable.ofSize(BATCH_SIZE).withPage(batchIndex);
-        final var fetchedNodes = classNodeService.findByProject(projectId, page);
         fetchedNodes.forEach(fetchedNode -> {
             final var propertiesMap = ElasticSearchClassNodeServiceImpl.extractProperties(fetchedNode);
             bulkIngester.add(op -> op
@@ -71,5 +222,7 @@ public class ElasticSearchClassNodeBulkServiceImpl implements ElasticSearchClass
                     .id(fetchedNode.uri())
                     .document(propertiesMap)));
         });
+
+        return fetchedNodes.size();
     }
 }
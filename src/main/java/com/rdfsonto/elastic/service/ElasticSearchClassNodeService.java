@@ -17,5 +17,10 @@ public interface ElasticSearchClassNodeService
 
     void delete(long userId, long projectId, ClassNode classNode);
 
+    /**
+     * Indexes saved nodes and removes documents of deleted nodes in a single bulk request.
+     */
+    void bulkUpdate(long userId, long projectId, List<ClassNode> savedNodes, List<ClassNode> deletedNodes);
+
     void deleteIndex(long userId, long projectId);
 }
@@ -23,6 +23,7 @@ import co.elastic.clients.elasticsearch._types.SortOptions;
 import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,7 +37,7 @@ public class ElasticSearchClassNodeServiceImpl implements ElasticSearchClassNode
     private static final String LABELS_QUERY_ANALYZER = "my_analyzer";
     static final String NEO4J_URI_FIELD = "neo4j_uri";
     static final String NEO4J_ID_FIELD = "neo4j_id";
-    private static final String NEO4J_LABELS_FIELD = "neo4j_labels";
+    static final String NEO4J_LABELS_FIELD = "neo4j_labels";
     private static final String INDEX_PREFIX_TEMPLATE = "ontology-index-%s-%s";
     private final List<FieldValue> EMPTY_SEARCH_AFTER_VALUES = List.of(
         FieldValue.of("Infinity"),
@@ -131,6 +132,46 @@ public class ElasticSearchClassNodeServiceImpl implements ElasticSearchClassNode
         }
     }
 
+    @Override
+    public void bulkUpdate(final long userId, final long projectId, final List<ClassNode> savedNodes, final List<ClassNode> deletedNodes)
+    {
+        final var indexName = getIndexName(userId, projectId);
+
+        final var indexOperations = savedNodes.stream()
+            .map(node -> BulkOperation.of(operation -> operation
+                .index(idx -> idx
+                    .index(indexName)
+                    .id(node.uri())
+                    .document(extractProperties(node)))));
+
+        final var deleteOperations = deletedNodes.stream()
+            .map(node -> BulkOperation.of(operation -> operation
+                .delete(delete -> delete
+                    .index(indexName)
+                    .id(node.uri()))));
+
+        final var operations = Stream.concat(indexOperations, deleteOperations).toList();
+        if (operations.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            final var response = elasticsearchClient.bulk(bulk -> bulk.operations(operations));
+            if (response.errors())
+            {
+                response.items().stream()
+                    .filter(item -> item.error() != null)
+                    .forEach(item -> log.error("Failed to update indexed document {}: {}", item.id(), item.error().reason()));
+            }
+        }
+        catch (final IOException exception)
+        {
+            throw new IllegalStateException("Failed to update indexed documents.");
+        }
+    }
+
     @Override
     public void deleteIndex(final long userId, final long projectId)
     {
@@ -0,0 +1,100 @@
+package com.rdfsonto.elastic.service;
+
+import static com.rdfsonto.elastic.service.ElasticSearchClassNodeServiceImpl.NEO4J_LABELS_FIELD;
+import static com.rdfsonto.elastic.service.ElasticSearchClassNodeServiceImpl.NEO4J_URI_FIELD;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+import com.rdfsonto.util.offheap.OffHeapStringSet;
+
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Indexes documents built from the imported statements while the ontology is still being loaded into Neo4j. Documents
+ * are keyed by the node URI, Neo4j ids are filled in afterwards by
+ * {@link ElasticSearchClassNodeBulkService#completeStreamIndex(long, long, ElasticSearchStreamIndexer, LongConsumer)}.
+ * Nodes that could not be indexed completely from the stream (subjects split across the input, blank nodes) are
+ * re-indexed from Neo4j at that point.
+ */
+@Slf4j
+public class ElasticSearchStreamIndexer implements Closeable
+{
+    private static final String BLANK_NODE_PREFIX = "bnode://";
+    private static final long EXPECTED_DOCUMENTS = 1 << 20;
+    private static final long EXPECTED_INCOMPLETE_DOCUMENTS = 1 << 10;
+
+    private final BulkIngester<Void> bulkIngester;
+    private final String indexName;
+    private final LongConsumer indexedDocumentsListener;
+    private final OffHeapStringSet indexedUris = new OffHeapStringSet(EXPECTED_DOCUMENTS);
+    private final OffHeapStringSet incompleteUris = new OffHeapStringSet(EXPECTED_INCOMPLETE_DOCUMENTS);
+    private boolean closed = false;
+
+    ElasticSearchStreamIndexer(final BulkIngester<Void> bulkIngester, final String indexName, final LongConsumer indexedDocumentsListener)
+    {
+        this.bulkIngester = bulkIngester;
+        this.indexName = indexName;
+        this.indexedDocumentsListener = indexedDocumentsListener;
+    }
+
+    public void index(final String uri, final List<String> labels, final Map<String, List<Object>> properties)
+    {
+        if (!markIndexed(uri))
+        {
+            // The first document of this subject is already sent, the complete one is built from Neo4j later.
+            markIncomplete(uri);
+            return;
+        }
+
+        final var document = new HashMap<String, Object>();
+        properties.forEach((property, values) -> document.put(ElasticSearchClassNodeServiceImpl.simplifyField(property), values.toString()));
+        document.put(NEO4J_LABELS_FIELD, labels.toString());
+        document.put(NEO4J_URI_FIELD, uri);
+
+        bulkIngester.add(op -> op
+            .index(idx -> idx
+                .index(indexName)
+                .id(uri)
+                .document(document)));
+        indexedDocumentsListener.accept(1);
+    }
+
+    public synchronized void markIncomplete(final String uri)
+    {
+        incompleteUris.add(uri);
+    }
+
+    synchronized boolean isIndexed(final String uri)
+    {
+        return indexedUris.contains(uri);
+    }
+
+    synchronized boolean isIncomplete(final String uri)
+    {
+        return uri.startsWith(BLANK_NODE_PREFIX) || incompleteUris.contains(uri);
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if (closed)
+        {
+            return;
+        }
+
+        closed = true;
+        bulkIngester.close();
+        log.info("Indexed {} documents from the import stream, {} are incomplete.", indexedUris.size(), incompleteUris.size());
+    }
+
+    private synchronized boolean markIndexed(final String uri)
+    {
+        return indexedUris.add(uri);
+    }
+}
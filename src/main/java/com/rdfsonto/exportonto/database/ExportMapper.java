@@ -1,20 +1,43 @@
 package com.rdfsonto.exportonto.database;
 
+import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.ID_KEY;
 import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.IS_LITERAL_KEY;
+import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.LABELS_KEY;
 import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.OBJECT_KEY;
 import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.PREDICATE_KEY;
+import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.PROPERTIES_KEY;
+import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.RELATIONSHIPS_KEY;
 import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.SUBJECT_KEY;
+import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.TARGET_KEY;
+import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.TYPE_KEY;
+import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.URI_KEY;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.util.Statements;
 import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
 import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
 import org.springframework.stereotype.Component;
 
 
 @Component
 class ExportMapper
 {
+    private static final String RESOURCE_LABEL = "Resource";
+    // n10s keepLangTag appends "@" and a BCP 47 tag, which starts with a two or three letter language code, e.g. "en" or "zh-Hant-TW".
+    private static final Pattern LANGUAGE_TAGGED_VALUE = Pattern.compile("(.*)@([a-zA-Z]{2,3}(?:-[a-zA-Z0-9]{1,8})*)", Pattern.DOTALL);
+    private static final Pattern CUSTOM_TYPED_VALUE = Pattern.compile("(.*)\\^\\^(\\S+:\\S+)", Pattern.DOTALL);
+
     Statement mapToVo(final Record neo4jTripleRecord)
     {
         final var subject = neo4jTripleRecord.get(SUBJECT_KEY).asString();
@@ -28,4 +51,84 @@ class ExportMapper
             isLiteral ? Values.literal(object) : Values.iri(object),
             null);
     }
+
+    /**
+     * Reverses the mapping of the import, types are stored as labels, literals as multivalued properties with language tags
+     * and custom datatypes kept in the value, and resources as relationships.
+     */
+    ExportedNode mapToExportedNode(final Record nodeRecord)
+    {
+        final var subject = Values.iri(nodeRecord.get(URI_KEY).asString());
+        final var statements = new ArrayList<Statement>();
+
+        nodeRecord.get(LABELS_KEY).asList(Value::asString).stream()
+            .filter(ExportMapper::isIri)
+            .forEach(label -> statements.add(Statements.statement(subject, RDF.TYPE, Values.iri(label), null)));
+
+        nodeRecord.get(PROPERTIES_KEY).asMap().forEach((key, value) -> {
+            if (key.equals(URI_KEY) || !isIri(key))
+            {
+                return;
+            }
+
+            final var predicate = Values.iri(key);
+            final var values = value instanceof List<?> multipleValues ? multipleValues : List.of(value);
+            values.forEach(singleValue -> statements.add(Statements.statement(subject, predicate, toLiteral(singleValue), null)));
+        });
+
+        nodeRecord.get(RELATIONSHIPS_KEY).asList(relationship -> relationship).stream()
+            .filter(relationship -> isIri(relationship.get(TYPE_KEY).asString()))
+            .forEach(relationship -> statements.add(Statements.statement(
+                subject,
+                Values.iri(relationship.get(TYPE_KEY).asString()),
+                Values.iri(relationship.get(TARGET_KEY).asString()),
+                null)));
+
+        return new ExportedNode(nodeRecord.get(ID_KEY).asLong(), statements);
+    }
+
+    static Literal toLiteral(final Object value)
+    {
+        if (value instanceof Long || value instanceof Integer)
+        {
+            return Values.literal(((Number) value).longValue());
+        }
+        if (value instanceof Double || value instanceof Float)
+        {
+            return Values.literal(((Number) value).doubleValue());
+        }
+        if (value instanceof Boolean booleanValue)
+        {
+            return Values.literal(booleanValue);
+        }
+        if (value instanceof LocalDate date)
+        {
+            return Values.literal(date.toString(), XSD.DATE);
+        }
+        if (value instanceof ZonedDateTime || value instanceof LocalDateTime)
+        {
+            return Values.literal(value.toString(), XSD.DATETIME);
+        }
+
+        final var label = String.valueOf(value);
+
+        final var languageTagged = LANGUAGE_TAGGED_VALUE.matcher(label);
+        if (languageTagged.matches())
+        {
+            return Values.literal(languageTagged.group(1), languageTagged.group(2));
+        }
+
+        final var customTyped = CUSTOM_TYPED_VALUE.matcher(label);
+        if (customTyped.matches())
+        {
+            return Values.literal(customTyped.group(1), Values.iri(customTyped.group(2)));
+        }
+
+        return Values.literal(label);
+    }
+
+    private static boolean isIri(final String value)
+    {
+        return !value.equals(RESOURCE_LABEL) && value.indexOf(':') > 0;
+    }
 }
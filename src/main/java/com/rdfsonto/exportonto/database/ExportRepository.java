@@ -1,14 +1,24 @@
 package com.rdfsonto.exportonto.database;
 
-import java.util.List;
+import java.util.Optional;
 
 import org.eclipse.rdf4j.model.Statement;
-import org.springframework.data.domain.Pageable;
+
+import com.rdfsonto.util.database.KeysetCursor;
+import com.rdfsonto.util.database.KeysetPage;
 
 
 public interface ExportRepository
 {
-    List<Statement> exportAttributes(long projectId, long userId, Pageable page);
+    KeysetPage<Statement> exportAttributes(long projectId, long userId, KeysetCursor cursor);
+
+    KeysetPage<Statement> exportRelationships(long projectId, long userId, KeysetCursor cursor);
+
+    Optional<NodeIdRange> findNodeIdRange(String projectLabel);
 
-    List<Statement> exportRelationships(long projectId, long userId, Pageable page);
+    /**
+     * Statements of the project nodes in the range which follow the cursor, the labels, the properties and the outgoing
+     * relationships of every node, mapped the same way n10s exports them.
+     */
+    KeysetPage<Statement> exportNodes(String projectLabel, NodeIdRange range, KeysetCursor cursor);
 }
@@ -1,12 +1,17 @@
 package com.rdfsonto.exportonto.database;
 
+import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.EXPORT_NODES_BY_PROJECT_LABEL_AFTER_ID;
 import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.EXPORT_NODES_TO_RDF_STATEMENT;
 import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.EXPORT_RELATIONSHIPS_TO_RDF_STATEMENT;
+import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.FIND_NODE_ID_RANGE_BY_PROJECT_LABEL;
+import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.MAX_ID_KEY;
+import static com.rdfsonto.exportonto.database.ExportRepositoryTemplates.MIN_ID_KEY;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Optional;
 
 import org.eclipse.rdf4j.model.Statement;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +19,8 @@ import com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepository;
 import com.rdfsonto.classnode.database.ClassNodeVo;
 import com.rdfsonto.classnode.service.UniqueUriIdHandler;
 import com.rdfsonto.classnode.service.UriUniquenessHandler;
+import com.rdfsonto.util.database.KeysetCursor;
+import com.rdfsonto.util.database.KeysetPage;
 
 import lombok.RequiredArgsConstructor;
 
@@ -29,36 +36,70 @@ public class ExportRepositoryImpl implements ExportRepository
     private final ClassNodeNeo4jDriverRepository classNodeNeo4jDriverRepository;
 
     @Override
-    public List<Statement> exportAttributes(final long projectId, final long userId, final Pageable page)
+    public KeysetPage<Statement> exportAttributes(final long projectId, final long userId, final KeysetCursor cursor)
     {
         final var projectTag = uniqueUriIdHandler.uniquerUriTag(userId, projectId);
         final var projectLabel = uriUniquenessHandler.getClassNodeLabel(projectTag);
 
-        final var nodeIds = classNodeNeo4jDriverRepository.findAllByProject(projectLabel, page).stream()
+        final var nodePage = classNodeNeo4jDriverRepository.findNodeKeysByProject(projectLabel, cursor);
+        final var nodeIds = nodePage.content().stream()
             .map(ClassNodeVo::getId)
             .toList();
 
-        final var query = EXPORT_NODES_TO_RDF_STATEMENT.formatted(projectLabel, nodeIds);
-
-        return neo4jClient.query(query)
-            .fetchAs(Statement.class)
-            .mappedBy((typeSystem, record) -> exportMapper.mapToVo(record))
-            .all()
-            .stream().toList();
+        return KeysetPage.<Statement>builder()
+            .withContent(exportStatements(EXPORT_NODES_TO_RDF_STATEMENT.formatted(projectLabel, nodeIds)))
+            .withNextCursor(nodePage.nextCursor())
+            .build();
     }
 
     @Override
-    public List<Statement> exportRelationships(final long projectId, final long userId, final Pageable page)
+    public KeysetPage<Statement> exportRelationships(final long projectId, final long userId, final KeysetCursor cursor)
     {
         final var projectTag = uniqueUriIdHandler.uniquerUriTag(userId, projectId);
         final var projectLabel = uriUniquenessHandler.getClassNodeLabel(projectTag);
 
-        final var nodeIds = classNodeNeo4jDriverRepository.findAllByProject(projectLabel, page).stream()
+        final var nodePage = classNodeNeo4jDriverRepository.findNodeKeysByProject(projectLabel, cursor);
+        final var nodeIds = nodePage.content().stream()
             .map(ClassNodeVo::getId)
             .toList();
 
-        final var query = EXPORT_RELATIONSHIPS_TO_RDF_STATEMENT.formatted(projectLabel, nodeIds);
+        return KeysetPage.<Statement>builder()
+            .withContent(exportStatements(EXPORT_RELATIONSHIPS_TO_RDF_STATEMENT.formatted(projectLabel, nodeIds)))
+            .withNextCursor(nodePage.nextCursor())
+            .build();
+    }
 
+    @Override
+    public Optional<NodeIdRange> findNodeIdRange(final String projectLabel)
+    {
+        return neo4jClient.query(FIND_NODE_ID_RANGE_BY_PROJECT_LABEL.formatted(projectLabel))
+            .fetch()
+            .one()
+            .filter(range -> range.get(MIN_ID_KEY) != null)
+            .map(range -> new NodeIdRange((Long) range.get(MIN_ID_KEY), (Long) range.get(MAX_ID_KEY)));
+    }
+
+    @Override
+    public KeysetPage<Statement> exportNodes(final String projectLabel, final NodeIdRange range, final KeysetCursor cursor)
+    {
+        final var parameters = new HashMap<>(cursor.toParameters());
+        parameters.put(MAX_ID_KEY, range.maxId());
+
+        final var nodes = neo4jClient.query(EXPORT_NODES_BY_PROJECT_LABEL_AFTER_ID.formatted(projectLabel))
+            .bindAll(parameters)
+            .fetchAs(ExportedNode.class)
+            .mappedBy((typeSystem, record) -> exportMapper.mapToExportedNode(record))
+            .all().stream()
+            .toList();
+
+        return KeysetPage.<Statement>builder()
+            .withContent(nodes.stream().flatMap(node -> node.statements().stream()).toList())
+            .withNextCursor(KeysetPage.of(nodes, cursor, ExportedNode::id).nextCursor())
+            .build();
+    }
+
+    private List<Statement> exportStatements(final String query)
+    {
         return neo4jClient.query(query)
             .fetchAs(Statement.class)
             .mappedBy((typeSystem, record) -> exportMapper.mapToVo(record))
@@ -6,6 +6,30 @@ class ExportRepositoryTemplates
     static final String OBJECT_KEY = "object";
     static final String SUBJECT_KEY = "subject";
     static final String IS_LITERAL_KEY = "isLiteral";
+    static final String URI_KEY = "uri";
+    static final String LABELS_KEY = "labels";
+    static final String PROPERTIES_KEY = "properties";
+    static final String RELATIONSHIPS_KEY = "relationships";
+    static final String TYPE_KEY = "type";
+    static final String TARGET_KEY = "target";
+    static final String ID_KEY = "id";
+    static final String MIN_ID_KEY = "minId";
+    static final String MAX_ID_KEY = "maxId";
+
+    static final String FIND_NODE_ID_RANGE_BY_PROJECT_LABEL = """
+        MATCH (node:Resource:`%s`)
+        RETURN min(id(node)) AS minId, max(id(node)) AS maxId
+        """;
+
+    static final String EXPORT_NODES_BY_PROJECT_LABEL_AFTER_ID = """
+        MATCH (node:Resource:`%s`)
+        WHERE id(node) > $lastId AND id(node) <= $maxId
+        WITH node
+        ORDER BY id(node)
+        LIMIT $limit
+        RETURN id(node) AS id, node.uri AS uri, labels(node) AS labels, properties(node) AS properties,
+            [(node)-[relation]->(target:Resource) | {type: type(relation), target: target.uri}] AS relationships
+        """;
 
     static final String EXPORT_NODES_TO_RDF_STATEMENT = """
         CALL n10s.rdf.export.cypher("MATCH p = (n:Resource:`%s`) WHERE id(n) in %s RETURN p")
@@ -0,0 +1,10 @@
+package com.rdfsonto.exportonto.database;
+
+import java.util.List;
+
+import org.eclipse.rdf4j.model.Statement;
+
+
+record ExportedNode(long id, List<Statement> statements)
+{
+}
@@ -0,0 +1,27 @@
+package com.rdfsonto.exportonto.database;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+
+/**
+ * Inclusive range of node ids.
+ */
+public record NodeIdRange(long minId, long maxId)
+{
+    /**
+     * @return at most {@code parts} adjacent ranges of similar width covering this range, in the order of ids
+     */
+    public List<NodeIdRange> split(final int parts)
+    {
+        final var width = maxId - minId + 1;
+        final var count = Math.max(1, Math.min(parts, width));
+        final var step = width / count;
+
+        return LongStream.range(0, count)
+            .mapToObj(index -> new NodeIdRange(
+                minId + index * step,
+                index == count - 1 ? maxId : minId + (index + 1) * step - 1))
+            .toList();
+    }
+}
@@ -5,9 +5,10 @@ import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.INVALID
 import java.io.IOException;
 
 import javax.annotation.security.RolesAllowed;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
+import org.eclipse.rdf4j.rio.RDFFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.rdfsonto.classnode.service.ClassNodeException;
@@ -49,28 +51,69 @@ public class ExportOntologyController
             return ResponseEntity.badRequest().body(INVALID_REQUEST);
         }
 
+        if (exportOntologyRequest.rdfFormats() != null && !exportOntologyRequest.rdfFormats().isEmpty())
+        {
+            final var rdfFormats = exportOntologyRequest.rdfFormats().stream()
+                .map(this::parseFormat)
+                .toList();
+
+            final var ontologyExports = exportOntologyService.exportOntology(exportOntologyRequest.userId(), exportOntologyRequest.projectId(), rdfFormats);
+
+            return ResponseEntity.ok(ontologyExports.stream()
+                .map(ontologyExport -> ontologyExport.exportedOntologyFile().getName())
+                .toList());
+        }
+
         final var rdfFormat = RdfFormatParser.parse(exportOntologyRequest.rdfFormat());
-        final var ontologyExport = exportOntologyService.exportOntology(exportOntologyRequest.userId(), exportOntologyRequest.projectId(), rdfFormat);
+        final var ontologyExport = exportOntologyService.exportOntology(
+            exportOntologyRequest.userId(),
+            exportOntologyRequest.projectId(),
+            rdfFormat,
+            Boolean.TRUE.equals(exportOntologyRequest.incremental()));
 
         return ResponseEntity.ok(ontologyExport.exportedOntologyFile().getName());
     }
 
+    /**
+     * Serves the project snapshot with a strong ETag, conditional requests and byte ranges, so interrupted downloads resume
+     * and unchanged snapshots are not downloaded again.
+     */
     @GetMapping(value = "/file/{userId}/{projectId}")
-    public void getFile(@PathVariable final Long projectId, @PathVariable final Long userId, final HttpServletResponse response) throws IOException
+    public void getFile(@PathVariable final Long projectId,
+                        @PathVariable final Long userId,
+                        @RequestParam(required = false) final String rdfFormat,
+                        final HttpServletRequest request,
+                        final HttpServletResponse response) throws IOException
+    {
+        authService.validateProjectAccess(projectId);
+
+        final var format = rdfFormat != null ? parseFormat(rdfFormat) : null;
+        final var snapshot = exportOntologyService.provideExportedSnapshot(userId, projectId, format);
+
+        SnapshotDownloadWriter.write(snapshot, request, response);
+    }
+
+    /**
+     * Streams a fresh export without storing it in the workspace, the project snapshot is left unchanged.
+     */
+    @GetMapping(value = "/stream/{userId}/{projectId}")
+    public void streamFile(@PathVariable final Long projectId,
+                           @PathVariable final Long userId,
+                           @RequestParam final String rdfFormat,
+                           final HttpServletResponse response) throws IOException
     {
         authService.validateProjectAccess(projectId);
 
-        final var snapshot = exportOntologyService.provideExportedSnapshot(userId, projectId);
-        final var inputStream = snapshot.fileInputStream();
+        final var format = parseFormat(rdfFormat);
+        final var export = exportOntologyService.streamOntology(userId, projectId, format);
 
         response.setContentType("application/octet-stream");
-        response.setHeader("Content-disposition", "attachment; filename=" + snapshot.fileName() + ".gz");
+        response.setHeader("Content-disposition", "attachment; filename=" + export.fileName());
 
         final var out = response.getOutputStream();
 
-        IOUtils.copy(inputStream, out);
+        export.writer().writeTo(out);
         out.close();
-        inputStream.close();
     }
 
     @ExceptionHandler(ClassNodeException.class)
@@ -92,11 +135,21 @@ public class ExportOntologyController
         return ResponseEntity.badRequest().body(classNodeException.getErrorCode());
     }
 
+    private RDFFormat parseFormat(final String rdfFormat)
+    {
+        final var format = RdfFormatParser.parse(rdfFormat);
+        if (format == null)
+        {
+            throw new ClassNodeException("Unsupported RDF format: %s.".formatted(rdfFormat), INVALID_REQUEST);
+        }
+        return format;
+    }
+
     private boolean isInvalid(final ExportOntologyRequest request)
     {
         return (request.projectId() == null ||
             request.userId() == null ||
             request.fileName() == null ||
-            request.rdfFormat() == null);
+            (request.rdfFormat() == null && (request.rdfFormats() == null || request.rdfFormats().isEmpty())));
     }
 }
\ No newline at end of file
@@ -1,5 +1,11 @@
 package com.rdfsonto.exportonto.rest;
 
-public record ExportOntologyRequest(String fileName, String rdfFormat, Long projectId, Long userId)
+import java.util.List;
+
+
+/**
+ * @param rdfFormats formats extracted in a single pass, {@code rdfFormat} is used when absent
+ */
+public record ExportOntologyRequest(String fileName, String rdfFormat, List<String> rdfFormats, Long projectId, Long userId, Boolean incremental)
 {
 }
@@ -0,0 +1,268 @@
+package com.rdfsonto.exportonto.rest;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.rdfsonto.exportonto.service.SnapshotExport;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Writes a snapshot file with validators, answers {@code If-None-Match} with 304 and serves single and multiple byte ranges.
+ * Overlapping ranges are merged, a {@code Range} header which can not be parsed or asks for more bytes than the file has is
+ * answered with the whole file.
+ * Whole files and single ranges are handed to the container with sendfile when it supports it, otherwise the bytes are
+ * transferred from the file channel without passing through a heap buffer of ours.
+ */
+@Slf4j
+final class SnapshotDownloadWriter
+{
+    private static final String CONTENT_TYPE = "application/octet-stream";
+    private static final String BYTES_UNIT = "bytes";
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+    private static final String CRLF = "\r\n";
+
+    private SnapshotDownloadWriter()
+    {
+    }
+
+    static void write(final SnapshotExport snapshot, final HttpServletRequest request, final HttpServletResponse response) throws IOException
+    {
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + snapshot.fileName() + ".gz");
+
+        if (snapshot.snapshotPath() == null)
+        {
+            response.setContentType(CONTENT_TYPE);
+            response.setContentLength(0);
+            return;
+        }
+
+        // Sets the ETag and Last-Modified headers, and the 304 status when the client already has this snapshot.
+        if (new ServletWebRequest(request, response).checkNotModified(snapshot.eTag(), snapshot.snapshotTime()))
+        {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES_UNIT);
+
+        try (final var file = FileChannel.open(snapshot.snapshotPath()))
+        {
+            final var length = file.size();
+            final var rangeHeader = request.getHeader(HttpHeaders.RANGE);
+
+            if (rangeHeader == null || !matchesIfRange(request.getHeader(HttpHeaders.IF_RANGE), snapshot))
+            {
+                writeWholeFile(snapshot.snapshotPath(), file, request, response);
+                return;
+            }
+
+            final var requestedRanges = parseRanges(rangeHeader);
+            if (requestedRanges.isEmpty())
+            {
+                log.warn("Ignoring invalid range {} of snapshot {}.", rangeHeader, snapshot.snapshotPath());
+                writeWholeFile(snapshot.snapshotPath(), file, request, response);
+                return;
+            }
+
+            final var satisfiableRanges = satisfiableRanges(requestedRanges, length);
+            if (satisfiableRanges.isEmpty())
+            {
+                log.warn("Unsatisfiable range {} of snapshot {}.", rangeHeader, snapshot.snapshotPath());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "%s */%s".formatted(BYTES_UNIT, length));
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+
+            // Ranges asking for more bytes than the whole file, overlapping ones included, get the whole file instead.
+            if (satisfiableRanges.stream().mapToLong(ByteRange::length).sum() > length)
+            {
+                writeWholeFile(snapshot.snapshotPath(), file, request, response);
+                return;
+            }
+
+            final var ranges = coalesce(satisfiableRanges);
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+
+            if (ranges.size() == 1)
+            {
+                final var range = ranges.get(0);
+
+                response.setContentType(CONTENT_TYPE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(range, length));
+                writeBody(snapshot.snapshotPath(), file, range.start(), range.length(), request, response);
+            }
+            else
+            {
+                writeMultipart(file, ranges, length, response);
+            }
+        }
+    }
+
+    /**
+     * @return empty for a header which can not be parsed, it is ignored as if there was no header
+     */
+    private static List<HttpRange> parseRanges(final String rangeHeader)
+    {
+        try
+        {
+            return HttpRange.parseRanges(rangeHeader);
+        }
+        catch (final IllegalArgumentException exception)
+        {
+            return List.of();
+        }
+    }
+
+    /**
+     * Ranges starting past the end of the file are left out, the others are cut at its end.
+     */
+    private static List<ByteRange> satisfiableRanges(final List<HttpRange> ranges, final long length)
+    {
+        final var satisfiableRanges = new ArrayList<ByteRange>();
+        for (final var range : ranges)
+        {
+            try
+            {
+                satisfiableRanges.add(new ByteRange(range.getRangeStart(length), range.getRangeEnd(length)));
+            }
+            catch (final IllegalArgumentException exception)
+            {
+                // Not satisfiable, the remaining ranges may still be.
+            }
+        }
+        return satisfiableRanges;
+    }
+
+    /**
+     * Merges overlapping and adjacent ranges, so no byte is sent twice. The merged ranges are in the order of the file.
+     */
+    private static List<ByteRange> coalesce(final List<ByteRange> ranges)
+    {
+        final var sortedRanges = ranges.stream()
+            .sorted(Comparator.comparingLong(ByteRange::start))
+            .toList();
+
+        final var coalescedRanges = new ArrayList<ByteRange>();
+        for (final var range : sortedRanges)
+        {
+            final var lastIndex = coalescedRanges.size() - 1;
+            if (lastIndex >= 0 && range.start() <= coalescedRanges.get(lastIndex).end() + 1)
+            {
+                final var last = coalescedRanges.get(lastIndex);
+                coalescedRanges.set(lastIndex, new ByteRange(last.start(), Math.max(last.end(), range.end())));
+            }
+            else
+            {
+                coalescedRanges.add(range);
+            }
+        }
+        return coalescedRanges;
+    }
+
+    /**
+     * A range request with an {@code If-Range} of an older snapshot gets the whole new snapshot instead of a mix of both.
+     */
+    private static boolean matchesIfRange(final String ifRange, final SnapshotExport snapshot)
+    {
+        return ifRange == null || ifRange.equals(snapshot.eTag());
+    }
+
+    private static void writeWholeFile(final Path path,
+                                       final FileChannel file,
+                                       final HttpServletRequest request,
+                                       final HttpServletResponse response) throws IOException
+    {
+        response.setContentType(CONTENT_TYPE);
+        writeBody(path, file, 0, file.size(), request, response);
+    }
+
+    private static void writeBody(final Path path,
+                                  final FileChannel file,
+                                  final long position,
+                                  final long count,
+                                  final HttpServletRequest request,
+                                  final HttpServletResponse response) throws IOException
+    {
+        response.setContentLengthLong(count);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE)))
+        {
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, position);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, position + count);
+            return;
+        }
+
+        final var output = response.getOutputStream();
+        transfer(file, position, count, output);
+        output.flush();
+    }
+
+    private static void writeMultipart(final FileChannel file,
+                                       final List<ByteRange> ranges,
+                                       final long length,
+                                       final HttpServletResponse response) throws IOException
+    {
+        final var boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+
+        final var output = response.getOutputStream();
+        for (final var range : ranges)
+        {
+            output.write((CRLF + "--" + boundary + CRLF +
+                HttpHeaders.CONTENT_TYPE + ": " + CONTENT_TYPE + CRLF +
+                HttpHeaders.CONTENT_RANGE + ": " + contentRange(range, length) + CRLF + CRLF).getBytes(US_ASCII));
+            transfer(file, range.start(), range.length(), output);
+        }
+        output.write((CRLF + "--" + boundary + "--" + CRLF).getBytes(US_ASCII));
+        output.flush();
+    }
+
+    private static void transfer(final FileChannel file, final long position, final long count, final OutputStream output) throws IOException
+    {
+        final var target = Channels.newChannel(output);
+
+        var transferred = 0L;
+        while (transferred < count)
+        {
+            transferred += file.transferTo(position + transferred, count - transferred, target);
+        }
+    }
+
+    private static String contentRange(final ByteRange range, final long length)
+    {
+        return "%s %s-%s/%s".formatted(BYTES_UNIT, range.start(), range.end(), length);
+    }
+
+    /**
+     * @param start first byte of the range, inclusive
+     * @param end   last byte of the range, inclusive
+     */
+    private record ByteRange(long start, long end)
+    {
+        long length()
+        {
+            return end - start + 1;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.rdfsonto.exportonto.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rdfsonto.exportonto.database.ExportRepository;
+import com.rdfsonto.exportonto.database.NodeIdRange;
+import com.rdfsonto.util.database.KeysetCursor;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Reads a project through the Bolt driver in pages ordered by node id, so the database never holds more than one page per
+ * reader. The id range of the project is split between several readers, their pages are handed to the handler range by
+ * range, in the order of ids. Every reader keeps at most two pages ahead of the handler.
+ */
+@Slf4j
+@Component
+class BoltGraphExtractor
+{
+    private static final int PREFETCHED_PAGES = 2;
+    private static final List<Statement> END_OF_RANGE = new ArrayList<>(0);
+
+    private final ExportRepository exportRepository;
+    private final int pageSize;
+    private final int readerThreads;
+
+    BoltGraphExtractor(final ExportRepository exportRepository,
+                       @Value("${export.bolt.page-size:5000}") final int pageSize,
+                       @Value("${export.bolt.reader-threads:4}") final int readerThreads)
+    {
+        this.exportRepository = exportRepository;
+        this.pageSize = Math.max(1, pageSize);
+        this.readerThreads = Math.max(1, readerThreads);
+    }
+
+    void extract(final String projectLabel, final RDFHandler handler) throws RDFHandlerException
+    {
+        final var ranges = exportRepository.findNodeIdRange(projectLabel)
+            .map(range -> range.split(readerThreads))
+            .orElse(List.of());
+
+        handler.startRDF();
+
+        if (ranges.size() <= 1)
+        {
+            ranges.forEach(range -> readRange(projectLabel, range, page -> page.forEach(handler::handleStatement)));
+        }
+        else
+        {
+            readInParallel(projectLabel, ranges, handler);
+        }
+
+        handler.endRDF();
+    }
+
+    private void readInParallel(final String projectLabel, final List<NodeIdRange> ranges, final RDFHandler handler)
+    {
+        final var readers = Executors.newFixedThreadPool(ranges.size());
+        final var readFailure = new AtomicReference<Throwable>();
+        final var pages = new ArrayList<BlockingQueue<List<Statement>>>();
+
+        try
+        {
+            for (final var range : ranges)
+            {
+                final var rangePages = new ArrayBlockingQueue<List<Statement>>(PREFETCHED_PAGES);
+                pages.add(rangePages);
+
+                readers.execute(() -> {
+                    try
+                    {
+                        readRange(projectLabel, range, page -> enqueue(rangePages, page));
+                    }
+                    catch (final Exception exception)
+                    {
+                        log.error("Failed to read node range {} of project {}.", range, projectLabel, exception);
+                        readFailure.compareAndSet(null, exception);
+                    }
+                    finally
+                    {
+                        enqueue(rangePages, END_OF_RANGE);
+                    }
+                });
+            }
+
+            for (final var rangePages : pages)
+            {
+                for (var page = rangePages.take(); page != END_OF_RANGE; page = rangePages.take())
+                {
+                    page.forEach(handler::handleStatement);
+                }
+
+                if (readFailure.get() != null)
+                {
+                    throw new RDFHandlerException("Failed to read statements from Neo4j.", readFailure.get());
+                }
+            }
+        }
+        catch (final InterruptedException interruptedException)
+        {
+            Thread.currentThread().interrupt();
+            throw new RDFHandlerException("Interrupted while reading statements from Neo4j.", interruptedException);
+        }
+        finally
+        {
+            readers.shutdownNow();
+        }
+    }
+
+    private void readRange(final String projectLabel, final NodeIdRange range, final Consumer<List<Statement>> pageConsumer)
+    {
+        var cursor = KeysetCursor.builder()
+            .withLastId(range.minId() - 1)
+            .withPageSize(pageSize)
+            .build();
+
+        while (cursor != null && !Thread.currentThread().isInterrupted())
+        {
+            final var page = exportRepository.exportNodes(projectLabel, range, cursor);
+            if (!page.content().isEmpty())
+            {
+                pageConsumer.accept(page.content());
+            }
+            cursor = page.nextCursor();
+        }
+    }
+
+    private static void enqueue(final BlockingQueue<List<Statement>> rangePages, final List<Statement> page)
+    {
+        try
+        {
+            rangePages.put(page);
+        }
+        catch (final InterruptedException interruptedException)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handing over a page of statements.", interruptedException);
+        }
+    }
+}
@@ -8,7 +8,10 @@ import java.util.UUID;
 import lombok.Builder;
 
 
+/**
+ * @param fileHash hex encoded SHA-256 of the exported file, computed while the file was written
+ */
 @Builder(setterPrefix = "with")
-public record ExportOntologyResult(UUID exportId, File exportedOntologyFile, BufferedInputStream inputStream)
+public record ExportOntologyResult(UUID exportId, File exportedOntologyFile, BufferedInputStream inputStream, String fileHash)
 {
 }
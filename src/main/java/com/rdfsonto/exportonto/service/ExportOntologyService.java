@@ -1,5 +1,7 @@
 package com.rdfsonto.exportonto.service;
 
+import java.util.List;
+
 import org.eclipse.rdf4j.rio.RDFFormat;
 
 
@@ -7,5 +9,22 @@ public interface ExportOntologyService
 {
     ExportOntologyResult exportOntology(long userId, long projectId, RDFFormat rdfFormat);
 
+    /**
+     * @param incremental reuse the parts of the previous snapshot without changed nodes, when its format allows it
+     */
+    ExportOntologyResult exportOntology(long userId, long projectId, RDFFormat rdfFormat, boolean incremental);
+
+    /**
+     * Extracts the project once for all formats, the first format becomes the project snapshot.
+     */
+    List<ExportOntologyResult> exportOntology(long userId, long projectId, List<RDFFormat> rdfFormats);
+
     SnapshotExport provideExportedSnapshot(long userId, long projectId);
+
+    /**
+     * @param rdfFormat format of the snapshot, {@code null} for the format of the last export
+     */
+    SnapshotExport provideExportedSnapshot(long userId, long projectId, RDFFormat rdfFormat);
+
+    StreamedOntologyExport streamOntology(long userId, long projectId, RDFFormat rdfFormat);
 }
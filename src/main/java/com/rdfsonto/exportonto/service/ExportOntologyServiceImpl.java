@@ -3,33 +3,42 @@ package com.rdfsonto.exportonto.service;
 import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.INVALID_PROJECT_ID;
 import static com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode.INVALID_USER_ID;
 
-import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.UUID;
-import java.util.zip.GZIPOutputStream;
+import java.util.stream.IntStream;
 
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
 import org.eclipse.rdf4j.rio.Rio;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.rdfsonto.classnode.database.NodeChangeJournalRepository;
 import com.rdfsonto.classnode.service.ClassNodeException;
 import com.rdfsonto.classnode.service.UniqueUriIdHandler;
 import com.rdfsonto.classnode.service.UriRemoveUniquenessHandler;
 import com.rdfsonto.classnode.service.UriUniquenessHandler;
 import com.rdfsonto.infrastructure.workspacemanagement.WorkspaceManagementService;
 import com.rdfsonto.prefix.service.PrefixNodeService;
+import com.rdfsonto.project.database.ProjectNode;
 import com.rdfsonto.project.database.ProjectRepository;
 import com.rdfsonto.project.service.ProjectService;
 import com.rdfsonto.user.service.UserService;
+import com.rdfsonto.util.compression.GzipCompressor;
+import com.rdfsonto.util.compression.ParallelGzipOutputStream;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,8 +50,17 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 class ExportOntologyServiceImpl implements ExportOntologyService
 {
+    private static final String BOLT_EXPORT_ENGINE = "bolt";
+    private static final String HASH_EXTENSION = ".sha256";
+
     @Value("${rdf4j.downloader.workspace}")
     private String WORKSPACE_DIR;
+    @Value("${export.engine:n10s}")
+    private String exportEngine;
+    @Value("${export.fan-out.batch-size:1000}")
+    private int fanOutBatchSize;
+    @Value("${export.fan-out.queued-batches:8}")
+    private int fanOutQueuedBatches;
     private final ProjectService projectService;
     private final UserService userService;
     private final UniqueUriIdHandler uniqueUriIdHandler;
@@ -51,10 +69,20 @@ class ExportOntologyServiceImpl implements ExportOntologyService
     private final ProjectRepository projectRepository;
     private final WorkspaceManagementService workspaceManagementService;
     private final Neo4jBigGraphSerializer neo4jBigGraphSerializer;
+    private final BoltGraphExtractor boltGraphExtractor;
     private final PrefixNodeService prefixNodeService;
+    private final NodeChangeJournalRepository nodeChangeJournalRepository;
+    private final SegmentedSnapshotWriter segmentedSnapshotWriter;
+    private final GzipCompressor gzipCompressor;
 
     @Override
     public ExportOntologyResult exportOntology(final long userId, final long projectId, final RDFFormat rdfFormat)
+    {
+        return exportOntology(userId, projectId, rdfFormat, false);
+    }
+
+    @Override
+    public ExportOntologyResult exportOntology(final long userId, final long projectId, final RDFFormat rdfFormat, final boolean incremental)
     {
         final var project = projectService.findById(projectId)
             .orElseThrow(() -> new ClassNodeException(
@@ -68,16 +96,20 @@ class ExportOntologyServiceImpl implements ExportOntologyService
 
         try
         {
-            final var extractedOntology = extractOntology(userId, projectId, rdfFormat);
-            final var compressedFile = prepareCompressedFile(extractedOntology);
+            // Changes recorded after this moment are not guaranteed to be in the snapshot, they stay in the journal.
+            final var snapshotTime = System.currentTimeMillis();
+            final var oldSnapshotFile = project.getSnapshotFile();
+
+            final var compressedFile = incremental && SegmentedSnapshotWriter.supports(rdfFormat) ?
+                writeSegmentedSnapshot(userId, projectId, rdfFormat, oldSnapshotFile, snapshotTime) :
+                prepareCompressedFile(extractOntology(userId, projectId, rdfFormat));
 
             final var snapshotName = compressedFile.exportedOntologyFile().getName();
-            final var snapshotTime = System.currentTimeMillis();
 
-            projectRepository.saveSnapshot(projectId, snapshotTime, snapshotName);
+            projectRepository.saveSnapshot(projectId, snapshotTime, snapshotName, compressedFile.fileHash());
+            nodeChangeJournalRepository.clear(projectId, snapshotTime);
 
-            final var oldSnapshotFile = project.getSnapshotFile();
-            workspaceManagementService.clearWorkspace(oldSnapshotFile);
+            clearSnapshot(oldSnapshotFile);
 
             return compressedFile;
         }
@@ -88,8 +120,61 @@ class ExportOntologyServiceImpl implements ExportOntologyService
         }
     }
 
+    @Override
+    public List<ExportOntologyResult> exportOntology(final long userId, final long projectId, final List<RDFFormat> rdfFormats)
+    {
+        final var distinctFormats = List.copyOf(new LinkedHashSet<>(rdfFormats));
+        if (distinctFormats.size() == 1)
+        {
+            return List.of(exportOntology(userId, projectId, distinctFormats.get(0)));
+        }
+
+        final var project = projectService.findById(projectId)
+            .orElseThrow(() -> new ClassNodeException(
+                "Project with ID: %s does not exist, could not export.".formatted(projectId),
+                INVALID_PROJECT_ID));
+
+        userService.findById(userId)
+            .orElseThrow(() -> new ClassNodeException(
+                "Attempted ontology export for non-existing user ID: $%s.".formatted(userId),
+                INVALID_USER_ID));
+
+        try
+        {
+            final var snapshotTime = System.currentTimeMillis();
+            final var oldSnapshotFile = project.getSnapshotFile();
+
+            final var compressedFiles = writeFannedOut(UUID.randomUUID(), userId, projectId, distinctFormats);
+
+            // The first format becomes the project snapshot, the other formats are its siblings sharing the export ID.
+            final var snapshotFile = compressedFiles.get(0);
+            for (final var siblingFile : compressedFiles.subList(1, compressedFiles.size()))
+            {
+                Files.writeString(hashPath(siblingFile.exportedOntologyFile().toPath()), siblingFile.fileHash());
+            }
+
+            projectRepository.saveSnapshot(projectId, snapshotTime, snapshotFile.exportedOntologyFile().getName(), snapshotFile.fileHash());
+            nodeChangeJournalRepository.clear(projectId, snapshotTime);
+
+            clearSnapshot(oldSnapshotFile);
+
+            return compressedFiles;
+        }
+        catch (final IOException exception)
+        {
+            log.error(exception.getMessage());
+            throw new IllegalStateException("Failed to extract ontology to files.");
+        }
+    }
+
     @Override
     public SnapshotExport provideExportedSnapshot(final long userId, final long projectId)
+    {
+        return provideExportedSnapshot(userId, projectId, null);
+    }
+
+    @Override
+    public SnapshotExport provideExportedSnapshot(final long userId, final long projectId, final RDFFormat rdfFormat)
     {
         final var project = projectService.findById(projectId)
             .orElseThrow(() -> new ClassNodeException(
@@ -106,21 +191,44 @@ class ExportOntologyServiceImpl implements ExportOntologyService
         if (snapshotPath == null || !Files.exists(snapshotPath))
         {
             return SnapshotExport.builder()
-                .withFileInputStream(InputStream.nullInputStream())
-                .build();
-        }
-        try
-        {
-            return SnapshotExport.builder()
-                .withSnapshotTime(project.getSnapshotTime())
                 .withFileName(project.getProjectName())
-                .withFileInputStream(new BufferedInputStream(new FileInputStream(snapshotPath.toFile())))
                 .build();
         }
-        catch (FileNotFoundException e)
+
+        if (rdfFormat != null && !project.getSnapshotFile().endsWith(compressedExtension(rdfFormat)))
         {
-            throw new IllegalStateException("Failed to open input stream to file %s".formatted(snapshotPath));
+            return provideSiblingSnapshot(project, rdfFormat);
         }
+
+        final var snapshotHash = project.getSnapshotHash() != null ?
+            project.getSnapshotHash() :
+            hashLegacySnapshot(project, snapshotPath);
+
+        return SnapshotExport.builder()
+            .withSnapshotPath(snapshotPath)
+            .withSnapshotTime(project.getSnapshotTime())
+            .withSnapshotHash(snapshotHash)
+            .withFileName(project.getProjectName())
+            .build();
+    }
+
+    @Override
+    public StreamedOntologyExport streamOntology(final long userId, final long projectId, final RDFFormat rdfFormat)
+    {
+        final var project = projectService.findById(projectId)
+            .orElseThrow(() -> new ClassNodeException(
+                "Project with ID: %s does not exist, could not export.".formatted(projectId),
+                INVALID_PROJECT_ID));
+
+        userService.findById(userId)
+            .orElseThrow(() -> new ClassNodeException(
+                "Attempted ontology export for non-existing user ID: $%s.".formatted(userId),
+                INVALID_USER_ID));
+
+        return StreamedOntologyExport.builder()
+            .withFileName("%s.%s.gz".formatted(project.getProjectName(), rdfFormat.getDefaultFileExtension()))
+            .withWriter(output -> writeCompressedOntology(userId, projectId, rdfFormat, output))
+            .build();
     }
 
     private ExtractedOntology extractOntology(final Long userId, final Long projectId, final RDFFormat rdfFormat)
@@ -131,8 +239,9 @@ class ExportOntologyServiceImpl implements ExportOntologyService
 
         final var exportId = UUID.randomUUID();
 
-        final var extractedFile = extractToBigFile(exportId, projectId, userId, rdfFormat);
-        final var exportedFile = exportToBigFile(extractedFile, exportId, projectId, rdfFormat);
+        final var exportedFile = isBoltExportEngine() ?
+            exportWithBolt(exportId, userId, projectId, rdfFormat) :
+            exportToBigFile(extractToBigFile(exportId, projectId, userId, rdfFormat), exportId, projectId, rdfFormat);
 
         extractedOntologyBuilder.withExportId(exportId);
         extractedOntologyBuilder.withExtractedFile(exportedFile.toFile());
@@ -140,6 +249,28 @@ class ExportOntologyServiceImpl implements ExportOntologyService
         return extractedOntologyBuilder.build();
     }
 
+    private ExportOntologyResult writeSegmentedSnapshot(final long userId,
+                                                        final long projectId,
+                                                        final RDFFormat rdfFormat,
+                                                        final String previousSnapshotFile,
+                                                        final long snapshotTime) throws IOException
+    {
+        final var exportId = UUID.randomUUID();
+        final var snapshot = Paths.get(exportIdToPath(exportId, rdfFormat) + ".gz");
+        final var previousSnapshot = previousSnapshotFile != null ? Path.of(WORKSPACE_DIR + previousSnapshotFile) : null;
+        final var changedNodeIds = nodeChangeJournalRepository.findChangedNodeIds(projectId, snapshotTime);
+
+        final var snapshotHash =
+            segmentedSnapshotWriter.write(projectLabel(userId, projectId), projectId, rdfFormat, previousSnapshot, changedNodeIds, snapshot);
+
+        return ExportOntologyResult.builder()
+            .withExportId(exportId)
+            .withExportedOntologyFile(snapshot.toFile())
+            .withInputStream(null)
+            .withFileHash(snapshotHash)
+            .build();
+    }
+
     private ExportOntologyResult prepareCompressedFile(final ExtractedOntology extractedOntology)
     {
         final var exportId = extractedOntology.exportId();
@@ -149,7 +280,8 @@ class ExportOntologyServiceImpl implements ExportOntologyService
         {
             final var extractedFile = extractedOntology.extractedFile();
             final var compressedFile = Paths.get(exportIdToPath(exportId, rdfFormat) + ".gz");
-            compressGzip(extractedFile.toPath(), compressedFile);
+            final var digest = SnapshotHash.newDigest();
+            gzipCompressor.compressGzip(extractedFile.toPath(), compressedFile, digest);
 
             workspaceManagementService.clearWorkspace(extractedFile.getName());
 
@@ -157,6 +289,7 @@ class ExportOntologyServiceImpl implements ExportOntologyService
                 .withExportId(exportId)
                 .withExportedOntologyFile(compressedFile.toFile())
                 .withInputStream(null)
+                .withFileHash(SnapshotHash.format(digest))
                 .build();
 
         }
@@ -169,10 +302,236 @@ class ExportOntologyServiceImpl implements ExportOntologyService
     private Path extractToBigFile(final UUID exportId, final long projectId, final long userId, final RDFFormat rdfFormat)
         throws IOException, InterruptedException
     {
-        final var projectTag = uniqueUriIdHandler.uniquerUriTag(userId, projectId);
-        final var projectLabel = uriUniquenessHandler.getClassNodeLabel(projectTag);
+        return neo4jBigGraphSerializer.serializeBigGraph(exportId, projectLabel(userId, projectId), rdfFormat);
+    }
+
+    private Path exportWithBolt(final UUID exportId, final long userId, final long projectId, final RDFFormat rdfFormat) throws IOException
+    {
+        final var outputFile = exportIdToExportedPath(exportId, rdfFormat);
+
+        try (final var output = new BufferedOutputStream(new FileOutputStream(outputFile.toFile())))
+        {
+            final var writer = Rio.createWriter(rdfFormat, output);
+            final var exportHandler = new RDFStreamExportHandler(writer, uriRemoveUniquenessHandler, prefixNodeService, projectId);
+
+            boltGraphExtractor.extract(projectLabel(userId, projectId), exportHandler);
+        }
+
+        return outputFile;
+    }
+
+    private void writeCompressedOntology(final long userId, final long projectId, final RDFFormat rdfFormat, final OutputStream output)
+        throws IOException
+    {
+        final var compressedOutput = gzipCompressor.open(output);
+        final var writer = Rio.createWriter(rdfFormat, compressedOutput);
+        final var exportHandler = new RDFStreamExportHandler(writer, uriRemoveUniquenessHandler, prefixNodeService, projectId);
+
+        extractInto(userId, projectId, rdfFormat, exportHandler);
+
+        compressedOutput.finish();
+        output.flush();
+    }
+
+    /**
+     * Extracts the project once and hands the statements to one writer per format, every writer compresses its own file on
+     * its own thread.
+     */
+    private List<ExportOntologyResult> writeFannedOut(final UUID exportId,
+                                                      final long userId,
+                                                      final long projectId,
+                                                      final List<RDFFormat> rdfFormats) throws IOException
+    {
+        final var outputs = new ArrayList<ParallelGzipOutputStream>();
+        final var exportHandlers = new ArrayList<RDFHandler>();
+        final var compressedFiles = new ArrayList<Path>();
+        final var digests = new ArrayList<MessageDigest>();
 
-        return neo4jBigGraphSerializer.serializeBigGraph(exportId, projectLabel, rdfFormat);
+        FanOutRDFHandler fanOutHandler = null;
+
+        try
+        {
+            try
+            {
+                for (final var rdfFormat : rdfFormats)
+                {
+                    final var compressedFile = Paths.get(exportIdToPath(exportId, rdfFormat) + ".gz");
+                    final var digest = SnapshotHash.newDigest();
+                    final var output = gzipCompressor.open(new DigestOutputStream(new FileOutputStream(compressedFile.toFile()), digest));
+                    outputs.add(output);
+                    compressedFiles.add(compressedFile);
+                    digests.add(digest);
+
+                    final var writer = Rio.createWriter(rdfFormat, output);
+                    exportHandlers.add(new RDFStreamExportHandler(writer, uriRemoveUniquenessHandler, prefixNodeService, projectId));
+                }
+
+                fanOutHandler = new FanOutRDFHandler(exportHandlers, fanOutBatchSize, fanOutQueuedBatches);
+                extractInto(userId, projectId, rdfFormats.get(0), fanOutHandler);
+            }
+            finally
+            {
+                // The handler threads write into the outputs, they are stopped before the outputs are closed.
+                if (fanOutHandler != null)
+                {
+                    fanOutHandler.close();
+                }
+                closeAll(outputs);
+            }
+        }
+        catch (final IOException | RuntimeException exception)
+        {
+            workspaceManagementService.clearWorkspace(exportId);
+            throw exception;
+        }
+
+        // The digests are complete only after the outputs are closed, the last gzip member is written on close.
+        return IntStream.range(0, compressedFiles.size())
+            .mapToObj(index -> ExportOntologyResult.builder()
+                .withExportId(exportId)
+                .withExportedOntologyFile(compressedFiles.get(index).toFile())
+                .withInputStream(null)
+                .withFileHash(SnapshotHash.format(digests.get(index)))
+                .build())
+            .toList();
+    }
+
+    /**
+     * @param rdfFormat format in which n10s serializes the project, the Bolt engine reads statements directly
+     */
+    private void extractInto(final long userId, final long projectId, final RDFFormat rdfFormat, final RDFHandler handler)
+        throws IOException
+    {
+        final var projectLabel = projectLabel(userId, projectId);
+
+        if (isBoltExportEngine())
+        {
+            boltGraphExtractor.extract(projectLabel, handler);
+            return;
+        }
+
+        try (final var input = neo4jBigGraphSerializer.openGraphStream(projectLabel, rdfFormat))
+        {
+            final var parser = Rio.createParser(rdfFormat);
+
+            parser.setRDFHandler(handler);
+            parser.parse(input);
+        }
+        catch (final InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while streaming ontology of project with ID: %s.".formatted(projectId), exception);
+        }
+    }
+
+    private SnapshotExport provideSiblingSnapshot(final ProjectNode project, final RDFFormat rdfFormat)
+    {
+        final var snapshotFile = project.getSnapshotFile();
+        final var siblingPath = Path.of(WORKSPACE_DIR + exportIdPrefix(snapshotFile) + compressedExtension(rdfFormat));
+        final var fileName = "%s.%s".formatted(project.getProjectName(), rdfFormat.getDefaultFileExtension());
+
+        if (!Files.exists(siblingPath))
+        {
+            return SnapshotExport.builder()
+                .withFileName(fileName)
+                .build();
+        }
+
+        try
+        {
+            final var hashPath = hashPath(siblingPath);
+            if (!Files.exists(hashPath))
+            {
+                Files.writeString(hashPath, SnapshotHash.of(siblingPath));
+            }
+
+            return SnapshotExport.builder()
+                .withSnapshotPath(siblingPath)
+                .withSnapshotTime(project.getSnapshotTime())
+                .withSnapshotHash(Files.readString(hashPath).strip())
+                .withFileName(fileName)
+                .build();
+        }
+        catch (final IOException ioException)
+        {
+            throw new IllegalStateException("Failed to hash snapshot file %s".formatted(siblingPath));
+        }
+    }
+
+    /**
+     * Every file of an export, the snapshot in any format, its index and its hash, starts with the export ID.
+     */
+    private void clearSnapshot(final String snapshotFile)
+    {
+        if (snapshotFile == null)
+        {
+            return;
+        }
+
+        try
+        {
+            workspaceManagementService.clearWorkspace(UUID.fromString(exportIdPrefix(snapshotFile)));
+        }
+        catch (final IllegalArgumentException exception)
+        {
+            workspaceManagementService.clearWorkspace(snapshotFile);
+            workspaceManagementService.clearWorkspace(snapshotFile + SegmentedSnapshotWriter.INDEX_EXTENSION);
+        }
+    }
+
+    private static String exportIdPrefix(final String snapshotFile)
+    {
+        final var separator = snapshotFile.indexOf('.');
+        return separator < 0 ? snapshotFile : snapshotFile.substring(0, separator);
+    }
+
+    private static String compressedExtension(final RDFFormat rdfFormat)
+    {
+        return "." + rdfFormat.getDefaultFileExtension() + ".gz";
+    }
+
+    private static Path hashPath(final Path snapshot)
+    {
+        return Path.of(snapshot + HASH_EXTENSION);
+    }
+
+    private static void closeAll(final List<? extends OutputStream> outputs) throws IOException
+    {
+        IOException closeFailure = null;
+        for (final var output : outputs)
+        {
+            try
+            {
+                output.close();
+            }
+            catch (final IOException exception)
+            {
+                if (closeFailure == null)
+                {
+                    closeFailure = exception;
+                }
+                else
+                {
+                    closeFailure.addSuppressed(exception);
+                }
+            }
+        }
+
+        if (closeFailure != null)
+        {
+            throw closeFailure;
+        }
+    }
+
+    private boolean isBoltExportEngine()
+    {
+        return BOLT_EXPORT_ENGINE.equalsIgnoreCase(exportEngine);
+    }
+
+    private String projectLabel(final long userId, final long projectId)
+    {
+        final var projectTag = uniqueUriIdHandler.uniquerUriTag(userId, projectId);
+        return uriUniquenessHandler.getClassNodeLabel(projectTag);
     }
 
     private Path exportToBigFile(final Path extractedFile, final UUID exportId, final long projectId, final RDFFormat rdfFormat) throws IOException
@@ -197,21 +556,20 @@ class ExportOntologyServiceImpl implements ExportOntologyService
         return outputFile;
     }
 
-    public static void compressGzip(Path source, Path target) throws IOException
+    /**
+     * Snapshots written before their hash was stored get it on the first download.
+     */
+    private String hashLegacySnapshot(final ProjectNode project, final Path snapshotPath)
     {
-
-        try (GZIPOutputStream gos = new GZIPOutputStream(
-            new FileOutputStream(target.toFile()));
-             FileInputStream fis = new FileInputStream(source.toFile()))
+        try
         {
-
-            // copy file
-            byte[] buffer = new byte[1024];
-            int len;
-            while ((len = fis.read(buffer)) > 0)
-            {
-                gos.write(buffer, 0, len);
-            }
+            final var snapshotHash = SnapshotHash.of(snapshotPath);
+            projectRepository.saveSnapshot(project.getId(), project.getSnapshotTime(), project.getSnapshotFile(), snapshotHash);
+            return snapshotHash;
+        }
+        catch (final IOException ioException)
+        {
+            throw new IllegalStateException("Failed to hash snapshot file %s".formatted(snapshotPath));
         }
     }
 
@@ -0,0 +1,248 @@
+package com.rdfsonto.exportonto.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Hands every event to several handlers, each running on its own thread, so one pass over the statements feeds all of them.
+ * Statements are passed in batches through a bounded queue per handler, a producer faster than the slowest handler is blocked
+ * until that handler takes the next batch. A failure of any handler stops the whole pass.
+ * <p>
+ * A pass which does not reach {@link #endRDF()}, because the producer failed, has to be closed to stop the handler threads.
+ */
+@Slf4j
+class FanOutRDFHandler implements RDFHandler, AutoCloseable
+{
+    private static final Consumer<RDFHandler> END_OF_EVENTS = handler -> {
+    };
+    private static final long TERMINATION_TIMEOUT_SECONDS = 30;
+
+    private final List<RDFHandler> handlers;
+    private final int batchSize;
+    private final List<BlockingQueue<Consumer<RDFHandler>>> queues = new ArrayList<>();
+    private final List<Future<?>> consumers = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private ExecutorService executor;
+    private List<Statement> batch;
+    private boolean ended = false;
+
+    FanOutRDFHandler(final List<RDFHandler> handlers, final int batchSize, final int queuedBatches)
+    {
+        this.handlers = List.copyOf(handlers);
+        this.batchSize = Math.max(1, batchSize);
+
+        for (int i = 0; i < this.handlers.size(); i++)
+        {
+            queues.add(new ArrayBlockingQueue<>(Math.max(1, queuedBatches)));
+        }
+    }
+
+    @Override
+    public void startRDF() throws RDFHandlerException
+    {
+        executor = Executors.newFixedThreadPool(Math.max(1, handlers.size()));
+        batch = new ArrayList<>(batchSize);
+
+        for (int i = 0; i < handlers.size(); i++)
+        {
+            final var handler = handlers.get(i);
+            final var queue = queues.get(i);
+            consumers.add(executor.submit(() -> consume(handler, queue)));
+        }
+    }
+
+    @Override
+    public void endRDF() throws RDFHandlerException
+    {
+        try
+        {
+            publishBatch();
+            publish(END_OF_EVENTS);
+
+            for (final var consumer : consumers)
+            {
+                consumer.get();
+            }
+        }
+        catch (final InterruptedException interruptedException)
+        {
+            Thread.currentThread().interrupt();
+            throw new RDFHandlerException("Interrupted while waiting for the RDF handlers.", interruptedException);
+        }
+        catch (final Exception exception)
+        {
+            failure.compareAndSet(null, exception);
+        }
+        finally
+        {
+            ended = true;
+            executor.shutdownNow();
+        }
+
+        throwIfFailed();
+    }
+
+    /**
+     * Stops the handler threads of a pass which did not reach {@link #endRDF()} and waits for them, the handlers are not ended.
+     * Does nothing for a pass which was not started or has ended.
+     */
+    @Override
+    public void close()
+    {
+        if (executor == null || ended)
+        {
+            return;
+        }
+
+        ended = true;
+        failure.compareAndSet(null, new RDFHandlerException("Handing over RDF events was aborted."));
+        executor.shutdownNow();
+
+        try
+        {
+            if (!executor.awaitTermination(TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+            {
+                log.warn("RDF handlers did not stop within {} seconds after the pass was aborted.", TERMINATION_TIMEOUT_SECONDS);
+            }
+        }
+        catch (final InterruptedException interruptedException)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void handleNamespace(final String prefix, final String uri) throws RDFHandlerException
+    {
+        publishBatch();
+        publish(handler -> handler.handleNamespace(prefix, uri));
+    }
+
+    @Override
+    public void handleStatement(final Statement statement) throws RDFHandlerException
+    {
+        batch.add(statement);
+        if (batch.size() == batchSize)
+        {
+            publishBatch();
+        }
+    }
+
+    @Override
+    public void handleComment(final String comment) throws RDFHandlerException
+    {
+        publishBatch();
+        publish(handler -> handler.handleComment(comment));
+    }
+
+    private void publishBatch()
+    {
+        if (batch.isEmpty())
+        {
+            return;
+        }
+
+        final var statements = batch;
+        batch = new ArrayList<>(batchSize);
+        publish(handler -> statements.forEach(handler::handleStatement));
+    }
+
+    private void publish(final Consumer<RDFHandler> event)
+    {
+        try
+        {
+            for (final var queue : queues)
+            {
+                queue.put(event);
+                throwIfFailed();
+            }
+        }
+        catch (final InterruptedException interruptedException)
+        {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            throw new RDFHandlerException("Interrupted while handing over RDF events.", interruptedException);
+        }
+    }
+
+    /**
+     * Keeps draining the queue after a failure, so the producer never waits for a handler which stopped.
+     */
+    private void consume(final RDFHandler handler, final BlockingQueue<Consumer<RDFHandler>> queue)
+    {
+        var failed = false;
+        try
+        {
+            handler.startRDF();
+        }
+        catch (final Exception exception)
+        {
+            failed = fail(handler, exception);
+        }
+
+        try
+        {
+            for (var event = queue.take(); event != END_OF_EVENTS; event = queue.take())
+            {
+                if (failed || failure.get() != null)
+                {
+                    continue;
+                }
+
+                try
+                {
+                    event.accept(handler);
+                }
+                catch (final Exception exception)
+                {
+                    failed = fail(handler, exception);
+                }
+            }
+
+            if (!failed && failure.get() == null)
+            {
+                handler.endRDF();
+            }
+        }
+        catch (final InterruptedException interruptedException)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (final Exception exception)
+        {
+            fail(handler, exception);
+        }
+    }
+
+    private boolean fail(final RDFHandler handler, final Exception exception)
+    {
+        log.error("RDF handler {} failed.", handler, exception);
+        failure.compareAndSet(null, exception);
+        return true;
+    }
+
+    private void throwIfFailed()
+    {
+        if (failure.get() != null)
+        {
+            executor.shutdownNow();
+            throw new RDFHandlerException("Failed to handle RDF events.", failure.get());
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.rdfsonto.exportonto.service;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -36,6 +38,24 @@ public class Neo4jBigGraphSerializer
         """;
 
     Path serializeBigGraph(final UUID exportId, final String projectLabel, final RDFFormat rdfFormat) throws IOException, InterruptedException
+    {
+        final var serializedFilePath = exportIdToPath(exportId, rdfFormat);
+
+        final var input = openGraphStream(projectLabel, rdfFormat);
+        final var output = new FileOutputStream(serializedFilePath.toFile());
+
+        input.transferTo(output);
+
+        input.close();
+        output.close();
+
+        return serializedFilePath;
+    }
+
+    /**
+     * @return serialized graph read directly from the response of the database, the caller has to close it
+     */
+    InputStream openGraphStream(final String projectLabel, final RDFFormat rdfFormat) throws IOException, InterruptedException
     {
         final var queryBody = prepareQuery(projectLabel, rdfFormat);
 
@@ -48,17 +68,13 @@ public class Neo4jBigGraphSerializer
         final var response = HttpClient.newHttpClient()
             .send(request, HttpResponse.BodyHandlers.ofInputStream());
 
-        final var serializedFilePath = exportIdToPath(exportId, rdfFormat);
-
-        final var input = response.body();
-        final var output = new FileOutputStream(serializedFilePath.toFile());
+        if (response.statusCode() != HttpURLConnection.HTTP_OK)
+        {
+            response.body().close();
+            throw new IOException("Graph serialization failed with status: %s.".formatted(response.statusCode()));
+        }
 
-        input.transferTo(output);
-
-        input.close();
-        output.close();
-
-        return serializedFilePath;
+        return response.body();
     }
 
     private String prepareQuery(final String projectTag, final RDFFormat rdfFormat)
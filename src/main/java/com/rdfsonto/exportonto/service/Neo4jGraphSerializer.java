@@ -2,19 +2,18 @@ package com.rdfsonto.exportonto.service;
 
 import static org.eclipse.rdf4j.rio.RDFFormat.RDFXML;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.ForkJoinPool;
 
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.springframework.stereotype.Component;
 
 import com.rdfsonto.exportonto.rest.GraphSerializeRequest;
 import com.rdfsonto.infrastructure.feign.Neo4jRdfClient;
+import com.rdfsonto.util.compression.GzipCompressor;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -55,7 +54,7 @@ public class Neo4jGraphSerializer
 
         try {
 
-            compressGzip(source, target);
+            log.info("Compressed {}, SHA-256 {}.", target, compressGzip(source, target));
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -63,21 +62,15 @@ public class Neo4jGraphSerializer
 
     }
 
-    // copy file (FileInputStream) to GZIPOutputStream
-    public static void compressGzip(Path source, Path target) throws IOException {
-
-        try (GZIPOutputStream gos = new GZIPOutputStream(
-            new FileOutputStream(target.toFile()));
-             FileInputStream fis = new FileInputStream(source.toFile())) {
-
-            // copy file
-            byte[] buffer = new byte[1024];
-            int len;
-            while ((len = fis.read(buffer)) > 0) {
-                gos.write(buffer, 0, len);
-            }
+    public static String compressGzip(Path source, Path target) throws IOException {
+        final var pool = new ForkJoinPool();
+        try {
+            final var digest = SnapshotHash.newDigest();
+            GzipCompressor.compressGzip(source, target, digest, pool);
+            return SnapshotHash.format(digest);
+        } finally {
+            pool.shutdown();
         }
-
     }
 
 }
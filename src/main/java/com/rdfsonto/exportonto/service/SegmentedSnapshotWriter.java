@@ -0,0 +1,231 @@
+package com.rdfsonto.exportonto.service;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rdfsonto.classnode.database.NodeChangeJournalRepository;
+import com.rdfsonto.classnode.service.UriRemoveUniquenessHandler;
+import com.rdfsonto.exportonto.database.ExportRepository;
+import com.rdfsonto.exportonto.database.NodeIdRange;
+import com.rdfsonto.prefix.service.PrefixNodeService;
+import com.rdfsonto.util.database.KeysetCursor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Writes a snapshot as a sequence of gzip members, one per range of node ids, and keeps their positions in an index next to
+ * the snapshot. The next snapshot copies the members of the ranges without changed nodes byte by byte and reads only the
+ * changed ranges from the database, so its cost follows the size of the change. The file is hashed while it is written.
+ * <p>
+ * Only formats in which concatenated documents are again a valid document can be segmented.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class SegmentedSnapshotWriter
+{
+    static final String INDEX_EXTENSION = ".idx";
+
+    private static final Set<RDFFormat> SEGMENTABLE_FORMATS = Set.of(RDFFormat.TURTLE, RDFFormat.NTRIPLES);
+    private static final NodeIdRange ALL_NODE_IDS = new NodeIdRange(0, Long.MAX_VALUE);
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final int COPY_BUFFER_SIZE = 256 * 1024;
+
+    private final ExportRepository exportRepository;
+    private final UriRemoveUniquenessHandler uriRemoveUniquenessHandler;
+    private final PrefixNodeService prefixNodeService;
+
+    @Value("${export.snapshot.segment-nodes:10000}")
+    private int segmentNodes;
+
+    static boolean supports(final RDFFormat rdfFormat)
+    {
+        return SEGMENTABLE_FORMATS.contains(rdfFormat);
+    }
+
+    static Path indexPath(final Path snapshot)
+    {
+        return Path.of(snapshot + INDEX_EXTENSION);
+    }
+
+    /**
+     * @param previousSnapshot snapshot to reuse, {@code null} or a snapshot without index makes a full snapshot
+     * @param changedNodeIds   nodes changed since the previous snapshot, see {@link NodeChangeJournalRepository}
+     * @return hex encoded SHA-256 of the written snapshot
+     */
+    String write(final String projectLabel,
+               final long projectId,
+               final RDFFormat rdfFormat,
+               final Path previousSnapshot,
+               final Set<Long> changedNodeIds,
+               final Path snapshot) throws IOException
+    {
+        final var previousIndex = changedNodeIds.contains(NodeChangeJournalRepository.ALL_NODES) || previousSnapshot == null ?
+            null :
+            SnapshotIndex.read(indexPath(previousSnapshot))
+                .filter(index -> index.rdfFormat().equals(rdfFormat.getName()))
+                .filter(index -> Files.exists(previousSnapshot))
+                .orElse(null);
+
+        final var segments = new ArrayList<SnapshotIndex.Segment>();
+        final var digest = SnapshotHash.newDigest();
+        var reusedSegments = 0;
+
+        try (final var output = FileChannel.open(snapshot, CREATE, TRUNCATE_EXISTING, WRITE))
+        {
+            if (previousIndex == null)
+            {
+                log.info("Writing full segmented snapshot of project {}.", projectId);
+                segments.addAll(writeRange(projectLabel, projectId, rdfFormat, ALL_NODE_IDS, output, digest));
+            }
+            else
+            {
+                final var changed = new TreeSet<>(changedNodeIds);
+
+                try (final var previous = FileChannel.open(previousSnapshot, READ))
+                {
+                    for (final var segment : previousIndex.segments())
+                    {
+                        if (segment.containsAny(changed))
+                        {
+                            segments.addAll(writeRange(projectLabel,
+                                projectId,
+                                rdfFormat,
+                                new NodeIdRange(segment.minId(), segment.maxId()),
+                                output,
+                                digest));
+                        }
+                        else
+                        {
+                            segments.add(new SnapshotIndex.Segment(segment.minId(), segment.maxId(), output.position(), segment.length()));
+                            copy(previous, segment.offset(), segment.length(), output, digest);
+                            reusedSegments += 1;
+                        }
+                    }
+                }
+            }
+        }
+
+        new SnapshotIndex(rdfFormat.getName(), segments).write(indexPath(snapshot));
+        log.info("Wrote snapshot of project {}: {} segments, {} reused.", projectId, segments.size(), reusedSegments);
+        return SnapshotHash.format(digest);
+    }
+
+    /**
+     * Splits the range into segments of at most {@code segmentNodes} nodes, the last one extends to the end of the range even
+     * when it is empty, so that later nodes in the range fall into a segment.
+     */
+    private List<SnapshotIndex.Segment> writeRange(final String projectLabel,
+                                                   final long projectId,
+                                                   final RDFFormat rdfFormat,
+                                                   final NodeIdRange range,
+                                                   final FileChannel output,
+                                                   final MessageDigest digest) throws IOException
+    {
+        final var segments = new ArrayList<SnapshotIndex.Segment>();
+
+        var cursor = KeysetCursor.builder()
+            .withLastId(range.minId() - 1)
+            .withPageSize(Math.max(1, segmentNodes))
+            .build();
+        var segmentMinId = range.minId();
+
+        while (true)
+        {
+            final var page = exportRepository.exportNodes(projectLabel, range, cursor);
+            final var segmentMaxId = page.hasNext() ? page.nextCursor().lastId() : range.maxId();
+
+            segments.add(writeSegment(projectId, rdfFormat, new NodeIdRange(segmentMinId, segmentMaxId), page.content(), output, digest));
+
+            // A page which ends exactly at the end of the range leaves nothing for another segment.
+            if (!page.hasNext() || segmentMaxId == range.maxId())
+            {
+                return segments;
+            }
+            segmentMinId = segmentMaxId + 1;
+            cursor = page.nextCursor();
+        }
+    }
+
+    private SnapshotIndex.Segment writeSegment(final long projectId,
+                                               final RDFFormat rdfFormat,
+                                               final NodeIdRange range,
+                                               final List<Statement> statements,
+                                               final FileChannel output,
+                                               final MessageDigest digest) throws IOException
+    {
+        final var offset = output.position();
+
+        // The channel stays open for the next segments, so the streams are finished instead of closed.
+        final var bufferedOutput = new BufferedOutputStream(new DigestOutputStream(Channels.newOutputStream(output), digest), OUTPUT_BUFFER_SIZE);
+        final var compressedOutput = new GZIPOutputStream(bufferedOutput, OUTPUT_BUFFER_SIZE);
+        final var writer = Rio.createWriter(rdfFormat, compressedOutput);
+        final var exportHandler = new RDFStreamExportHandler(writer, uriRemoveUniquenessHandler, prefixNodeService, projectId);
+
+        exportHandler.startRDF();
+        statements.forEach(exportHandler::handleStatement);
+        exportHandler.endRDF();
+
+        compressedOutput.finish();
+        bufferedOutput.flush();
+
+        return new SnapshotIndex.Segment(range.minId(), range.maxId(), offset, output.position() - offset);
+    }
+
+    /**
+     * Copies through a buffer instead of {@link FileChannel#transferTo}, the copied bytes are part of the hash of the snapshot.
+     */
+    private static void copy(final FileChannel source,
+                             final long offset,
+                             final long length,
+                             final FileChannel target,
+                             final MessageDigest digest) throws IOException
+    {
+        final var buffer = ByteBuffer.allocate((int) Math.min(COPY_BUFFER_SIZE, Math.max(1, length)));
+
+        var copied = 0L;
+        while (copied < length)
+        {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), length - copied));
+            final var read = source.read(buffer, offset + copied);
+            if (read < 0)
+            {
+                throw new EOFException("Previous snapshot ends before its segment at %s of %s bytes.".formatted(offset, length));
+            }
+
+            buffer.flip();
+            digest.update(buffer.duplicate());
+            while (buffer.hasRemaining())
+            {
+                target.write(buffer);
+            }
+            copied += read;
+        }
+    }
+}
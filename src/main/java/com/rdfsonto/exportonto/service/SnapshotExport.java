@@ -1,11 +1,22 @@
 package com.rdfsonto.exportonto.service;
 
-import java.io.InputStream;
+import java.nio.file.Path;
 
 import lombok.Builder;
 
 
+/**
+ * @param snapshotPath {@code null} when the project has no snapshot
+ * @param snapshotHash hex encoded SHA-256 of the snapshot file
+ */
 @Builder(setterPrefix = "with")
-public record SnapshotExport(InputStream fileInputStream, String fileName, Long snapshotTime)
+public record SnapshotExport(Path snapshotPath, String fileName, Long snapshotTime, String snapshotHash)
 {
+    /**
+     * Strong entity tag of the snapshot, a new snapshot of the same content written at another time gets another tag.
+     */
+    public String eTag()
+    {
+        return "\"%s-%s\"".formatted(snapshotTime, snapshotHash);
+    }
 }
@@ -0,0 +1,51 @@
+package com.rdfsonto.exportonto.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+
+/**
+ * Hex encoded SHA-256 of a snapshot file. Snapshots are hashed while they are written, reading a file back is left for the
+ * files written before their hash was stored.
+ */
+final class SnapshotHash
+{
+    private static final String ALGORITHM = "SHA-256";
+
+    private SnapshotHash()
+    {
+    }
+
+    static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance(ALGORITHM);
+        }
+        catch (final NoSuchAlgorithmException exception)
+        {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
+    static String format(final MessageDigest digest)
+    {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static String of(final Path file) throws IOException
+    {
+        final var digest = newDigest();
+        try (final var input = new DigestInputStream(Files.newInputStream(file), digest))
+        {
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+        return format(digest);
+    }
+}
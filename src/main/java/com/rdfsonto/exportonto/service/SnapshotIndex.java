@@ -0,0 +1,89 @@
+package com.rdfsonto.exportonto.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+
+
+/**
+ * Layout of a segmented snapshot. Every segment is a separate gzip member holding the statements of the nodes with ids in
+ * its range, the ranges are adjacent and ordered, so together they cover every possible node id.
+ *
+ * @param rdfFormat name of the format the segments are written in
+ */
+record SnapshotIndex(String rdfFormat, List<Segment> segments)
+{
+    private static final byte INDEX_VERSION = 1;
+
+    /**
+     * @param minId  smallest node id of the segment, inclusive
+     * @param maxId  largest node id of the segment, inclusive
+     * @param offset position of the gzip member in the snapshot file
+     * @param length size of the gzip member in bytes
+     */
+    record Segment(long minId, long maxId, long offset, long length)
+    {
+        boolean containsAny(final NavigableSet<Long> nodeIds)
+        {
+            final var first = nodeIds.ceiling(minId);
+            return first != null && first <= maxId;
+        }
+    }
+
+    void write(final Path indexFile) throws IOException
+    {
+        try (final var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile))))
+        {
+            output.writeByte(INDEX_VERSION);
+            output.writeUTF(rdfFormat);
+            output.writeInt(segments.size());
+            for (final var segment : segments)
+            {
+                output.writeLong(segment.minId());
+                output.writeLong(segment.maxId());
+                output.writeLong(segment.offset());
+                output.writeLong(segment.length());
+            }
+        }
+    }
+
+    /**
+     * @return empty when there is no index or it can not be read, the snapshot then has to be written from scratch
+     */
+    static Optional<SnapshotIndex> read(final Path indexFile)
+    {
+        if (!Files.exists(indexFile))
+        {
+            return Optional.empty();
+        }
+
+        try (final var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile))))
+        {
+            if (input.readByte() != INDEX_VERSION)
+            {
+                return Optional.empty();
+            }
+
+            final var rdfFormat = input.readUTF();
+            final var size = input.readInt();
+            final var segments = new ArrayList<Segment>(Math.max(0, Math.min(size, 1 << 16)));
+            for (int index = 0; index < size; index++)
+            {
+                segments.add(new Segment(input.readLong(), input.readLong(), input.readLong(), input.readLong()));
+            }
+            return Optional.of(new SnapshotIndex(rdfFormat, segments));
+        }
+        catch (final IOException exception)
+        {
+            return Optional.empty();
+        }
+    }
+}
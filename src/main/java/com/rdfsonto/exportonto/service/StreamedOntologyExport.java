@@ -0,0 +1,23 @@
+package com.rdfsonto.exportonto.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import lombok.Builder;
+
+
+/**
+ * Export which is written straight to the given output stream, the ontology is never stored in the workspace.
+ *
+ * @param fileName name of the compressed file suggested to the client
+ * @param writer   writes the gzip compressed ontology, the output stream is not closed
+ */
+@Builder(setterPrefix = "with")
+public record StreamedOntologyExport(String fileName, OntologyWriter writer)
+{
+    @FunctionalInterface
+    public interface OntologyWriter
+    {
+        void writeTo(OutputStream output) throws IOException;
+    }
+}
@@ -0,0 +1,43 @@
+package com.rdfsonto.importonto.database;
+
+import static com.rdfsonto.importonto.database.BoltImportRepositoryTemplates.COUNT_KEY;
+import static com.rdfsonto.importonto.database.BoltImportRepositoryTemplates.MERGE_NODES_TEMPLATE;
+import static com.rdfsonto.importonto.database.BoltImportRepositoryTemplates.MERGE_RELATIONSHIPS_TEMPLATE;
+import static com.rdfsonto.importonto.database.BoltImportRepositoryTemplates.NODES_KEY;
+import static com.rdfsonto.importonto.database.BoltImportRepositoryTemplates.RELATIONSHIPS_KEY;
+
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Query;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+
+@Repository
+@RequiredArgsConstructor
+public class BoltImportRepository
+{
+    private final Driver driver;
+
+    public long mergeNodes(final List<Map<String, Object>> nodes)
+    {
+        return write(new Query(MERGE_NODES_TEMPLATE, Map.of(NODES_KEY, nodes)));
+    }
+
+    public long mergeRelationships(final List<Map<String, Object>> relationships)
+    {
+        return write(new Query(MERGE_RELATIONSHIPS_TEMPLATE, Map.of(RELATIONSHIPS_KEY, relationships)));
+    }
+
+    private long write(final Query query)
+    {
+        // Write transactions are retried by the driver on transient errors, e.g. deadlocks between concurrent writers.
+        try (final var session = driver.session())
+        {
+            return session.writeTransaction(transaction -> transaction.run(query).single().get(COUNT_KEY).asLong());
+        }
+    }
+}
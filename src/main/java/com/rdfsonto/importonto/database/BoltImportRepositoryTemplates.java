@@ -0,0 +1,34 @@
+package com.rdfsonto.importonto.database;
+
+public class BoltImportRepositoryTemplates
+{
+    // Every property holds a single value, a later value replaces an earlier one, the same as n10s with handleMultival OVERWRITE.
+    static final String MERGE_NODES_TEMPLATE = """
+        UNWIND $nodes AS row
+        MERGE (node:Resource {uri: row.uri})
+        SET node += row.properties
+        WITH node, row
+        CALL apoc.create.addLabels(node, row.labels) YIELD node AS labelledNode
+        RETURN count(labelledNode) AS count
+        """;
+
+    static final String MERGE_RELATIONSHIPS_TEMPLATE = """
+        UNWIND $relationships AS row
+        MERGE (source:Resource {uri: row.source})
+        MERGE (target:Resource {uri: row.target})
+        WITH source, target, row
+        CALL apoc.merge.relationship(source, row.type, {}, {}, target, {}) YIELD rel
+        RETURN count(rel) AS count
+        """;
+
+    static final String NODES_KEY = "nodes";
+    static final String RELATIONSHIPS_KEY = "relationships";
+    static final String COUNT_KEY = "count";
+
+    public static final String URI_KEY = "uri";
+    public static final String LABELS_KEY = "labels";
+    public static final String PROPERTIES_KEY = "properties";
+    public static final String SOURCE_KEY = "source";
+    public static final String TARGET_KEY = "target";
+    public static final String TYPE_KEY = "type";
+}
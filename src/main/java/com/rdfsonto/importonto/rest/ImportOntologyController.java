@@ -1,22 +1,39 @@
 package com.rdfsonto.importonto.rest;
 
+import static com.rdfsonto.importonto.service.ImportOntologyErrorCode.INVALID_IMPORT_JOB_ID;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
 import javax.annotation.security.RolesAllowed;
+import javax.servlet.http.HttpServletRequest;
 
+import org.eclipse.rdf4j.rio.Rio;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.rdfsonto.classnode.service.ClassNodeException;
 import com.rdfsonto.classnode.service.ClassNodeExceptionErrorCode;
+import com.rdfsonto.importonto.service.ImportJobService;
 import com.rdfsonto.importonto.service.ImportOntologyErrorCode;
 import com.rdfsonto.importonto.service.ImportOntologyException;
 import com.rdfsonto.importonto.service.ImportOntologyService;
+import com.rdfsonto.importonto.service.ImportProgress;
 import com.rdfsonto.infrastructure.security.service.AuthService;
 import com.rdfsonto.rdf4j.RdfFormatParser;
 
@@ -31,8 +48,17 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/neo4j/import")
 public class ImportOntologyController
 {
+    private static final String GZIP_CONTENT_ENCODING = "gzip";
+    private static final String STREAMED_FILE_NAME = "request-body";
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final String TURTLE_MIME_TYPE = "text/turtle";
+    private static final String NTRIPLES_MIME_TYPE = "application/n-triples";
+    private static final String RDFXML_MIME_TYPE = "application/rdf+xml";
+    private static final String RDFJSON_MIME_TYPE = "application/rdf+json";
+
     private final AuthService authService;
     private final ImportOntologyService importOntologyService;
+    private final ImportJobService importJobService;
 
     @PostMapping
     public ResponseEntity<?> importOntology(@RequestBody final ImportOntologyRequest importOntologyRequest)
@@ -83,6 +109,113 @@ public class ImportOntologyController
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Imports the request body as it arrives. The ids are part of the path and the format follows from the content type, so
+     * a form encoded body, which the container would consume while resolving request parameters, is never accepted.
+     */
+    @PostMapping(value = "/stream/{userId}/{projectId}", consumes = {TURTLE_MIME_TYPE, NTRIPLES_MIME_TYPE, RDFXML_MIME_TYPE, RDFJSON_MIME_TYPE})
+    public ResponseEntity<?> importOntologyStream(@PathVariable final Long userId,
+                                                  @PathVariable final Long projectId,
+                                                  @RequestHeader(HttpHeaders.CONTENT_TYPE) final String contentType,
+                                                  @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) final String contentEncoding,
+                                                  final HttpServletRequest request)
+        throws IOException
+    {
+        authService.validateProjectAccess(projectId);
+
+        final var mediaType = MediaType.parseMediaType(contentType);
+        final var validRdfFormat = Rio.getParserFormatForMIMEType(mediaType.getType() + "/" + mediaType.getSubtype())
+            .orElseThrow(() -> ImportOntologyException.builder()
+                .withMessage("Unsupported content type of streamed ontology: %s.".formatted(contentType))
+                .withErrorCode(ImportOntologyErrorCode.INVALID_REQUEST)
+                .build());
+
+        // The body is parsed while it is still arriving, nothing is spooled to disk before the import starts.
+        final var requestBody = request.getInputStream();
+        final InputStream ontologyStream = GZIP_CONTENT_ENCODING.equalsIgnoreCase(contentEncoding) ?
+            new GZIPInputStream(requestBody, STREAM_BUFFER_SIZE) :
+            new BufferedInputStream(requestBody, STREAM_BUFFER_SIZE);
+
+        return ResponseEntity.ok(
+            importOntologyService.importOntology(
+                () -> ontologyStream,
+                STREAMED_FILE_NAME,
+                validRdfFormat,
+                userId,
+                projectId,
+                ImportProgress.untracked()));
+    }
+
+    @PostMapping("/job")
+    public ResponseEntity<?> submitImportJob(@RequestBody final ImportOntologyRequest importOntologyRequest)
+    {
+        authService.validateProjectAccess(importOntologyRequest.projectId());
+
+        final var rdfFormat = RdfFormatParser.parse(importOntologyRequest.rdfFormat());
+
+        if (isNotValidUrl(importOntologyRequest))
+        {
+            log.warn("Invalid import ontology job request: {}", importOntologyRequest);
+            return ResponseEntity.badRequest().body(ImportOntologyErrorCode.INVALID_REQUEST);
+        }
+
+        return ResponseEntity.accepted().body(
+            importJobService.submit(
+                importOntologyRequest.source(),
+                rdfFormat,
+                importOntologyRequest.userId(),
+                importOntologyRequest.projectId()));
+    }
+
+    @PostMapping(value = "/job/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> submitImportFileJob(final ImportOntologyRequest importOntologyRequest)
+    {
+        authService.validateProjectAccess(importOntologyRequest.projectId());
+
+        final var rdfFormat = RdfFormatParser.parse(importOntologyRequest.rdfFormat());
+
+        if (isNotValidFile(importOntologyRequest))
+        {
+            log.warn("Invalid import ontology job request: {}", importOntologyRequest);
+            return ResponseEntity.badRequest().body(ImportOntologyErrorCode.INVALID_REQUEST);
+        }
+
+        return ResponseEntity.accepted().body(
+            importJobService.submit(
+                importOntologyRequest.file(),
+                rdfFormat,
+                importOntologyRequest.userId(),
+                importOntologyRequest.projectId()));
+    }
+
+    @GetMapping("/job/{jobId}")
+    public ResponseEntity<?> getImportJob(@PathVariable final UUID jobId)
+    {
+        final var importJob = importJobService.findById(jobId)
+            .orElseThrow(() -> ImportOntologyException.builder()
+                .withMessage("Import job with ID: %s does not exist.".formatted(jobId))
+                .withErrorCode(INVALID_IMPORT_JOB_ID)
+                .build());
+
+        authService.validateProjectAccess(importJob.projectId());
+
+        return ResponseEntity.ok(importJob);
+    }
+
+    @DeleteMapping("/job/{jobId}")
+    public ResponseEntity<?> cancelImportJob(@PathVariable final UUID jobId)
+    {
+        final var importJob = importJobService.findById(jobId)
+            .orElseThrow(() -> ImportOntologyException.builder()
+                .withMessage("Import job with ID: %s does not exist.".formatted(jobId))
+                .withErrorCode(INVALID_IMPORT_JOB_ID)
+                .build());
+
+        authService.validateProjectAccess(importJob.projectId());
+
+        return ResponseEntity.of(importJobService.cancel(jobId));
+    }
+
     private boolean isNotValidUrl(final ImportOntologyRequest request)
     {
         return request.projectId() == null ||
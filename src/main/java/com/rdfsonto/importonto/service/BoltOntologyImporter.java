@@ -0,0 +1,61 @@
+package com.rdfsonto.importonto.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rdfsonto.importonto.database.BoltImportRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class BoltOntologyImporter
+{
+    private final BoltImportRepository boltImportRepository;
+
+    @Value("${import.bolt.batch-size:5000}")
+    private int batchSize;
+    @Value("${import.bolt.writer-threads:4}")
+    private int writerThreads;
+
+    StreamImportResult importOntology(final RDFStreamImporter rdfStreamImporter,
+                                      final InputStream originalOntology,
+                                      final String tag,
+                                      final RDFFormat rdfFormat,
+                                      final ImportProgress importProgress)
+        throws IOException
+    {
+        final var boltImportHandler = new RDFBoltImportHandler(boltImportRepository, batchSize, writerThreads, importProgress);
+        try
+        {
+            final var preProcessingResult = rdfStreamImporter.processRdfStream(originalOntology, tag, rdfFormat, boltImportHandler);
+
+            return StreamImportResult.builder()
+                .withImportResult(boltImportHandler.getResult())
+                .withPreProcessingResult(preProcessingResult)
+                .build();
+        }
+        catch (final IOException exception)
+        {
+            boltImportHandler.abort(exception);
+            throw exception;
+        }
+        catch (final RuntimeException exception)
+        {
+            // Mirrors n10s, which reports parsing and writing errors through the termination status.
+            log.error("Failed to import ontology through Bolt.", exception);
+            boltImportHandler.abort(exception);
+
+            return StreamImportResult.builder()
+                .withImportResult(boltImportHandler.getResult())
+                .build();
+        }
+    }
+}
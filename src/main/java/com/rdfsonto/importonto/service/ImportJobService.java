@@ -0,0 +1,20 @@
+package com.rdfsonto.importonto.service;
+
+import java.net.URL;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.springframework.web.multipart.MultipartFile;
+
+
+public interface ImportJobService
+{
+    ImportJobStatus submit(URL source, RDFFormat rdfFormat, Long userId, Long projectId);
+
+    ImportJobStatus submit(MultipartFile file, RDFFormat rdfFormat, Long userId, Long projectId);
+
+    Optional<ImportJobStatus> findById(UUID jobId);
+
+    Optional<ImportJobStatus> cancel(UUID jobId);
+}
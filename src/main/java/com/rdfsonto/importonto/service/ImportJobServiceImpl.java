@@ -0,0 +1,202 @@
+package com.rdfsonto.importonto.service;
+
+import static com.rdfsonto.importonto.service.ImportOntologyErrorCode.INVALID_REQUEST;
+import static com.rdfsonto.importonto.service.ImportOntologyErrorCode.TOO_MANY_IMPORT_JOBS;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+class ImportJobServiceImpl implements ImportJobService
+{
+    private static final String WORKSPACE_DIR = System.getProperty("user.dir") + "/workspace/";
+    private static final String UPLOAD_SUFFIX = ".upload";
+    private static final long FINISHED_JOB_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final ImportOntologyService importOntologyService;
+    private final Map<UUID, ImportJob> importJobs = new ConcurrentHashMap<>();
+
+    @Value("${import.jobs.threads:2}")
+    private int threads;
+    @Value("${import.jobs.queue-capacity:16}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor importExecutor;
+
+    @PostConstruct
+    void startExecutor()
+    {
+        importExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity));
+    }
+
+    @PreDestroy
+    void stopExecutor()
+    {
+        importJobs.values().forEach(importJob -> importJob.progress().cancel());
+        importExecutor.shutdownNow();
+    }
+
+    @Override
+    public ImportJobStatus submit(final URL source, final RDFFormat rdfFormat, final Long userId, final Long projectId)
+    {
+        return submit(projectId,
+            importProgress -> importOntologyService.importOntology(source, rdfFormat, userId, projectId, importProgress),
+            () -> {
+            });
+    }
+
+    @Override
+    public ImportJobStatus submit(final MultipartFile file, final RDFFormat rdfFormat, final Long userId, final Long projectId)
+    {
+        // The multipart file is removed once the request ends, the job reads its own copy from the workspace.
+        final var upload = Path.of(WORKSPACE_DIR + UUID.randomUUID() + UPLOAD_SUFFIX);
+        try
+        {
+            file.transferTo(upload);
+        }
+        catch (final IOException ioException)
+        {
+            throw new ImportOntologyException("Failed to store uploaded file: %s.".formatted(file.getName()), INVALID_REQUEST);
+        }
+
+        return submit(projectId,
+            importProgress -> importOntologyService.importOntology(
+                new FileSystemResource(upload), file.getName(), rdfFormat, userId, projectId, importProgress),
+            () -> deleteUpload(upload));
+    }
+
+    @Override
+    public Optional<ImportJobStatus> findById(final UUID jobId)
+    {
+        return Optional.ofNullable(importJobs.get(jobId)).map(this::toStatus);
+    }
+
+    @Override
+    public Optional<ImportJobStatus> cancel(final UUID jobId)
+    {
+        return Optional.ofNullable(importJobs.get(jobId))
+            .map(importJob -> {
+                importJob.progress().cancel();
+                return toStatus(importJob);
+            });
+    }
+
+    private ImportJobStatus submit(final Long projectId, final Consumer<ImportProgress> importTask, final Runnable cleanup)
+    {
+        removeExpiredJobs();
+
+        final var importJob = new ImportJob(UUID.randomUUID(), projectId, new ImportProgress());
+        importJobs.put(importJob.jobId(), importJob);
+
+        try
+        {
+            importExecutor.execute(() -> run(importJob, importTask, cleanup));
+        }
+        catch (final RejectedExecutionException rejectedExecutionException)
+        {
+            importJobs.remove(importJob.jobId());
+            cleanup.run();
+            throw new ImportOntologyException("Too many import jobs, try again later.", TOO_MANY_IMPORT_JOBS);
+        }
+
+        log.info("Submitted import job: {} for project: {}.", importJob.jobId(), projectId);
+        return toStatus(importJob);
+    }
+
+    private void run(final ImportJob importJob, final Consumer<ImportProgress> importTask, final Runnable cleanup)
+    {
+        final var importProgress = importJob.progress();
+        importProgress.start();
+        try
+        {
+            importProgress.throwIfCancelled();
+            importTask.accept(importProgress);
+            importProgress.finish(ImportStage.COMPLETED, null);
+            log.info("Finished import job: {}.", importJob.jobId());
+        }
+        catch (final Exception exception)
+        {
+            if (importProgress.isCancelled())
+            {
+                importProgress.finish(ImportStage.CANCELLED, "Import has been cancelled.");
+                log.info("Cancelled import job: {}.", importJob.jobId());
+            }
+            else
+            {
+                importProgress.finish(ImportStage.FAILED, exception.getMessage());
+                log.error("Failed import job: {}.", importJob.jobId(), exception);
+            }
+        }
+        finally
+        {
+            cleanup.run();
+        }
+    }
+
+    private void removeExpiredJobs()
+    {
+        final var now = System.currentTimeMillis();
+        importJobs.values().removeIf(importJob -> importJob.progress().isFinished() &&
+            now - importJob.progress().getFinishTime() > FINISHED_JOB_RETENTION_MILLIS);
+    }
+
+    private ImportJobStatus toStatus(final ImportJob importJob)
+    {
+        final var importProgress = importJob.progress();
+
+        return ImportJobStatus.builder()
+            .withJobId(importJob.jobId())
+            .withProjectId(importJob.projectId())
+            .withStage(importProgress.getStage())
+            .withStatementsParsed(importProgress.getStatementsParsed().get())
+            .withTriplesLoaded(importProgress.getTriplesLoaded().get())
+            .withDocumentsIndexed(importProgress.getDocumentsIndexed().get())
+            .withPropertySetMemoryBytes(importProgress.getPropertySetMemoryBytes().get())
+            .withElapsedMillis(importProgress.getElapsedMillis())
+            .withStatementsPerSecond(importProgress.getStatementsPerSecond())
+            .withErrorMessage(importProgress.getErrorMessage())
+            .build();
+    }
+
+    private void deleteUpload(final Path upload)
+    {
+        try
+        {
+            Files.deleteIfExists(upload);
+        }
+        catch (final IOException ioException)
+        {
+            log.error("Failed to delete uploaded file: {}.", upload);
+        }
+    }
+
+    private record ImportJob(UUID jobId, Long projectId, ImportProgress progress)
+    {
+    }
+}
@@ -0,0 +1,20 @@
+package com.rdfsonto.importonto.service;
+
+import java.util.UUID;
+
+import lombok.Builder;
+
+
+@Builder(setterPrefix = "with")
+public record ImportJobStatus(UUID jobId,
+                              Long projectId,
+                              ImportStage stage,
+                              long statementsParsed,
+                              long triplesLoaded,
+                              long documentsIndexed,
+                              long propertySetMemoryBytes,
+                              long elapsedMillis,
+                              double statementsPerSecond,
+                              String errorMessage)
+{
+}
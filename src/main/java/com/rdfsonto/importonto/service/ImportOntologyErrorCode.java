@@ -7,5 +7,8 @@ public enum ImportOntologyErrorCode
     INVALID_PROJECT_ID,
     INVALID_ONTOLOGY_URL,
     FAILED_ONTOLOGY_IMPORT,
-    INVALID_REQUEST
+    INVALID_REQUEST,
+    INVALID_IMPORT_JOB_ID,
+    TOO_MANY_IMPORT_JOBS,
+    IMPORT_CANCELLED
 }
\ No newline at end of file
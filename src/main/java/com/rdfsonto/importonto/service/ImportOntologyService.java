@@ -3,6 +3,7 @@ package com.rdfsonto.importonto.service;
 import java.net.URL;
 
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.rdfsonto.importonto.database.ImportOntologyResult;
@@ -12,6 +13,15 @@ public interface ImportOntologyService
 {
     ImportOntologyResult importOntology(URL source, RDFFormat rdfFormat, Long userId, Long projectId);
 
+    ImportOntologyResult importOntology(URL source, RDFFormat rdfFormat, Long userId, Long projectId, ImportProgress importProgress);
+
     ImportOntologyResult importOntology(MultipartFile file, RDFFormat rdfFormat, Long userId, Long projectId);
 
+    ImportOntologyResult importOntology(InputStreamSource file,
+                                        String fileName,
+                                        RDFFormat rdfFormat,
+                                        Long userId,
+                                        Long projectId,
+                                        ImportProgress importProgress);
+
 }
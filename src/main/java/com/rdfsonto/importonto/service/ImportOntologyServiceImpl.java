@@ -1,6 +1,7 @@
 package com.rdfsonto.importonto.service;
 
 import static com.rdfsonto.importonto.service.ImportOntologyErrorCode.FAILED_ONTOLOGY_IMPORT;
+import static com.rdfsonto.importonto.service.ImportOntologyErrorCode.IMPORT_CANCELLED;
 import static com.rdfsonto.importonto.service.ImportOntologyErrorCode.INVALID_ONTOLOGY_URL;
 import static com.rdfsonto.importonto.service.ImportOntologyErrorCode.INVALID_PROJECT_ID;
 import static com.rdfsonto.importonto.service.ImportOntologyErrorCode.INVALID_RDF_FORMAT;
@@ -17,6 +18,8 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
@@ -25,9 +28,13 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepository;
+import com.rdfsonto.classnode.database.NodeChangeJournalRepository;
+import com.rdfsonto.classnode.service.ClassNodeCache;
+import com.rdfsonto.classnode.service.ProjectMetadataCatalog;
 import com.rdfsonto.classnode.service.UniqueUriIdHandler;
 import com.rdfsonto.classnode.service.UriUniquenessHandler;
 import com.rdfsonto.elastic.service.ElasticSearchClassNodeBulkService;
+import com.rdfsonto.elastic.service.ElasticSearchStreamIndexer;
 import com.rdfsonto.importonto.database.ImportOntologyRepository;
 import com.rdfsonto.importonto.database.ImportOntologyResult;
 import com.rdfsonto.prefix.service.PrefixNodeService;
@@ -47,6 +54,9 @@ class ImportOntologyServiceImpl implements ImportOntologyService
 {
     private static final String WORKSPACE_DIR = System.getProperty("user.dir") + "/workspace/";
     private static final long MAX_ONTOLOGY_FILE_SIZE_BYTES = 10_000_000;
+    private static final String BOLT_IMPORT_ENGINE = "bolt";
+    private static final String STREAM_INDEXING = "stream";
+    private static final String REFERENCED_RESOURCES_PREPROCESSING = "referenced-resources";
 
     private final UserService userService;
     private final ImportOntologyRepository importOntologyRepository;
@@ -56,11 +66,36 @@ class ImportOntologyServiceImpl implements ImportOntologyService
     private final ReferencedResourceHandler referencedResourceHandler;
     private final ElasticSearchClassNodeBulkService elasticSearchClassNodeBulkService;
     private final ClassNodeNeo4jDriverRepository classNodeNeo4jDriverRepository;
+    private final ClassNodeCache classNodeCache;
+    private final NodeChangeJournalRepository nodeChangeJournalRepository;
+    private final ProjectMetadataCatalog projectMetadataCatalog;
     private final UriUniquenessHandler uriUniquenessHandler;
+    private final BoltOntologyImporter boltOntologyImporter;
+    private final PropertySetFactory propertySetFactory;
+
+    @Value("${import.engine:n10s}")
+    private String importEngine;
+    @Value("${import.indexing:neo4j}")
+    private String importIndexing;
+    @Value("${import.referenced-resources.heap-budget-bytes:268435456}")
+    private long referencedResourceImporterHeapBudget;
+    @Value("${import.preprocessing:stream}")
+    private String importPreprocessing;
 
     @Override
     @Transactional
     public ImportOntologyResult importOntology(final URL source, final RDFFormat rdfFormat, final Long userId, final Long projectId)
+    {
+        return importOntology(source, rdfFormat, userId, projectId, ImportProgress.untracked());
+    }
+
+    @Override
+    @Transactional
+    public ImportOntologyResult importOntology(final URL source,
+                                               final RDFFormat rdfFormat,
+                                               final Long userId,
+                                               final Long projectId,
+                                               final ImportProgress importProgress)
     {
         userService.findById(userId)
             .orElseThrow(() -> new ImportOntologyException("User with ID: %s does not exist.".formatted(userId), INVALID_USER_ID));
@@ -71,33 +106,65 @@ class ImportOntologyServiceImpl implements ImportOntologyService
         final var project = projectService.findById(projectId)
             .orElseThrow(() -> new ImportOntologyException("Project with ID: %s does not exist.".formatted(projectId), INVALID_PROJECT_ID));
 
-        final var downloadedOntology = downloadOntology(source, project, validRdfFormat);
+        final var ontologyTag = projectService.getProjectTag(project);
+        final var streamIndexer = openStreamIndexer(userId, projectId, importProgress);
 
-        if (downloadedOntology.ioException() != null)
+        try
         {
-            throw new ImportOntologyException("Failed to download ontology form URL: %s.".formatted(source), INVALID_ONTOLOGY_URL);
-        }
+            final var importResult = isBoltImportEngine() ?
+                importOntologyWithBolt(source, project, validRdfFormat, importProgress, streamIndexer) :
+                importOntologyWithN10s(source, project, validRdfFormat, importProgress, streamIndexer);
 
-        log.info("Started importing ontology from URL : {}", source);
-        final var importResult = importOntology(downloadedOntology);
-        referencedResourceHandler.findAndLabelReferencedResources(projectId);
+            importProgress.enterStage(ImportStage.LABELLING_REFERENCED_RESOURCES);
+            referencedResourceHandler.findAndLabelReferencedResources(projectId);
+            classNodeCache.invalidateProject(projectId);
+            nodeChangeJournalRepository.recordAll(projectId);
+
+            if (!importResult.getTerminationStatus().equals("OK") || importResult.getTriplesLoaded() <= 0)
+            {
+                classNodeNeo4jDriverRepository.deleteAllNodesByProjectLabel(uriUniquenessHandler.getClassNodeLabel(ontologyTag));
+                throw new ImportOntologyException("Failed to import ontology.", FAILED_ONTOLOGY_IMPORT);
+            }
 
-        if (!importResult.getTerminationStatus().equals("OK") || importResult.getTriplesLoaded() <= 0)
+            projectMetadataCatalog.rebuild(projectId, ontologyTag);
+
+            log.info("Started indexing ontology from URL : {}", source);
+            importProgress.enterStage(ImportStage.INDEXING);
+            indexOntology(userId, projectId, streamIndexer, importProgress);
+            log.info("Imported into Elasticsearch.");
+            return importResult;
+        }
+        catch (final RuntimeException exception)
         {
-            final var ontologyTag = projectService.getProjectTag(project);
-            classNodeNeo4jDriverRepository.deleteAllNodesByProjectLabel(uriUniquenessHandler.getClassNodeLabel(ontologyTag));
-            throw new ImportOntologyException("Failed to import ontology.", FAILED_ONTOLOGY_IMPORT);
+            discardStreamIndex(userId, projectId, streamIndexer);
+            if (exception instanceof ImportOntologyException importOntologyException)
+            {
+                handleCancellation(importOntologyException, ontologyTag);
+            }
+            throw exception;
         }
-
-        log.info("Started indexing ontology from URL : {}", source);
-        elasticSearchClassNodeBulkService.createIndex(userId, projectId);
-        log.info("Imported into Elasticsearch.");
-        return importResult;
     }
 
     @Override
     @Transactional
     public ImportOntologyResult importOntology(final MultipartFile file, final RDFFormat rdfFormat, final Long userId, final Long projectId)
+    {
+        if (file.isEmpty())
+        {
+            throw new ImportOntologyException("Failed to upload file with data.", INVALID_REQUEST);
+        }
+
+        return importOntology(file, file.getName(), rdfFormat, userId, projectId, ImportProgress.untracked());
+    }
+
+    @Override
+    @Transactional
+    public ImportOntologyResult importOntology(final InputStreamSource file,
+                                               final String fileName,
+                                               final RDFFormat rdfFormat,
+                                               final Long userId,
+                                               final Long projectId,
+                                               final ImportProgress importProgress)
     {
         userService.findById(userId)
             .orElseThrow(() -> new ImportOntologyException("User with ID: %s does not exist.".formatted(userId), INVALID_USER_ID));
@@ -108,29 +175,32 @@ class ImportOntologyServiceImpl implements ImportOntologyService
         final var project = projectService.findById(projectId)
             .orElseThrow(() -> new ImportOntologyException("Project with ID: %s does not exist.".formatted(projectId), INVALID_PROJECT_ID));
 
-        if (file.isEmpty())
-        {
-            throw new ImportOntologyException("Failed to upload file with data.", INVALID_REQUEST);
-        }
-
-        log.info("Started importing ontology from file : {}", file.getName());
+        log.info("Started importing ontology from file : {}", fileName);
         final var ontologyTag = projectService.getProjectTag(project);
+        final var streamIndexer = openStreamIndexer(userId, projectId, importProgress);
         try
         {
-            final var rdf4jStreamDownloader = new RDFStreamImporter();
-            final var preProcessingResult = rdf4jStreamDownloader.getProcessedRdfFileForNeo4j(file, WORKSPACE_DIR, ontologyTag, validRdfFormat);
-
-            final var downloadedOntology = DownloadedOntology.builder()
-                .withPath(preProcessingResult.processedFile())
-                .withDeclaredNamespaces(preProcessingResult.declaredNamespaces())
-                .withRdfFormat(validRdfFormat)
-                .build();
+            final StreamImportResult streamImportResult;
+            if (isBoltImportEngine())
+            {
+                importProgress.enterStage(ImportStage.IMPORTING);
+                streamImportResult = boltOntologyImporter.importOntology(
+                    createRdfStreamImporter(importProgress, streamIndexer), file.getInputStream(), ontologyTag, validRdfFormat, importProgress);
+            }
+            else
+            {
+                streamImportResult = importOntologyWithN10s(file, fileName, ontologyTag, validRdfFormat, importProgress, streamIndexer);
+            }
 
-            log.info("Started importing ontology from file : {}", file.getName());
-            final var importResult = importOntology(downloadedOntology);
+            final var importResult = streamImportResult.importResult();
+            importProgress.enterStage(ImportStage.LABELLING_REFERENCED_RESOURCES);
             referencedResourceHandler.findAndLabelReferencedResources(projectId);
+            classNodeCache.invalidateProject(projectId);
+            nodeChangeJournalRepository.recordAll(projectId);
 
-            prefixNodeService.save(projectId, downloadedOntology.declaredNamespaces());
+            Optional.ofNullable(streamImportResult.preProcessingResult())
+                .map(PreProcessingResult::declaredNamespaces)
+                .ifPresent(declaredNamespaces -> prefixNodeService.save(projectId, declaredNamespaces));
 
             if (!importResult.getTerminationStatus().equals("OK") || importResult.getTriplesLoaded() <= 0)
             {
@@ -138,30 +208,168 @@ class ImportOntologyServiceImpl implements ImportOntologyService
                 throw new ImportOntologyException("Failed to import ontology: %s.".formatted(importResult), FAILED_ONTOLOGY_IMPORT);
             }
 
-            log.info("Started indexing ontology from file : {}", file.getName());
-            elasticSearchClassNodeBulkService.createIndex(userId, projectId);
+            projectMetadataCatalog.rebuild(projectId, ontologyTag);
+
+            log.info("Started indexing ontology from file : {}", fileName);
+            importProgress.enterStage(ImportStage.INDEXING);
+            indexOntology(userId, projectId, streamIndexer, importProgress);
             log.info("Imported file into Elasticsearch");
             return importResult;
         }
         catch (final Exception e)
         {
+            discardStreamIndex(userId, projectId, streamIndexer);
+            if (e instanceof ImportOntologyException importOntologyException)
+            {
+                handleCancellation(importOntologyException, ontologyTag);
+            }
             log.error("Failed to upload a file.", e);
             throw new IllegalStateException("Failed to upload file.");
         }
     }
 
+    private ImportOntologyResult importOntologyWithN10s(final URL source,
+                                                        final ProjectNode project,
+                                                        final RDFFormat rdfFormat,
+                                                        final ImportProgress importProgress,
+                                                        final ElasticSearchStreamIndexer streamIndexer)
+    {
+        importProgress.enterStage(ImportStage.PREPROCESSING);
+        final var downloadedOntology = downloadOntology(source, project, rdfFormat, importProgress, streamIndexer);
+
+        if (downloadedOntology.ioException() != null)
+        {
+            importProgress.throwIfCancelled();
+            throw new ImportOntologyException("Failed to download ontology form URL: %s.".formatted(source), INVALID_ONTOLOGY_URL);
+        }
+
+        log.info("Started importing ontology from URL : {}", source);
+        importProgress.enterStage(ImportStage.IMPORTING);
+        final var importResult = importOntology(downloadedOntology);
+        importProgress.addTriplesLoaded(importResult.getTriplesLoaded());
+        return importResult;
+    }
+
+    private StreamImportResult importOntologyWithN10s(final InputStreamSource file,
+                                                      final String fileName,
+                                                      final String ontologyTag,
+                                                      final RDFFormat rdfFormat,
+                                                      final ImportProgress importProgress,
+                                                      final ElasticSearchStreamIndexer streamIndexer)
+        throws IOException
+    {
+        importProgress.enterStage(ImportStage.PREPROCESSING);
+        final var rdf4jStreamDownloader = createRdfStreamImporter(importProgress, streamIndexer);
+        final var preProcessingResult = rdf4jStreamDownloader.getProcessedRdfFileForNeo4j(file, WORKSPACE_DIR, ontologyTag, rdfFormat);
+
+        final var downloadedOntology = DownloadedOntology.builder()
+            .withPath(preProcessingResult.processedFile())
+            .withDeclaredNamespaces(preProcessingResult.declaredNamespaces())
+            .withRdfFormat(rdfFormat)
+            .build();
+
+        log.info("Started importing ontology from file : {}", fileName);
+        importProgress.enterStage(ImportStage.IMPORTING);
+        final var importResult = importOntology(downloadedOntology);
+        importProgress.addTriplesLoaded(importResult.getTriplesLoaded());
+
+        return StreamImportResult.builder()
+            .withImportResult(importResult)
+            .withPreProcessingResult(preProcessingResult)
+            .build();
+    }
+
+    private ImportOntologyResult importOntologyWithBolt(final URL source,
+                                                        final ProjectNode project,
+                                                        final RDFFormat rdfFormat,
+                                                        final ImportProgress importProgress,
+                                                        final ElasticSearchStreamIndexer streamIndexer)
+    {
+        final var ontologyTag = projectService.getProjectTag(project);
+        final var rdfStreamImporter = createRdfStreamImporter(importProgress, streamIndexer);
+
+        log.info("Started importing ontology from URL through Bolt : {}", source);
+        importProgress.enterStage(ImportStage.IMPORTING);
+        try (final var inputStream = rdfStreamImporter.openStream(source))
+        {
+            return boltOntologyImporter.importOntology(rdfStreamImporter, inputStream, ontologyTag, rdfFormat, importProgress).importResult();
+        }
+        catch (final IOException ioException)
+        {
+            throw new ImportOntologyException("Failed to download ontology form URL: %s.".formatted(source), INVALID_ONTOLOGY_URL);
+        }
+    }
+
+    private void handleCancellation(final ImportOntologyException importOntologyException, final String ontologyTag)
+    {
+        if (importOntologyException.getErrorCode() == IMPORT_CANCELLED)
+        {
+            log.info("Import of ontology has been cancelled, removing imported nodes.");
+            classNodeNeo4jDriverRepository.deleteAllNodesByProjectLabel(uriUniquenessHandler.getClassNodeLabel(ontologyTag));
+        }
+    }
+
+    private boolean isBoltImportEngine()
+    {
+        return BOLT_IMPORT_ENGINE.equalsIgnoreCase(importEngine);
+    }
+
+    private boolean isReferencedResourcesPreprocessing()
+    {
+        return REFERENCED_RESOURCES_PREPROCESSING.equalsIgnoreCase(importPreprocessing);
+    }
+
+    private ElasticSearchStreamIndexer openStreamIndexer(final long userId, final long projectId, final ImportProgress importProgress)
+    {
+        if (!STREAM_INDEXING.equalsIgnoreCase(importIndexing))
+        {
+            return null;
+        }
+        return elasticSearchClassNodeBulkService.openStreamIndexer(userId, projectId, importProgress::addDocumentsIndexed);
+    }
+
+    private RDFStreamImporter createRdfStreamImporter(final ImportProgress importProgress, final ElasticSearchStreamIndexer streamIndexer)
+    {
+        final var rdfStreamImporter = new RDFStreamImporter(importProgress, propertySetFactory::create);
+        if (streamIndexer != null)
+        {
+            rdfStreamImporter.observeSourceStatements(() -> new RDFElasticSearchIndexHandler(streamIndexer));
+        }
+        return rdfStreamImporter;
+    }
+
+    private void indexOntology(final long userId, final long projectId, final ElasticSearchStreamIndexer streamIndexer, final ImportProgress importProgress)
+    {
+        if (streamIndexer == null)
+        {
+            elasticSearchClassNodeBulkService.createIndex(userId, projectId, importProgress::addDocumentsIndexed);
+            return;
+        }
+        elasticSearchClassNodeBulkService.completeStreamIndex(userId, projectId, streamIndexer, importProgress::addDocumentsIndexed);
+    }
+
+    private void discardStreamIndex(final long userId, final long projectId, final ElasticSearchStreamIndexer streamIndexer)
+    {
+        if (streamIndexer != null)
+        {
+            elasticSearchClassNodeBulkService.discardStreamIndex(userId, projectId, streamIndexer);
+        }
+    }
+
     public DownloadedOntology downloadOntology(final URL source,
                                                final ProjectNode project,
-                                               final RDFFormat rdfFormat)
+                                               final RDFFormat rdfFormat,
+                                               final ImportProgress importProgress,
+                                               final ElasticSearchStreamIndexer streamIndexer)
     {
         final long fileSize = getRemoteFileSize(source);
         final var ontologyTag = projectService.getProjectTag(project);
 
         try
         {
-            if (true)
+            if (!isReferencedResourcesPreprocessing())
             {
-                final var rdf4jStreamDownloader = new RDFStreamImporter();
+                final var rdf4jStreamDownloader = createRdfStreamImporter(importProgress, streamIndexer);
 
                 final var preProcessingResult = rdf4jStreamDownloader.getProcessedRdfFileForNeo4j(source, WORKSPACE_DIR, ontologyTag, rdfFormat);
 
@@ -176,7 +384,14 @@ class ImportOntologyServiceImpl implements ImportOntologyService
                 final var outputFile = Path.of(WORKSPACE_DIR + ontologyTag + ".output");
                 final var rdf4jDownloader = new RDFImporter();
 
-                rdf4jDownloader.prepareRDFFileToMergeIntoNeo4j(source, outputFile, ontologyTag, rdfFormat);
+                if (fileSize < 0 || fileSize > MAX_ONTOLOGY_FILE_SIZE_BYTES)
+                {
+                    rdf4jDownloader.prepareRDFFileToMergeIntoNeo4j(source, outputFile, ontologyTag, rdfFormat, referencedResourceImporterHeapBudget);
+                }
+                else
+                {
+                    rdf4jDownloader.prepareRDFFileToMergeIntoNeo4j(source, outputFile, ontologyTag, rdfFormat);
+                }
                 importPrefixes(rdf4jDownloader, project.getId());
 
                 return DownloadedOntology.builder()
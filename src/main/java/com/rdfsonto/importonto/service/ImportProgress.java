@@ -0,0 +1,102 @@
+package com.rdfsonto.importonto.service;
+
+import static com.rdfsonto.importonto.service.ImportOntologyErrorCode.IMPORT_CANCELLED;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+
+
+/**
+ * Live progress of a single import, updated by the import pipeline and read by the job status endpoint.
+ */
+@Getter
+public class ImportProgress
+{
+    private final AtomicLong statementsParsed = new AtomicLong();
+    private final AtomicLong triplesLoaded = new AtomicLong();
+    private final AtomicLong documentsIndexed = new AtomicLong();
+    private final AtomicLong propertySetMemoryBytes = new AtomicLong();
+    private volatile ImportStage stage = ImportStage.QUEUED;
+    private volatile boolean cancelled = false;
+    private volatile long startTime = 0;
+    private volatile long finishTime = 0;
+    private volatile String errorMessage;
+
+    public static ImportProgress untracked()
+    {
+        return new ImportProgress();
+    }
+
+    public void start()
+    {
+        startTime = System.currentTimeMillis();
+    }
+
+    public void enterStage(final ImportStage nextStage)
+    {
+        throwIfCancelled();
+        stage = nextStage;
+    }
+
+    public void finish(final ImportStage finalStage, final String error)
+    {
+        stage = finalStage;
+        errorMessage = error;
+        finishTime = System.currentTimeMillis();
+    }
+
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    public void throwIfCancelled()
+    {
+        if (cancelled)
+        {
+            throw new ImportOntologyException("Import has been cancelled.", IMPORT_CANCELLED);
+        }
+    }
+
+    public void addStatementsParsed(final long statements)
+    {
+        statementsParsed.addAndGet(statements);
+    }
+
+    public void addTriplesLoaded(final long triples)
+    {
+        triplesLoaded.addAndGet(triples);
+    }
+
+    public void addDocumentsIndexed(final long documents)
+    {
+        documentsIndexed.addAndGet(documents);
+        throwIfCancelled();
+    }
+
+    public void addPropertySetMemoryBytes(final long bytes)
+    {
+        propertySetMemoryBytes.addAndGet(bytes);
+    }
+
+    public long getElapsedMillis()
+    {
+        if (startTime == 0)
+        {
+            return 0;
+        }
+        return (finishTime == 0 ? System.currentTimeMillis() : finishTime) - startTime;
+    }
+
+    public double getStatementsPerSecond()
+    {
+        final var elapsedMillis = getElapsedMillis();
+        return elapsedMillis == 0 ? 0 : statementsParsed.get() * 1000.0 / elapsedMillis;
+    }
+
+    public boolean isFinished()
+    {
+        return finishTime != 0;
+    }
+}
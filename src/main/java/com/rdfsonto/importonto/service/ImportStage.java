@@ -0,0 +1,13 @@
+package com.rdfsonto.importonto.service;
+
+public enum ImportStage
+{
+    QUEUED,
+    PREPROCESSING,
+    IMPORTING,
+    LABELLING_REFERENCED_RESOURCES,
+    INDEXING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
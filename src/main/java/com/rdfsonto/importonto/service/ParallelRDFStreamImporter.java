@@ -0,0 +1,320 @@
+package com.rdfsonto.importonto.service;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
+
+import com.rdfsonto.rdf4j.IriSet;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Pre-processes line based RDF files (N-Triples, N-Quads) in parallel. The input file is split on line boundaries into
+ * memory-mapped regions, every region is tagged by its own {@link RDFStreamImportHandler} on a fork-join pool and the
+ * tagged regions are concatenated in the original order.
+ */
+@Slf4j
+class ParallelRDFStreamImporter
+{
+    private static final long MIN_CHUNK_SIZE_BYTES = 8L * 1024 * 1024;
+    private static final long MAX_CHUNK_SIZE_BYTES = 256L * 1024 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int LINE_SEARCH_BUFFER_SIZE = 8 * 1024;
+    private static final int OUTPUT_BUFFER_SIZE = 1024 * 1024;
+    private static final String CHUNK_SUFFIX_TEMPLATE = ".part-%s";
+
+    private final int parallelism;
+    private final long minChunkSizeBytes;
+    private final ImportProgress importProgress;
+    private final Supplier<IriSet> propertySetFactory;
+    private Supplier<RDFHandler> sourceStatementHandlerFactory;
+
+    ParallelRDFStreamImporter(final ImportProgress importProgress, final Supplier<IriSet> propertySetFactory)
+    {
+        this(Runtime.getRuntime().availableProcessors(), importProgress, propertySetFactory);
+    }
+
+    ParallelRDFStreamImporter(final int parallelism, final ImportProgress importProgress, final Supplier<IriSet> propertySetFactory)
+    {
+        this(parallelism, MIN_CHUNK_SIZE_BYTES, importProgress, propertySetFactory);
+    }
+
+    ParallelRDFStreamImporter(final int parallelism,
+                              final long minChunkSizeBytes,
+                              final ImportProgress importProgress,
+                              final Supplier<IriSet> propertySetFactory)
+    {
+        this.parallelism = Math.max(1, parallelism);
+        this.minChunkSizeBytes = Math.max(1, minChunkSizeBytes);
+        this.importProgress = importProgress;
+        this.propertySetFactory = propertySetFactory;
+    }
+
+    void observeSourceStatements(final Supplier<RDFHandler> handlerFactory)
+    {
+        sourceStatementHandlerFactory = handlerFactory;
+    }
+
+    static boolean isLineBased(final RDFFormat rdfFormat)
+    {
+        return RDFFormat.NTRIPLES.equals(rdfFormat) || RDFFormat.NQUADS.equals(rdfFormat);
+    }
+
+    PreProcessingResult process(final Path inputFile, final Path outputFile, final String tag, final RDFFormat rdfFormat) throws IOException
+    {
+        final var chunks = splitOnLineBoundaries(inputFile);
+        log.info("Pre-processing {} in {} chunks on {} threads.", inputFile, chunks.size(), parallelism);
+
+        final var pool = new ForkJoinPool(parallelism);
+        try
+        {
+            final List<Callable<ChunkResult>> tasks = chunks.stream()
+                .map(chunk -> (Callable<ChunkResult>) () -> processChunk(inputFile, outputFile, chunk, tag, rdfFormat))
+                .toList();
+
+            final var chunkResults = new ArrayList<ChunkResult>(tasks.size());
+            for (final Future<ChunkResult> future : pool.invokeAll(tasks))
+            {
+                chunkResults.add(future.get());
+            }
+
+            concatenate(chunkResults, outputFile);
+            return merge(chunkResults, outputFile);
+        }
+        catch (final InterruptedException interruptedException)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while pre-processing %s.".formatted(inputFile), interruptedException);
+        }
+        catch (final ExecutionException executionException)
+        {
+            throw new IOException("Failed to pre-process a chunk of %s.".formatted(inputFile), executionException.getCause());
+        }
+        finally
+        {
+            pool.shutdownNow();
+            chunks.forEach(chunk -> deleteQuietly(chunkPath(outputFile, chunk.index())));
+        }
+    }
+
+    private List<Chunk> splitOnLineBoundaries(final Path inputFile) throws IOException
+    {
+        try (final var channel = FileChannel.open(inputFile, StandardOpenOption.READ))
+        {
+            final var fileSize = channel.size();
+            final var chunkSize = Math.min(MAX_CHUNK_SIZE_BYTES,
+                Math.max(minChunkSizeBytes, fileSize / ((long) parallelism * CHUNKS_PER_THREAD)));
+
+            final var chunks = new ArrayList<Chunk>();
+            var start = 0L;
+
+            while (start < fileSize)
+            {
+                final var tentativeEnd = start + chunkSize;
+                final var end = tentativeEnd >= fileSize ? fileSize : findNextLineEnd(channel, tentativeEnd, fileSize);
+
+                chunks.add(new Chunk(chunks.size(), start, end - start));
+                start = end;
+            }
+
+            return chunks;
+        }
+    }
+
+    private long findNextLineEnd(final FileChannel channel, final long from, final long fileSize) throws IOException
+    {
+        final var buffer = ByteBuffer.allocate(LINE_SEARCH_BUFFER_SIZE);
+        var position = from;
+
+        while (position < fileSize)
+        {
+            buffer.clear();
+            final var read = channel.read(buffer, position);
+            if (read <= 0)
+            {
+                break;
+            }
+
+            for (int index = 0; index < read; index++)
+            {
+                if (buffer.get(index) == '\n')
+                {
+                    return position + index + 1;
+                }
+            }
+            position += read;
+        }
+
+        return fileSize;
+    }
+
+    private ChunkResult processChunk(final Path inputFile,
+                                     final Path outputFile,
+                                     final Chunk chunk,
+                                     final String tag,
+                                     final RDFFormat rdfFormat)
+        throws IOException
+    {
+        final var chunkOutput = chunkPath(outputFile, chunk.index());
+
+        try (final var channel = FileChannel.open(inputFile, StandardOpenOption.READ);
+             final var outputStream = new BufferedOutputStream(new FileOutputStream(chunkOutput.toFile()), OUTPUT_BUFFER_SIZE))
+        {
+            final var region = channel.map(FileChannel.MapMode.READ_ONLY, chunk.offset(), chunk.length());
+            final var importHandler = new RDFStreamImportHandler(outputStream, rdfFormat, tag, propertySetFactory);
+
+            final var parser = Rio.createParser(rdfFormat);
+            // Blank node labels have to resolve to the same node in every chunk.
+            parser.getParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true);
+            parser.setRDFHandler(RDFStreamImporter.withSourceStatementHandler(importHandler, sourceStatementHandlerFactory));
+            importHandler.trackProgress(importProgress);
+
+            importHandler.start();
+            parser.parse(new ByteBufferInputStream(region));
+            importHandler.stop();
+
+            return ChunkResult.builder()
+                .withChunk(chunk)
+                .withOutput(chunkOutput)
+                .withDeclaredNamespaces(importHandler.getDeclaredNamespaces())
+                .withDeclaredProperties(importHandler.getDeclaredProperties())
+                .withUndeclaredProperties(importHandler.getUndeclaredProperties())
+                .withStatementCounter(importHandler.getStatementCounter())
+                .build();
+        }
+    }
+
+    private void concatenate(final List<ChunkResult> chunkResults, final Path outputFile) throws IOException
+    {
+        try (final var output = FileChannel.open(outputFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND))
+        {
+            for (final var chunkResult : chunkResults)
+            {
+                try (final var input = FileChannel.open(chunkResult.output(), StandardOpenOption.READ))
+                {
+                    final var size = input.size();
+                    var transferred = 0L;
+                    while (transferred < size)
+                    {
+                        transferred += input.transferTo(transferred, size - transferred, output);
+                    }
+                }
+            }
+        }
+    }
+
+    private PreProcessingResult merge(final List<ChunkResult> chunkResults, final Path outputFile)
+    {
+        final var declaredNamespaces = new HashMap<String, String>();
+        final var declaredProperties = propertySetFactory.get();
+        final var undeclaredProperties = propertySetFactory.get();
+
+        chunkResults.forEach(chunkResult -> {
+            declaredNamespaces.putAll(chunkResult.declaredNamespaces());
+            declaredProperties.addAll(chunkResult.declaredProperties());
+        });
+
+        // A property declared in any chunk is declared for the whole file.
+        // Approximate sets can not be filtered, with them properties declared in other chunks stay reported.
+        chunkResults.forEach(chunkResult -> undeclaredProperties.addAllExcept(chunkResult.undeclaredProperties(), declaredProperties));
+        importProgress.addPropertySetMemoryBytes(declaredProperties.memoryUsageBytes() + undeclaredProperties.memoryUsageBytes());
+
+        final var statementCounter = chunkResults.stream().mapToLong(ChunkResult::statementCounter).sum();
+        log.info("Finished parallel parsing : {} statements.", statementCounter);
+
+        return PreProcessingResult.builder()
+            .withProcessedFile(outputFile)
+            .withDeclaredNamespaces(declaredNamespaces)
+            .withDeclaredProperties(declaredProperties)
+            .withUndeclaredProperties(undeclaredProperties)
+            .build();
+    }
+
+    private static Path chunkPath(final Path outputFile, final int index)
+    {
+        return Path.of(outputFile + CHUNK_SUFFIX_TEMPLATE.formatted(index));
+    }
+
+    private static void deleteQuietly(final Path path)
+    {
+        try
+        {
+            Files.deleteIfExists(path);
+        }
+        catch (final IOException ioException)
+        {
+            log.warn("Failed to delete pre-processing chunk: {}.", path);
+        }
+    }
+
+    private record Chunk(int index, long offset, long length)
+    {
+    }
+
+    @Builder(setterPrefix = "with")
+    private record ChunkResult(Chunk chunk,
+                               Path output,
+                               Map<String, String> declaredNamespaces,
+                               IriSet declaredProperties,
+                               IriSet undeclaredProperties,
+                               long statementCounter)
+    {
+    }
+
+    private static class ByteBufferInputStream extends InputStream
+    {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer)
+        {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read()
+        {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length)
+        {
+            if (!buffer.hasRemaining())
+            {
+                return -1;
+            }
+
+            final var toRead = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, toRead);
+            return toRead;
+        }
+
+        @Override
+        public int available()
+        {
+            return buffer.remaining();
+        }
+    }
+}
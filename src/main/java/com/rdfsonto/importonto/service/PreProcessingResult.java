@@ -3,10 +3,15 @@ package com.rdfsonto.importonto.service;
 import java.nio.file.Path;
 import java.util.Map;
 
+import com.rdfsonto.rdf4j.IriSet;
+
 import lombok.Builder;
 
 
 @Builder(setterPrefix = "with")
-public record PreProcessingResult(Path processedFile, Map<String, String> declaredNamespaces)
+public record PreProcessingResult(Path processedFile,
+                                  Map<String, String> declaredNamespaces,
+                                  IriSet declaredProperties,
+                                  IriSet undeclaredProperties)
 {
 }
@@ -0,0 +1,32 @@
+package com.rdfsonto.importonto.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rdfsonto.rdf4j.IriSet;
+import com.rdfsonto.rdf4j.IriSetType;
+
+
+/**
+ * Creates the sets that track declared and undeclared properties while an ontology is pre-processed.
+ */
+@Component
+class PropertySetFactory
+{
+    static final long DEFAULT_EXPECTED_PROPERTIES = 1024;
+
+    @Value("${import.property-tracking.set-type:OFF_HEAP}")
+    private IriSetType setType;
+    @Value("${import.property-tracking.expected-properties:100000}")
+    private long expectedProperties;
+
+    IriSet create()
+    {
+        return setType.create(expectedProperties);
+    }
+
+    static IriSet createDefault()
+    {
+        return IriSetType.OFF_HEAP.create(DEFAULT_EXPECTED_PROPERTIES);
+    }
+}
@@ -0,0 +1,321 @@
+package com.rdfsonto.importonto.service;
+
+import static com.rdfsonto.importonto.database.BoltImportRepositoryTemplates.LABELS_KEY;
+import static com.rdfsonto.importonto.database.BoltImportRepositoryTemplates.PROPERTIES_KEY;
+import static com.rdfsonto.importonto.database.BoltImportRepositoryTemplates.SOURCE_KEY;
+import static com.rdfsonto.importonto.database.BoltImportRepositoryTemplates.TARGET_KEY;
+import static com.rdfsonto.importonto.database.BoltImportRepositoryTemplates.TYPE_KEY;
+import static com.rdfsonto.importonto.database.BoltImportRepositoryTemplates.URI_KEY;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+
+import com.rdfsonto.importonto.database.BoltImportRepository;
+import com.rdfsonto.importonto.database.ImportOntologyResult;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Writes tagged statements straight into Neo4j with the same mapping as n10s configured in {@code init-db.cypher} (types as
+ * labels, literals as single valued properties where a later value overwrites an earlier one, resources as relationships).
+ * Statements are grouped by subject into node batches, relationships are batched separately and every batch is written by
+ * one of several concurrent writer transactions. When two concurrent batches write the same property of a subject, which
+ * value remains is not defined.
+ */
+@Slf4j
+class RDFBoltImportHandler extends AbstractRDFHandler
+{
+    private static final String BLANK_NODE_PREFIX = "bnode://";
+    private static final String TERMINATION_STATUS_OK = "OK";
+    private static final String TERMINATION_STATUS_KO = "KO";
+    private static final Set<IRI> INTEGER_TYPES = Set.of(XSD.INTEGER, XSD.LONG, XSD.INT, XSD.SHORT, XSD.BYTE,
+        XSD.NON_NEGATIVE_INTEGER, XSD.NON_POSITIVE_INTEGER, XSD.POSITIVE_INTEGER, XSD.NEGATIVE_INTEGER);
+    private static final Set<IRI> FLOATING_POINT_TYPES = Set.of(XSD.DECIMAL, XSD.DOUBLE, XSD.FLOAT);
+
+    private final BoltImportRepository boltImportRepository;
+    private final int batchSize;
+    private final ExecutorService writers;
+    private final Semaphore inFlightBatches;
+    private final AtomicLong triplesLoaded = new AtomicLong();
+    private final AtomicReference<Throwable> writeFailure = new AtomicReference<>();
+    private final ImportProgress importProgress;
+
+    private List<Map<String, Object>> nodeBatch = new ArrayList<>();
+    private List<Map<String, Object>> relationshipBatch = new ArrayList<>();
+    private long nodeBatchTriples = 0;
+    private long triplesParsed = 0;
+
+    private String currentSubject;
+    private Set<String> currentLabels = new LinkedHashSet<>();
+    private Map<String, Object> currentProperties = new LinkedHashMap<>();
+    private long currentPropertyTriples = 0;
+
+    RDFBoltImportHandler(final BoltImportRepository boltImportRepository,
+                         final int batchSize,
+                         final int writerThreads,
+                         final ImportProgress importProgress)
+    {
+        this.importProgress = importProgress;
+        this.boltImportRepository = boltImportRepository;
+        this.batchSize = Math.max(1, batchSize);
+        this.writers = Executors.newFixedThreadPool(Math.max(1, writerThreads));
+        this.inFlightBatches = new Semaphore(Math.max(1, writerThreads) * 2);
+    }
+
+    @Override
+    public void handleStatement(final Statement statement) throws RDFHandlerException
+    {
+        throwOnWriteFailure();
+        triplesParsed += 1;
+
+        final var subject = toUri(statement.getSubject());
+        if (!subject.equals(currentSubject))
+        {
+            flushCurrentSubject();
+            currentSubject = subject;
+        }
+
+        final var predicate = statement.getPredicate();
+        final var object = statement.getObject();
+
+        if (predicate.equals(RDF.TYPE) && object.isIRI())
+        {
+            currentLabels.add(object.stringValue());
+        }
+        else if (object.isLiteral())
+        {
+            currentProperties.put(predicate.stringValue(), toPropertyValue((Literal) object));
+            currentPropertyTriples += 1;
+        }
+        else
+        {
+            final var relationship = new HashMap<String, Object>();
+            relationship.put(SOURCE_KEY, subject);
+            relationship.put(TARGET_KEY, toUri(object));
+            relationship.put(TYPE_KEY, predicate.stringValue());
+            relationshipBatch.add(relationship);
+
+            if (relationshipBatch.size() >= batchSize)
+            {
+                flushRelationships();
+            }
+        }
+    }
+
+    @Override
+    public void endRDF() throws RDFHandlerException
+    {
+        flushCurrentSubject();
+        flushNodes();
+        flushRelationships();
+
+        writers.shutdown();
+        try
+        {
+            writers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        catch (final InterruptedException interruptedException)
+        {
+            Thread.currentThread().interrupt();
+            throw new RDFHandlerException("Interrupted while waiting for Neo4j writers.", interruptedException);
+        }
+
+        log.info("Finished Bolt import : {} triples parsed, {} triples loaded.", triplesParsed, triplesLoaded.get());
+    }
+
+    ImportOntologyResult getResult()
+    {
+        final var failure = writeFailure.get();
+
+        return new ImportOntologyResult(
+            UUID.randomUUID().toString(),
+            failure == null ? TERMINATION_STATUS_OK : TERMINATION_STATUS_KO,
+            triplesLoaded.get(),
+            triplesParsed,
+            failure == null ? "" : failure.getMessage());
+    }
+
+    void abort(final Throwable cause)
+    {
+        writeFailure.compareAndSet(null, cause);
+        writers.shutdownNow();
+    }
+
+    private void flushCurrentSubject()
+    {
+        if (currentSubject == null)
+        {
+            return;
+        }
+
+        final var node = new HashMap<String, Object>();
+        node.put(URI_KEY, currentSubject);
+        node.put(LABELS_KEY, new ArrayList<>(currentLabels));
+        node.put(PROPERTIES_KEY, currentProperties);
+        nodeBatch.add(node);
+
+        nodeBatchTriples += currentLabels.size() + currentPropertyTriples;
+        currentLabels = new LinkedHashSet<>();
+        currentProperties = new LinkedHashMap<>();
+        currentPropertyTriples = 0;
+
+        if (nodeBatch.size() >= batchSize)
+        {
+            flushNodes();
+        }
+    }
+
+    private void flushNodes()
+    {
+        if (nodeBatch.isEmpty())
+        {
+            return;
+        }
+
+        submit(boltImportRepository::mergeNodes, nodeBatch, nodeBatchTriples);
+        nodeBatch = new ArrayList<>();
+        nodeBatchTriples = 0;
+    }
+
+    private void flushRelationships()
+    {
+        if (relationshipBatch.isEmpty())
+        {
+            return;
+        }
+
+        submit(boltImportRepository::mergeRelationships, relationshipBatch, relationshipBatch.size());
+        relationshipBatch = new ArrayList<>();
+    }
+
+    private void submit(final ToLongFunction<List<Map<String, Object>>> writer, final List<Map<String, Object>> batch, final long triples)
+    {
+        try
+        {
+            // Bounds the number of batches held in memory while writers are busy.
+            inFlightBatches.acquire();
+        }
+        catch (final InterruptedException interruptedException)
+        {
+            Thread.currentThread().interrupt();
+            throw new RDFHandlerException("Interrupted while submitting a batch to Neo4j.", interruptedException);
+        }
+
+        writers.execute(() -> {
+            try
+            {
+                writer.applyAsLong(batch);
+                triplesLoaded.addAndGet(triples);
+                importProgress.addTriplesLoaded(triples);
+            }
+            catch (final Exception exception)
+            {
+                log.error("Failed to write a batch of {} rows to Neo4j.", batch.size(), exception);
+                writeFailure.compareAndSet(null, exception);
+            }
+            finally
+            {
+                inFlightBatches.release();
+            }
+        });
+    }
+
+    private void throwOnWriteFailure()
+    {
+        final var failure = writeFailure.get();
+        if (failure != null)
+        {
+            throw new RDFHandlerException("Failed to write statements to Neo4j.", failure);
+        }
+    }
+
+    private static String toUri(final Value resource)
+    {
+        return resource.isBNode() ? BLANK_NODE_PREFIX + resource.stringValue() : resource.stringValue();
+    }
+
+    static Object toPropertyValue(final Literal literal)
+    {
+        final var label = literal.getLabel();
+
+        if (literal.getLanguage().isPresent())
+        {
+            return label + "@" + literal.getLanguage().get();
+        }
+
+        final var datatype = literal.getDatatype();
+        try
+        {
+            if (INTEGER_TYPES.contains(datatype))
+            {
+                return literal.longValue();
+            }
+            if (FLOATING_POINT_TYPES.contains(datatype))
+            {
+                return literal.doubleValue();
+            }
+            if (XSD.BOOLEAN.equals(datatype))
+            {
+                return literal.booleanValue();
+            }
+            if (XSD.DATE.equals(datatype))
+            {
+                return LocalDate.parse(label);
+            }
+            if (XSD.DATETIME.equals(datatype))
+            {
+                return parseDateTime(label);
+            }
+        }
+        catch (final IllegalArgumentException | DateTimeParseException exception)
+        {
+            return label;
+        }
+
+        if (XSD.NAMESPACE.equals(datatype.getNamespace()) || RDF.LANGSTRING.equals(datatype))
+        {
+            return label;
+        }
+
+        return label + "^^" + datatype.stringValue();
+    }
+
+    private static Object parseDateTime(final String label)
+    {
+        try
+        {
+            return OffsetDateTime.parse(label);
+        }
+        catch (final DateTimeParseException exception)
+        {
+            return LocalDateTime.parse(label);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.rdfsonto.importonto.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+
+import com.rdfsonto.elastic.service.ElasticSearchStreamIndexer;
+
+
+/**
+ * Turns statements of the original (not tagged) ontology into search documents, one per run of statements with the same
+ * subject. Receives the same statements as the import handler, so documents are indexed while the ontology is loaded.
+ */
+class RDFElasticSearchIndexHandler extends AbstractRDFHandler
+{
+    private static final String RESOURCE_LABEL = "Resource";
+
+    private final ElasticSearchStreamIndexer streamIndexer;
+
+    private Resource currentSubject;
+    private Set<String> currentLabels = new LinkedHashSet<>();
+    private Map<String, List<Object>> currentProperties = new LinkedHashMap<>();
+
+    RDFElasticSearchIndexHandler(final ElasticSearchStreamIndexer streamIndexer)
+    {
+        this.streamIndexer = streamIndexer;
+    }
+
+    @Override
+    public void handleStatement(final Statement statement) throws RDFHandlerException
+    {
+        final var subject = statement.getSubject();
+        if (!subject.equals(currentSubject))
+        {
+            flushCurrentSubject();
+            currentSubject = subject;
+        }
+
+        // Blank nodes get new identifiers in Neo4j, their documents are built from the database.
+        if (subject.isBNode())
+        {
+            return;
+        }
+
+        final var predicate = statement.getPredicate();
+        final var object = statement.getObject();
+
+        if (predicate.equals(RDF.TYPE) && object.isIRI())
+        {
+            currentLabels.add(object.stringValue());
+        }
+        else if (object.isLiteral())
+        {
+            currentProperties.computeIfAbsent(predicate.stringValue(), key -> new ArrayList<>())
+                .add(RDFBoltImportHandler.toPropertyValue((Literal) object));
+        }
+    }
+
+    @Override
+    public void endRDF() throws RDFHandlerException
+    {
+        flushCurrentSubject();
+    }
+
+    private void flushCurrentSubject()
+    {
+        if (currentSubject != null && currentSubject.isIRI())
+        {
+            final var labels = new ArrayList<String>(currentLabels.size() + 1);
+            labels.add(RESOURCE_LABEL);
+            labels.addAll(currentLabels);
+
+            streamIndexer.index(currentSubject.stringValue(), labels, currentProperties);
+        }
+
+        currentSubject = null;
+        currentLabels = new LinkedHashSet<>();
+        currentProperties = new LinkedHashMap<>();
+    }
+}
@@ -1,10 +1,14 @@
 package com.rdfsonto.importonto.service;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.channels.Channels;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Comparator;
@@ -22,18 +26,32 @@ import org.eclipse.rdf4j.model.util.Statements;
 import org.eclipse.rdf4j.model.util.Values;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
 import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
 
+import com.rdfsonto.rdf4j.ExternalStatementSorter;
 import com.rdfsonto.rdf4j.RDFInputOutput;
+import com.rdfsonto.util.offheap.OffHeapStringSet;
 
 import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 
+@Slf4j
 @NoArgsConstructor
 public class RDFImporter extends RDFInputOutput
 {
     // TODO add referenced resource handling to rdf stream import
     private static final String REFERENCED_RESOURCE = "http://user_neo4j/referencedResource";
+    private static final String INPUT_SUFFIX = ".input";
+    private static final String SORTED_SUFFIX = ".sorted";
+    private static final long EXPECTED_SUBJECTS_PER_MB = 2_000;
+
+    private OffHeapStringSet subjects;
+    private ExternalStatementSorter statementSorter;
+    private String outputTag;
 
     public void prepareRDFFileToMergeIntoNeo4j(final URL inputURL, final Path outputFile, final String tag, final RDFFormat rdfFormat)
         throws IOException
@@ -44,6 +62,78 @@ public class RDFImporter extends RDFInputOutput
         saveMergeReadyModel(outputFile, rdfFormat, tag);
     }
 
+    /**
+     * Streaming two-pass variant producing the same output with a bounded heap. The first pass collects all subjects into an
+     * exact off-heap set, the second pass tags statements and orders them by subject with an external merge sort.
+     */
+    public void prepareRDFFileToMergeIntoNeo4j(final URL inputURL,
+                                               final Path outputFile,
+                                               final String tag,
+                                               final RDFFormat rdfFormat,
+                                               final long heapBudgetBytes)
+        throws IOException
+    {
+        outModel = new ModelBuilder().build();
+        outputTag = tag;
+        final var inputFile = Path.of(outputFile + INPUT_SUFFIX);
+        final var sortedFile = Path.of(outputFile + SORTED_SUFFIX);
+
+        try (final var sorter = new ExternalStatementSorter(outputFile, heapBudgetBytes))
+        {
+            downloadFile(inputURL, inputFile);
+
+            subjects = new OffHeapStringSet(Files.size(inputFile) / (1024 * 1024) * EXPECTED_SUBJECTS_PER_MB);
+            statementSorter = sorter;
+
+            parse(inputFile, rdfFormat, new AbstractRDFHandler()
+            {
+                @Override
+                public void handleStatement(final Statement statement)
+                {
+                    if (statement.getSubject().isIRI())
+                    {
+                        subjects.add(statement.getSubject().stringValue());
+                    }
+                }
+            });
+            log.info("Collected {} subjects into {} bytes off-heap.", subjects.size(), subjects.memoryUsageBytes());
+
+            final var userLabel = Values.iri(USER_NAMESPACE, tag);
+            parse(inputFile, rdfFormat, new AbstractRDFHandler()
+            {
+                private Resource previousSubject;
+
+                @Override
+                public void handleNamespace(final String prefix, final String uri)
+                {
+                    outModel.setNamespace(prefix, uri);
+                }
+
+                @Override
+                public void handleStatement(final Statement statement)
+                {
+                    final var taggedStatement = tagStatement(statement, tag);
+                    if (!taggedStatement.getSubject().equals(previousSubject))
+                    {
+                        sorter.add(Statements.statement(taggedStatement.getSubject(), RDF.TYPE, userLabel, null));
+                        previousSubject = taggedStatement.getSubject();
+                    }
+                    sorter.add(taggedStatement);
+                }
+            });
+
+            sorter.writeSorted(sortedFile);
+            writeInFormat(sortedFile, outputFile, rdfFormat);
+        }
+        finally
+        {
+            subjects = null;
+            statementSorter = null;
+            Files.deleteIfExists(inputFile);
+            Files.deleteIfExists(sortedFile);
+        }
+    }
+
     public Set<Namespace> getLoadedNamespaces()
     {
         return outModel.getNamespaces();
@@ -57,6 +147,30 @@ public class RDFImporter extends RDFInputOutput
         fileOutputStream.close();
     }
 
+    private void parse(final Path inputFile, final RDFFormat rdfFormat, final RDFHandler rdfHandler) throws IOException
+    {
+        try (final var inputStream = new BufferedInputStream(new FileInputStream(inputFile.toFile())))
+        {
+            final var parser = Rio.createParser(rdfFormat);
+            // Both passes have to see the same blank node identifiers.
+            parser.getParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true);
+            parser.setRDFHandler(rdfHandler);
+            parser.parse(inputStream);
+        }
+    }
+
+    private void writeInFormat(final Path sortedFile, final Path outputFile, final RDFFormat rdfFormat) throws IOException
+    {
+        try (final var inputStream = new BufferedInputStream(new FileInputStream(sortedFile.toFile()));
+             final var outputStream = new BufferedOutputStream(new FileOutputStream(outputFile.toFile())))
+        {
+            final var parser = Rio.createParser(RDFFormat.NTRIPLES);
+            parser.getParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true);
+            parser.setRDFHandler(Rio.createWriter(rdfFormat, outputStream));
+            parser.parse(inputStream);
+        }
+    }
+
     private void saveMergeReadyModel(final Path outputFile, final RDFFormat rdfFormat, final String tag)
         throws FileNotFoundException
     {
@@ -125,7 +239,7 @@ public class RDFImporter extends RDFInputOutput
     @Override
     protected IRI handlePredicate(final IRI predicate, final String tag)
     {
-        if (model.subjects().contains(predicate))
+        if (isSubject(predicate))
         {
             final var namespace = predicate.getNamespace();
             final var localName = predicate.getLocalName();
@@ -149,7 +263,7 @@ public class RDFImporter extends RDFInputOutput
         {
             final var iriObject = (IRI) object;
 
-            if (!model.subjects().contains(iriObject) && !statement.getPredicate().equals(RDF.TYPE))
+            if (!isSubject(iriObject) && !statement.getPredicate().equals(RDF.TYPE))
             {
                 addReferenceIndicator(iriObject);
             }
@@ -157,7 +271,7 @@ public class RDFImporter extends RDFInputOutput
             final var namespace = iriObject.getNamespace();
             final var localName = iriObject.getLocalName();
 
-            return model.subjects().contains(iriObject) ? Values.iri(namespace + tag + localName) : iriObject;
+            return isSubject(iriObject) ? Values.iri(namespace + tag + localName) : iriObject;
         }
 
         throw new NotImplementedException("Handling of invalid object: %s".formatted(object));
@@ -165,9 +279,22 @@ public class RDFImporter extends RDFInputOutput
 
     void addReferenceIndicator(final IRI referencedValue)
     {
+        if (statementSorter != null)
+        {
+            // Referenced resources become subjects of the output, so they get the user label as well.
+            statementSorter.add(Statements.statement(referencedValue, RDF.TYPE, Values.iri(REFERENCED_RESOURCE), null));
+            statementSorter.add(Statements.statement(referencedValue, RDF.TYPE, Values.iri(USER_NAMESPACE, outputTag), null));
+            return;
+        }
+
         outModel.add(referencedValue, RDF.TYPE, Values.iri(REFERENCED_RESOURCE));
     }
 
+    private boolean isSubject(final IRI iri)
+    {
+        return subjects != null ? subjects.contains(iri.stringValue()) : model.subjects().contains(iri);
+    }
+
     public static void main(String[] args) throws IOException
     {
         final RDFImporter d = new RDFImporter();
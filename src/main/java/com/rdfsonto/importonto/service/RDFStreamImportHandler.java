@@ -7,9 +7,8 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.NotImplementedException;
 import org.eclipse.rdf4j.model.IRI;
@@ -27,6 +26,9 @@ import org.eclipse.rdf4j.rio.Rio;
 import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
 import org.eclipse.rdf4j.rio.helpers.BasicWriterSettings;
 
+import com.rdfsonto.rdf4j.IriSet;
+
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,26 +38,64 @@ import lombok.extern.slf4j.Slf4j;
 class RDFStreamImportHandler extends AbstractRDFHandler implements RDFHandler
 {
     private static final String USER_NAMESPACE = "http://www.user_neo4j.com#";
-    private final Set<IRI> declaredProperties = new HashSet<>();
-    private final Set<IRI> undeclaredProperties = new HashSet<>();
+    static final long DEFAULT_TAGGED_IRI_CACHE_BUDGET_BYTES = 32L * 1024 * 1024;
+    private static final int PROGRESS_REPORT_INTERVAL = 10_000;
+    private static final int CLASSIFIED_PREDICATES_CACHE_SIZE = 256;
+    private final IriSet declaredProperties;
+    private final IriSet undeclaredProperties;
+    @Getter(AccessLevel.NONE)
+    private final IRI[] classifiedPredicates = new IRI[CLASSIFIED_PREDICATES_CACHE_SIZE];
     private final Map<String, String> declaredNamespaces = new HashMap<>();
 
-    private final RDFWriter rdfWriter;
+    private final RDFHandler downstreamHandler;
     private final String tag;
+    private final IRI projectTypeIri;
+    private final TaggedIriCache taggedIriCache;
     private long statementCounter = 0;
     private Resource previousResource;
+    private ImportProgress importProgress = ImportProgress.untracked();
+    private long reportedPropertySetMemoryBytes = 0;
 
     public RDFStreamImportHandler(final OutputStream fileOutputStream, final RDFFormat rdfFormat, final String projectTag)
     {
-        rdfWriter = Rio.createWriter(rdfFormat, fileOutputStream);
-        rdfWriter.set(BasicWriterSettings.PRETTY_PRINT, true);
+        this(createWriter(fileOutputStream, rdfFormat), projectTag);
+    }
+
+    public RDFStreamImportHandler(final OutputStream fileOutputStream,
+                                  final RDFFormat rdfFormat,
+                                  final String projectTag,
+                                  final Supplier<IriSet> propertySetFactory)
+    {
+        this(createWriter(fileOutputStream, rdfFormat), projectTag, DEFAULT_TAGGED_IRI_CACHE_BUDGET_BYTES, propertySetFactory);
+    }
+
+    public RDFStreamImportHandler(final RDFHandler downstreamHandler, final String projectTag)
+    {
+        this(downstreamHandler, projectTag, DEFAULT_TAGGED_IRI_CACHE_BUDGET_BYTES);
+    }
+
+    public RDFStreamImportHandler(final RDFHandler downstreamHandler, final String projectTag, final long taggedIriCacheBudgetBytes)
+    {
+        this(downstreamHandler, projectTag, taggedIriCacheBudgetBytes, PropertySetFactory::createDefault);
+    }
+
+    public RDFStreamImportHandler(final RDFHandler downstreamHandler,
+                                  final String projectTag,
+                                  final long taggedIriCacheBudgetBytes,
+                                  final Supplier<IriSet> propertySetFactory)
+    {
+        this.downstreamHandler = downstreamHandler;
         tag = projectTag;
+        projectTypeIri = Values.iri(USER_NAMESPACE, tag);
+        taggedIriCache = new TaggedIriCache(taggedIriCacheBudgetBytes);
+        declaredProperties = propertySetFactory.get();
+        undeclaredProperties = propertySetFactory.get();
     }
 
     @Override
     public void handleNamespace(final String prefix, final String uri) throws RDFHandlerException
     {
-        rdfWriter.handleNamespace(prefix, uri);
+        downstreamHandler.handleNamespace(prefix, uri);
         declaredNamespaces.put(prefix, uri);
     }
 
@@ -70,8 +110,8 @@ class RDFStreamImportHandler extends AbstractRDFHandler implements RDFHandler
 
         if (previousResource == null || !statement.getSubject().equals(previousResource))
         {
-            final var tagStatement = Statements.statement(taggedStatement.getSubject(), RDF.TYPE, Values.iri(USER_NAMESPACE, tag), null);
-            rdfWriter.handleStatement(tagStatement);
+            final var tagStatement = Statements.statement(taggedStatement.getSubject(), RDF.TYPE, projectTypeIri, null);
+            downstreamHandler.handleStatement(tagStatement);
         }
 
         if (statement.getPredicate().equals(RDF.TYPE) && PossiblePropertyDeclarationTypes.DECLARATIONS.contains((IRI) statement.getObject()))
@@ -79,10 +119,17 @@ class RDFStreamImportHandler extends AbstractRDFHandler implements RDFHandler
             declaredProperties.add((IRI) statement.getSubject());
         }
 
-        rdfWriter.handleStatement(taggedStatement);
+        downstreamHandler.handleStatement(taggedStatement);
         previousResource = statement.getSubject();
         statementCounter += 1;
 
+        if (statementCounter % PROGRESS_REPORT_INTERVAL == 0)
+        {
+            importProgress.addStatementsParsed(PROGRESS_REPORT_INTERVAL);
+            reportPropertySetMemory();
+            importProgress.throwIfCancelled();
+        }
+
         if (statementCounter % 100_000 == 0)
         {
             log.info("Parsed : {} statements.", statementCounter);
@@ -100,11 +147,7 @@ class RDFStreamImportHandler extends AbstractRDFHandler implements RDFHandler
 
         if (subject.isIRI())
         {
-            final var iri = (IRI) subject;
-            final var namespace = iri.getNamespace();
-            final var localName = iri.getLocalName();
-
-            return Values.iri(namespace + tag + localName);
+            return taggedIriCache.get((IRI) subject, this::tagIri);
         }
 
         throw new NotImplementedException("Handling of invalid subject: %s".formatted(subject));
@@ -119,15 +162,18 @@ class RDFStreamImportHandler extends AbstractRDFHandler implements RDFHandler
             return predicate;
         }
 
-        final var namespace = predicate.getNamespace();
-        final var localName = predicate.getLocalName();
-
-        if (!declaredProperties.contains(predicate))
+        // Declared properties are never removed, so a predicate classified once does not have to be looked up again.
+        final var slot = predicate.hashCode() & (CLASSIFIED_PREDICATES_CACHE_SIZE - 1);
+        if (!predicate.equals(classifiedPredicates[slot]))
         {
-            undeclaredProperties.add(predicate);
+            if (!declaredProperties.contains(predicate))
+            {
+                undeclaredProperties.add(predicate);
+            }
+            classifiedPredicates[slot] = predicate;
         }
 
-        return Values.iri(namespace + tag + localName);
+        return taggedIriCache.get(predicate, this::tagIri);
     }
 
     protected Value handleObject(final Statement statement, final String tag)
@@ -140,29 +186,52 @@ class RDFStreamImportHandler extends AbstractRDFHandler implements RDFHandler
 
         if (object.isIRI())
         {
-            final var iriObject = (IRI) object;
-
             // Referenced resources will be handled after import.
-            final var namespace = iriObject.getNamespace();
-            final var localName = iriObject.getLocalName();
-
-            return Values.iri(namespace + tag + localName);
+            return taggedIriCache.get((IRI) object, this::tagIri);
         }
 
         throw new NotImplementedException("Handling of invalid object: %s".formatted(object));
     }
 
+    private IRI tagIri(final IRI iri)
+    {
+        return Values.iri(iri.getNamespace() + tag + iri.getLocalName());
+    }
+
+    void trackProgress(final ImportProgress progress)
+    {
+        importProgress = progress;
+    }
+
+    private void reportPropertySetMemory()
+    {
+        final var propertySetMemoryBytes = declaredProperties.memoryUsageBytes() + undeclaredProperties.memoryUsageBytes();
+        importProgress.addPropertySetMemoryBytes(propertySetMemoryBytes - reportedPropertySetMemoryBytes);
+        reportedPropertySetMemoryBytes = propertySetMemoryBytes;
+    }
+
     public void start()
     {
-        rdfWriter.startRDF();
+        downstreamHandler.startRDF();
     }
 
     public void stop()
     {
-        rdfWriter.endRDF();
-        log.info("Finished parsing : {} statements.", statementCounter);
+        downstreamHandler.endRDF();
+        importProgress.addStatementsParsed(statementCounter % PROGRESS_REPORT_INTERVAL);
+        reportPropertySetMemory();
+        log.info("Finished parsing : {} statements, tagged IRI cache hits: {}, misses: {}, evictions: {}.",
+            statementCounter, taggedIriCache.getHits(), taggedIriCache.getMisses(), taggedIriCache.getEvictions());
+        log.info("Tracked {} declared and {} undeclared properties in {} bytes.",
+            declaredProperties.size(), undeclaredProperties.size(), reportedPropertySetMemoryBytes);
     }
 
+    private static RDFWriter createWriter(final OutputStream fileOutputStream, final RDFFormat rdfFormat)
+    {
+        final var rdfWriter = Rio.createWriter(rdfFormat, fileOutputStream);
+        rdfWriter.set(BasicWriterSettings.PRETTY_PRINT, true);
+        return rdfWriter;
+    }
 
     public static void main(String[] args) throws IOException
     {
@@ -10,16 +10,41 @@ import java.io.InputStream;
 import java.net.URL;
 import java.nio.channels.Channels;
 import java.nio.file.Path;
+import java.util.function.Supplier;
 import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.io.FilenameUtils;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
 import org.eclipse.rdf4j.rio.Rio;
-import org.springframework.web.multipart.MultipartFile;
+import org.eclipse.rdf4j.rio.helpers.RDFHandlerWrapper;
+import org.springframework.core.io.InputStreamSource;
+
+import com.rdfsonto.rdf4j.IriSet;
 
 
 public class RDFStreamImporter
 {
+    private final ImportProgress importProgress;
+    private final Supplier<IriSet> propertySetFactory;
+    private Supplier<RDFHandler> sourceStatementHandlerFactory;
+
+    public RDFStreamImporter()
+    {
+        this(ImportProgress.untracked());
+    }
+
+    public RDFStreamImporter(final ImportProgress importProgress)
+    {
+        this(importProgress, PropertySetFactory::createDefault);
+    }
+
+    public RDFStreamImporter(final ImportProgress importProgress, final Supplier<IriSet> propertySetFactory)
+    {
+        this.importProgress = importProgress;
+        this.propertySetFactory = propertySetFactory;
+    }
+
     public PreProcessingResult getProcessedRdfFileForNeo4j(final URL inputURL,
                                                            final String workspaceDirectory,
                                                            final String tag,
@@ -31,17 +56,25 @@ public class RDFStreamImporter
 
         final var ontologyInputFile = downloadFile(inputURL, originalOntologyFile);
 
+        if (ParallelRDFStreamImporter.isLineBased(rdfFormat) && !isGzipped(inputURL))
+        {
+            final var parallelImporter = new ParallelRDFStreamImporter(importProgress, propertySetFactory);
+            parallelImporter.observeSourceStatements(sourceStatementHandlerFactory);
+            return parallelImporter.process(ontologyInputFile.toPath(), processedOntologyFile, tag, rdfFormat);
+        }
+
         //final var ontologyInputFile = inputURL.getFile();
         final var downloadedInputStream = new FileInputStream(ontologyInputFile);
 
         final var inputStream = handleInputStream(downloadedInputStream, inputURL);
 
         final var outputStream = new FileOutputStream(processedOntologyFile.toFile(), true);
-        final var importHandler = new RDFStreamImportHandler(outputStream, rdfFormat, tag);
+        final var importHandler = new RDFStreamImportHandler(outputStream, rdfFormat, tag, propertySetFactory);
 
         final var parser = Rio.createParser(rdfFormat);
 
-        parser.setRDFHandler(importHandler);
+        parser.setRDFHandler(withSourceStatementHandler(importHandler, sourceStatementHandlerFactory));
+        importHandler.trackProgress(importProgress);
 
         importHandler.start();
         parser.parse(inputStream);
@@ -50,10 +83,12 @@ public class RDFStreamImporter
         return PreProcessingResult.builder()
             .withProcessedFile(processedOntologyFile)
             .withDeclaredNamespaces(importHandler.getDeclaredNamespaces())
+            .withDeclaredProperties(importHandler.getDeclaredProperties())
+            .withUndeclaredProperties(importHandler.getUndeclaredProperties())
             .build();
     }
 
-    public PreProcessingResult getProcessedRdfFileForNeo4j(final MultipartFile originalOntologyFile,
+    public PreProcessingResult getProcessedRdfFileForNeo4j(final InputStreamSource originalOntologyFile,
                                                            final String workspaceDirectory,
                                                            final String tag,
                                                            final RDFFormat rdfFormat)
@@ -63,10 +98,11 @@ public class RDFStreamImporter
 
         final var outputStream = new BufferedOutputStream(new FileOutputStream(processedOntologyFile.toFile(), true));
         final var inputStream = new BufferedInputStream(originalOntologyFile.getInputStream());
-        final var importHandler = new RDFStreamImportHandler(outputStream, rdfFormat, tag);
+        final var importHandler = new RDFStreamImportHandler(outputStream, rdfFormat, tag, propertySetFactory);
 
         final var parser = Rio.createParser(rdfFormat);
-        parser.setRDFHandler(importHandler);
+        parser.setRDFHandler(withSourceStatementHandler(importHandler, sourceStatementHandlerFactory));
+        importHandler.trackProgress(importProgress);
 
         importHandler.start();
         parser.parse(inputStream);
@@ -75,9 +111,54 @@ public class RDFStreamImporter
         return PreProcessingResult.builder()
             .withProcessedFile(processedOntologyFile)
             .withDeclaredNamespaces(importHandler.getDeclaredNamespaces())
+            .withDeclaredProperties(importHandler.getDeclaredProperties())
+            .withUndeclaredProperties(importHandler.getUndeclaredProperties())
+            .build();
+    }
+
+    public PreProcessingResult processRdfStream(final InputStream originalOntology,
+                                                final String tag,
+                                                final RDFFormat rdfFormat,
+                                                final RDFHandler downstreamHandler)
+        throws IOException
+    {
+        final var importHandler = new RDFStreamImportHandler(
+            downstreamHandler, tag, RDFStreamImportHandler.DEFAULT_TAGGED_IRI_CACHE_BUDGET_BYTES, propertySetFactory);
+
+        final var parser = Rio.createParser(rdfFormat);
+        parser.setRDFHandler(withSourceStatementHandler(importHandler, sourceStatementHandlerFactory));
+        importHandler.trackProgress(importProgress);
+
+        importHandler.start();
+        parser.parse(new BufferedInputStream(originalOntology));
+        importHandler.stop();
+
+        return PreProcessingResult.builder()
+            .withDeclaredNamespaces(importHandler.getDeclaredNamespaces())
+            .withDeclaredProperties(importHandler.getDeclaredProperties())
+            .withUndeclaredProperties(importHandler.getUndeclaredProperties())
             .build();
     }
 
+    /**
+     * Every parsed statement of the original ontology is also passed to a handler created by the factory, one per parser.
+     */
+    public void observeSourceStatements(final Supplier<RDFHandler> handlerFactory)
+    {
+        sourceStatementHandlerFactory = handlerFactory;
+    }
+
+    public InputStream openStream(final URL inputURL) throws IOException
+    {
+        final var inputStream = inputURL.openStream();
+        return isGzipped(inputURL) ? new GZIPInputStream(inputStream) : inputStream;
+    }
+
+    static RDFHandler withSourceStatementHandler(final RDFHandler importHandler, final Supplier<RDFHandler> sourceStatementHandlerFactory)
+    {
+        return sourceStatementHandlerFactory == null ? importHandler : new RDFHandlerWrapper(importHandler, sourceStatementHandlerFactory.get());
+    }
+
     private File downloadFile(final URL inputURL, final Path outputFile) throws IOException
     {
         final var readableByteChannel = Channels.newChannel(inputURL.openStream());
@@ -91,9 +172,7 @@ public class RDFStreamImporter
 
     private InputStream handleInputStream(final FileInputStream fileInputStream, final URL inputFile) throws IOException
     {
-        final var extension = FilenameUtils.getExtension(inputFile.getFile());
-
-        if (extension.equalsIgnoreCase("gz"))
+        if (isGzipped(inputFile))
         {
             return new GZIPInputStream(fileInputStream);
         }
@@ -101,6 +180,11 @@ public class RDFStreamImporter
         return fileInputStream;
     }
 
+    private boolean isGzipped(final URL inputFile)
+    {
+        return FilenameUtils.getExtension(inputFile.getFile()).equalsIgnoreCase("gz");
+    }
+
     public static void main(String[] args) throws IOException
     {
         final var importer = new RDFStreamImporter();
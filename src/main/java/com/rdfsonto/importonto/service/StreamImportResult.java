@@ -0,0 +1,11 @@
+package com.rdfsonto.importonto.service;
+
+import com.rdfsonto.importonto.database.ImportOntologyResult;
+
+import lombok.Builder;
+
+
+@Builder(setterPrefix = "with")
+public record StreamImportResult(ImportOntologyResult importResult, PreProcessingResult preProcessingResult)
+{
+}
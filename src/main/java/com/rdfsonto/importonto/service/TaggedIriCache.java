@@ -0,0 +1,69 @@
+package com.rdfsonto.importonto.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import org.eclipse.rdf4j.model.IRI;
+
+import lombok.Getter;
+
+
+/**
+ * Bounded LRU cache of tagged IRIs keyed by the original IRI. Not thread safe, every import handler owns its own instance.
+ */
+@Getter
+class TaggedIriCache
+{
+    // Two IRI instances with their strings, a map entry and the access order links.
+    private static final long ESTIMATED_ENTRY_SIZE_BYTES = 320;
+
+    private final int maxEntries;
+    private final Map<IRI, IRI> taggedIris;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    TaggedIriCache(final long memoryBudgetBytes)
+    {
+        maxEntries = (int) Math.min(Integer.MAX_VALUE, Math.max(0, memoryBudgetBytes / ESTIMATED_ENTRY_SIZE_BYTES));
+        taggedIris = new LinkedHashMap<>(Math.min(maxEntries, 1 << 16), 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<IRI, IRI> eldest)
+            {
+                final var evict = size() > maxEntries;
+                if (evict)
+                {
+                    evictions += 1;
+                }
+                return evict;
+            }
+        };
+    }
+
+    IRI get(final IRI original, final UnaryOperator<IRI> tagger)
+    {
+        final var cached = taggedIris.get(original);
+        if (cached != null)
+        {
+            hits += 1;
+            return cached;
+        }
+
+        misses += 1;
+        final var tagged = tagger.apply(original);
+
+        if (maxEntries > 0)
+        {
+            taggedIris.put(original, tagged);
+        }
+        return tagged;
+    }
+
+    double getHitRatio()
+    {
+        final var lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,93 @@
+package com.rdfsonto.infrastructure.security.service;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Signs tokens handed to clients with an HMAC, so that a server can trust the state it reads back from them. Without a
+ * configured secret a random one is generated, tokens are then valid only for the instance that issued them until its restart.
+ */
+@Slf4j
+@Component
+public class TokenSigner
+{
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int GENERATED_SECRET_BYTES = 32;
+    private static final char SIGNATURE_SEPARATOR = '.';
+
+    private final SecretKeySpec key;
+
+    public TokenSigner(@Value("${security.token-signing.secret:}") final String secret)
+    {
+        final byte[] secretBytes;
+        if (secret.isBlank())
+        {
+            log.warn("No token signing secret is configured, issued tokens will not be accepted after a restart.");
+            secretBytes = new byte[GENERATED_SECRET_BYTES];
+            new SecureRandom().nextBytes(secretBytes);
+        }
+        else
+        {
+            secretBytes = secret.getBytes(UTF_8);
+        }
+        this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+    }
+
+    /**
+     * @param token URL safe base64 token
+     */
+    public String sign(final String token)
+    {
+        return token + SIGNATURE_SEPARATOR + Base64.getUrlEncoder().withoutPadding().encodeToString(signature(token));
+    }
+
+    /**
+     * @return token without its signature
+     * @throws IllegalArgumentException when the token was not signed by {@link #sign(String)} with the same secret
+     */
+    public String verify(final String signedToken)
+    {
+        final var separator = signedToken.lastIndexOf(SIGNATURE_SEPARATOR);
+        if (separator < 0)
+        {
+            throw new IllegalArgumentException("Token is not signed.");
+        }
+
+        final var token = signedToken.substring(0, separator);
+        final var signature = Base64.getUrlDecoder().decode(signedToken.substring(separator + 1));
+
+        if (!MessageDigest.isEqual(signature(token), signature))
+        {
+            throw new IllegalArgumentException("Token signature does not match.");
+        }
+        return token;
+    }
+
+    private byte[] signature(final String token)
+    {
+        try
+        {
+            final var mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(token.getBytes(US_ASCII));
+        }
+        catch (final GeneralSecurityException exception)
+        {
+            throw new IllegalStateException("Could not sign token.", exception);
+        }
+    }
+}
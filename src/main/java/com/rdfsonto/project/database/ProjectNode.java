@@ -32,6 +32,8 @@ public class ProjectNode
     private Long snapshotTime;
     @Property("file")
     private String snapshotFile;
+    @Property("hash")
+    private String snapshotHash;
 
     @Property("name")
     @EqualsAndHashCode.Exclude
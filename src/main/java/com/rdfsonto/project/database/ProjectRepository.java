@@ -42,9 +42,10 @@ public interface ProjectRepository extends Neo4jRepository<ProjectNode, Long>
 
     @Query("""
         MATCH (p:Project) where id(p) = $projectId
-        SET p.time = $time, p.file = $file
+        SET p.time = $time, p.file = $file, p.hash = $hash
         """)
     void saveSnapshot(@Param("projectId") final long projectId,
                       @Param("time") final long snapshotTime,
-                      @Param("file") final String snapshotFile);
+                      @Param("file") final String snapshotFile,
+                      @Param("hash") final String snapshotHash);
 }
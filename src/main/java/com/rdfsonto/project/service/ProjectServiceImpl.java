@@ -7,6 +7,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.rdfsonto.classnode.database.ClassNodeNeo4jDriverRepository;
+import com.rdfsonto.classnode.database.NodeChangeJournalRepository;
+import com.rdfsonto.classnode.service.ClassNodeCache;
+import com.rdfsonto.classnode.service.ProjectMetadataCatalog;
 import com.rdfsonto.classnode.service.UniqueUriIdHandler;
 import com.rdfsonto.classnode.service.UriUniquenessHandler;
 import com.rdfsonto.elastic.service.ElasticSearchClassNodeService;
@@ -29,6 +32,9 @@ public class ProjectServiceImpl implements ProjectService
     private final PrefixNodeRepository prefixNodeRepository;
     private final ProjectRepository projectRepository;
     private final ClassNodeNeo4jDriverRepository classNodeNeo4jDriverRepository;
+    private final ClassNodeCache classNodeCache;
+    private final ProjectMetadataCatalog projectMetadataCatalog;
+    private final NodeChangeJournalRepository nodeChangeJournalRepository;
     private final UserService userService;
     private final UniqueUriIdHandler uniqueUriIdHandler;
     private final UriUniquenessHandler uriUniquenessHandler;
@@ -92,6 +98,9 @@ public class ProjectServiceImpl implements ProjectService
         projectRepository.delete(project);
         prefixNodeRepository.deleteByProjectId(project.getId());
         classNodeNeo4jDriverRepository.deleteAllNodesByProjectLabel(projectLabel);
+        classNodeCache.invalidateProject(project.getId());
+        projectMetadataCatalog.delete(project.getId());
+        nodeChangeJournalRepository.deleteByProjectId(project.getId());
         elasticSearchClassNodeService.deleteIndex(project.getOwnerId(), project.getId());
     }
 
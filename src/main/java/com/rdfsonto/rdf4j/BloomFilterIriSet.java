@@ -0,0 +1,65 @@
+package com.rdfsonto.rdf4j;
+
+import org.eclipse.rdf4j.model.IRI;
+
+import com.rdfsonto.util.offheap.OffHeapBloomFilter;
+import com.rdfsonto.util.offheap.OffHeapLongHashSet;
+
+
+class BloomFilterIriSet implements IriSet
+{
+    private final OffHeapBloomFilter bloomFilter;
+
+    BloomFilterIriSet(final long expectedSize, final double falsePositiveRate)
+    {
+        bloomFilter = new OffHeapBloomFilter(expectedSize, falsePositiveRate);
+    }
+
+    @Override
+    public boolean add(final IRI iri)
+    {
+        return bloomFilter.add(OffHeapLongHashSet.hash(iri.stringValue()));
+    }
+
+    @Override
+    public boolean contains(final IRI iri)
+    {
+        return bloomFilter.mightContain(OffHeapLongHashSet.hash(iri.stringValue()));
+    }
+
+    @Override
+    public long size()
+    {
+        return bloomFilter.approximateSize();
+    }
+
+    @Override
+    public long memoryUsageBytes()
+    {
+        return bloomFilter.memoryUsageBytes();
+    }
+
+    @Override
+    public boolean isExact()
+    {
+        return false;
+    }
+
+    @Override
+    public void addAll(final IriSet other)
+    {
+        if (other instanceof BloomFilterIriSet otherBloomFilter)
+        {
+            bloomFilter.union(otherBloomFilter.bloomFilter);
+            return;
+        }
+        throw IriSet.incompatibleSets(this, other);
+    }
+
+    @Override
+    public void addAllExcept(final IriSet other, final IriSet excluded)
+    {
+        // Bloom filter does not keep its entries, so it can not drop the excluded ones.
+        addAll(other);
+    }
+}
@@ -0,0 +1,191 @@
+package com.rdfsonto.rdf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.helpers.NTriplesUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Sorts statements by subject with a bounded heap. Statements are buffered as N-Triples lines prefixed with the subject,
+ * sorted runs are spilled to disk once the heap budget is used and the runs are merged into a single N-Triples file.
+ * Duplicated statements are written once, like in a {@link org.eclipse.rdf4j.model.Model}.
+ */
+@Slf4j
+public class ExternalStatementSorter implements Closeable
+{
+    private static final char KEY_SEPARATOR = '\t';
+    private static final long RECORD_OVERHEAD_BYTES = 64;
+    private static final String RUN_SUFFIX_TEMPLATE = ".run-%s";
+
+    private final Path workFile;
+    private final long heapBudgetBytes;
+    private final List<String> buffer = new ArrayList<>();
+    private final List<Path> runs = new ArrayList<>();
+    private long bufferedBytes = 0;
+
+    public ExternalStatementSorter(final Path workFile, final long heapBudgetBytes)
+    {
+        this.workFile = workFile;
+        this.heapBudgetBytes = heapBudgetBytes;
+    }
+
+    public void add(final Statement statement)
+    {
+        final var record = statement.getSubject().toString() + KEY_SEPARATOR + toNTriplesLine(statement);
+        buffer.add(record);
+        bufferedBytes += RECORD_OVERHEAD_BYTES + 2L * record.length();
+
+        if (bufferedBytes >= heapBudgetBytes)
+        {
+            spill();
+        }
+    }
+
+    /**
+     * Writes all added statements ordered by subject into the output file as N-Triples.
+     */
+    public void writeSorted(final Path output) throws IOException
+    {
+        if (runs.isEmpty())
+        {
+            buffer.sort(Comparator.naturalOrder());
+            try (final var writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8))
+            {
+                String previous = null;
+                for (final var record : buffer)
+                {
+                    previous = writeDistinct(writer, record, previous);
+                }
+            }
+            buffer.clear();
+            return;
+        }
+
+        spill();
+        merge(output);
+    }
+
+    @Override
+    public void close()
+    {
+        runs.forEach(run -> {
+            try
+            {
+                Files.deleteIfExists(run);
+            }
+            catch (final IOException ioException)
+            {
+                log.warn("Failed to delete sort run: {}.", run);
+            }
+        });
+        runs.clear();
+        buffer.clear();
+    }
+
+    private void spill()
+    {
+        if (buffer.isEmpty())
+        {
+            return;
+        }
+
+        buffer.sort(Comparator.naturalOrder());
+        final var run = Path.of(workFile + RUN_SUFFIX_TEMPLATE.formatted(runs.size()));
+
+        try (final var writer = Files.newBufferedWriter(run, StandardCharsets.UTF_8))
+        {
+            for (final var record : buffer)
+            {
+                writer.write(record);
+                writer.newLine();
+            }
+        }
+        catch (final IOException ioException)
+        {
+            throw new UncheckedIOException("Failed to spill a sort run to %s.".formatted(run), ioException);
+        }
+
+        runs.add(run);
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    private void merge(final Path output) throws IOException
+    {
+        log.info("Merging {} sorted runs into {}.", runs.size(), output);
+
+        final var readers = new ArrayList<BufferedReader>();
+        final var heads = new PriorityQueue<RunHead>(Comparator.comparing(RunHead::record));
+
+        try (final var writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8))
+        {
+            for (final var run : runs)
+            {
+                final var reader = Files.newBufferedReader(run, StandardCharsets.UTF_8);
+                readers.add(reader);
+                advance(reader, heads);
+            }
+
+            String previous = null;
+            while (!heads.isEmpty())
+            {
+                final var head = heads.poll();
+                previous = writeDistinct(writer, head.record(), previous);
+                advance(head.reader(), heads);
+            }
+        }
+        finally
+        {
+            for (final var reader : readers)
+            {
+                reader.close();
+            }
+        }
+    }
+
+    private static void advance(final BufferedReader reader, final PriorityQueue<RunHead> heads) throws IOException
+    {
+        final var record = reader.readLine();
+        if (record != null)
+        {
+            heads.add(new RunHead(record, reader));
+        }
+    }
+
+    private static String writeDistinct(final BufferedWriter writer, final String record, final String previous) throws IOException
+    {
+        if (record.equals(previous))
+        {
+            return previous;
+        }
+
+        writer.write(record, record.indexOf(KEY_SEPARATOR) + 1, record.length() - record.indexOf(KEY_SEPARATOR) - 1);
+        writer.newLine();
+        return record;
+    }
+
+    private static String toNTriplesLine(final Statement statement)
+    {
+        return NTriplesUtil.toNTriplesString(statement.getSubject()) + " " +
+            NTriplesUtil.toNTriplesString(statement.getPredicate()) + " " +
+            NTriplesUtil.toNTriplesString(statement.getObject()) + " .";
+    }
+
+    private record RunHead(String record, BufferedReader reader)
+    {
+    }
+}
@@ -0,0 +1,67 @@
+package com.rdfsonto.rdf4j;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.IRI;
+
+
+class HeapIriSet implements IriSet
+{
+    // IRI instance with its string and a hash map entry.
+    private static final long ESTIMATED_ENTRY_SIZE_BYTES = 160;
+
+    private final Set<IRI> iris = new HashSet<>();
+
+    @Override
+    public boolean add(final IRI iri)
+    {
+        return iris.add(iri);
+    }
+
+    @Override
+    public boolean contains(final IRI iri)
+    {
+        return iris.contains(iri);
+    }
+
+    @Override
+    public long size()
+    {
+        return iris.size();
+    }
+
+    @Override
+    public long memoryUsageBytes()
+    {
+        return iris.size() * ESTIMATED_ENTRY_SIZE_BYTES;
+    }
+
+    @Override
+    public boolean isExact()
+    {
+        return true;
+    }
+
+    @Override
+    public void addAll(final IriSet other)
+    {
+        if (!(other instanceof HeapIriSet otherHeapSet))
+        {
+            throw IriSet.incompatibleSets(this, other);
+        }
+        iris.addAll(otherHeapSet.iris);
+    }
+
+    @Override
+    public void addAllExcept(final IriSet other, final IriSet excluded)
+    {
+        if (!(other instanceof HeapIriSet otherHeapSet))
+        {
+            throw IriSet.incompatibleSets(this, other);
+        }
+        otherHeapSet.iris.stream()
+            .filter(iri -> !excluded.contains(iri))
+            .forEach(iris::add);
+    }
+}
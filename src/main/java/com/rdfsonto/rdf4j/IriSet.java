@@ -0,0 +1,44 @@
+package com.rdfsonto.rdf4j;
+
+import org.eclipse.rdf4j.model.IRI;
+
+
+/**
+ * Set of IRIs used for bookkeeping while streaming large ontologies. Implementations differ in where the entries are
+ * kept and whether membership is exact, see {@link IriSetType}.
+ */
+public interface IriSet
+{
+    boolean add(IRI iri);
+
+    /**
+     * May return false positives when the set is not {@link #isExact() exact}, never false negatives.
+     */
+    boolean contains(IRI iri);
+
+    long size();
+
+    long memoryUsageBytes();
+
+    boolean isExact();
+
+    /**
+     * Merges a set of the same {@link IriSetType}, as created by one factory.
+     *
+     * @throws IllegalArgumentException when the other set is of another type
+     */
+    void addAll(IriSet other);
+
+    /**
+     * Merges the entries of a set of the same {@link IriSetType} that are not contained in the excluded set. Sets that
+     * are not {@link #isExact() exact} do not keep their entries, so they merge the whole other set.
+     *
+     * @throws IllegalArgumentException when the other set is of another type
+     */
+    void addAllExcept(IriSet other, IriSet excluded);
+
+    static IllegalArgumentException incompatibleSets(final IriSet target, final IriSet other)
+    {
+        return new IllegalArgumentException("Can not merge %s into %s.".formatted(other.getClass().getSimpleName(), target.getClass().getSimpleName()));
+    }
+}
@@ -0,0 +1,26 @@
+package com.rdfsonto.rdf4j;
+
+/**
+ * {@link #HEAP} keeps IRI objects, {@link #OFF_HEAP} keeps exact entries outside of the heap and {@link #BLOOM_FILTER}
+ * keeps a fixed size, approximate set that can not be iterated.
+ */
+public enum IriSetType
+{
+    HEAP,
+    OFF_HEAP,
+    BLOOM_FILTER;
+
+    private static final double BLOOM_FILTER_FALSE_POSITIVE_RATE = 0.01;
+    // Exact off-heap sets grow on demand, so every pre-processed chunk starts with a few kilobytes instead of the full size.
+    private static final long OFF_HEAP_INITIAL_SIZE = 256;
+
+    public IriSet create(final long expectedSize)
+    {
+        return switch (this)
+        {
+            case HEAP -> new HeapIriSet();
+            case OFF_HEAP -> new OffHeapIriSet(Math.min(expectedSize, OFF_HEAP_INITIAL_SIZE));
+            case BLOOM_FILTER -> new BloomFilterIriSet(expectedSize, BLOOM_FILTER_FALSE_POSITIVE_RATE);
+        };
+    }
+}
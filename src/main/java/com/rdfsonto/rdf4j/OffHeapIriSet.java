@@ -0,0 +1,72 @@
+package com.rdfsonto.rdf4j;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.Values;
+
+import com.rdfsonto.util.offheap.OffHeapStringSet;
+
+
+class OffHeapIriSet implements IriSet
+{
+    private final OffHeapStringSet iris;
+
+    OffHeapIriSet(final long expectedSize)
+    {
+        iris = new OffHeapStringSet(expectedSize);
+    }
+
+    @Override
+    public boolean add(final IRI iri)
+    {
+        return iris.add(iri.stringValue());
+    }
+
+    @Override
+    public boolean contains(final IRI iri)
+    {
+        return iris.contains(iri.stringValue());
+    }
+
+    @Override
+    public long size()
+    {
+        return iris.size();
+    }
+
+    @Override
+    public long memoryUsageBytes()
+    {
+        return iris.memoryUsageBytes();
+    }
+
+    @Override
+    public boolean isExact()
+    {
+        return true;
+    }
+
+    @Override
+    public void addAll(final IriSet other)
+    {
+        if (!(other instanceof OffHeapIriSet otherOffHeapSet))
+        {
+            throw IriSet.incompatibleSets(this, other);
+        }
+        iris.addAll(otherOffHeapSet.iris);
+    }
+
+    @Override
+    public void addAllExcept(final IriSet other, final IriSet excluded)
+    {
+        if (!(other instanceof OffHeapIriSet otherOffHeapSet))
+        {
+            throw IriSet.incompatibleSets(this, other);
+        }
+        otherOffHeapSet.iris.forEach(iri -> {
+            if (!excluded.contains(Values.iri(iri)))
+            {
+                iris.add(iri);
+            }
+        });
+    }
+}
@@ -0,0 +1,178 @@
+package com.rdfsonto.util.compression;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * Immutable set of non-negative node ids written as a sorted sequence of variable length deltas. Ids of nodes created
+ * together are close to each other, so most deltas take a single byte and runs of consecutive ids compress further when the
+ * encoded form is deflated.
+ */
+public final class CompressedIdSet
+{
+    private static final CompressedIdSet EMPTY = new CompressedIdSet(new long[0]);
+
+    private final long[] ids;
+
+    private CompressedIdSet(final long[] sortedDistinctIds)
+    {
+        this.ids = sortedDistinctIds;
+    }
+
+    public static CompressedIdSet empty()
+    {
+        return EMPTY;
+    }
+
+    public static CompressedIdSet of(final Collection<Long> ids)
+    {
+        return ids.isEmpty() ? EMPTY : new CompressedIdSet(sortedDistinct(ids.stream().mapToLong(Long::longValue).toArray()));
+    }
+
+    public CompressedIdSet union(final Collection<Long> otherIds)
+    {
+        if (otherIds.isEmpty())
+        {
+            return this;
+        }
+
+        final var merged = Arrays.copyOf(ids, ids.length + otherIds.size());
+        var position = ids.length;
+        for (final var id : otherIds)
+        {
+            merged[position++] = id;
+        }
+        return new CompressedIdSet(sortedDistinct(merged));
+    }
+
+    public CompressedIdSet union(final CompressedIdSet other)
+    {
+        return other.isEmpty() ? this : union(other.toList());
+    }
+
+    public boolean contains(final long id)
+    {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    public int size()
+    {
+        return ids.length;
+    }
+
+    public boolean isEmpty()
+    {
+        return ids.length == 0;
+    }
+
+    public List<Long> toList()
+    {
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    /**
+     * @return ids not smaller than {@code fromId}, in ascending order
+     */
+    public List<Long> tailList(final long fromId)
+    {
+        final var position = Arrays.binarySearch(ids, fromId);
+        final var from = position >= 0 ? position : -position - 1;
+        return Arrays.stream(ids, from, ids.length).boxed().toList();
+    }
+
+    public void writeTo(final DataOutput output) throws IOException
+    {
+        writeVarLong(output, ids.length);
+
+        var previousId = -1L;
+        for (final var id : ids)
+        {
+            writeVarLong(output, id - previousId);
+            previousId = id;
+        }
+    }
+
+    /**
+     * @param maxSize upper bound of the number of ids, guards against sets that do not come from {@link #writeTo(DataOutput)}
+     * @throws IllegalArgumentException when the input does not contain a valid set
+     */
+    public static CompressedIdSet readFrom(final DataInput input, final int maxSize) throws IOException
+    {
+        final var size = readVarLong(input);
+        if (size < 0 || size > maxSize)
+        {
+            throw new IllegalArgumentException("Invalid id set size: %s.".formatted(size));
+        }
+
+        final var ids = new long[(int) size];
+        var previousId = -1L;
+        for (int index = 0; index < size; index++)
+        {
+            final var delta = readVarLong(input);
+            if (delta <= 0)
+            {
+                throw new IllegalArgumentException("Ids of a set have to be strictly increasing.");
+            }
+            previousId += delta;
+            ids[index] = previousId;
+        }
+        return size == 0 ? EMPTY : new CompressedIdSet(ids);
+    }
+
+    /**
+     * @return deflated set encoded with URL safe base64, see {@link DeflatedBase64}
+     */
+    public String toEncodedString()
+    {
+        return DeflatedBase64.encode(this::writeTo);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the value was not created by {@link #toEncodedString()}
+     */
+    public static CompressedIdSet fromEncodedString(final String encoded, final int maxSize)
+    {
+        return DeflatedBase64.decode(encoded, input -> readFrom(input, maxSize));
+    }
+
+    private static long[] sortedDistinct(final long[] ids)
+    {
+        final var sorted = Arrays.stream(ids).sorted().distinct().toArray();
+        if (sorted.length > 0 && sorted[0] < 0)
+        {
+            throw new IllegalArgumentException("Node ids can not be negative: %s.".formatted(sorted[0]));
+        }
+        return sorted;
+    }
+
+    private static void writeVarLong(final DataOutput output, final long value) throws IOException
+    {
+        var remaining = value;
+        while ((remaining & ~0x7FL) != 0)
+        {
+            output.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        output.writeByte((int) remaining);
+    }
+
+    private static long readVarLong(final DataInput input) throws IOException
+    {
+        var value = 0L;
+        for (int shift = 0; shift < Long.SIZE; shift += 7)
+        {
+            final var currentByte = input.readByte();
+            value |= (long) (currentByte & 0x7F) << shift;
+            if ((currentByte & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable length number.");
+    }
+}
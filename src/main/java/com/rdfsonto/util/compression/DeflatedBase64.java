@@ -0,0 +1,66 @@
+package com.rdfsonto.util.compression;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+
+/**
+ * Binary values deflated and encoded with URL safe base64, short enough to be passed around as tokens.
+ */
+public final class DeflatedBase64
+{
+    private DeflatedBase64()
+    {
+    }
+
+    public static String encode(final Writer writer)
+    {
+        final var bytes = new ByteArrayOutputStream();
+        try (final var output = new DataOutputStream(new DeflaterOutputStream(bytes)))
+        {
+            writer.write(output);
+        }
+        catch (final IOException exception)
+        {
+            throw new UncheckedIOException(exception);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @throws IllegalArgumentException when the value was not created by {@link #encode(Writer)} or the reader does not accept it
+     */
+    public static <T> T decode(final String encoded, final Reader<T> reader)
+    {
+        final var bytes = Base64.getUrlDecoder().decode(encoded);
+        try (final var input = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(bytes))))
+        {
+            return reader.read(input);
+        }
+        catch (final IOException exception)
+        {
+            throw new IllegalArgumentException("Invalid encoded value.", exception);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Writer
+    {
+        void write(DataOutput output) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Reader<T>
+    {
+        T read(DataInput input) throws IOException;
+    }
+}
@@ -0,0 +1,70 @@
+package com.rdfsonto.util.compression;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Opens {@link ParallelGzipOutputStream}s on a pool of its own, compression of a large export does not take the threads of
+ * the common pool used by parallel streams and other requests.
+ */
+@Component
+public class GzipCompressor
+{
+    @Value("${export.compression.threads:4}")
+    private int threads;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void startPool()
+    {
+        pool = new ForkJoinPool(Math.max(1, threads));
+    }
+
+    @PreDestroy
+    void stopPool()
+    {
+        pool.shutdownNow();
+    }
+
+    public ParallelGzipOutputStream open(final OutputStream output)
+    {
+        return open(output, pool);
+    }
+
+    /**
+     * @param digest updated with the compressed bytes written to the target
+     */
+    public void compressGzip(final Path source, final Path target, final MessageDigest digest) throws IOException
+    {
+        compressGzip(source, target, digest, pool);
+    }
+
+    public static void compressGzip(final Path source, final Path target, final MessageDigest digest, final ForkJoinPool pool)
+        throws IOException
+    {
+        try (final var output = open(new DigestOutputStream(new FileOutputStream(target.toFile()), digest), pool))
+        {
+            Files.copy(source, output);
+        }
+    }
+
+    private static ParallelGzipOutputStream open(final OutputStream output, final ForkJoinPool pool)
+    {
+        return new ParallelGzipOutputStream(output, ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION, pool);
+    }
+}
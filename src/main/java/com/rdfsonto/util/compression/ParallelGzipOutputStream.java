@@ -0,0 +1,238 @@
+package com.rdfsonto.util.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+
+/**
+ * Gzip output stream which compresses blocks of the input in parallel. Every block becomes a complete gzip member and the
+ * members are written in the order of their blocks. A stream of concatenated members is a valid gzip file, it is read by
+ * {@link java.util.zip.GZIPInputStream} and the {@code gzip} tool as a single file.
+ * <p>
+ * At most two blocks per thread of the pool are held in memory, a writer faster than the compression is blocked until the
+ * oldest block is written. The stream is not thread safe.
+ */
+public class ParallelGzipOutputStream extends FilterOutputStream
+{
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    private static final byte[] MEMBER_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int MEMBER_TRAILER_SIZE = 8;
+
+    private final ForkJoinPool pool;
+    private final int blockSize;
+    private final int compressionLevel;
+    private final int maxPendingBlocks;
+    private final ArrayDeque<Future<byte[]>> pendingMembers = new ArrayDeque<>();
+
+    private byte[] block;
+    private int blockLength = 0;
+    private boolean anyMemberSubmitted = false;
+    private boolean finished = false;
+    private boolean closed = false;
+
+    public ParallelGzipOutputStream(final OutputStream output)
+    {
+        this(output, DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION, ForkJoinPool.commonPool());
+    }
+
+    public ParallelGzipOutputStream(final OutputStream output, final int blockSize, final int compressionLevel, final ForkJoinPool pool)
+    {
+        super(output);
+
+        if (blockSize <= 0)
+        {
+            throw new IllegalArgumentException("Block size has to be positive: %s.".formatted(blockSize));
+        }
+
+        this.pool = pool;
+        this.blockSize = blockSize;
+        this.compressionLevel = compressionLevel;
+        this.maxPendingBlocks = Math.max(2, 2 * pool.getParallelism());
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(final int value) throws IOException
+    {
+        ensureOpen();
+
+        block[blockLength++] = (byte) value;
+        if (blockLength == blockSize)
+        {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException
+    {
+        ensureOpen();
+        if ((offset | length) < 0 || length > bytes.length - offset)
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        var position = offset;
+        var remaining = length;
+        while (remaining > 0)
+        {
+            final var chunk = Math.min(remaining, blockSize - blockLength);
+            System.arraycopy(bytes, position, block, blockLength, chunk);
+            blockLength += chunk;
+            position += chunk;
+            remaining -= chunk;
+
+            if (blockLength == blockSize)
+            {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Compresses the buffered bytes as a separate, possibly short, member and writes all members to the underlying stream.
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        ensureOpen();
+
+        if (blockLength > 0)
+        {
+            submitBlock();
+        }
+        writePendingMembers(0);
+        out.flush();
+    }
+
+    /**
+     * Writes the rest of the compressed data without closing the underlying stream.
+     */
+    public void finish() throws IOException
+    {
+        if (finished)
+        {
+            return;
+        }
+
+        if (blockLength > 0 || !anyMemberSubmitted)
+        {
+            submitBlock();
+        }
+        writePendingMembers(0);
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+
+        closed = true;
+        try
+        {
+            finish();
+        }
+        finally
+        {
+            pendingMembers.forEach(member -> member.cancel(true));
+            pendingMembers.clear();
+            out.close();
+        }
+    }
+
+    private void submitBlock() throws IOException
+    {
+        final var input = block;
+        final var length = blockLength;
+
+        pendingMembers.add(pool.submit(() -> compressMember(input, length, compressionLevel)));
+        anyMemberSubmitted = true;
+
+        block = new byte[blockSize];
+        blockLength = 0;
+
+        writePendingMembers(maxPendingBlocks);
+    }
+
+    private void writePendingMembers(final int keptMembers) throws IOException
+    {
+        while (pendingMembers.size() > keptMembers)
+        {
+            try
+            {
+                out.write(pendingMembers.peek().get());
+                pendingMembers.poll();
+            }
+            catch (final InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a compressed block.");
+            }
+            catch (final ExecutionException exception)
+            {
+                throw new IOException("Failed to compress a block.", exception.getCause());
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException
+    {
+        if (closed || finished)
+        {
+            throw new IOException("Stream is already finished.");
+        }
+    }
+
+    static byte[] compressMember(final byte[] input, final int length, final int compressionLevel)
+    {
+        final var deflater = new Deflater(compressionLevel, true);
+        try
+        {
+            deflater.setInput(input, 0, length);
+            deflater.finish();
+
+            final var member = new ByteArrayOutputStream(MEMBER_HEADER.length + length / 2 + MEMBER_TRAILER_SIZE);
+            member.writeBytes(MEMBER_HEADER);
+
+            final var buffer = new byte[Math.max(1 << 12, Math.min(length, 1 << 16))];
+            while (!deflater.finished())
+            {
+                final var compressed = deflater.deflate(buffer);
+                member.write(buffer, 0, compressed);
+            }
+
+            final var checksum = new CRC32();
+            checksum.update(input, 0, length);
+
+            final var trailer = Arrays.copyOf(littleEndian((int) checksum.getValue()), MEMBER_TRAILER_SIZE);
+            System.arraycopy(littleEndian(length), 0, trailer, Integer.BYTES, Integer.BYTES);
+            member.writeBytes(trailer);
+
+            return member.toByteArray();
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    private static byte[] littleEndian(final int value)
+    {
+        return new byte[]{(byte) value, (byte) (value >>> 8), (byte) (value >>> 16), (byte) (value >>> 24)};
+    }
+}
@@ -0,0 +1,59 @@
+package com.rdfsonto.util.database;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Base64;
+import java.util.Map;
+
+import lombok.Builder;
+
+
+/**
+ * Position of a scan ordered by node id. Unlike {@link PaginationClause}, the next page starts right after the last
+ * returned id, so every page costs the same no matter how deep the scan is.
+ */
+@Builder(setterPrefix = "with", toBuilder = true)
+public record KeysetCursor(long lastId, int pageSize)
+{
+    public static final String LAST_ID_KEY = "lastId";
+    public static final String LIMIT_KEY = "limit";
+    private static final long INITIAL_ID = -1;
+    private static final String TOKEN_VERSION = "k1";
+    private static final String TOKEN_SEPARATOR = ":";
+
+    public static KeysetCursor first(final int pageSize)
+    {
+        return new KeysetCursor(INITIAL_ID, pageSize);
+    }
+
+    public KeysetCursor next(final long nextLastId)
+    {
+        return toBuilder().withLastId(nextLastId).build();
+    }
+
+    public Map<String, Object> toParameters()
+    {
+        return Map.of(LAST_ID_KEY, lastId, LIMIT_KEY, pageSize);
+    }
+
+    public String toToken()
+    {
+        final var token = String.join(TOKEN_SEPARATOR, TOKEN_VERSION, String.valueOf(lastId), String.valueOf(pageSize));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token was not created by {@link #toToken()}
+     */
+    public static KeysetCursor fromToken(final String token)
+    {
+        final var fragments = new String(Base64.getUrlDecoder().decode(token), UTF_8).split(TOKEN_SEPARATOR);
+
+        if (fragments.length != 3 || !TOKEN_VERSION.equals(fragments[0]))
+        {
+            throw new IllegalArgumentException("Invalid continuation token: %s.".formatted(token));
+        }
+
+        return new KeysetCursor(Long.parseLong(fragments[1]), Integer.parseInt(fragments[2]));
+    }
+}
@@ -0,0 +1,28 @@
+package com.rdfsonto.util.database;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import lombok.Builder;
+
+
+/**
+ * @param nextCursor {@code null} when the scan is finished
+ */
+@Builder(setterPrefix = "with")
+public record KeysetPage<T>(List<T> content, KeysetCursor nextCursor)
+{
+    public static <T> KeysetPage<T> of(final List<T> content, final KeysetCursor cursor, final ToLongFunction<T> idExtractor)
+    {
+        final var nextCursor = content.isEmpty() || content.size() < cursor.pageSize() ?
+            null :
+            cursor.next(idExtractor.applyAsLong(content.get(content.size() - 1)));
+
+        return new KeysetPage<>(content, nextCursor);
+    }
+
+    public boolean hasNext()
+    {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,101 @@
+package com.rdfsonto.util.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+
+/**
+ * Bloom filter over 64-bit keys with its bit array stored in a direct buffer. Its size is fixed up front from the expected
+ * number of keys and the accepted false positive rate, membership checks never miss an added key.
+ */
+public class OffHeapBloomFilter
+{
+    private static final long MAX_WORDS = Integer.MAX_VALUE / Long.BYTES;
+
+    private final LongBuffer words;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    public OffHeapBloomFilter(final long expectedKeys, final double falsePositiveRate)
+    {
+        final var keys = Math.max(1, expectedKeys);
+        final var optimalBits = (long) Math.ceil(-keys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        final var wordCount = Math.min(MAX_WORDS, Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE));
+
+        words = ByteBuffer.allocateDirect((int) wordCount * Long.BYTES).asLongBuffer();
+        bitCount = wordCount * Long.SIZE;
+        hashFunctions = (int) Math.max(1, Math.round((double) bitCount / keys * Math.log(2)));
+    }
+
+    public boolean add(final long key)
+    {
+        var changed = false;
+        for (int function = 0; function < hashFunctions; function++)
+        {
+            final var bit = bitIndex(key, function);
+            final var word = (int) (bit >>> 6);
+            final var current = words.get(word);
+            final var updated = current | (1L << bit);
+
+            if (updated != current)
+            {
+                words.put(word, updated);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    public boolean mightContain(final long key)
+    {
+        for (int function = 0; function < hashFunctions; function++)
+        {
+            final var bit = bitIndex(key, function);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void union(final OffHeapBloomFilter other)
+    {
+        if (bitCount != other.bitCount || hashFunctions != other.hashFunctions)
+        {
+            throw new IllegalArgumentException("Only Bloom filters with the same size and hash functions can be merged.");
+        }
+
+        for (int word = 0; word < words.capacity(); word++)
+        {
+            words.put(word, words.get(word) | other.words.get(word));
+        }
+    }
+
+    public long approximateSize()
+    {
+        var setBits = 0L;
+        for (int word = 0; word < words.capacity(); word++)
+        {
+            setBits += Long.bitCount(words.get(word));
+        }
+
+        if (setBits == bitCount)
+        {
+            return Long.MAX_VALUE;
+        }
+        return Math.round(-(double) bitCount / hashFunctions * Math.log(1 - (double) setBits / bitCount));
+    }
+
+    public long memoryUsageBytes()
+    {
+        return (long) words.capacity() * Long.BYTES;
+    }
+
+    private long bitIndex(final long key, final int function)
+    {
+        // Kirsch-Mitzenmacher double hashing derived from the two halves of the key.
+        final var combined = key + function * ((key >>> 32) | (key << 32) | 1);
+        return (combined & Long.MAX_VALUE) % bitCount;
+    }
+}
@@ -0,0 +1,156 @@
+package com.rdfsonto.util.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+
+/**
+ * Open addressing set of 64-bit keys stored in a direct buffer, so millions of entries cost 8-16 bytes each and no heap
+ * objects. Keys are usually {@link #hash(CharSequence)} of a string, which makes membership probabilistic: two strings
+ * with the same 64-bit hash are treated as equal.
+ */
+public class OffHeapLongHashSet
+{
+    private static final int MIN_CAPACITY = 1 << 10;
+    private static final int MAX_CAPACITY = 1 << 28;
+    private static final double MAX_LOAD_FACTOR = 0.6;
+    private static final long EMPTY = 0L;
+    private static final long ZERO_KEY_REPLACEMENT = 0x9E3779B97F4A7C15L;
+
+    private LongBuffer slots;
+    private int capacity;
+    private long size = 0;
+
+    public OffHeapLongHashSet(final long expectedSize)
+    {
+        capacity = capacityFor(expectedSize);
+        slots = allocate(capacity);
+    }
+
+    public boolean add(final long key)
+    {
+        if (size + 1 > capacity * MAX_LOAD_FACTOR)
+        {
+            grow();
+        }
+
+        final var added = insert(slots, capacity, normalize(key));
+        if (added)
+        {
+            size += 1;
+        }
+        return added;
+    }
+
+    public boolean contains(final long key)
+    {
+        final var normalized = normalize(key);
+        final var mask = capacity - 1;
+
+        for (int slot = (int) mix(normalized) & mask; ; slot = (slot + 1) & mask)
+        {
+            final var stored = slots.get(slot);
+            if (stored == EMPTY)
+            {
+                return false;
+            }
+            if (stored == normalized)
+            {
+                return true;
+            }
+        }
+    }
+
+    public long size()
+    {
+        return size;
+    }
+
+    public long memoryUsageBytes()
+    {
+        return (long) capacity * Long.BYTES;
+    }
+
+    public static long hash(final CharSequence value)
+    {
+        // FNV-1a over UTF-16 code units followed by the MurmurHash3 finalizer.
+        var hash = 0xcbf29ce484222325L;
+        for (int index = 0; index < value.length(); index++)
+        {
+            hash ^= value.charAt(index);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private void grow()
+    {
+        if (capacity >= MAX_CAPACITY)
+        {
+            throw new IllegalStateException("Off-heap set can not grow beyond %s entries.".formatted(MAX_CAPACITY));
+        }
+
+        final var newCapacity = capacity << 1;
+        final var newSlots = allocate(newCapacity);
+
+        for (int slot = 0; slot < capacity; slot++)
+        {
+            final var stored = slots.get(slot);
+            if (stored != EMPTY)
+            {
+                insert(newSlots, newCapacity, stored);
+            }
+        }
+
+        slots = newSlots;
+        capacity = newCapacity;
+    }
+
+    private static boolean insert(final LongBuffer target, final int targetCapacity, final long key)
+    {
+        final var mask = targetCapacity - 1;
+
+        for (int slot = (int) mix(key) & mask; ; slot = (slot + 1) & mask)
+        {
+            final var stored = target.get(slot);
+            if (stored == EMPTY)
+            {
+                target.put(slot, key);
+                return true;
+            }
+            if (stored == key)
+            {
+                return false;
+            }
+        }
+    }
+
+    private static LongBuffer allocate(final int capacity)
+    {
+        // Direct buffers are zeroed, which marks every slot as empty.
+        return ByteBuffer.allocateDirect(capacity * Long.BYTES).asLongBuffer();
+    }
+
+    private static int capacityFor(final long expectedSize)
+    {
+        final var required = (long) Math.ceil(Math.max(1, expectedSize) / MAX_LOAD_FACTOR);
+        final var capacity = Long.highestOneBit(Math.max(MIN_CAPACITY, required - 1)) << 1;
+
+        return (int) Math.min(MAX_CAPACITY, capacity);
+    }
+
+    private static long normalize(final long key)
+    {
+        return key == EMPTY ? ZERO_KEY_REPLACEMENT : key;
+    }
+
+    private static long mix(long value)
+    {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,106 @@
+package com.rdfsonto.util.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+
+/**
+ * Byte arrays kept outside of the heap in direct buffers, bounded by a memory budget. The least recently used values are
+ * evicted first once the budget is exceeded. Only the keys and the access order links stay on the heap.
+ */
+public class OffHeapLruStore<K>
+{
+    private final long memoryBudgetBytes;
+    private final LinkedHashMap<K, ByteBuffer> values = new LinkedHashMap<>(1 << 10, 0.75f, true);
+    private long memoryUsageBytes = 0;
+    private long evictions = 0;
+
+    public OffHeapLruStore(final long memoryBudgetBytes)
+    {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    public synchronized boolean put(final K key, final byte[] value)
+    {
+        if (value.length > memoryBudgetBytes)
+        {
+            return false;
+        }
+
+        remove(key);
+
+        final var buffer = ByteBuffer.allocateDirect(value.length);
+        buffer.put(value).flip();
+        values.put(key, buffer);
+        memoryUsageBytes += value.length;
+
+        final Iterator<Map.Entry<K, ByteBuffer>> eldest = values.entrySet().iterator();
+        while (memoryUsageBytes > memoryBudgetBytes && eldest.hasNext())
+        {
+            memoryUsageBytes -= eldest.next().getValue().capacity();
+            eldest.remove();
+            evictions += 1;
+        }
+        return true;
+    }
+
+    /**
+     * @return a copy of the stored value or {@code null} when the key is not present
+     */
+    public synchronized byte[] get(final K key)
+    {
+        final var buffer = values.get(key);
+        if (buffer == null)
+        {
+            return null;
+        }
+
+        final var value = new byte[buffer.capacity()];
+        buffer.get(0, value);
+        return value;
+    }
+
+    public synchronized boolean remove(final K key)
+    {
+        final var removed = values.remove(key);
+        if (removed == null)
+        {
+            return false;
+        }
+
+        memoryUsageBytes -= removed.capacity();
+        return true;
+    }
+
+    public synchronized void removeIf(final Predicate<K> predicate)
+    {
+        final var entries = values.entrySet().iterator();
+        while (entries.hasNext())
+        {
+            final var entry = entries.next();
+            if (predicate.test(entry.getKey()))
+            {
+                memoryUsageBytes -= entry.getValue().capacity();
+                entries.remove();
+            }
+        }
+    }
+
+    public synchronized int size()
+    {
+        return values.size();
+    }
+
+    public synchronized long memoryUsageBytes()
+    {
+        return memoryUsageBytes;
+    }
+
+    public synchronized long evictions()
+    {
+        return evictions;
+    }
+}
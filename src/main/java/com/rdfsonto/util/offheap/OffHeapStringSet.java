@@ -0,0 +1,244 @@
+package com.rdfsonto.util.offheap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.function.Consumer;
+
+
+/**
+ * Exact set of strings kept outside of the heap. Slots hold the 64-bit hash of a string and the offset of its UTF-8 bytes
+ * in an off-heap arena, so lookups compare hashes first and fall back to the stored bytes only to verify a match.
+ */
+public class OffHeapStringSet
+{
+    private static final int MIN_CAPACITY = 1 << 10;
+    private static final int MAX_CAPACITY = 1 << 28;
+    private static final double MAX_LOAD_FACTOR = 0.6;
+    private static final int MIN_ARENA_SIZE_BYTES = 64 * 1024;
+    private static final int MAX_ARENA_SIZE_BYTES = Integer.MAX_VALUE - 8;
+    private static final int EMPTY = 0;
+
+    private LongBuffer hashes;
+    private IntBuffer offsets;
+    private ByteBuffer arena;
+    private int capacity;
+    private int arenaSize = 0;
+    private long size = 0;
+
+    public OffHeapStringSet(final long expectedSize)
+    {
+        capacity = capacityFor(expectedSize);
+        hashes = ByteBuffer.allocateDirect(capacity * Long.BYTES).asLongBuffer();
+        offsets = ByteBuffer.allocateDirect(capacity * Integer.BYTES).asIntBuffer();
+        arena = ByteBuffer.allocateDirect(MIN_ARENA_SIZE_BYTES);
+    }
+
+    public boolean add(final String value)
+    {
+        return add(OffHeapLongHashSet.hash(value), value, null);
+    }
+
+    /**
+     * Copies the entries of the other set with their stored hashes and bytes, without decoding them to strings.
+     */
+    public void addAll(final OffHeapStringSet other)
+    {
+        for (int slot = 0; slot < other.capacity; slot++)
+        {
+            final var offset = other.offsets.get(slot);
+            if (offset != EMPTY)
+            {
+                add(other.hashes.get(slot), null, other.readBytes(offset));
+            }
+        }
+    }
+
+    /**
+     * @param value   string to add, encoded only when it is stored or its hash matches a stored one
+     * @param encoded UTF-8 bytes of the value, when already known
+     */
+    private boolean add(final long hash, final String value, final byte[] encoded)
+    {
+        if (size + 1 > capacity * MAX_LOAD_FACTOR)
+        {
+            grow();
+        }
+
+        final var mask = capacity - 1;
+        var bytes = encoded;
+
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask)
+        {
+            final var offset = offsets.get(slot);
+            if (offset == EMPTY)
+            {
+                bytes = bytes == null ? value.getBytes(UTF_8) : bytes;
+                hashes.put(slot, hash);
+                offsets.put(slot, append(bytes));
+                size += 1;
+                return true;
+            }
+            if (hashes.get(slot) == hash)
+            {
+                bytes = bytes == null ? value.getBytes(UTF_8) : bytes;
+                if (matches(offset, bytes))
+                {
+                    return false;
+                }
+            }
+        }
+    }
+
+    public boolean contains(final String value)
+    {
+        final var hash = OffHeapLongHashSet.hash(value);
+        final var mask = capacity - 1;
+        byte[] bytes = null;
+
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask)
+        {
+            final var offset = offsets.get(slot);
+            if (offset == EMPTY)
+            {
+                return false;
+            }
+            if (hashes.get(slot) == hash)
+            {
+                // Strings are encoded only when the 64-bit hashes collide.
+                bytes = bytes == null ? value.getBytes(UTF_8) : bytes;
+                if (matches(offset, bytes))
+                {
+                    return true;
+                }
+            }
+        }
+    }
+
+    public void forEach(final Consumer<String> action)
+    {
+        for (int slot = 0; slot < capacity; slot++)
+        {
+            final var offset = offsets.get(slot);
+            if (offset != EMPTY)
+            {
+                action.accept(read(offset));
+            }
+        }
+    }
+
+    public long size()
+    {
+        return size;
+    }
+
+    public long memoryUsageBytes()
+    {
+        return (long) capacity * (Long.BYTES + Integer.BYTES) + arena.capacity();
+    }
+
+    private int append(final byte[] bytes)
+    {
+        final var required = (long) arenaSize + Integer.BYTES + bytes.length;
+        if (required > arena.capacity())
+        {
+            growArena(required);
+        }
+
+        final var position = arenaSize;
+        arena.putInt(position, bytes.length);
+        arena.put(position + Integer.BYTES, bytes);
+        arenaSize += Integer.BYTES + bytes.length;
+
+        // Offsets are shifted by one, so zero can mark an empty slot.
+        return position + 1;
+    }
+
+    private boolean matches(final int offset, final byte[] bytes)
+    {
+        final var position = offset - 1;
+        if (arena.getInt(position) != bytes.length)
+        {
+            return false;
+        }
+
+        for (int index = 0; index < bytes.length; index++)
+        {
+            if (arena.get(position + Integer.BYTES + index) != bytes[index])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String read(final int offset)
+    {
+        return new String(readBytes(offset), UTF_8);
+    }
+
+    private byte[] readBytes(final int offset)
+    {
+        final var position = offset - 1;
+        final var bytes = new byte[arena.getInt(position)];
+        arena.get(position + Integer.BYTES, bytes);
+        return bytes;
+    }
+
+    private void grow()
+    {
+        if (capacity >= MAX_CAPACITY)
+        {
+            throw new IllegalStateException("Off-heap set can not grow beyond %s entries.".formatted(MAX_CAPACITY));
+        }
+
+        final var newCapacity = capacity << 1;
+        final var newHashes = ByteBuffer.allocateDirect(newCapacity * Long.BYTES).asLongBuffer();
+        final var newOffsets = ByteBuffer.allocateDirect(newCapacity * Integer.BYTES).asIntBuffer();
+        final var mask = newCapacity - 1;
+
+        for (int slot = 0; slot < capacity; slot++)
+        {
+            final var offset = offsets.get(slot);
+            if (offset == EMPTY)
+            {
+                continue;
+            }
+
+            final var hash = hashes.get(slot);
+            var newSlot = (int) hash & mask;
+            while (newOffsets.get(newSlot) != EMPTY)
+            {
+                newSlot = (newSlot + 1) & mask;
+            }
+            newHashes.put(newSlot, hash);
+            newOffsets.put(newSlot, offset);
+        }
+
+        hashes = newHashes;
+        offsets = newOffsets;
+        capacity = newCapacity;
+    }
+
+    private void growArena(final long required)
+    {
+        if (required > MAX_ARENA_SIZE_BYTES)
+        {
+            throw new IllegalStateException("Off-heap set can not store more than %s bytes.".formatted(MAX_ARENA_SIZE_BYTES));
+        }
+
+        final var newArena = ByteBuffer.allocateDirect((int) Math.min(MAX_ARENA_SIZE_BYTES, Math.max(required, 2L * arena.capacity())));
+        newArena.put(0, arena, 0, arenaSize);
+        arena = newArena;
+    }
+
+    private static int capacityFor(final long expectedSize)
+    {
+        final var required = (long) Math.ceil(Math.max(1, expectedSize) / MAX_LOAD_FACTOR);
+        final var capacity = Long.highestOneBit(Math.max(MIN_CAPACITY, required - 1)) << 1;
+
+        return (int) Math.min(MAX_CAPACITY, capacity);
+    }
+}
@@ -1,6 +1,9 @@
 CREATE CONSTRAINT n10s_unique_uri FOR (r:Resource)
 REQUIRE r.uri IS UNIQUE;
 
+CREATE INDEX node_change_journal FOR (entry:NodeChangeJournal)
+ON (entry.projectId, entry.nodeId);
+
 CALL n10s.graphconfig.init({
 handleVocabUris:'KEEP',
 handleMultival:'OVERWRITE',
@@ -0,0 +1,102 @@
+package com.rdfsonto.classnode.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.rdfsonto.classnode.service.ClassNode;
+
+
+class NodeChangeBatchNeo4jDriverRepositoryTest
+{
+    @Test
+    void lastEventOnNodeDecidesItsRelationships()
+    {
+        // given
+        final var firstEvent = node(1L, Map.of(), Map.of(2L, List.of("A")));
+        final var secondEvent = node(1L, Map.of(), Map.of(3L, List.of("B")));
+        final var existing = Set.of(existingRelationship(10, 1, 2, "A"), existingRelationship(11, 1, 4, "C"));
+
+        // when
+        final var relationships = NodeChangeBatchNeo4jDriverRepository.resolveRelationships(List.of(firstEvent, secondEvent), List.of(1L, 1L), existing);
+
+        // then
+        assertThat(relationships).containsExactly(relationship(1, 3, "B"));
+    }
+
+    @Test
+    void laterEventOnOtherEndDecidesRelationshipBetweenChangedNodes()
+    {
+        // given
+        final var firstEvent = node(1L, Map.of(), Map.of(2L, List.of("A")));
+        final var secondEvent = node(2L, Map.of(), Map.of(1L, List.of("B")));
+
+        // when
+        final var relationships = NodeChangeBatchNeo4jDriverRepository.resolveRelationships(List.of(firstEvent, secondEvent), List.of(1L, 2L), Set.of());
+
+        // then
+        assertThat(relationships).containsExactly(relationship(2, 1, "B"));
+    }
+
+    @Test
+    void keepsOppositeRelationshipsDeclaredByLaterEvent()
+    {
+        // given
+        final var firstEvent = node(1L, Map.of(), Map.of(2L, List.of("A")));
+        final var secondEvent = node(2L, Map.of(1L, List.of("A")), Map.of(1L, List.of("B")));
+
+        // when
+        final var relationships = NodeChangeBatchNeo4jDriverRepository.resolveRelationships(List.of(firstEvent, secondEvent), List.of(1L, 2L), Set.of());
+
+        // then
+        assertThat(relationships).containsExactlyInAnyOrder(relationship(1, 2, "A"), relationship(2, 1, "B"));
+    }
+
+    @Test
+    void resolvesSelfLoopOnce()
+    {
+        // given
+        final var event = node(1L, Map.of(1L, List.of("A")), Map.of(1L, List.of("A")));
+        final var existing = Set.of(existingRelationship(10, 1, 1, "A"), existingRelationship(11, 1, 1, "B"));
+
+        // when
+        final var relationships = NodeChangeBatchNeo4jDriverRepository.resolveRelationships(List.of(event), List.of(1L), existing);
+
+        // then
+        assertThat(relationships).containsExactly(relationship(1, 1, "A"));
+    }
+
+    private static ClassNode node(final Long id, final Map<Long, List<String>> incomingNeighbours, final Map<Long, List<String>> outgoingNeighbours)
+    {
+        return ClassNode.builder()
+            .withId(id)
+            .withUri("http://example.com#node" + id)
+            .withClassLabels(List.of())
+            .withIncomingNeighbours(incomingNeighbours)
+            .withOutgoingNeighbours(outgoingNeighbours)
+            .build();
+    }
+
+    private static RelationshipVo existingRelationship(final long relationshipId, final long sourceId, final long destinationId, final String relationship)
+    {
+        return RelationshipVo.builder()
+            .withRelationshipId(relationshipId)
+            .withSourceId(sourceId)
+            .withDestinationId(destinationId)
+            .withRelationship(relationship)
+            .build();
+    }
+
+    private static RelationshipVo relationship(final long sourceId, final long destinationId, final String relationship)
+    {
+        return RelationshipVo.builder()
+            .withSourceId(sourceId)
+            .withDestinationId(destinationId)
+            .withRelationship(relationship)
+            .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.rdfsonto.classnode.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+
+class ClassNodeCacheTest
+{
+    private static final long PROJECT_ID = 1;
+    private static final long OFF_HEAP_BYTES = 1 << 20;
+
+    @Test
+    void refusesPutOfNodeInvalidatedWhileItWasLoaded()
+    {
+        // given
+        final var cache = new ClassNodeCache(16, 0);
+        final var generation = cache.generation(PROJECT_ID, 1);
+        cache.invalidate(PROJECT_ID, List.of(1L));
+
+        // when
+        cache.put(PROJECT_ID, node(1), generation);
+
+        // then
+        assertThat(cache.get(PROJECT_ID, 1)).isEmpty();
+    }
+
+    @Test
+    void acceptsPutWithCurrentGeneration()
+    {
+        // given
+        final var cache = new ClassNodeCache(16, 0);
+        cache.invalidate(PROJECT_ID, List.of(1L));
+        final var generation = cache.generation(PROJECT_ID, 1);
+
+        // when
+        cache.put(PROJECT_ID, node(1), generation);
+
+        // then
+        assertThat(cache.get(PROJECT_ID, 1)).contains(node(1));
+    }
+
+    @Test
+    void promotesEvictedNodeFromOffHeapTier()
+    {
+        // given
+        final var cache = new ClassNodeCache(1, OFF_HEAP_BYTES);
+        cache.put(PROJECT_ID, node(1), cache.generation(PROJECT_ID, 1));
+        cache.put(PROJECT_ID, node(2), cache.generation(PROJECT_ID, 2));
+
+        // when
+        final var promoted = cache.get(PROJECT_ID, 1);
+
+        // then
+        final var metrics = cache.getMetrics();
+        assertThat(promoted).contains(node(1));
+        assertThat(metrics.offHeapHits()).isEqualTo(1);
+        assertThat(metrics.heapEntries()).isEqualTo(1);
+        assertThat(cache.get(PROJECT_ID, 2)).contains(node(2));
+        assertThat(cache.getMetrics().offHeapHits()).isEqualTo(2);
+    }
+
+    @Test
+    void dropsEvictedNodeInvalidatedInOffHeapTier()
+    {
+        // given
+        final var cache = new ClassNodeCache(1, OFF_HEAP_BYTES);
+        cache.put(PROJECT_ID, node(1), cache.generation(PROJECT_ID, 1));
+        cache.put(PROJECT_ID, node(2), cache.generation(PROJECT_ID, 2));
+
+        // when
+        cache.invalidate(PROJECT_ID, List.of(1L));
+
+        // then
+        assertThat(cache.get(PROJECT_ID, 1)).isEmpty();
+        assertThat(cache.getMetrics().offHeapEntries()).isZero();
+    }
+
+    private static ClassNode node(final long id)
+    {
+        return ClassNode.builder()
+            .withId(id)
+            .withUri("http://example.com#node" + id)
+            .withClassLabels(List.of("Class"))
+            .withIncomingNeighbours(Map.of())
+            .withOutgoingNeighbours(Map.of())
+            .withProperties(Map.of("label", "node " + id))
+            .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.rdfsonto.classnode.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.rdfsonto.infrastructure.security.service.TokenSigner;
+import com.rdfsonto.util.compression.CompressedIdSet;
+
+
+class NeighbourhoodRingCursorTest
+{
+    @Test
+    void readsBackSignedToken()
+    {
+        // given
+        final var signer = new TokenSigner("secret");
+        final var cursor = NeighbourhoodRingCursor.first(10)
+            .next(10, List.of(11L, 12L))
+            .nextRing(CompressedIdSet.of(List.of(11L, 12L, 13L)))
+            .next(12, List.of(20L));
+
+        // when
+        final var token = signer.sign(cursor.toToken());
+        final var readCursor = NeighbourhoodRingCursor.fromToken(signer.verify(token));
+
+        // then
+        assertThat(readCursor.startNodeId()).isEqualTo(10);
+        assertThat(readCursor.distance()).isEqualTo(2);
+        assertThat(readCursor.lastSourceId()).isEqualTo(12);
+        assertThat(readCursor.visited().toList()).containsExactly(10L, 11L, 12L, 13L);
+        assertThat(readCursor.previousRing().toList()).containsExactly(11L, 12L, 13L);
+        assertThat(readCursor.currentRing().toList()).containsExactly(20L);
+    }
+
+    @Test
+    void rejectsForgedToken()
+    {
+        // given
+        final var signer = new TokenSigner("secret");
+        final var signedToken = signer.sign(NeighbourhoodRingCursor.first(10).toToken());
+        final var forgedCursor = NeighbourhoodRingCursor.afterRing(10, 1, CompressedIdSet.of(List.of(10L)), CompressedIdSet.of(List.of(99L)));
+        final var signature = signedToken.substring(signedToken.lastIndexOf('.'));
+
+        // when, then
+        assertThatThrownBy(() -> signer.verify(forgedCursor.toToken() + signature)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> signer.verify(forgedCursor.toToken())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenSigner("other secret").verify(signedToken)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,72 @@
+package com.rdfsonto.exportonto.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.junit.jupiter.api.Test;
+
+
+class ExportMapperTest
+{
+    @Test
+    void mapsPlainValueToStringLiteral()
+    {
+        // when
+        final var literal = ExportMapper.toLiteral("Pizza");
+
+        // then
+        assertThat(literal).isEqualTo(Values.literal("Pizza"));
+    }
+
+    @Test
+    void mapsLanguageTaggedValueToLanguageLiteral()
+    {
+        // when
+        final var english = ExportMapper.toLiteral("Pizza@en");
+        final var chinese = ExportMapper.toLiteral("Pizza@zh-Hant-TW");
+
+        // then
+        assertThat(english).isEqualTo(Values.literal("Pizza", "en"));
+        assertThat(chinese.getLabel()).isEqualTo("Pizza");
+        assertThat(chinese.getLanguage()).map(String::toLowerCase).isEqualTo(Optional.of("zh-hant-tw"));
+    }
+
+    @Test
+    void keepsValueWithAtSignWhichIsNotLanguageTag()
+    {
+        // when
+        final var email = ExportMapper.toLiteral("contact@example");
+        final var handle = ExportMapper.toLiteral("@pizza");
+
+        // then
+        assertThat(email).isEqualTo(Values.literal("contact@example"));
+        assertThat(handle).isEqualTo(Values.literal("@pizza"));
+    }
+
+    @Test
+    void mapsCustomTypedValueToTypedLiteral()
+    {
+        // when
+        final var literal = ExportMapper.toLiteral("12.5^^http://example.com/units#kilogram");
+
+        // then
+        assertThat(literal).isEqualTo(Values.literal("12.5", Values.iri("http://example.com/units#kilogram")));
+    }
+
+    @Test
+    void mapsNumericValuesToNumericLiterals()
+    {
+        // when
+        final var integer = ExportMapper.toLiteral(42L);
+        final var decimal = ExportMapper.toLiteral(4.2d);
+
+        // then
+        assertThat(integer.getDatatype()).isEqualTo(XSD.LONG);
+        assertThat(integer.longValue()).isEqualTo(42L);
+        assertThat(decimal.getDatatype()).isEqualTo(XSD.DOUBLE);
+        assertThat(decimal.doubleValue()).isEqualTo(4.2d);
+    }
+}
@@ -0,0 +1,214 @@
+package com.rdfsonto.exportonto.rest;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.rdfsonto.exportonto.service.SnapshotExport;
+
+
+class SnapshotDownloadWriterTest
+{
+    private static final int LENGTH = 100;
+
+    @TempDir
+    Path workspace;
+
+    private byte[] content;
+    private SnapshotExport snapshot;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        content = new byte[LENGTH];
+        for (int index = 0; index < LENGTH; index++)
+        {
+            content[index] = (byte) index;
+        }
+
+        final var snapshotPath = Files.write(workspace.resolve("snapshot.ttl.gz"), content);
+        snapshot = SnapshotExport.builder()
+            .withSnapshotPath(snapshotPath)
+            .withSnapshotTime(1_700_000_000_000L)
+            .withSnapshotHash("abc")
+            .withFileName("project")
+            .build();
+    }
+
+    @Test
+    void writesWholeFileWithoutRange() throws IOException
+    {
+        // given
+        final var request = request();
+        final var response = new MockHttpServletResponse();
+
+        // when
+        SnapshotDownloadWriter.write(snapshot, request, response);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(snapshot.eTag());
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWithNotModified() throws IOException
+    {
+        // given
+        final var request = request();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, snapshot.eTag());
+        final var response = new MockHttpServletResponse();
+
+        // when
+        SnapshotDownloadWriter.write(snapshot, request, response);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void writesSingleRange() throws IOException
+    {
+        // given
+        final var request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+        final var response = new MockHttpServletResponse();
+
+        // when
+        SnapshotDownloadWriter.write(snapshot, request, response);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/100");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 10, 20));
+    }
+
+    @Test
+    void coalescesOverlappingRanges() throws IOException
+    {
+        // given
+        final var request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-14,0-9,15-19");
+        final var response = new MockHttpServletResponse();
+
+        // when
+        SnapshotDownloadWriter.write(snapshot, request, response);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-19/100");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 0, 20));
+    }
+
+    @Test
+    void writesDisjointRangesAsMultipart() throws IOException
+    {
+        // given
+        final var request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=50-51,10-11");
+        final var response = new MockHttpServletResponse();
+
+        // when
+        SnapshotDownloadWriter.write(snapshot, request, response);
+
+        // then
+        final var body = new String(response.getContentAsByteArray(), US_ASCII);
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges");
+        assertThat(body.indexOf("bytes 10-11/100")).isGreaterThanOrEqualTo(0).isLessThan(body.indexOf("bytes 50-51/100"));
+    }
+
+    @Test
+    void writesWholeFileWhenRangesExceedFileLength() throws IOException
+    {
+        // given
+        final var request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-79,20-99");
+        final var response = new MockHttpServletResponse();
+
+        // when
+        SnapshotDownloadWriter.write(snapshot, request, response);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void ignoresInvalidRange() throws IOException
+    {
+        // given
+        final var request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=ten-twenty");
+        final var response = new MockHttpServletResponse();
+
+        // when
+        SnapshotDownloadWriter.write(snapshot, request, response);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws IOException
+    {
+        // given
+        final var request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=200-299");
+        final var response = new MockHttpServletResponse();
+
+        // when
+        SnapshotDownloadWriter.write(snapshot, request, response);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */100");
+    }
+
+    @Test
+    void writesRangeOnlyForMatchingIfRange() throws IOException
+    {
+        // given
+        final var matchingRequest = request();
+        matchingRequest.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        matchingRequest.addHeader(HttpHeaders.IF_RANGE, snapshot.eTag());
+        final var matchingResponse = new MockHttpServletResponse();
+
+        final var staleRequest = request();
+        staleRequest.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        staleRequest.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        final var staleResponse = new MockHttpServletResponse();
+
+        // when
+        SnapshotDownloadWriter.write(snapshot, matchingRequest, matchingResponse);
+        SnapshotDownloadWriter.write(snapshot, staleRequest, staleResponse);
+
+        // then
+        assertThat(matchingResponse.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(matchingResponse.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 0, 10));
+        assertThat(staleResponse.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(staleResponse.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    private static MockHttpServletRequest request()
+    {
+        return new MockHttpServletRequest("GET", "/snapshot");
+    }
+}
@@ -0,0 +1,123 @@
+package com.rdfsonto.exportonto.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.junit.jupiter.api.Test;
+
+
+class FanOutRDFHandlerTest
+{
+    @Test
+    void handsAllStatementsToEveryHandlerInOrder()
+    {
+        // given
+        final var statements = statements(1_001);
+        final var first = new StatementCollector();
+        final var second = new StatementCollector();
+        final var handler = new FanOutRDFHandler(List.of(first, second), 100, 2);
+
+        // when
+        handler.startRDF();
+        handler.handleNamespace("rdfs", RDFS.NAMESPACE);
+        statements.forEach(handler::handleStatement);
+        handler.endRDF();
+
+        // then
+        assertThat(first.getStatements()).containsExactlyElementsOf(statements);
+        assertThat(second.getStatements()).containsExactlyElementsOf(statements);
+        assertThat(first.getNamespaces()).containsEntry("rdfs", RDFS.NAMESPACE);
+    }
+
+    @Test
+    void failsWhenAnyHandlerFails()
+    {
+        // given
+        final var failing = new AbstractRDFHandler()
+        {
+            @Override
+            public void handleStatement(final Statement statement)
+            {
+                throw new RDFHandlerException("write failed");
+            }
+        };
+        final var handler = new FanOutRDFHandler(List.of(new StatementCollector(), failing), 10, 1);
+
+        // when, then
+        assertThatThrownBy(() -> {
+            handler.startRDF();
+            statements(1_000).forEach(handler::handleStatement);
+            handler.endRDF();
+        }).isInstanceOf(RDFHandlerException.class);
+    }
+
+    @Test
+    void closeStopsHandlersWhenProducerFails() throws InterruptedException
+    {
+        // given
+        final var handlerThread = new AtomicReference<Thread>();
+        final var started = new CountDownLatch(1);
+        final var ended = new AtomicBoolean();
+        final var target = new AbstractRDFHandler()
+        {
+            @Override
+            public void startRDF()
+            {
+                handlerThread.set(Thread.currentThread());
+                started.countDown();
+            }
+
+            @Override
+            public void endRDF()
+            {
+                ended.set(true);
+            }
+        };
+        final var handler = new FanOutRDFHandler(List.of(target), 10, 1);
+
+        // when
+        assertThatThrownBy(() -> {
+            try
+            {
+                handler.startRDF();
+                statements(25).forEach(handler::handleStatement);
+                started.await();
+                throw new RDFParseException("extraction failed");
+            }
+            finally
+            {
+                handler.close();
+            }
+        }).isInstanceOf(RDFParseException.class);
+
+        // then
+        handlerThread.get().join(5_000);
+        assertThat(handlerThread.get().isAlive()).isFalse();
+        assertThat(ended).isFalse();
+    }
+
+    private static List<Statement> statements(final int count)
+    {
+        return IntStream.range(0, count)
+            .mapToObj(index -> SimpleValueFactory.getInstance().createStatement(
+                Values.iri("http://example.com#node" + index),
+                RDF.TYPE,
+                RDFS.CLASS))
+            .toList();
+    }
+}
@@ -0,0 +1,235 @@
+package com.rdfsonto.exportonto.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.rdfsonto.classnode.service.UniqueUriIdHandler;
+import com.rdfsonto.classnode.service.UriRemoveUniquenessHandler;
+import com.rdfsonto.exportonto.database.ExportRepository;
+import com.rdfsonto.exportonto.database.NodeIdRange;
+import com.rdfsonto.prefix.service.PrefixMapping;
+import com.rdfsonto.prefix.service.PrefixNodeService;
+import com.rdfsonto.util.database.KeysetCursor;
+import com.rdfsonto.util.database.KeysetPage;
+
+
+class SegmentedSnapshotWriterTest
+{
+    private static final String PROJECT_LABEL = "project";
+    private static final long PROJECT_ID = 1;
+
+    @TempDir
+    Path workspace;
+
+    private final InMemoryExportRepository exportRepository = new InMemoryExportRepository();
+    private SegmentedSnapshotWriter writer;
+
+    @BeforeEach
+    void setUp()
+    {
+        writer = new SegmentedSnapshotWriter(exportRepository, new UriRemoveUniquenessHandler(new UniqueUriIdHandler()), new NoPrefixNodeService());
+        ReflectionTestUtils.setField(writer, "segmentNodes", 2);
+    }
+
+    @Test
+    void reusesUnchangedSegmentsAndRewritesChangedOnes() throws IOException
+    {
+        // given
+        for (long id = 1; id <= 6; id++)
+        {
+            exportRepository.put(id, RDFS.CLASS);
+        }
+        final var previous = workspace.resolve("previous.nt.gz");
+        writer.write(PROJECT_LABEL, PROJECT_ID, RDFFormat.NTRIPLES, null, Set.of(), previous);
+        final var previousIndex = index(previous);
+
+        exportRepository.put(3, RDF.PROPERTY);
+        exportRepository.requestedRanges.clear();
+        final var snapshot = workspace.resolve("snapshot.nt.gz");
+
+        // when
+        writer.write(PROJECT_LABEL, PROJECT_ID, RDFFormat.NTRIPLES, previous, Set.of(3L), snapshot);
+
+        // then
+        final var snapshotIndex = index(snapshot);
+        assertThat(ranges(previousIndex)).containsExactly(
+            new NodeIdRange(0, 2), new NodeIdRange(3, 4), new NodeIdRange(5, 6), new NodeIdRange(7, Long.MAX_VALUE));
+        assertThat(ranges(snapshotIndex)).isEqualTo(ranges(previousIndex));
+        assertThat(exportRepository.requestedRanges).containsExactly(new NodeIdRange(3, 4));
+
+        for (final int segment : List.of(0, 2, 3))
+        {
+            assertThat(bytes(snapshot, snapshotIndex.segments().get(segment)))
+                .isEqualTo(bytes(previous, previousIndex.segments().get(segment)));
+        }
+        assertThat(read(snapshot)).containsExactlyInAnyOrderElementsOf(exportRepository.allStatements());
+    }
+
+    @Test
+    void writesNewIdsPastTheLastSegmentIntoTheLastSegment() throws IOException
+    {
+        // given
+        for (long id = 1; id <= 4; id++)
+        {
+            exportRepository.put(id, RDFS.CLASS);
+        }
+        final var previous = workspace.resolve("previous.nt.gz");
+        writer.write(PROJECT_LABEL, PROJECT_ID, RDFFormat.NTRIPLES, null, Set.of(), previous);
+
+        exportRepository.put(1_000, RDFS.CLASS);
+        exportRepository.requestedRanges.clear();
+        final var snapshot = workspace.resolve("snapshot.nt.gz");
+
+        // when
+        writer.write(PROJECT_LABEL, PROJECT_ID, RDFFormat.NTRIPLES, previous, Set.of(1_000L), snapshot);
+
+        // then
+        assertThat(ranges(index(snapshot))).containsExactly(
+            new NodeIdRange(0, 2), new NodeIdRange(3, 4), new NodeIdRange(5, Long.MAX_VALUE));
+        assertThat(exportRepository.requestedRanges).containsExactly(new NodeIdRange(5, Long.MAX_VALUE));
+        assertThat(read(snapshot)).containsExactlyInAnyOrderElementsOf(exportRepository.allStatements());
+    }
+
+    @Test
+    void returnsHashOfWrittenSnapshot() throws IOException
+    {
+        // given
+        for (long id = 1; id <= 5; id++)
+        {
+            exportRepository.put(id, RDFS.CLASS);
+        }
+        final var previous = workspace.resolve("previous.nt.gz");
+        writer.write(PROJECT_LABEL, PROJECT_ID, RDFFormat.NTRIPLES, null, Set.of(), previous);
+        final var snapshot = workspace.resolve("snapshot.nt.gz");
+
+        // when
+        final var snapshotHash = writer.write(PROJECT_LABEL, PROJECT_ID, RDFFormat.NTRIPLES, previous, Set.of(2L), snapshot);
+
+        // then
+        assertThat(snapshotHash).isEqualTo(SnapshotHash.of(snapshot));
+    }
+
+    private static SnapshotIndex index(final Path snapshot)
+    {
+        return SnapshotIndex.read(SegmentedSnapshotWriter.indexPath(snapshot)).orElseThrow();
+    }
+
+    private static List<NodeIdRange> ranges(final SnapshotIndex index)
+    {
+        return index.segments().stream()
+            .map(segment -> new NodeIdRange(segment.minId(), segment.maxId()))
+            .toList();
+    }
+
+    private static byte[] bytes(final Path snapshot, final SnapshotIndex.Segment segment) throws IOException
+    {
+        final var offset = (int) segment.offset();
+        return Arrays.copyOfRange(Files.readAllBytes(snapshot), offset, offset + (int) segment.length());
+    }
+
+    private static Model read(final Path snapshot) throws IOException
+    {
+        try (final var input = new GZIPInputStream(Files.newInputStream(snapshot)))
+        {
+            return Rio.parse(input, "", RDFFormat.NTRIPLES);
+        }
+    }
+
+    private static class InMemoryExportRepository implements ExportRepository
+    {
+        private final TreeMap<Long, Statement> nodes = new TreeMap<>();
+        private final List<NodeIdRange> requestedRanges = new ArrayList<>();
+
+        void put(final long id, final IRI type)
+        {
+            nodes.put(id, SimpleValueFactory.getInstance().createStatement(Values.iri("http://example.com#node" + id), RDF.TYPE, type));
+        }
+
+        List<Statement> allStatements()
+        {
+            return List.copyOf(nodes.values());
+        }
+
+        @Override
+        public KeysetPage<Statement> exportAttributes(final long projectId, final long userId, final KeysetCursor cursor)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public KeysetPage<Statement> exportRelationships(final long projectId, final long userId, final KeysetCursor cursor)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<NodeIdRange> findNodeIdRange(final String projectLabel)
+        {
+            return nodes.isEmpty() ? Optional.empty() : Optional.of(new NodeIdRange(nodes.firstKey(), nodes.lastKey()));
+        }
+
+        @Override
+        public KeysetPage<Statement> exportNodes(final String projectLabel, final NodeIdRange range, final KeysetCursor cursor)
+        {
+            if (cursor.lastId() < range.minId())
+            {
+                requestedRanges.add(range);
+            }
+
+            final var nodeIds = nodes.subMap(Math.max(range.minId(), cursor.lastId() + 1), true, range.maxId(), true).keySet().stream()
+                .limit(cursor.pageSize())
+                .toList();
+
+            return KeysetPage.<Statement>builder()
+                .withContent(nodeIds.stream().map(nodes::get).toList())
+                .withNextCursor(KeysetPage.of(nodeIds, cursor, Long::longValue).nextCursor())
+                .build();
+        }
+    }
+
+    private static class NoPrefixNodeService implements PrefixNodeService
+    {
+        @Override
+        public Optional<PrefixMapping> findAll(final long projectId)
+        {
+            return Optional.empty();
+        }
+
+        @Override
+        public PrefixMapping save(final long projectId, final Map<String, String> prefixes)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(final long projectId)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.rdfsonto.exportonto.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+class SnapshotIndexTest
+{
+    @TempDir
+    Path workspace;
+
+    @Test
+    void readsWrittenIndex() throws IOException
+    {
+        // given
+        final var index = new SnapshotIndex("N-Triples", List.of(
+            new SnapshotIndex.Segment(0, 99, 0, 120),
+            new SnapshotIndex.Segment(100, Long.MAX_VALUE, 120, 80)));
+        final var indexFile = workspace.resolve("snapshot.nt.gz.idx");
+
+        // when
+        index.write(indexFile);
+
+        // then
+        assertThat(SnapshotIndex.read(indexFile)).contains(index);
+    }
+
+    @Test
+    void missingOrUnreadableIndexIsEmpty() throws IOException
+    {
+        // given
+        final var unreadable = workspace.resolve("unreadable.idx");
+        Files.write(unreadable, new byte[]{ 1, 0 });
+        final var otherVersion = workspace.resolve("other-version.idx");
+        Files.write(otherVersion, new byte[]{ 2 });
+
+        // when, then
+        assertThat(SnapshotIndex.read(workspace.resolve("missing.idx"))).isEmpty();
+        assertThat(SnapshotIndex.read(unreadable)).isEmpty();
+        assertThat(SnapshotIndex.read(otherVersion)).isEmpty();
+    }
+
+    @Test
+    void segmentContainsIdsWithinItsInclusiveRange()
+    {
+        // given
+        final var segment = new SnapshotIndex.Segment(10, 20, 0, 0);
+
+        // when, then
+        assertThat(segment.containsAny(new TreeSet<>(List.of(10L)))).isTrue();
+        assertThat(segment.containsAny(new TreeSet<>(List.of(20L)))).isTrue();
+        assertThat(segment.containsAny(new TreeSet<>(List.of(5L, 15L, 25L)))).isTrue();
+        assertThat(segment.containsAny(new TreeSet<>(List.of(9L, 21L)))).isFalse();
+        assertThat(segment.containsAny(new TreeSet<>())).isFalse();
+    }
+}
@@ -0,0 +1,92 @@
+package com.rdfsonto.importonto.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+
+class ParallelRDFStreamImporterTest
+{
+    private static final String TAG = "@1@2@";
+    private static final String HAS_PART = "http://example.com#hasPart";
+    private static final long CHUNK_SIZE_BYTES = 256;
+    private static final int CLASSES = 60;
+
+    @TempDir
+    Path workspace;
+
+    @Test
+    void producesSameOutputAsSequentialImporter() throws IOException
+    {
+        // given
+        final var input = Files.writeString(workspace.resolve("ontology.nt"), ontology());
+        final var sequentialDirectory = Files.createDirectory(workspace.resolve("sequential"));
+        final var parallelOutput = Files.createDirectory(workspace.resolve("parallel")).resolve(TAG + ".output");
+        final var parallelImporter = new ParallelRDFStreamImporter(4, CHUNK_SIZE_BYTES, ImportProgress.untracked(), PropertySetFactory::createDefault);
+
+        // when
+        final var sequentialResult = new RDFStreamImporter()
+            .getProcessedRdfFileForNeo4j(new FileSystemResource(input), sequentialDirectory + "/", TAG, RDFFormat.NTRIPLES);
+        final var parallelResult = parallelImporter.process(input, parallelOutput, TAG, RDFFormat.NTRIPLES);
+
+        // then
+        assertThat(Files.size(input)).isGreaterThan(10 * CHUNK_SIZE_BYTES);
+
+        final var sequentialModel = read(sequentialResult.processedFile());
+        final var parallelModel = read(parallelResult.processedFile());
+        assertThat(parallelModel).hasSameSizeAs(sequentialModel);
+        assertThat(Models.isomorphic(sequentialModel, parallelModel)).isTrue();
+
+        for (final var result : new PreProcessingResult[]{ sequentialResult, parallelResult })
+        {
+            assertThat(result.declaredProperties().contains(Values.iri(HAS_PART))).isTrue();
+            assertThat(result.undeclaredProperties().contains(Values.iri(HAS_PART))).isFalse();
+            assertThat(result.undeclaredProperties().contains(RDFS.LABEL)).isTrue();
+        }
+    }
+
+    /**
+     * The property is declared in the first chunk and used in all of them, the shared blank node is described on the first
+     * and the last line and every class points at its own blank node from the middle of the file.
+     */
+    private static String ontology()
+    {
+        final var ontology = new StringBuilder()
+            .append("<%s> <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <http://www.w3.org/2002/07/owl#ObjectProperty> .\n".formatted(HAS_PART))
+            .append("_:shared <http://www.w3.org/2000/01/rdf-schema#label> \"shared\" .\n");
+
+        for (int index = 0; index < CLASSES; index++)
+        {
+            final var node = "<http://example.com#Class%s>".formatted(index);
+            ontology.append("%s <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <http://www.w3.org/2000/01/rdf-schema#Class> .\n".formatted(node))
+                .append("%s <http://www.w3.org/2000/01/rdf-schema#label> \"Class %s\"@en .\n".formatted(node, index))
+                .append("%s <%s> <http://example.com#Class%s> .\n".formatted(node, HAS_PART, index + 1))
+                .append("%s <http://www.w3.org/2000/01/rdf-schema#seeAlso> _:shared .\n".formatted(node))
+                .append("%s <http://www.w3.org/2000/01/rdf-schema#comment> _:note%s .\n".formatted(node, CLASSES - 1 - index))
+                .append("_:note%s <http://www.w3.org/2000/01/rdf-schema#label> \"note %s\" .\n".formatted(index, index));
+        }
+
+        return ontology.append("_:shared <http://www.w3.org/2000/01/rdf-schema#comment> \"end\" .\n").toString();
+    }
+
+    private static Model read(final Path file) throws IOException
+    {
+        try (final var input = new FileInputStream(file.toFile()))
+        {
+            return Rio.parse(input, "", RDFFormat.NTRIPLES);
+        }
+    }
+}
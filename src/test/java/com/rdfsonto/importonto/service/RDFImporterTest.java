@@ -1,16 +1,59 @@
 package com.rdfsonto.importonto.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 
 class RDFImporterTest
 {
+    private static final String TAG = "@1@2@";
+    private static final String ONTOLOGY = """
+        @prefix ex: <http://example.com#> .
+        @prefix ext: <http://external.com#> .
+        @prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+
+        ex:Animal a rdfs:Class ; rdfs:label "Animal"@en .
+        ex:Dog a rdfs:Class ; rdfs:subClassOf ex:Animal ; rdfs:seeAlso ext:Wolf .
+        ex:Cat a rdfs:Class ; rdfs:subClassOf ex:Animal ; rdfs:comment [ rdfs:label "note" ] .
+        ex:Dog rdfs:label "Dog" , "Hund"@de .
+        ex:Cat rdfs:label "Cat" .
+        ex:Cat rdfs:label "Cat" .
+        """;
+
+    @TempDir
+    Path workspace;
 
     @Test
-    void prepareRDFFileToMergeIntoNeo4j()
+    void prepareRDFFileToMergeIntoNeo4j() throws IOException
     {
+        // given
+        final var input = workspace.resolve("ontology.ttl");
+        Files.writeString(input, ONTOLOGY);
+        final var inMemoryOutput = workspace.resolve("in-memory.ttl");
+        final var twoPassOutput = workspace.resolve("two-pass.ttl");
+
+        // when
+        new RDFImporter().prepareRDFFileToMergeIntoNeo4j(input.toUri().toURL(), inMemoryOutput, TAG, RDFFormat.TURTLE);
+        // A budget of a few statements forces the sorter to spill and merge several runs.
+        new RDFImporter().prepareRDFFileToMergeIntoNeo4j(input.toUri().toURL(), twoPassOutput, TAG, RDFFormat.TURTLE, 1_024);
+
+        // then
+        final var inMemoryModel = read(inMemoryOutput);
+        final var twoPassModel = read(twoPassOutput);
+        assertThat(twoPassModel).isNotEmpty();
+        assertThat(Models.isomorphic(inMemoryModel, twoPassModel)).isTrue();
     }
 
     @Test
@@ -32,4 +75,12 @@ class RDFImporterTest
     void handleObject()
     {
     }
+
+    private static Model read(final Path file) throws IOException
+    {
+        try (final var input = new FileInputStream(file.toFile()))
+        {
+            return Rio.parse(input, "", RDFFormat.TURTLE);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.rdfsonto.rdf4j;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.Values;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+
+class IriSetTest
+{
+    @ParameterizedTest
+    @EnumSource(IriSetType.class)
+    void mergesSetOfTheSameType(final IriSetType setType)
+    {
+        // given
+        final var first = setType.create(1_000);
+        final var second = setType.create(1_000);
+        iris(0, 500).forEach(first::add);
+        iris(250, 1_000).forEach(second::add);
+
+        // when
+        first.addAll(second);
+
+        // then
+        assertThat(iris(0, 1_000)).allMatch(first::contains);
+        if (setType != IriSetType.BLOOM_FILTER)
+        {
+            assertThat(first.size()).isEqualTo(1_000);
+            assertThat(first.contains(Values.iri("http://example.com#other"))).isFalse();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = IriSetType.class, names = { "HEAP", "OFF_HEAP" })
+    void mergesExactSetWithoutExcludedEntries(final IriSetType setType)
+    {
+        // given
+        final var target = setType.create(1_000);
+        final var other = setType.create(1_000);
+        final var excluded = setType.create(1_000);
+        iris(0, 500).forEach(other::add);
+        iris(0, 250).forEach(excluded::add);
+
+        // when
+        target.addAllExcept(other, excluded);
+
+        // then
+        assertThat(target.size()).isEqualTo(250);
+        assertThat(iris(250, 500)).allMatch(target::contains);
+        assertThat(iris(0, 250)).noneMatch(target::contains);
+    }
+
+    @Test
+    void mergesWholeApproximateSetIgnoringExcludedEntries()
+    {
+        // given
+        final var target = IriSetType.BLOOM_FILTER.create(1_000);
+        final var other = IriSetType.BLOOM_FILTER.create(1_000);
+        final var excluded = IriSetType.BLOOM_FILTER.create(1_000);
+        iris(0, 500).forEach(other::add);
+        iris(0, 250).forEach(excluded::add);
+
+        // when
+        target.addAllExcept(other, excluded);
+
+        // then
+        assertThat(iris(0, 500)).allMatch(target::contains);
+    }
+
+    @Test
+    void rejectsMergingApproximateSetIntoExactSet()
+    {
+        // given
+        final var exact = IriSetType.OFF_HEAP.create(16);
+        final var approximate = IriSetType.BLOOM_FILTER.create(16);
+        approximate.add(Values.iri("http://example.com#property"));
+
+        // when, then
+        assertThatThrownBy(() -> exact.addAll(approximate)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<IRI> iris(final int from, final int to)
+    {
+        return IntStream.range(from, to)
+            .mapToObj(index -> Values.iri("http://example.com#property" + index))
+            .toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.rdfsonto.util.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+
+class CompressedIdSetTest
+{
+    @Test
+    void keepsIdsSortedAndDistinct()
+    {
+        // given
+        final var ids = List.of(7L, 3L, 3L, 1_000_000_000_000L, 0L);
+
+        // when
+        final var set = CompressedIdSet.of(ids).union(List.of(5L, 7L));
+
+        // then
+        assertThat(set.toList()).containsExactly(0L, 3L, 5L, 7L, 1_000_000_000_000L);
+        assertThat(set.contains(5)).isTrue();
+        assertThat(set.contains(4)).isFalse();
+        assertThat(set.tailList(4)).containsExactly(5L, 7L, 1_000_000_000_000L);
+        assertThat(set.tailList(-1)).containsExactlyElementsOf(set.toList());
+    }
+
+    @Test
+    void readsBackEncodedSet()
+    {
+        // given
+        final var ids = LongStream.range(0, 10_000).map(id -> id * 3 + 100).boxed().toList();
+
+        // when
+        final var encoded = CompressedIdSet.of(ids).toEncodedString();
+        final var decoded = CompressedIdSet.fromEncodedString(encoded, ids.size());
+
+        // then
+        assertThat(decoded.toList()).containsExactlyElementsOf(ids);
+        assertThat(CompressedIdSet.fromEncodedString(CompressedIdSet.empty().toEncodedString(), 0).isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsSetsOverMaxSizeAndMalformedValues()
+    {
+        // given
+        final var encoded = CompressedIdSet.of(List.of(1L, 2L, 3L)).toEncodedString();
+
+        // when, then
+        assertThatThrownBy(() -> CompressedIdSet.fromEncodedString(encoded, 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompressedIdSet.fromEncodedString("not-a-set", 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompressedIdSet.of(List.of(-1L))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
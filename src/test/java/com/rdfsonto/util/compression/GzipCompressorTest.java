@@ -0,0 +1,51 @@
+package com.rdfsonto.util.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+class GzipCompressorTest
+{
+    @TempDir
+    Path workspace;
+
+    @Test
+    void compressesFileAndDigestsCompressedBytes() throws IOException, NoSuchAlgorithmException
+    {
+        // given
+        final var content = new byte[3 * ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE / 2];
+        new Random(7).nextBytes(content);
+        final var source = Files.write(workspace.resolve("source.ttl"), content);
+        final var target = workspace.resolve("source.ttl.gz");
+        final var digest = MessageDigest.getInstance("SHA-256");
+        final var pool = new ForkJoinPool(2);
+
+        // when
+        try
+        {
+            GzipCompressor.compressGzip(source, target, digest, pool);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        // then
+        try (final var input = new GZIPInputStream(Files.newInputStream(target)))
+        {
+            assertThat(input.readAllBytes()).isEqualTo(content);
+        }
+        assertThat(digest.digest()).isEqualTo(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(target)));
+    }
+}
@@ -0,0 +1,63 @@
+package com.rdfsonto.util.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+
+class ParallelGzipOutputStreamTest
+{
+    @Test
+    void producesGzipReadableAsSingleStream() throws IOException
+    {
+        // given
+        final var input = new byte[1_000_000];
+        new Random(7).nextBytes(input);
+        final var pool = new ForkJoinPool(4);
+        final var compressed = new ByteArrayOutputStream();
+
+        // when
+        try (final var output = new ParallelGzipOutputStream(compressed, 64 * 1024, Deflater.DEFAULT_COMPRESSION, pool))
+        {
+            output.write(input, 0, 10);
+            output.write(input[10]);
+            output.write(input, 11, input.length - 11);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        // then
+        assertThat(decompress(compressed.toByteArray())).isEqualTo(input);
+    }
+
+    @Test
+    void producesValidGzipForEmptyInput() throws IOException
+    {
+        // given
+        final var compressed = new ByteArrayOutputStream();
+
+        // when
+        new ParallelGzipOutputStream(compressed).close();
+
+        // then
+        assertThat(decompress(compressed.toByteArray())).isEmpty();
+    }
+
+    private static byte[] decompress(final byte[] compressed) throws IOException
+    {
+        try (final var input = new GZIPInputStream(new ByteArrayInputStream(compressed)))
+        {
+            return input.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.rdfsonto.util.offheap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+
+class OffHeapLongHashSetTest
+{
+    @Test
+    void containsAllAddedKeysAfterGrowing()
+    {
+        // given
+        final var set = new OffHeapLongHashSet(1);
+        final var keys = LongStream.range(0, 100_000).map(key -> key * 31).toArray();
+
+        // when
+        LongStream.of(keys).forEach(set::add);
+
+        // then
+        assertThat(set.size()).isEqualTo(keys.length);
+        assertThat(LongStream.of(keys).allMatch(set::contains)).isTrue();
+        assertThat(set.contains(1)).isFalse();
+    }
+
+    @Test
+    void doesNotAddDuplicatedKeys()
+    {
+        // given
+        final var set = new OffHeapLongHashSet(16);
+        final var key = OffHeapLongHashSet.hash("http://www.example.com#subject");
+
+        // when
+        final var firstAdd = set.add(key);
+        final var secondAdd = set.add(key);
+
+        // then
+        assertThat(firstAdd).isTrue();
+        assertThat(secondAdd).isFalse();
+        assertThat(set.size()).isEqualTo(1);
+    }
+}